@@ -66,6 +66,7 @@ import org.apache.ivy.plugins.repository.TransferEvent;
 import org.apache.ivy.plugins.repository.TransferListener;
 import org.apache.ivy.plugins.resolver.BasicResolver;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.trigger.AbstractTrigger;
 import org.apache.ivy.plugins.trigger.Trigger;
 import org.apache.ivy.util.DateUtil;
 import org.apache.ivy.util.HostUtil;
@@ -525,6 +526,31 @@ public class Ivy {
         }
     }
 
+    /**
+     * Resolves the dependencies of several modules, concurrently.
+     *
+     * @param mds
+     *            the descriptors of the modules to resolve
+     * @param options
+     *            the resolve options to use for each module, its resolve id is ignored
+     * @param threads
+     *            the maximum number of modules to resolve at the same time
+     * @return the reports of the resolves, by module descriptor
+     * @throws ParseException if the resolve of a module failed to parse a descriptor
+     * @throws IOException if the resolve of a module failed with an io problem
+     * @see ResolveEngine#resolve(Collection, ResolveOptions, int)
+     * @since 2.5.2
+     */
+    public Map<ModuleDescriptor, ResolveReport> resolve(Collection<ModuleDescriptor> mds,
+            ResolveOptions options, int threads) throws ParseException, IOException {
+        pushContext();
+        try {
+            return resolveEngine.resolve(mds, options, threads);
+        } finally {
+            popContext();
+        }
+    }
+
     // ///////////////////////////////////////////////////////////////////////
     // INSTALL
     // ///////////////////////////////////////////////////////////////////////
@@ -844,7 +870,8 @@ public class Ivy {
     private void postConfigure() {
         List<Trigger> triggers = settings.getTriggers();
         for (Trigger trigger : triggers) {
-            eventManager.addIvyListener(trigger, trigger.getEventFilter());
+            eventManager.addIvyListener(trigger, trigger.getEventFilter(),
+                trigger instanceof AbstractTrigger && ((AbstractTrigger) trigger).isAsync());
         }
 
         for (DependencyResolver resolver : settings.getResolvers()) {
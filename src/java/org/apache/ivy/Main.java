@@ -146,6 +146,9 @@ public final class Main {
                 .addOption(new OptionBuilder("overwriteMode").arg("overwriteMode")
                         .description("use given overwrite mode for retrieve")
                         .create())
+                .addOption(new OptionBuilder("linkMode").arg("linkMode")
+                        .description("use given link mode for retrieve")
+                        .create())
                 .addCategory("cache path options")
                 .addOption(
                     new OptionBuilder("cachepath")
@@ -395,6 +398,7 @@ public final class Main {
                         .setDestArtifactPattern(retrievePattern)
                         .setDestIvyPattern(ivyPattern)
                         .setOverwriteMode(line.getOptionValue("overwriteMode"))
+                        .setLinkMode(line.getOptionValue("linkMode"))
                         .setArtifactFilter(
                             FilterHelper.getArtifactTypeFilter(line.getOptionValues("types")))
                         .setMakeSymlinks(line.hasOption("symlink"))
@@ -92,6 +92,8 @@ public class IvyResolve extends IvyTask {
 
     private boolean checkIfChanged = true; // for backward compatibility
 
+    private boolean incremental = false;
+
     private List<IvyDependency> dependencies = new ArrayList<>();
 
     private List<IvyExclude> excludes = new ArrayList<>();
@@ -439,7 +441,8 @@ public class IvyResolve extends IvyTask {
                 .setArtifactFilter(FilterHelper.getArtifactTypeFilter(type)).setRevision(revision)
                 .setDate(getPubDate(pubdate, null)).setUseCacheOnly(useCacheOnly)
                 .setRefresh(refresh).setTransitive(transitive).setResolveMode(resolveMode)
-                .setResolveId(resolveId).setCheckIfChanged(checkIfChanged);
+                .setResolveId(resolveId).setCheckIfChanged(checkIfChanged)
+                .setIncremental(incremental);
     }
 
     public String getModule() {
@@ -513,4 +516,12 @@ public class IvyResolve extends IvyTask {
     public void setCheckIfChanged(boolean checkIfChanged) {
         this.checkIfChanged = checkIfChanged;
     }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
 }
@@ -0,0 +1,295 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.ant;
+
+import java.io.File;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.core.resolve.ResolveProcessException;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
+import org.apache.ivy.util.filter.FilterHelper;
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.DirectoryScanner;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.types.FileSet;
+
+import static org.apache.ivy.util.StringUtils.splitToArray;
+
+/**
+ * Resolves the dependencies of the modules described by a set of ivy files, concurrently.
+ * <p>
+ * Each module is resolved as by the resolve task with its default resolve id, the resolved
+ * report, descriptor and configurations of each module being available to the tasks using a
+ * resolve id or the organisation and module name of the module.
+ * </p>
+ */
+public class IvyResolveAll extends IvyTask {
+    private List<FileSet> ivyFileSets = new ArrayList<>();
+
+    private String conf = null;
+
+    private String type = null;
+
+    private boolean haltOnFailure = true;
+
+    private String failureProperty = null;
+
+    private boolean useCacheOnly = false;
+
+    private boolean transitive = true;
+
+    private boolean refresh = false;
+
+    private boolean useOrigin = false;
+
+    private String resolveMode = null;
+
+    private String log = ResolveOptions.LOG_DEFAULT;
+
+    private boolean checkIfChanged = true;
+
+    private boolean incremental = false;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public void addFileset(FileSet fs) {
+        ivyFileSets.add(fs);
+    }
+
+    @Override
+    public void doExecute() throws BuildException {
+        if (ivyFileSets.isEmpty()) {
+            throw new BuildException("at least one nested fileset of ivy files should be provided"
+                    + " in ivy resolveall");
+        }
+        if (!Arrays.asList(LogOptions.LOG_DEFAULT, LogOptions.LOG_DOWNLOAD_ONLY,
+            LogOptions.LOG_QUIET).contains(log)) {
+            throw new BuildException("invalid option for 'log': " + log
+                    + ". Available options are " + Arrays.asList(LogOptions.LOG_DEFAULT,
+                        LogOptions.LOG_DOWNLOAD_ONLY, LogOptions.LOG_QUIET));
+        }
+        Ivy ivy = getIvyInstance();
+        IvySettings settings = ivy.getSettings();
+        conf = getProperty(conf, settings, "ivy.configurations");
+        type = getProperty(type, settings, "ivy.resolve.default.type.filter");
+
+        Map<ModuleDescriptor, File> ivyFiles = new LinkedHashMap<>();
+        for (FileSet fs : ivyFileSets) {
+            DirectoryScanner ds = fs.getDirectoryScanner(getProject());
+            for (String ivyFileName : ds.getIncludedFiles()) {
+                File ivyFile = new File(ds.getBasedir(), ivyFileName);
+                try {
+                    ModuleDescriptor md = ModuleDescriptorParserRegistry.getInstance()
+                            .parseDescriptor(settings, ivyFile.toURI().toURL(),
+                                doValidate(settings));
+                    if (md.getResolvedModuleRevisionId().getRevision() == null) {
+                        md.setResolvedModuleRevisionId(ModuleRevisionId.newInstance(
+                            md.getModuleRevisionId(), Ivy.getWorkingRevision()));
+                    }
+                    ivyFiles.put(md, ivyFile);
+                } catch (ParseException e) {
+                    log(e.getMessage(), Project.MSG_ERR);
+                    throw new BuildException("syntax errors in ivy file " + ivyFile + ": " + e,
+                            e);
+                } catch (Exception e) {
+                    throw new BuildException("impossible to parse ivy file " + ivyFile + ": " + e,
+                            e);
+                }
+            }
+        }
+
+        Map<ModuleDescriptor, ResolveReport> reports;
+        try {
+            reports = ivy.resolve(ivyFiles.keySet(), getResolveOptions(settings), threads);
+        } catch (ParseException e) {
+            log(e.getMessage(), Project.MSG_ERR);
+            throw new BuildException("syntax errors in ivy file: " + e, e);
+        } catch (ResolveProcessException e) {
+            throw new BuildException("impossible to resolve dependencies:\n\t" + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new BuildException("impossible to resolve dependencies:\n\t" + e, e);
+        }
+
+        List<ModuleRevisionId> failed = new ArrayList<>();
+        for (ResolveReport report : reports.values()) {
+            if (report.hasError()) {
+                failed.add(report.getModuleDescriptor().getModuleRevisionId());
+            }
+            setResolved(report, report.getResolveId(), false);
+            setResolvedProperties(report, ivyFiles.get(report.getModuleDescriptor()), settings);
+        }
+        if (!failed.isEmpty()) {
+            if (failureProperty != null) {
+                getProject().setProperty(failureProperty, "true");
+            }
+            if (isHaltonfailure()) {
+                throw new BuildException("resolve failed for " + failed
+                        + " - see output for details");
+            }
+        }
+    }
+
+    private void setResolvedProperties(ResolveReport report, File ivyFile,
+            IvySettings settings) {
+        String resolveId = report.getResolveId();
+        ModuleDescriptor md = report.getModuleDescriptor();
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("ivy.organisation", md.getModuleRevisionId().getOrganisation());
+        properties.put("ivy.module", md.getModuleRevisionId().getName());
+        properties.put("ivy.revision", md.getResolvedModuleRevisionId().getRevision());
+        if (checkIfChanged) {
+            properties.put("ivy.deps.changed", String.valueOf(report.hasChanged()));
+        }
+        properties.put("ivy.resolved.configurations", mergeConfs(report.getConfigurations()));
+        if (ivyFile != null) {
+            properties.put("ivy.resolved.file", ivyFile.getAbsolutePath());
+        }
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            getProject().setProperty(property.getKey() + "." + resolveId, property.getValue());
+            settings.setVariable(property.getKey() + "." + resolveId, property.getValue());
+        }
+    }
+
+    private ResolveOptions getResolveOptions(IvySettings settings) {
+        if (useOrigin) {
+            settings.useDeprecatedUseOrigin();
+        }
+        return ((ResolveOptions) new ResolveOptions().setLog(log)).setConfs(splitToArray(conf))
+                .setValidate(doValidate(settings))
+                .setArtifactFilter(FilterHelper.getArtifactTypeFilter(type))
+                .setUseCacheOnly(useCacheOnly).setRefresh(refresh).setTransitive(transitive)
+                .setResolveMode(resolveMode).setCheckIfChanged(checkIfChanged)
+                .setIncremental(incremental);
+    }
+
+    public String getConf() {
+        return conf;
+    }
+
+    public void setConf(String conf) {
+        this.conf = conf;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public boolean isHaltonfailure() {
+        return haltOnFailure;
+    }
+
+    public void setHaltonfailure(boolean haltOnFailure) {
+        this.haltOnFailure = haltOnFailure;
+    }
+
+    public String getFailureProperty() {
+        return failureProperty;
+    }
+
+    public void setFailureProperty(String failureProperty) {
+        this.failureProperty = failureProperty;
+    }
+
+    public boolean isUseCacheOnly() {
+        return useCacheOnly;
+    }
+
+    public void setUseCacheOnly(boolean useCacheOnly) {
+        this.useCacheOnly = useCacheOnly;
+    }
+
+    public boolean isTransitive() {
+        return transitive;
+    }
+
+    public void setTransitive(boolean transitive) {
+        this.transitive = transitive;
+    }
+
+    public boolean isRefresh() {
+        return refresh;
+    }
+
+    public void setRefresh(boolean refresh) {
+        this.refresh = refresh;
+    }
+
+    public boolean isUseOrigin() {
+        return useOrigin;
+    }
+
+    public void setUseOrigin(boolean useOrigin) {
+        this.useOrigin = useOrigin;
+    }
+
+    public String getResolveMode() {
+        return resolveMode;
+    }
+
+    public void setResolveMode(String resolveMode) {
+        this.resolveMode = resolveMode;
+    }
+
+    public String getLog() {
+        return log;
+    }
+
+    public void setLog(String log) {
+        this.log = log;
+    }
+
+    public boolean getCheckIfChanged() {
+        return checkIfChanged;
+    }
+
+    public void setCheckIfChanged(boolean checkIfChanged) {
+        this.checkIfChanged = checkIfChanged;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
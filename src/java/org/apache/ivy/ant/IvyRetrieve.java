@@ -42,7 +42,12 @@ public class IvyRetrieve extends IvyPostResolveTask {
 
     private static final Collection<String> OVERWRITEMODE_VALUES = Arrays.asList(
         RetrieveOptions.OVERWRITEMODE_ALWAYS, RetrieveOptions.OVERWRITEMODE_NEVER,
-        RetrieveOptions.OVERWRITEMODE_NEWER, RetrieveOptions.OVERWRITEMODE_DIFFERENT);
+        RetrieveOptions.OVERWRITEMODE_NEWER, RetrieveOptions.OVERWRITEMODE_DIFFERENT,
+        RetrieveOptions.OVERWRITEMODE_CONTENT);
+
+    private static final Collection<String> LINKMODE_VALUES = Arrays.asList(
+        RetrieveOptions.LINKMODE_COPY, RetrieveOptions.LINKMODE_HARDLINK,
+        RetrieveOptions.LINKMODE_CLONE);
 
     private String pattern;
 
@@ -56,6 +61,8 @@ public class IvyRetrieve extends IvyPostResolveTask {
 
     private String overwriteMode = RetrieveOptions.OVERWRITEMODE_NEWER;
 
+    private String linkMode = RetrieveOptions.LINKMODE_COPY;
+
     private String pathId = null;
 
     private String setId = null;
@@ -102,7 +109,7 @@ public class IvyRetrieve extends IvyPostResolveTask {
             final RetrieveOptions retrieveOptions = (RetrieveOptions) new RetrieveOptions().setLog(getLog());
             retrieveOptions.setConfs(splitToArray(getConf())).setDestArtifactPattern(pattern)
                     .setDestIvyPattern(ivypattern).setArtifactFilter(artifactFilter)
-                    .setSync(sync).setOverwriteMode(getOverwriteMode())
+                    .setSync(sync).setOverwriteMode(getOverwriteMode()).setLinkMode(linkMode)
                     .setUseOrigin(isUseOrigin()).setMakeSymlinks(symlink)
                     .setResolveId(getResolveId())
                     .setMapper(mapper == null ? null : new MapperAdapter(mapper));
@@ -203,6 +210,26 @@ public class IvyRetrieve extends IvyPostResolveTask {
         return overwriteMode;
     }
 
+    /**
+     * Option to create hard links to the retrieved files, or to copy them letting the operating
+     * system clone them, instead of copying them.
+     *
+     * @param linkMode
+     *            one of <code>copy</code>, <code>hardlink</code> or <code>clone</code>
+     * @since 2.5.2
+     */
+    public void setLinkMode(String linkMode) {
+        if (!LINKMODE_VALUES.contains(linkMode)) {
+            throw new IllegalArgumentException("invalid linkMode value '" + linkMode + "'. "
+                    + "Valid values are " + LINKMODE_VALUES);
+        }
+        this.linkMode = linkMode;
+    }
+
+    public String getLinkMode() {
+        return linkMode;
+    }
+
     /**
      * Add a mapper to convert the file names.
      *
@@ -18,24 +18,18 @@
 package org.apache.ivy.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
-import java.util.StringTokenizer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.core.cache.ArtifactOrigin;
-import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.settings.IvyVariableContainer;
 import org.apache.ivy.core.settings.IvyVariableContainerImpl;
-import org.apache.ivy.util.Message;
-
-import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
 
 /**
  */
@@ -129,44 +123,8 @@ public final class IvyPatternHelper {
     public static String substitute(String pattern, String org, String module, String branch,
             String revision, String artifact, String type, String ext, String conf,
             ArtifactOrigin origin, Map<String, String> extraModuleAttributes, Map<String, String> extraArtifactAttributes) {
-        Map<String, Object> tokens = new HashMap<>();
-        if (extraModuleAttributes != null) {
-            for (Map.Entry<String, String> entry : extraModuleAttributes.entrySet()) {
-                String token = entry.getKey();
-                if (token.indexOf(':') > 0) {
-                    token = token.substring(token.indexOf(':') + 1);
-                }
-                tokens.put(token, new Validated(token, entry.getValue()));
-            }
-        }
-        if (extraArtifactAttributes != null) {
-            for (Map.Entry<String, String> entry : extraArtifactAttributes.entrySet()) {
-                String token = entry.getKey();
-                if (token.indexOf(':') > 0) {
-                    token = token.substring(token.indexOf(':') + 1);
-                }
-                tokens.put(token, new Validated(token, entry.getValue()));
-            }
-        }
-        tokens.put(ORGANISATION_KEY, org == null ? "" : new Validated(ORGANISATION_KEY, org));
-        tokens.put(ORGANISATION_KEY2, org == null ? "" : new Validated(ORGANISATION_KEY2, org));
-        tokens.put(ORGANISATION_PATH_KEY, org == null ? "" : org.replace('.', '/'));
-        tokens.put(MODULE_KEY, module == null ? "" : new Validated(MODULE_KEY, module));
-        tokens.put(BRANCH_KEY, branch == null ? "" : new Validated(BRANCH_KEY, branch));
-        tokens.put(REVISION_KEY, revision == null ? "" : new Validated(REVISION_KEY, revision));
-        tokens.put(ARTIFACT_KEY, new Validated(ARTIFACT_KEY, artifact == null ? module : artifact));
-        tokens.put(TYPE_KEY, type == null ? "jar" : new Validated(TYPE_KEY, type));
-        tokens.put(EXT_KEY, ext == null ? "jar" : new Validated(EXT_KEY, ext));
-        tokens.put(CONF_KEY, conf == null ? "default" : new Validated(CONF_KEY, conf));
-        if (origin == null) {
-            tokens.put(ORIGINAL_ARTIFACTNAME_KEY, new OriginalArtifactNameValue(org, module,
-                    branch, revision, artifact, type, ext, extraModuleAttributes,
-                    extraArtifactAttributes));
-        } else {
-            tokens.put(ORIGINAL_ARTIFACTNAME_KEY, new OriginalArtifactNameValue(origin));
-        }
-
-        return substituteTokens(pattern, tokens, false);
+        return IvyPatternTemplate.compile(pattern).substitute(org, module, branch, revision,
+            artifact, type, ext, conf, origin, extraModuleAttributes, extraArtifactAttributes);
     }
 
     // CheckStyle:ParameterNumber ON
@@ -221,117 +179,8 @@ public final class IvyPatternHelper {
         }
     }
 
-    // This is a cludge to reconcile different values passed to the method
     public static String substituteTokens(String pattern, Map<String, String> tokens) {
-        Map<String, Object> tokensCopy = new HashMap<>();
-        tokensCopy.putAll(tokens);
-        return substituteTokens(pattern, tokensCopy, true);
-    }
-
-    private static String substituteTokens(String pattern, Map<String, Object> tokens, boolean external) {
-        Map<String, Object> tokensCopy = external ? tokens : new HashMap<>(tokens);
-        if (tokensCopy.containsKey(ORGANISATION_KEY) && !tokensCopy.containsKey(ORGANISATION_KEY2)) {
-            tokensCopy.put(ORGANISATION_KEY2, tokensCopy.get(ORGANISATION_KEY));
-        }
-        if (tokensCopy.containsKey(ORGANISATION_KEY)
-                && !tokensCopy.containsKey(ORGANISATION_PATH_KEY)) {
-            String org = (String) tokensCopy.get(ORGANISATION_KEY);
-            tokensCopy.put(ORGANISATION_PATH_KEY, org == null ? "" : org.replace('.', '/'));
-        }
-
-        StringBuilder buffer = new StringBuilder();
-
-        StringBuffer optionalPart = null;
-        StringBuffer tokenBuffer = null;
-        boolean insideOptionalPart = false;
-        boolean insideToken = false;
-        boolean tokenSeen = false;
-        boolean tokenHadValue = false;
-
-        for (char ch : pattern.toCharArray()) {
-            int i = pattern.indexOf(ch);
-            switch (ch) {
-                case '(':
-                    if (insideOptionalPart) {
-                        throw new IllegalArgumentException(
-                                "invalid start of optional part at position " + i + " in pattern "
-                                        + pattern);
-                    }
-
-                    optionalPart = new StringBuffer();
-                    insideOptionalPart = true;
-                    tokenSeen = false;
-                    tokenHadValue = false;
-                    break;
-                case ')':
-                    if (!insideOptionalPart || insideToken) {
-                        throw new IllegalArgumentException(
-                                "invalid end of optional part at position " + i + " in pattern "
-                                        + pattern);
-                    }
-
-                    if (tokenHadValue) {
-                        buffer.append(optionalPart.toString());
-                    } else if (!tokenSeen) {
-                        buffer.append('(').append(optionalPart.toString()).append(')');
-                    }
-                    insideOptionalPart = false;
-                    break;
-                case '[':
-                    if (insideToken) {
-                        throw new IllegalArgumentException("invalid start of token at position "
-                                + i + " in pattern " + pattern);
-                    }
-
-                    tokenBuffer = new StringBuffer();
-                    insideToken = true;
-                    break;
-                case ']':
-                    if (!insideToken) {
-                        throw new IllegalArgumentException("invalid end of token at position " + i
-                                + " in pattern " + pattern);
-                    }
-
-                    String token = tokenBuffer.toString();
-                    Object tokenValue = tokensCopy.get(token);
-                    String value = (tokenValue == null) ? null : tokenValue.toString();
-                    if (insideOptionalPart) {
-                        tokenHadValue = !isNullOrEmpty(value);
-                        optionalPart.append(value);
-                    } else {
-                        if (value == null) { // the token wasn't set, it's kept as is
-                            value = "[" + token + "]";
-                        }
-                        buffer.append(value);
-                    }
-                    insideToken = false;
-                    tokenSeen = true;
-                    break;
-                default:
-                    if (insideToken) {
-                        tokenBuffer.append(ch);
-                    } else if (insideOptionalPart) {
-                        optionalPart.append(ch);
-                    } else {
-                        buffer.append(ch);
-                    }
-                    break;
-            }
-        }
-
-        if (insideToken) {
-            throw new IllegalArgumentException("last token hasn't been closed in pattern "
-                    + pattern);
-        }
-
-        if (insideOptionalPart) {
-            throw new IllegalArgumentException("optional part hasn't been closed in pattern "
-                    + pattern);
-        }
-
-        String afterTokenSubstitution = buffer.toString();
-        checkAgainstPathTraversal(pattern, afterTokenSubstitution);
-        return afterTokenSubstitution;
+        return IvyPatternTemplate.compile(pattern).substituteTokens(tokens);
     }
 
     public static String substituteVariable(String pattern, String variable, String value) {
@@ -404,94 +253,6 @@ public final class IvyPatternHelper {
         return sb.toString();
     }
 
-    /**
-     * This class returns the original name of the artifact 'on demand'. This is done to avoid
-     * having to read the cached datafile containing the original location of the artifact if we
-     * don't need it.
-     */
-    private static class OriginalArtifactNameValue {
-        // module properties
-        private String org;
-
-        private String moduleName;
-
-        private String branch;
-
-        private String revision;
-
-        private Map<String, String> extraModuleAttributes;
-
-        // artifact properties
-        private String artifactName;
-
-        private String artifactType;
-
-        private String artifactExt;
-
-        private Map<String, String> extraArtifactAttributes;
-
-        // cached origin;
-        private ArtifactOrigin origin;
-
-        public OriginalArtifactNameValue(String org, String moduleName, String branch,
-                String revision, String artifactName, String artifactType, String artifactExt,
-                Map<String, String> extraModuleAttributes, Map<String, String> extraArtifactAttributes) {
-            this.org = org;
-            this.moduleName = moduleName;
-            this.branch = branch;
-            this.revision = revision;
-            this.artifactName = artifactName;
-            this.artifactType = artifactType;
-            this.artifactExt = artifactExt;
-            this.extraModuleAttributes = extraModuleAttributes;
-            this.extraArtifactAttributes = extraArtifactAttributes;
-        }
-
-        /**
-         * @param origin ArtifactOrigin
-         */
-        public OriginalArtifactNameValue(ArtifactOrigin origin) {
-            this.origin = origin;
-        }
-
-        // Called by substituteTokens only if the original artifact name is needed
-        public String toString() {
-            if (origin == null) {
-                ModuleRevisionId revId = ModuleRevisionId.newInstance(org, moduleName, branch,
-                    revision, extraModuleAttributes);
-                Artifact artifact = new DefaultArtifact(revId, null, artifactName, artifactType,
-                        artifactExt, extraArtifactAttributes);
-
-                // TODO cache: see how we could know which actual cache manager to use, since this
-                // will fail when using a resolver in a chain with a specific cache manager
-                RepositoryCacheManager cacheManager = IvyContext.getContext().getSettings()
-                        .getResolver(revId).getRepositoryCacheManager();
-
-                origin = cacheManager.getSavedArtifactOrigin(artifact);
-
-                if (ArtifactOrigin.isUnknown(origin)) {
-                    Message.debug("no artifact origin found for " + artifact + " in "
-                            + cacheManager);
-                    return null;
-                }
-            }
-
-            if (ArtifactOrigin.isUnknown(origin)) {
-                return null;
-            }
-
-            // we assume that the original filename is the last part of the original file location
-            String location = origin.getLocation();
-            int lastPathIndex = location.lastIndexOf('/');
-            if (lastPathIndex == -1) {
-                lastPathIndex = location.lastIndexOf('\\');
-            }
-            int lastColonIndex = location.lastIndexOf('.');
-
-            return location.substring(lastPathIndex + 1, lastColonIndex);
-        }
-    }
-
     public static String getTokenRoot(String pattern) {
         int index = pattern.indexOf('[');
         if (index == -1) {
@@ -522,48 +283,4 @@ public final class IvyPatternHelper {
         return pattern.substring(startIndex + 1, endIndex);
     }
 
-    /**
-     * This class returns a captured value after validating it doesn't
-     * contain any path traversal sequence.
-     *
-     * <p>{@code toString}</p> will be invoked when the value is
-     * actually used as a token inside of a pattern passed to {@link
-     * #substituteTokens}.</p>
-     */
-    private static class Validated {
-        private final String tokenName, tokenValue;
-
-        private Validated(String tokenName, String tokenValue) {
-            this.tokenName = tokenName;
-            this.tokenValue = tokenValue;
-        }
-
-        @Override
-        public String toString() {
-            if (tokenValue != null && !tokenValue.isEmpty()) {
-                StringTokenizer tok = new StringTokenizer(tokenValue.replace("\\", "/"), "/");
-                while (tok.hasMoreTokens()) {
-                    if ("..".equals(tok.nextToken())) {
-                        throw new IllegalArgumentException("\'" + tokenName + "\' value " + tokenValue + " contains an illegal path sequence");
-                    }
-                }
-            }
-            return tokenValue;
-        }
-    }
-
-    private static void checkAgainstPathTraversal(String pattern, String afterTokenSubstitution) {
-        String root = getTokenRoot(pattern);
-        int rootLen = root.length(); // it is OK to have a token root containing .. sequences
-        if (root.endsWith("/") || root.endsWith("\\")) {
-            --rootLen;
-        }
-        String patternedPartWithNormalizedSlashes =
-            afterTokenSubstitution.substring(rootLen).replace("\\", "/");
-        if (patternedPartWithNormalizedSlashes.endsWith("/..")
-            || patternedPartWithNormalizedSlashes.indexOf("/../") >= 0) {
-            throw new IllegalArgumentException("path after token expansion contains an illegal sequence");
-        }
-    }
-
 }
@@ -0,0 +1,560 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.util.Message;
+
+import static org.apache.ivy.core.IvyPatternHelper.ARTIFACT_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.BRANCH_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.CONF_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.EXT_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.MODULE_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.ORGANISATION_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.ORGANISATION_KEY2;
+import static org.apache.ivy.core.IvyPatternHelper.ORGANISATION_PATH_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.ORIGINAL_ARTIFACTNAME_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.REVISION_KEY;
+import static org.apache.ivy.core.IvyPatternHelper.TYPE_KEY;
+import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
+
+/**
+ * A pattern parsed once into its literal parts, its tokens and its optional parts, so that its
+ * tokens can be substituted without parsing it again.
+ * <p>
+ * The templates are immutable and shared: {@link #compile(String)} returns the same template for
+ * a same pattern. The substitutions give the same results as the ones of
+ * {@link IvyPatternHelper}, which relies on the templates.
+ * </p>
+ *
+ * @since 2.5.2
+ */
+public final class IvyPatternTemplate {
+    // the compiled patterns are shared, the cache being cleared when it grows too large
+    private static final int MAX_CACHED = 1000;
+
+    private static final Map<String, IvyPatternTemplate> CACHE = new ConcurrentHashMap<>();
+
+    // the tokens known by the substitutions of module and artifact attributes
+    private static final String[] KEYS = {ORGANISATION_KEY, ORGANISATION_KEY2,
+            ORGANISATION_PATH_KEY, MODULE_KEY, BRANCH_KEY, REVISION_KEY, ARTIFACT_KEY, TYPE_KEY,
+            EXT_KEY, CONF_KEY, ORIGINAL_ARTIFACTNAME_KEY};
+
+    private static final int ORGANISATION = 0;
+
+    private static final int ORGANISATION2 = 1;
+
+    private static final int ORGANISATION_PATH = 2;
+
+    private static final int MODULE = 3;
+
+    private static final int BRANCH = 4;
+
+    private static final int REVISION = 5;
+
+    private static final int ARTIFACT = 6;
+
+    private static final int TYPE = 7;
+
+    private static final int EXT = 8;
+
+    private static final int CONF = 9;
+
+    private static final int ORIGINAL_ARTIFACTNAME = 10;
+
+    private static final int OTHER = -1;
+
+    private final String pattern;
+
+    private final Part[] parts;
+
+    // the length of the token root, which may contain '..' sequences
+    private final int rootLength;
+
+    private IvyPatternTemplate(String pattern, Part[] parts) {
+        this.pattern = pattern;
+        this.parts = parts;
+        String root = IvyPatternHelper.getTokenRoot(pattern);
+        rootLength = root.endsWith("/") || root.endsWith("\\") ? root.length() - 1
+                : root.length();
+    }
+
+    /**
+     * Returns the template of a pattern.
+     *
+     * @param pattern
+     *            the pattern to compile
+     * @return IvyPatternTemplate
+     * @throws IllegalArgumentException
+     *             if the tokens or optional parts of the pattern are not well formed
+     */
+    public static IvyPatternTemplate compile(String pattern) {
+        IvyPatternTemplate template = CACHE.get(pattern);
+        if (template == null) {
+            template = new IvyPatternTemplate(pattern, parse(pattern));
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            CACHE.put(pattern, template);
+        }
+        return template;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String substitute(ModuleRevisionId mrid) {
+        return substitute(mrid.getOrganisation(), mrid.getName(), mrid.getBranch(),
+            mrid.getRevision(), "ivy", "ivy", "xml", null, null,
+            mrid.getQualifiedExtraAttributes(), null);
+    }
+
+    public String substitute(Artifact artifact) {
+        return substitute(artifact.getModuleRevisionId(), artifact, null, null);
+    }
+
+    public String substitute(Artifact artifact, ArtifactOrigin origin) {
+        return substitute(artifact.getModuleRevisionId(), artifact, null, origin);
+    }
+
+    public String substitute(Artifact artifact, String conf) {
+        return substitute(artifact.getModuleRevisionId(), artifact, conf, null);
+    }
+
+    public String substitute(ModuleRevisionId mrid, Artifact artifact) {
+        return substitute(mrid, artifact, null, null);
+    }
+
+    public String substitute(ModuleRevisionId mrid, Artifact artifact, String conf,
+            ArtifactOrigin origin) {
+        return substitute(mrid.getOrganisation(), mrid.getName(), mrid.getBranch(),
+            mrid.getRevision(), artifact.getName(), artifact.getType(), artifact.getExt(), conf,
+            origin, mrid.getQualifiedExtraAttributes(), artifact.getQualifiedExtraAttributes());
+    }
+
+    // CheckStyle:ParameterNumber OFF
+    public String substitute(String org, String module, String branch, String revision,
+            String artifact, String type, String ext, String conf, ArtifactOrigin origin,
+            Map<String, String> extraModuleAttributes,
+            Map<String, String> extraArtifactAttributes) {
+        return substitute(new AttributeTokens(org, module, branch, revision, artifact, type, ext,
+                conf, origin, extraModuleAttributes, extraArtifactAttributes));
+    }
+
+    // CheckStyle:ParameterNumber ON
+
+    /**
+     * Substitutes the tokens of the pattern by the values of a map, the <code>organization</code>
+     * and <code>orgPath</code> tokens being derived from the <code>organisation</code> one when
+     * they are not in the map. The tokens which are not in the map are kept as is.
+     *
+     * @param tokens
+     *            the values of the tokens
+     * @return the substituted pattern
+     */
+    public String substituteTokens(Map<String, ?> tokens) {
+        return substitute(new MapTokens(tokens));
+    }
+
+    private String substitute(Tokens tokens) {
+        StringBuilder buffer = new StringBuilder(pattern.length() + 32);
+        for (Part part : parts) {
+            if (part.optional != null) {
+                int start = buffer.length();
+                String value = null;
+                for (Part optionalPart : part.optional) {
+                    if (optionalPart.token == null) {
+                        buffer.append(optionalPart.literal);
+                    } else {
+                        value = tokens.get(optionalPart);
+                        buffer.append(value);
+                    }
+                }
+                // the optional part is kept only if its last token has a value
+                if (isNullOrEmpty(value)) {
+                    buffer.setLength(start);
+                }
+            } else if (part.token != null) {
+                String value = tokens.get(part);
+                if (value == null) {
+                    // the token wasn't set, it's kept as is
+                    buffer.append('[').append(part.token).append(']');
+                } else {
+                    buffer.append(value);
+                }
+            } else {
+                buffer.append(part.literal);
+            }
+        }
+        String afterTokenSubstitution = buffer.toString();
+        checkAgainstPathTraversal(afterTokenSubstitution);
+        return afterTokenSubstitution;
+    }
+
+    private void checkAgainstPathTraversal(String afterTokenSubstitution) {
+        if (!afterTokenSubstitution.contains("..")) {
+            return;
+        }
+        String patternedPartWithNormalizedSlashes =
+            afterTokenSubstitution.substring(rootLength).replace("\\", "/");
+        if (patternedPartWithNormalizedSlashes.endsWith("/..")
+            || patternedPartWithNormalizedSlashes.contains("/../")) {
+            throw new IllegalArgumentException(
+                    "path after token expansion contains an illegal sequence");
+        }
+    }
+
+    private static Part[] parse(String pattern) {
+        List<Part> parts = new ArrayList<>();
+        List<Part> optionalParts = null;
+        StringBuilder literal = new StringBuilder();
+        StringBuilder optionalLiteral = null;
+        StringBuilder tokenBuffer = null;
+        boolean insideOptionalPart = false;
+        boolean insideToken = false;
+
+        for (char ch : pattern.toCharArray()) {
+            int i = pattern.indexOf(ch);
+            switch (ch) {
+                case '(':
+                    if (insideOptionalPart) {
+                        throw new IllegalArgumentException(
+                                "invalid start of optional part at position " + i + " in pattern "
+                                        + pattern);
+                    }
+                    optionalParts = new ArrayList<>();
+                    optionalLiteral = new StringBuilder();
+                    insideOptionalPart = true;
+                    break;
+                case ')':
+                    if (!insideOptionalPart || insideToken) {
+                        throw new IllegalArgumentException(
+                                "invalid end of optional part at position " + i + " in pattern "
+                                        + pattern);
+                    }
+                    if (optionalParts.isEmpty()) {
+                        // without token, the optional part is kept with its parentheses
+                        literal.append('(').append(optionalLiteral).append(')');
+                    } else {
+                        addLiteral(optionalParts, optionalLiteral);
+                        addLiteral(parts, literal);
+                        parts.add(new Part(optionalParts.toArray(new Part[optionalParts.size()])));
+                    }
+                    insideOptionalPart = false;
+                    break;
+                case '[':
+                    if (insideToken) {
+                        throw new IllegalArgumentException("invalid start of token at position "
+                                + i + " in pattern " + pattern);
+                    }
+                    tokenBuffer = new StringBuilder();
+                    insideToken = true;
+                    break;
+                case ']':
+                    if (!insideToken) {
+                        throw new IllegalArgumentException("invalid end of token at position " + i
+                                + " in pattern " + pattern);
+                    }
+                    if (insideOptionalPart) {
+                        addLiteral(optionalParts, optionalLiteral);
+                        optionalParts.add(new Part(tokenBuffer.toString()));
+                    } else {
+                        addLiteral(parts, literal);
+                        parts.add(new Part(tokenBuffer.toString()));
+                    }
+                    insideToken = false;
+                    break;
+                default:
+                    if (insideToken) {
+                        tokenBuffer.append(ch);
+                    } else if (insideOptionalPart) {
+                        optionalLiteral.append(ch);
+                    } else {
+                        literal.append(ch);
+                    }
+                    break;
+            }
+        }
+
+        if (insideToken) {
+            throw new IllegalArgumentException("last token hasn't been closed in pattern "
+                    + pattern);
+        }
+
+        if (insideOptionalPart) {
+            throw new IllegalArgumentException("optional part hasn't been closed in pattern "
+                    + pattern);
+        }
+        addLiteral(parts, literal);
+        return parts.toArray(new Part[parts.size()]);
+    }
+
+    private static void addLiteral(List<Part> parts, StringBuilder literal) {
+        if (literal.length() > 0) {
+            parts.add(new Part(literal.toString(), null));
+            literal.setLength(0);
+        }
+    }
+
+    private static int getKey(String token) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(token)) {
+                return i;
+            }
+        }
+        return OTHER;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * A part of a pattern: a literal text, a token, or an optional part made of literal texts and
+     * tokens.
+     */
+    private static final class Part {
+        private final String literal;
+
+        private final String token;
+
+        private final int key;
+
+        private final Part[] optional;
+
+        private Part(String literal, Part[] optional) {
+            this.literal = literal;
+            this.token = null;
+            this.key = OTHER;
+            this.optional = optional;
+        }
+
+        private Part(String token) {
+            this.literal = null;
+            this.token = token;
+            this.key = getKey(token);
+            this.optional = null;
+        }
+
+        private Part(Part[] optional) {
+            this(null, optional);
+        }
+    }
+
+    /**
+     * The values of the tokens of a substitution.
+     */
+    private interface Tokens {
+        /**
+         * @return the value of the token, or <code>null</code> if it has no value
+         */
+        String get(Part token);
+    }
+
+    private static final class MapTokens implements Tokens {
+        private final Map<String, ?> tokens;
+
+        private MapTokens(Map<String, ?> tokens) {
+            this.tokens = tokens;
+        }
+
+        public String get(Part token) {
+            Object value = tokens.get(token.token);
+            if (value == null && !tokens.containsKey(token.token)
+                    && tokens.containsKey(ORGANISATION_KEY)) {
+                if (token.key == ORGANISATION2) {
+                    value = tokens.get(ORGANISATION_KEY);
+                } else if (token.key == ORGANISATION_PATH) {
+                    String org = (String) tokens.get(ORGANISATION_KEY);
+                    value = org == null ? "" : org.replace('.', '/');
+                }
+            }
+            return value == null ? null : value.toString();
+        }
+    }
+
+    private static final class AttributeTokens implements Tokens {
+        // module properties
+        private final String org;
+
+        private final String module;
+
+        private final String branch;
+
+        private final String revision;
+
+        private final Map<String, String> extraModuleAttributes;
+
+        // artifact properties
+        private final String artifact;
+
+        private final String type;
+
+        private final String ext;
+
+        private final Map<String, String> extraArtifactAttributes;
+
+        private final String conf;
+
+        private final ArtifactOrigin origin;
+
+        // CheckStyle:ParameterNumber OFF
+        private AttributeTokens(String org, String module, String branch, String revision,
+                String artifact, String type, String ext, String conf, ArtifactOrigin origin,
+                Map<String, String> extraModuleAttributes,
+                Map<String, String> extraArtifactAttributes) {
+            this.org = org;
+            this.module = module;
+            this.branch = branch;
+            this.revision = revision;
+            this.artifact = artifact;
+            this.type = type;
+            this.ext = ext;
+            this.conf = conf;
+            this.origin = origin;
+            this.extraModuleAttributes = extraModuleAttributes;
+            this.extraArtifactAttributes = extraArtifactAttributes;
+        }
+
+        // CheckStyle:ParameterNumber ON
+
+        public String get(Part token) {
+            switch (token.key) {
+                case ORGANISATION:
+                case ORGANISATION2:
+                    return org == null ? "" : validate(token.token, org);
+                case ORGANISATION_PATH:
+                    return org == null ? "" : org.replace('.', '/');
+                case MODULE:
+                    return module == null ? "" : validate(token.token, module);
+                case BRANCH:
+                    return branch == null ? "" : validate(token.token, branch);
+                case REVISION:
+                    return revision == null ? "" : validate(token.token, revision);
+                case ARTIFACT:
+                    return validate(token.token, artifact == null ? module : artifact);
+                case TYPE:
+                    return type == null ? "jar" : validate(token.token, type);
+                case EXT:
+                    return ext == null ? "jar" : validate(token.token, ext);
+                case CONF:
+                    return conf == null ? "default" : validate(token.token, conf);
+                case ORIGINAL_ARTIFACTNAME:
+                    return getOriginalArtifactName();
+                default:
+                    return validate(token.token, getExtraAttribute(token.token));
+            }
+        }
+
+        /**
+         * Returns the original name of the artifact 'on demand'. This is done to avoid having to
+         * read the cached datafile containing the original location of the artifact if we don't
+         * need it.
+         */
+        private String getOriginalArtifactName() {
+            ArtifactOrigin origin = this.origin;
+            if (origin == null) {
+                ModuleRevisionId revId = ModuleRevisionId.newInstance(org, module, branch,
+                    revision, extraModuleAttributes);
+                Artifact artifact = new DefaultArtifact(revId, null, this.artifact, type, ext,
+                        extraArtifactAttributes);
+
+                // TODO cache: see how we could know which actual cache manager to use, since this
+                // will fail when using a resolver in a chain with a specific cache manager
+                RepositoryCacheManager cacheManager = IvyContext.getContext().getSettings()
+                        .getResolver(revId).getRepositoryCacheManager();
+
+                origin = cacheManager.getSavedArtifactOrigin(artifact);
+
+                if (ArtifactOrigin.isUnknown(origin)) {
+                    Message.debug("no artifact origin found for " + artifact + " in "
+                            + cacheManager);
+                    return null;
+                }
+            }
+
+            if (ArtifactOrigin.isUnknown(origin)) {
+                return null;
+            }
+
+            // we assume that the original filename is the last part of the original file location
+            String location = origin.getLocation();
+            int lastPathIndex = location.lastIndexOf('/');
+            if (lastPathIndex == -1) {
+                lastPathIndex = location.lastIndexOf('\\');
+            }
+            int lastColonIndex = location.lastIndexOf('.');
+
+            return location.substring(lastPathIndex + 1, lastColonIndex);
+        }
+
+        /**
+         * Returns the value of the last extra attribute named as the token, with or without a
+         * namespace prefix, the artifact attributes overriding the module ones.
+         */
+        private String getExtraAttribute(String token) {
+            return getExtraAttribute(extraArtifactAttributes, token,
+                getExtraAttribute(extraModuleAttributes, token, null));
+        }
+
+        private static String getExtraAttribute(Map<String, String> attributes, String token,
+                String defaultValue) {
+            String value = defaultValue;
+            if (attributes != null) {
+                for (Map.Entry<String, String> entry : attributes.entrySet()) {
+                    String name = entry.getKey();
+                    int colonIndex = name.indexOf(':');
+                    if (colonIndex > 0 ? name.length() - colonIndex - 1 == token.length()
+                            && name.endsWith(token) : name.equals(token)) {
+                        value = entry.getValue();
+                    }
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Returns the value of a token after validating it doesn't contain any path traversal
+         * sequence.
+         */
+        private static String validate(String tokenName, String tokenValue) {
+            if (tokenValue != null && tokenValue.contains("..")) {
+                StringTokenizer tok = new StringTokenizer(tokenValue.replace("\\", "/"), "/");
+                while (tok.hasMoreTokens()) {
+                    if ("..".equals(tok.nextToken())) {
+                        throw new IllegalArgumentException("\'" + tokenName + "\' value "
+                                + tokenValue + " contains an illegal path sequence");
+                    }
+                }
+            }
+            return tokenValue;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.util.MessageLogger;
+import org.apache.ivy.util.MessageLoggerEngine;
+
+/**
+ * A bounded pool of daemon worker threads, running each submitted task in a copy of the
+ * {@link IvyContext} of the thread which submitted it, with the same current
+ * {@link MessageLogger}.
+ * <p>
+ * This makes it possible to hand parts of an Ivy operation over to other threads while keeping
+ * the same Ivy instance, resolve data and logging destination as the operating thread.
+ * </p>
+ *
+ * @see IvyThread
+ */
+public class IvyWorkerPool {
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param name
+     *            the name to use as prefix for the worker thread names
+     * @param size
+     *            the maximum number of worker threads, must be strictly positive
+     */
+    public IvyWorkerPool(final String name, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("worker pool size must be positive: " + size);
+        }
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    /**
+     * Submits a task to be run by one of the workers of this pool.
+     *
+     * @param <T>
+     *            the type of the task result
+     * @param task
+     *            the task to run
+     * @return a future giving access to the task result
+     */
+    public <T> Future<T> submit(final Callable<T> task) {
+        final IvyContext context = new IvyContext(IvyContext.getContext());
+        MessageLogger current = context.getMessageLogger();
+        final MessageLoggerEngine engine = current instanceof MessageLoggerEngine
+                ? (MessageLoggerEngine) current : null;
+        final MessageLogger logger = engine == null ? null : engine.peekLogger();
+        return executor.submit(new Callable<T>() {
+            public T call() throws Exception {
+                IvyContext.pushContext(context);
+                if (engine != null) {
+                    engine.pushLogger(logger);
+                }
+                try {
+                    return task.call();
+                } finally {
+                    if (engine != null) {
+                        engine.popLogger();
+                    }
+                    IvyContext.popContext();
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for the given future to complete and returns its result, rethrowing runtime
+     * exceptions and errors raised by the task as is.
+     *
+     * @param <T>
+     *            the type of the task result
+     * @param future
+     *            the future to wait for, usually returned by {@link #submit(Callable)}
+     * @return the result of the task
+     */
+    public static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // reset interrupt status
+            throw new RuntimeException("operation interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Stops this pool, interrupting running tasks and discarding the ones not started yet.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.apache.ivy.util.Message;
+
+/**
+ * A {@link CacheDataStore} keeping the data of a whole cache in a single binary file.
+ * <p>
+ * The file is a log of records, each one holding all the data stored under a key, the last record
+ * of a key replacing the previous ones. Records are checksummed and appended under a file lock, so
+ * an update is atomic even if other processes use the same cache: readers ignore records which
+ * are not completely written yet. The offsets of the last record of each key are indexed in
+ * memory, and the index is updated with the records appended by other processes when a key isn't
+ * found, and at most every {@link #REFRESH_INTERVAL} milliseconds otherwise.
+ * </p>
+ * <p>
+ * Loads don't lock the store: they look up a concurrent index and read the record with a
+ * positional read. Only appends, and the reopening of the file when it has been compacted or
+ * deleted, are serialized.
+ * </p>
+ * <p>
+ * When the store file doesn't exist yet, the ivydata files of the cache are imported in it. The
+ * log is compacted when it is opened if most of its records have been replaced.
+ * </p>
+ */
+final class BinaryCacheDataStore implements CacheDataStore {
+    /**
+     * Name of the store file, in the cache root.
+     */
+    static final String FILE_NAME = "ivydata.bin";
+
+    private static final int MAGIC = 0x49564442; // "IVDB"
+
+    private static final int VERSION = 2;
+
+    private static final int OBSOLETE_OFFSET = 8;
+
+    private static final int HEADER_LENGTH = OBSOLETE_OFFSET + 1;
+
+    private static final int RECORD_HEADER_LENGTH = 8;
+
+    private static final long COMPACTION_THRESHOLD = 1024 * 1024;
+
+    /**
+     * The maximum delay, in milliseconds, after which the records appended by other processes to
+     * keys already indexed are seen, as well as the compaction or the deletion of the file.
+     */
+    static final long REFRESH_INTERVAL = 1000;
+
+    /**
+     * Stores are shared by all the cache managers of the process using the same file, as file
+     * locks can't be held twice by the same process.
+     */
+    private static final Map<File, BinaryCacheDataStore> STORES = new HashMap<>();
+
+    // the number of cache managers using this store; guarded by STORES
+    private int users;
+
+    private final File file;
+
+    private final File root;
+
+    private final Pattern dataFilePattern;
+
+    // the open file, published for the loads; only changed with the lock on this store held
+    private volatile Log log;
+
+    // the time the file has last been checked for modifications by other processes
+    private volatile long refreshed;
+
+    private volatile long refreshInterval = REFRESH_INTERVAL;
+
+    private BinaryCacheDataStore(File root, String dataFilePattern) {
+        this.root = root;
+        this.file = new File(root, FILE_NAME);
+        this.dataFilePattern = toRegexp(dataFilePattern);
+    }
+
+    /**
+     * Returns the store of the given cache, opening it if necessary. Each call must be matched by
+     * a call to {@link #close()} once the store isn't used any more.
+     *
+     * @param root
+     *            the root directory of the cache
+     * @param dataFilePattern
+     *            the pattern of the ivydata files to import in a new store
+     * @return the store
+     */
+    static BinaryCacheDataStore getInstance(File root, String dataFilePattern) {
+        synchronized (STORES) {
+            File key = root.getAbsoluteFile();
+            BinaryCacheDataStore store = STORES.get(key);
+            if (store == null) {
+                store = new BinaryCacheDataStore(root, dataFilePattern);
+                STORES.put(key, store);
+            }
+            store.users++;
+            return store;
+        }
+    }
+
+    public Properties load(String key) {
+        Properties data = new Properties();
+        Log current = null;
+        while (true) {
+            try {
+                current = getLog();
+                Record record = current.index.get(key);
+                if (record == null && current.channel.size() > current.indexedLength) {
+                    // saved in the meantime by another process
+                    current = refresh(current);
+                    record = current.index.get(key);
+                }
+                if (record != null) {
+                    ByteBuffer buffer = ByteBuffer.allocate(record.length);
+                    readFully(current.channel, buffer, record.offset);
+                    decode(buffer.array(), RECORD_HEADER_LENGTH, data);
+                }
+                return data;
+            } catch (ClosedChannelException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    Message.warn("interrupted while reading cache data of " + key, e);
+                    return data;
+                }
+                // reopened by another thread, or closed by the interruption of a thread reading
+                // it, in which case it has to be reopened
+                synchronized (this) {
+                    if (log == current && log != null && !log.channel.isOpen()) {
+                        closeFile();
+                    }
+                }
+            } catch (IOException e) {
+                Message.warn("problem while reading cache data of " + key + " in " + file, e);
+                return data;
+            }
+        }
+    }
+
+    public synchronized void save(String key, Properties data, String description) {
+        try {
+            byte[] record = encode(key, data);
+            while (true) {
+                Log current = ensureOpen();
+                FileLock lock = current.channel.lock();
+                try {
+                    if (!isObsolete(current) && file.exists()) {
+                        readNewRecords(current);
+                        long offset = current.indexedLength;
+                        if (current.channel.size() > offset) {
+                            // left by a process which crashed while writing it
+                            current.channel.truncate(offset);
+                        }
+                        current.channel.write(ByteBuffer.wrap(record), offset);
+                        // the record is written before being published to the loads
+                        current.index.put(key, new Record(offset, record.length));
+                        current.indexedLength = offset + record.length;
+                        return;
+                    }
+                } finally {
+                    lock.release();
+                }
+                // compacted or deleted by another cache manager or process in the meantime
+                reopen();
+            }
+        } catch (IOException e) {
+            Message.warn("problem while saving cache data of " + key + " in " + file, e);
+        }
+    }
+
+    /**
+     * Releases this store, which is closed once all the cache managers which got it have released
+     * it.
+     */
+    public void close() {
+        synchronized (STORES) {
+            if (--users > 0) {
+                return;
+            }
+            STORES.remove(root.getAbsoluteFile());
+        }
+        synchronized (this) {
+            closeFile();
+        }
+    }
+
+    /**
+     * Sets the maximum delay after which the modifications made by other processes are seen.
+     *
+     * @param refreshInterval
+     *            the delay in milliseconds
+     */
+    void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Returns the open file, checking it for modifications by other processes if it hasn't been
+     * checked for {@link #refreshInterval} milliseconds.
+     */
+    private Log getLog() throws IOException {
+        Log current = log;
+        if (current != null && System.currentTimeMillis() - refreshed < refreshInterval) {
+            return current;
+        }
+        synchronized (this) {
+            current = ensureOpen();
+            if (System.currentTimeMillis() - refreshed < refreshInterval) {
+                return current;
+            }
+            return refresh(current);
+        }
+    }
+
+    // the methods below must be called with the lock on this store held
+
+    private Log ensureOpen() throws IOException {
+        return log == null ? open() : log;
+    }
+
+    private Log open() throws IOException {
+        root.mkdirs();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        Log current = new Log(raf);
+        try {
+            FileLock lock = current.channel.lock();
+            try {
+                if (current.channel.size() == 0 || !hasValidHeader(current)) {
+                    initialize(current);
+                } else if (!isObsolete(current)) {
+                    readNewRecords(current);
+                    if (needsCompaction(current)) {
+                        return compact(current);
+                    }
+                }
+            } finally {
+                if (lock.channel().isOpen()) {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+        if (isObsolete(current)) {
+            raf.close();
+            return open();
+        }
+        log = current;
+        refreshed = System.currentTimeMillis();
+        return current;
+    }
+
+    private Log reopen() throws IOException {
+        closeFile();
+        return open();
+    }
+
+    private void closeFile() {
+        if (log != null) {
+            try {
+                log.raf.close();
+            } catch (IOException e) {
+                Message.debug("problem while closing " + file, e);
+            }
+            log = null;
+        }
+    }
+
+    private boolean hasValidHeader(Log current) throws IOException {
+        if (current.channel.size() < HEADER_LENGTH) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(OBSOLETE_OFFSET);
+        readFully(current.channel, header, 0);
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private static boolean isObsolete(Log current) throws IOException {
+        ByteBuffer flag = ByteBuffer.allocate(1);
+        return current.channel.read(flag, OBSOLETE_OFFSET) == 1 && flag.get(0) != 0;
+    }
+
+    /**
+     * Checks whether records have been appended by other processes, or if the store has been
+     * replaced by a compacted one or deleted with the cache, and updates the index accordingly.
+     *
+     * @return the file to use from now on
+     */
+    private synchronized Log refresh(Log current) throws IOException {
+        if (log != current) {
+            // already reopened by another thread
+            return ensureOpen();
+        }
+        if (isObsolete(current) || current.channel.size() < current.indexedLength
+                || !file.exists()) {
+            return reopen();
+        }
+        readNewRecords(current);
+        refreshed = System.currentTimeMillis();
+        return current;
+    }
+
+    /**
+     * Indexes the complete records following the ones already indexed.
+     */
+    private void readNewRecords(Log current) throws IOException {
+        long size = current.channel.size();
+        long position = current.indexedLength;
+        if (size < position) {
+            current.index.clear();
+            position = HEADER_LENGTH;
+        }
+        while (position + RECORD_HEADER_LENGTH <= size) {
+            ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+            readFully(current.channel, recordHeader, position);
+            int length = recordHeader.getInt(0);
+            if (length < RECORD_HEADER_LENGTH || position + length > size) {
+                break;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            readFully(current.channel, buffer, position);
+            byte[] bytes = buffer.array();
+            if (checksum(bytes) != buffer.getInt(4)) {
+                break;
+            }
+            String key = decode(bytes, RECORD_HEADER_LENGTH, null);
+            current.index.put(key, new Record(position, length));
+            position += length;
+        }
+        current.indexedLength = position;
+    }
+
+    private void initialize(Log current) throws IOException {
+        current.channel.truncate(0);
+        current.channel.write(ByteBuffer.wrap(newHeader()), 0);
+        importDataFiles(current, root, "");
+        current.channel.force(false);
+    }
+
+    /**
+     * Imports the ivydata files found in the given directory and its sub directories.
+     */
+    private void importDataFiles(Log current, File dir, String path) throws IOException {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String key = path + child.getName();
+            if (child.isDirectory()) {
+                importDataFiles(current, child, key + "/");
+            } else if (dataFilePattern.matcher(key).matches()) {
+                Properties data = new Properties();
+                try (FileInputStream in = new FileInputStream(child)) {
+                    data.load(in);
+                } catch (IOException e) {
+                    Message.warn("impossible to import cache data file " + child, e);
+                    continue;
+                }
+                byte[] record = encode(key, data);
+                current.channel.write(ByteBuffer.wrap(record), current.indexedLength);
+                current.index.put(key, new Record(current.indexedLength, record.length));
+                current.indexedLength += record.length;
+            }
+        }
+    }
+
+    private static boolean needsCompaction(Log current) {
+        long live = HEADER_LENGTH;
+        for (Record record : current.index.values()) {
+            live += record.length;
+        }
+        return current.indexedLength > COMPACTION_THRESHOLD && live < current.indexedLength / 2;
+    }
+
+    /**
+     * Writes the live records in a new file replacing the current one, which is then flagged as
+     * obsolete for the processes still using it. Must be called with the file lock held.
+     *
+     * @return the file to use from now on
+     */
+    private Log compact(Log current) throws IOException {
+        File compacted = new File(root, FILE_NAME + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(compacted, "rw")) {
+            FileChannel outChannel = out.getChannel();
+            outChannel.truncate(0);
+            outChannel.write(ByteBuffer.wrap(newHeader()), 0);
+            long position = HEADER_LENGTH;
+            for (Record record : current.index.values()) {
+                ByteBuffer buffer = ByteBuffer.allocate(record.length);
+                readFully(current.channel, buffer, record.offset);
+                ByteBuffer output = ByteBuffer.wrap(buffer.array());
+                while (output.hasRemaining()) {
+                    position += outChannel.write(output, position);
+                }
+            }
+            outChannel.force(false);
+        }
+        try {
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the store file may not be replaceable while in use on some platforms
+            Message.verbose("impossible to compact " + file + ": " + e.getMessage());
+            compacted.delete();
+            log = current;
+            refreshed = System.currentTimeMillis();
+            return current;
+        }
+        Message.verbose("compacted cache data store " + file);
+        current.channel.write(ByteBuffer.wrap(new byte[] {1}), OBSOLETE_OFFSET);
+        current.raf.close();
+        return open();
+    }
+
+    private void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of " + file);
+            }
+        }
+    }
+
+    private static byte[] newHeader() {
+        return ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).put((byte) 0)
+                .array();
+    }
+
+    private static byte[] encode(String key, Properties data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length
+        out.writeInt(0); // checksum
+        writeString(out, key);
+        out.writeInt(data.size());
+        for (String name : data.stringPropertyNames()) {
+            writeString(out, name);
+            writeString(out, data.getProperty(name));
+        }
+        out.flush();
+        byte[] record = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putInt(0, record.length);
+        buffer.putInt(4, checksum(record));
+        return record;
+    }
+
+    /**
+     * Decodes a record, filling the given properties if any, and returns its key.
+     */
+    private static String decode(byte[] record, int offset, Properties data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, offset,
+                record.length - offset));
+        String key = readString(in);
+        if (data != null) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                data.setProperty(readString(in), readString(in));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes, which unlike
+     * {@link DataOutputStream#writeUTF(String)} isn't limited to 64 KB.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_LENGTH, record.length - RECORD_HEADER_LENGTH);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Converts an ivydata file pattern to a regular expression matching the paths of the files it
+     * gives, including the resolver specific ones.
+     */
+    private static Pattern toRegexp(String pattern) {
+        StringBuilder regexp = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '[' && pattern.indexOf(']', i) > 0) {
+                regexp.append("[^/]*");
+                i = pattern.indexOf(']', i) + 1;
+                continue;
+            }
+            if (c == '(') {
+                regexp.append("(?:");
+            } else if (c == ')') {
+                regexp.append(")?");
+            } else {
+                regexp.append(Pattern.quote(String.valueOf(c)));
+            }
+            i++;
+        }
+        return Pattern.compile(regexp + "(?:\\.[^/]+)?");
+    }
+
+    /**
+     * An open store file, with the index of its records.
+     */
+    private static final class Log {
+        private final RandomAccessFile raf;
+
+        private final FileChannel channel;
+
+        private final Map<String, Record> index = new ConcurrentHashMap<>();
+
+        // the length of the records indexed, written with the lock on the store held
+        private volatile long indexedLength = HEADER_LENGTH;
+
+        private Log(RandomAccessFile raf) {
+            this.raf = raf;
+            this.channel = raf.getChannel();
+        }
+    }
+
+    private static final class Record {
+        private final long offset;
+
+        private final int length;
+
+        private Record(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
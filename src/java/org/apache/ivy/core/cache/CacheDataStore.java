@@ -0,0 +1,58 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.util.Properties;
+
+/**
+ * Stores the data a repository cache keeps about module revisions, like the resolvers which
+ * resolved them or the origin of their artifacts.
+ * <p>
+ * Data is stored as properties, under a key which is the path of the corresponding ivydata file
+ * relative to the cache root. Callers are responsible for locking the module metadata while
+ * loading and saving data.
+ * </p>
+ */
+interface CacheDataStore {
+
+    /**
+     * Loads the data stored under the given key.
+     *
+     * @param key
+     *            the key of the data to load
+     * @return the stored properties, empty if nothing is stored under this key
+     */
+    Properties load(String key);
+
+    /**
+     * Stores data under the given key, replacing the data previously stored under it.
+     *
+     * @param key
+     *            the key of the data to save
+     * @param data
+     *            the properties to store
+     * @param description
+     *            a description of the data, which may be stored with it
+     */
+    void save(String key, Properties data, String description);
+
+    /**
+     * Releases the resources used by this store.
+     */
+    void close();
+}
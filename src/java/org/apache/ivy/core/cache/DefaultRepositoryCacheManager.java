@@ -35,11 +35,15 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.Ivy;
-import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.IvyPatternTemplate;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -78,7 +82,6 @@ import org.apache.ivy.util.Checks;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.HexEncoder;
 import org.apache.ivy.util.Message;
-import org.apache.ivy.util.PropertiesFile;
 
 import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
 
@@ -91,6 +94,26 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private static final int DEFAULT_MEMORY_CACHE_SIZE = 150;
 
+    /**
+     * Name of the data store keeping cached data in ivydata properties files.
+     */
+    public static final String DATA_STORE_PROPERTIES = "properties";
+
+    /**
+     * Name of the data store keeping all the cached data in a single binary file.
+     */
+    public static final String DATA_STORE_BINARY = "binary";
+
+    private static final long METADATA_LOCK_TIMEOUT = 2 * 60 * 1000;
+
+    /**
+     * In-process locks on module metadata, indexed by metadata lock file. Like the locks of file
+     * based lock strategies, they are shared by all the cache managers of the process. An entry is
+     * removed when its last user releases it, so that only the locks in use are kept; guarded by
+     * itself.
+     */
+    private static final Map<File, MetadataLockEntry> METADATA_LOCKS = new HashMap<>();
+
     private static MessageDigest SHA_DIGEST;
     static {
         try {
@@ -112,6 +135,11 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private String dataFilePattern = DEFAULT_DATA_FILE_PATTERN;
 
+    private String dataStore = DATA_STORE_PROPERTIES;
+
+    // created once, then read without locking; only changed with the lock on this held
+    private volatile CacheDataStore cacheDataStore;
+
     private String artifactPattern;
 
     private String lockStrategyName;
@@ -128,7 +156,15 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private Long defaultTTL = null;
 
-    private ModuleDescriptorMemoryCache memoryModuleDescrCache;
+    private Long missingTTL = null;
+
+    private int memorySize = DEFAULT_MEMORY_CACHE_SIZE;
+
+    private long memoryMaxWeight;
+
+    private boolean binaryDescriptors;
+
+    private volatile ModuleDescriptorMemoryCache memoryModuleDescrCache;
 
     private PackagingManager packagingManager = new PackagingManager();
 
@@ -162,7 +198,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     public File getIvyFileInCache(ModuleRevisionId mrid) {
-        String file = IvyPatternHelper.substitute(getIvyPattern(),
+        String file = IvyPatternTemplate.compile(getIvyPattern()).substitute(
             DefaultArtifact.newIvyArtifact(mrid, null));
         return new File(getRepositoryCacheRoot(), file);
     }
@@ -205,6 +241,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     public void setBasedir(File cache) {
         this.basedir = cache;
+        closeCacheDataStore();
     }
 
     public long getDefaultTTL() {
@@ -222,6 +259,28 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.defaultTTL = parseDuration(defaultTTL);
     }
 
+    /**
+     * Returns how long a resource found missing by a resolver is considered missing, without
+     * looking for it again in the repository of the resolver.
+     *
+     * @return the duration in milliseconds, 0 if missing resources are always looked for again
+     * @since 2.5.2
+     */
+    public long getMissingTTL() {
+        if (missingTTL == null) {
+            missingTTL = parseDuration(settings.getVariable("ivy.cache.ttl.missing"));
+        }
+        return missingTTL;
+    }
+
+    public void setMissingTTL(long missingTTL) {
+        this.missingTTL = missingTTL;
+    }
+
+    public void setMissingTTL(String missingTTL) {
+        this.missingTTL = parseDuration(missingTTL);
+    }
+
     public String getDataFilePattern() {
         return dataFilePattern;
     }
@@ -231,6 +290,27 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.dataFilePattern = dataFilePattern;
     }
 
+    public String getDataStore() {
+        return dataStore;
+    }
+
+    /**
+     * Sets the name of the store used to keep the data cached about modules: "properties" to use
+     * one ivydata properties file per module revision, "binary" to use a single binary file. The
+     * existing ivydata files are imported in the binary file when it is created.
+     *
+     * @param dataStore
+     *            the name of the data store
+     */
+    public void setDataStore(String dataStore) {
+        if (!DATA_STORE_PROPERTIES.equals(dataStore) && !DATA_STORE_BINARY.equals(dataStore)) {
+            throw new IllegalArgumentException("unknown cache data store '" + dataStore
+                    + "': use '" + DATA_STORE_PROPERTIES + "' or '" + DATA_STORE_BINARY + "'");
+        }
+        this.dataStore = dataStore;
+        closeCacheDataStore();
+    }
+
     public void setIvyPattern(String ivyPattern) {
         CacheUtil.checkCachePattern(ivyPattern);
         this.ivyPattern = ivyPattern;
@@ -277,15 +357,82 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.configuredTTLs.add(configuredTTL);
     }
 
-    public void setMemorySize(int size) {
-        memoryModuleDescrCache = new ModuleDescriptorMemoryCache(size);
+    public synchronized void setMemorySize(int size) {
+        memorySize = size;
+        memoryModuleDescrCache = null;
+    }
+
+    public int getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Sets the maximum total weight of the module descriptors kept in the memory cache, estimated
+     * from the size of their ivy files.
+     *
+     * @param maxWeight
+     *            the maximum weight in bytes, 0 or less for no limit other than the memory size
+     */
+    public synchronized void setMemoryMaxWeight(long maxWeight) {
+        memoryMaxWeight = maxWeight;
+        memoryModuleDescrCache = null;
+    }
+
+    public long getMemoryMaxWeight() {
+        return memoryMaxWeight;
+    }
+
+    /**
+     * True if the parse events of the ivy files in this cache are recorded in binary files next
+     * to them, so that later parses of these ivy files, in this process or another one, don't need
+     * any XML parsing.
+     *
+     * @return boolean
+     */
+    public boolean isBinaryDescriptors() {
+        return binaryDescriptors;
+    }
+
+    public void setBinaryDescriptors(boolean binaryDescriptors) {
+        this.binaryDescriptors = binaryDescriptors;
     }
 
     public ModuleDescriptorMemoryCache getMemoryCache() {
-        if (memoryModuleDescrCache == null) {
-            memoryModuleDescrCache = new ModuleDescriptorMemoryCache(DEFAULT_MEMORY_CACHE_SIZE);
+        ModuleDescriptorMemoryCache cache = memoryModuleDescrCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = memoryModuleDescrCache;
+                if (cache == null) {
+                    cache = new ModuleDescriptorMemoryCache(memorySize, memoryMaxWeight);
+                    memoryModuleDescrCache = cache;
+                }
+            }
         }
-        return memoryModuleDescrCache;
+        return cache;
+    }
+
+    /**
+     * @return the number of lookups of module descriptors which have been served by the memory
+     *         cache
+     */
+    public long getMemoryCacheHitCount() {
+        return getMemoryCache().getHitCount();
+    }
+
+    /**
+     * @return the number of lookups of module descriptors which haven't been served by the memory
+     *         cache, because it had no up to date entry for them
+     */
+    public long getMemoryCacheMissCount() {
+        return getMemoryCache().getMissCount();
+    }
+
+    /**
+     * @return the number of module descriptors removed from the memory cache to respect its
+     *         bounds
+     */
+    public long getMemoryCacheEvictionCount() {
+        return getMemoryCache().getEvictionCount();
     }
 
     private static final Pattern DURATION_PATTERN = Pattern
@@ -415,14 +562,15 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     public String getArchivePathInCache(Artifact artifact) {
-        return IvyPatternHelper.substitute(getArtifactPattern(), artifact);
+        return IvyPatternTemplate.compile(getArtifactPattern()).substitute(artifact);
     }
 
     public String getArchivePathInCache(Artifact artifact, ArtifactOrigin origin) {
         if (isOriginalMetadataArtifact(artifact)) {
-            return IvyPatternHelper.substitute(getIvyPattern() + ".original", artifact, origin);
+            return IvyPatternTemplate.compile(getIvyPattern() + ".original").substitute(artifact,
+                origin);
         }
-        return IvyPatternHelper.substitute(getArtifactPattern(), artifact, origin);
+        return IvyPatternTemplate.compile(getArtifactPattern()).substitute(artifact, origin);
     }
 
     /**
@@ -435,10 +583,19 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
      *            resolver name
      */
     private void saveResolver(ModuleDescriptor md, String name) {
-        // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
-        cdf.setProperty("resolver", name);
-        cdf.save();
+        ModuleRevisionId mrid = md.getResolvedModuleRevisionId();
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return;
+        }
+        try {
+            CachedDataFile cdf = getCachedDataFile(md);
+            cdf.setProperty("resolver", name);
+            cdf.save();
+        } finally {
+            metadataLock.release();
+        }
     }
 
     /**
@@ -455,35 +612,36 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     public void saveResolvers(ModuleDescriptor md, String metadataResolverName,
             String artifactResolverName) {
         ModuleRevisionId mrid = md.getResolvedModuleRevisionId();
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return;
         }
         try {
-            PropertiesFile cdf = getCachedDataFile(md);
+            CachedDataFile cdf = getCachedDataFile(md);
             cdf.setProperty("resolver", metadataResolverName);
             cdf.setProperty("artifact.resolver", artifactResolverName);
             cdf.save();
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
     }
 
     private String getSavedResolverName(ModuleDescriptor md) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
+        CachedDataFile cdf = getCachedDataFile(md);
         return cdf.getProperty("resolver");
     }
 
     private String getSavedArtResolverName(ModuleDescriptor md) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
+        CachedDataFile cdf = getCachedDataFile(md);
         return cdf.getProperty("artifact.resolver");
     }
 
     void saveArtifactOrigin(Artifact artifact, ArtifactOrigin origin) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+        CachedDataFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
         cdf.setProperty(getIsLocalKey(artifact), String.valueOf(origin.isLocal()));
         cdf.setProperty(getLocationKey(artifact), origin.getLocation());
         cdf.setProperty(getOriginalKey(artifact), getPrefixKey(origin.getArtifact()));
@@ -496,7 +654,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private void removeSavedArtifactOrigin(Artifact artifact) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+        CachedDataFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
         cdf.remove(getLocationKey(artifact));
         cdf.remove(getIsLocalKey(artifact));
         cdf.remove(getLastCheckedKey(artifact));
@@ -509,12 +667,13 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     public ArtifactOrigin getSavedArtifactOrigin(Artifact artifact) {
         ModuleRevisionId mrid = artifact.getModuleRevisionId();
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = readLockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return ArtifactOrigin.unknown(artifact);
         }
         try {
-            PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+            CachedDataFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
             String location = cdf.getProperty(getLocationKey(artifact));
             String local = cdf.getProperty(getIsLocalKey(artifact));
             String lastChecked = cdf.getProperty(getLastCheckedKey(artifact));
@@ -605,7 +764,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
             return origin;
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
     }
 
@@ -678,27 +837,55 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return getPrefixKey(artifact) + ".original";
     }
 
-    private PropertiesFile getCachedDataFile(ModuleDescriptor md) {
+    private CachedDataFile getCachedDataFile(ModuleDescriptor md) {
         return getCachedDataFile(md.getResolvedModuleRevisionId());
     }
 
-    private PropertiesFile getCachedDataFile(ModuleRevisionId mRevId) {
-        File file = new File(getRepositoryCacheRoot(), IvyPatternHelper.substitute(
-            getDataFilePattern(), mRevId));
-        assertInsideCache(file);
-        return new PropertiesFile(file, "ivy cached data file for " + mRevId);
+    private CachedDataFile getCachedDataFile(ModuleRevisionId mRevId) {
+        return loadCachedDataFile(IvyPatternTemplate.compile(getDataFilePattern())
+                .substitute(mRevId), mRevId);
     }
 
     /**
      * A resolver-specific ivydata file, only used for caching dynamic revisions, e.g.
      * integration-repo.
      */
-    private PropertiesFile getCachedDataFile(String resolverName, ModuleRevisionId mRevId) {
+    private CachedDataFile getCachedDataFile(String resolverName, ModuleRevisionId mRevId) {
         // we append ".${resolverName} onto the end of the regular ivydata location
-        File file = new File(getRepositoryCacheRoot(),
-            IvyPatternHelper.substitute(getDataFilePattern(), mRevId) + "." + resolverName);
-        assertInsideCache(file);
-        return new PropertiesFile(file, "ivy cached data file for " + mRevId);
+        return loadCachedDataFile(IvyPatternTemplate.compile(getDataFilePattern())
+                .substitute(mRevId) + "." + resolverName, mRevId);
+    }
+
+    private CachedDataFile loadCachedDataFile(String path, ModuleRevisionId mRevId) {
+        assertInsideCache(new File(getRepositoryCacheRoot(), path));
+        CacheDataStore store = getCacheDataStore();
+        return new CachedDataFile(store, path, store.load(path),
+                "ivy cached data file for " + mRevId);
+    }
+
+    private CacheDataStore getCacheDataStore() {
+        CacheDataStore store = cacheDataStore;
+        if (store != null) {
+            return store;
+        }
+        synchronized (this) {
+            if (cacheDataStore == null) {
+                if (DATA_STORE_BINARY.equals(dataStore)) {
+                    cacheDataStore = BinaryCacheDataStore.getInstance(getRepositoryCacheRoot(),
+                        getDataFilePattern());
+                } else {
+                    cacheDataStore = new PropertiesCacheDataStore(getRepositoryCacheRoot());
+                }
+            }
+            return cacheDataStore;
+        }
+    }
+
+    private synchronized void closeCacheDataStore() {
+        if (cacheDataStore != null) {
+            cacheDataStore.close();
+            cacheDataStore = null;
+        }
     }
 
     public ResolvedModuleRevision findModuleInCache(DependencyDescriptor dd,
@@ -717,37 +904,26 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private ResolvedModuleRevision doFindModuleInCache(ModuleRevisionId mrid,
             CacheMetadataOptions options, String expectedResolver) {
-        if (!lockMetadataArtifact(mrid)) {
+        if (settings.getVersionMatcher().isDynamic(mrid)) {
+            String resolvedRevision = getResolvedRevision(expectedResolver, mrid, options);
+            if (resolvedRevision == null) {
+                return null;
+            }
+            Message.verbose("found resolved revision in cache: " + mrid + " => "
+                    + resolvedRevision);
+            mrid = ModuleRevisionId.newInstance(mrid, resolvedRevision);
+        }
+
+        MetadataLock metadataLock = readLockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return null;
         }
 
-        boolean unlock = true;
-
+        // the metadata can't be written under a read lock, fixes are saved once it is released
+        ModuleDescriptor mdToFix = null;
+        String resolverToSave = null;
         try {
-            if (settings.getVersionMatcher().isDynamic(mrid)) {
-                String resolvedRevision = getResolvedRevision(expectedResolver, mrid, options);
-                if (resolvedRevision == null) {
-                    return null;
-                }
-                Message.verbose("found resolved revision in cache: " + mrid + " => "
-                        + resolvedRevision);
-
-                // we have found another module in the cache, make sure we unlock
-                // the original module
-                unlockMetadataArtifact(mrid);
-                mrid = ModuleRevisionId.newInstance(mrid, resolvedRevision);
-
-                // don't forget to request a lock on the new module!
-                if (!lockMetadataArtifact(mrid)) {
-                    Message.error("impossible to acquire lock for " + mrid);
-
-                    // we couldn't lock the new module, so no need to unlock it
-                    unlock = false;
-                    return null;
-                }
-            }
-
             File ivyFile = getIvyFileInCache(mrid);
             if (ivyFile.exists()) {
                 // found in cache !
@@ -765,7 +941,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                             Message.debug("\tconfigured resolver found for "
                                     + depMD.getResolvedModuleRevisionId() + ": "
                                     + resolver.getName() + ": saving this data");
-                            saveResolver(depMD, resolver.getName());
+                            mdToFix = depMD;
+                            resolverToSave = resolver.getName();
                         }
                     }
                     DependencyResolver artResolver = settings.getResolver(artResolverName);
@@ -812,13 +989,29 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                 Message.debug("\tno ivy file in cache for " + mrid + ": tried " + ivyFile);
             }
         } finally {
-            if (unlock) {
-                unlockMetadataArtifact(mrid);
+            metadataLock.release();
+            if (mdToFix != null) {
+                saveResolver(mdToFix, resolverToSave);
             }
         }
         return null;
     }
 
+    /**
+     * Returns the binary file in which the parse events of an ivy file in cache are recorded.
+     *
+     * @param ivyFile
+     *            an ivy file in cache
+     * @return File
+     */
+    private File getBinaryIvyFile(File ivyFile) {
+        String name = ivyFile.getName();
+        if (name.endsWith(".xml")) {
+            name = name.substring(0, name.length() - ".xml".length());
+        }
+        return new File(ivyFile.getParentFile(), name + ".bin");
+    }
+
     /**
      * Choose write module descriptor parser for a given moduleDescriptor
      *
@@ -836,13 +1029,21 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
         private final ParserSettings settings;
 
-        public MyModuleDescriptorProvider(ModuleDescriptorParser mdParser, ParserSettings settings) {
+        private final boolean binary;
+
+        public MyModuleDescriptorProvider(ModuleDescriptorParser mdParser, ParserSettings settings,
+                boolean binary) {
             this.mdParser = mdParser;
             this.settings = settings;
+            this.binary = binary;
         }
 
         public ModuleDescriptor provideModule(ParserSettings ivySettings, File descriptorURL,
                 boolean validate) throws ParseException, IOException {
+            if (binary && mdParser instanceof XmlModuleDescriptorParser) {
+                return ((XmlModuleDescriptorParser) mdParser).parseDescriptor(settings,
+                    descriptorURL, getBinaryIvyFile(descriptorURL), validate);
+            }
             return mdParser.parseDescriptor(settings, descriptorURL.toURI().toURL(), validate);
         }
     }
@@ -850,7 +1051,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     private ModuleDescriptor getMdFromCache(ModuleDescriptorParser mdParser,
             CacheMetadataOptions options, File ivyFile) throws ParseException, IOException {
         ModuleDescriptorMemoryCache cache = getMemoryCache();
-        ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser, settings);
+        ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser, settings,
+                isBinaryDescriptors());
         return cache.get(ivyFile, settings, options.isValidate(), mdProvider);
     }
 
@@ -859,7 +1061,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             throws ParseException, IOException {
         ModuleDescriptorMemoryCache cache = getMemoryCache();
         ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser,
-                parserSettings);
+                parserSettings, false);
         return cache.getStale(ivyFile, settings, options.isValidate(), mdProvider);
     }
 
@@ -868,47 +1070,51 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
      * file.
      */
     private String getResolvedRevision(String expectedResolver, ModuleRevisionId mrid, CacheMetadataOptions options) {
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = readLockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return null;
         }
+        String resolvedRevision;
         try {
             if (options.isForce()) {
                 Message.verbose("refresh mode: no check for cached resolved revision for " + mrid);
                 return null;
             }
             // If a resolver is asking for its specific dynamic revision, avoid looking at a different one
-            PropertiesFile cachedResolvedRevision;
+            CachedDataFile cachedResolvedRevision;
             if (expectedResolver != null) {
                 cachedResolvedRevision = getCachedDataFile(expectedResolver, mrid);
             } else {
                 cachedResolvedRevision = getCachedDataFile(mrid);
             }
-            String resolvedRevision = cachedResolvedRevision.getProperty("resolved.revision");
+            resolvedRevision = cachedResolvedRevision.getProperty("resolved.revision");
             if (resolvedRevision == null) {
                 Message.verbose(getName() + ": no cached resolved revision for " + mrid);
                 return null;
             }
 
             String resolvedTime = cachedResolvedRevision.getProperty("resolved.time");
-            if (resolvedTime == null) {
-                Message.verbose(getName()
-                        + ": inconsistent or old cache: no cached resolved time for " + mrid);
-                saveResolvedRevision(expectedResolver, mrid, resolvedRevision);
-                return resolvedRevision;
-            }
-            if (options.isCheckTTL()) {
-                long expiration = Long.parseLong(resolvedTime) + getTTL(mrid);
-                // negative expiration means that Long.MAX_VALUE has been exceeded
-                if (expiration > 0 && System.currentTimeMillis() > expiration) {
-                    Message.verbose(getName() + ": cached resolved revision expired for " + mrid);
-                    return null;
+            if (resolvedTime != null) {
+                if (options.isCheckTTL()) {
+                    long expiration = Long.parseLong(resolvedTime) + getTTL(mrid);
+                    // negative expiration means that Long.MAX_VALUE has been exceeded
+                    if (expiration > 0 && System.currentTimeMillis() > expiration) {
+                        Message.verbose(getName() + ": cached resolved revision expired for "
+                                + mrid);
+                        return null;
+                    }
                 }
+                return resolvedRevision;
             }
-            return resolvedRevision;
+            Message.verbose(getName()
+                    + ": inconsistent or old cache: no cached resolved time for " + mrid);
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
+        // saved once the read lock is released
+        saveResolvedRevision(expectedResolver, mrid, resolvedRevision);
+        return resolvedRevision;
     }
 
     @Deprecated
@@ -917,12 +1123,13 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     public void saveResolvedRevision(String resolverName, ModuleRevisionId mrid, String revision) {
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return;
         }
         try {
-            PropertiesFile cachedResolvedRevision;
+            CachedDataFile cachedResolvedRevision;
             if (resolverName == null) {
                 cachedResolvedRevision = getCachedDataFile(mrid);
             } else {
@@ -936,10 +1143,90 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             }
             cachedResolvedRevision.save();
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
+        }
+    }
+
+    /**
+     * Tells whether a resource has been found missing by a resolver less than
+     * {@link #getMissingTTL() the missing TTL} ago.
+     *
+     * @param resolverName
+     *            the name of the resolver which looked for the resource
+     * @param mrid
+     *            the module revision the resource belongs to
+     * @param resource
+     *            the name of the resource in the repository of the resolver
+     * @return <code>true</code> if the resource is known to be missing
+     * @since 2.5.2
+     */
+    public boolean isKnownMissing(String resolverName, ModuleRevisionId mrid, String resource) {
+        long ttl = getMissingTTL();
+        if (ttl <= 0) {
+            return false;
+        }
+        MetadataLock metadataLock = readLockMetadataArtifact(mrid);
+        if (metadataLock == null) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return false;
+        }
+        try {
+            String missingTime = getCachedDataFile(resolverName, mrid)
+                    .getProperty(getMissingKey(resource));
+            if (missingTime == null) {
+                return false;
+            }
+            long expiration = Long.parseLong(missingTime) + ttl;
+            // negative expiration means that Long.MAX_VALUE has been exceeded
+            return expiration < 0 || System.currentTimeMillis() <= expiration;
+        } finally {
+            metadataLock.release();
+        }
+    }
+
+    /**
+     * Records that a resource has been found missing by a resolver, or that it has been found
+     * again. Nothing is recorded when {@link #getMissingTTL() the missing TTL} is 0.
+     *
+     * @param resolverName
+     *            the name of the resolver which looked for the resource
+     * @param mrid
+     *            the module revision the resource belongs to
+     * @param resource
+     *            the name of the resource in the repository of the resolver
+     * @param missing
+     *            <code>true</code> if the resource has been found missing, <code>false</code>
+     *            if it has been found
+     * @since 2.5.2
+     */
+    public void saveMissing(String resolverName, ModuleRevisionId mrid, String resource,
+            boolean missing) {
+        if (getMissingTTL() <= 0) {
+            return;
+        }
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return;
+        }
+        try {
+            CachedDataFile cachedMissing = getCachedDataFile(resolverName, mrid);
+            if (missing) {
+                cachedMissing.setProperty(getMissingKey(resource),
+                    String.valueOf(System.currentTimeMillis()));
+            } else if (cachedMissing.remove(getMissingKey(resource)) == null) {
+                return;
+            }
+            cachedMissing.save();
+        } finally {
+            metadataLock.release();
         }
     }
 
+    private String getMissingKey(String resource) {
+        return "missing." + resource;
+    }
+
     public long getTTL(ModuleRevisionId mrid) {
         Long ttl = ttlRules.getRule(mrid);
         return ttl == null ? getDefaultTTL() : ttl;
@@ -984,7 +1271,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         // file to do so, or lock the metadata artifact only to update artifact origin, which would
         // mean acquiring nested locks, which can be a dangerous thing
         ModuleRevisionId mrid = artifact.getModuleRevisionId();
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             adr.setDownloadStatus(DownloadStatus.FAILED);
             adr.setDownloadDetails("impossible to get lock for " + mrid);
             return adr;
@@ -1065,7 +1353,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             }
             return adr;
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
     }
 
@@ -1106,6 +1394,12 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         final ArtifactDownloadReport adr = new ArtifactDownloadReport(artifact);
         boolean useOrigin = isUseOrigin();
 
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
+            adr.setDownloadStatus(DownloadStatus.FAILED);
+            adr.setDownloadDetails("impossible to get lock for " + mrid);
+            return adr;
+        }
         try {
             DownloadListener listener = options.getListener();
             if (listener != null) {
@@ -1184,7 +1478,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             }
             return adr;
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
     }
 
@@ -1239,12 +1533,15 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         File mdFileInCache = getIvyFileInCache(md.getResolvedModuleRevisionId());
 
         ModuleRevisionId mrid = requestedMetadataArtifact.getModuleRevisionId();
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.warn("impossible to acquire lock for: " + mrid);
             return;
         }
         try {
             File originalFileInCache = getArchiveFileInCache(originalMetadataArtifact);
+            // the binary ivy file may not see the change if the ivy file keeps its size and date
+            getBinaryIvyFile(mdFileInCache).delete();
             writer.write(originalMetadataRef, md, originalFileInCache, mdFileInCache);
 
             getMemoryCache().putInCache(mdFileInCache, new ParserSettingsMonitor(settings), true,
@@ -1266,7 +1563,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             }
             Message.warn("impossible to put metadata file in cache: " + metadataRef, e);
         } finally {
-            unlockMetadataArtifact(mrid);
+            metadataLock.release();
         }
     }
 
@@ -1276,7 +1573,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         Date cachedPublicationDate = null;
         ArtifactDownloadReport report;
         ModuleRevisionId mrid = moduleArtifact.getModuleRevisionId();
-        if (!lockMetadataArtifact(mrid)) {
+        MetadataLock metadataLock = lockMetadataArtifact(mrid);
+        if (metadataLock == null) {
             Message.error("impossible to acquire lock for " + mrid);
             return null;
         }
@@ -1432,31 +1730,106 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                 return null;
             }
         } finally {
-            unlockMetadataArtifact(mrid);
+            // the backup must be removed while still holding the lock, the next writer of the
+            // module would otherwise see its own backup deleted
             backupDownloader.cleanUp();
+            metadataLock.release();
         }
 
     }
 
-    // lock used to lock all metadata related information access
-    private boolean lockMetadataArtifact(ModuleRevisionId mrid) {
+    // lock used to lock all metadata related information access, exclusively
+    private MetadataLock lockMetadataArtifact(ModuleRevisionId mrid) {
+        return lockMetadataArtifact(mrid, false);
+    }
+
+    // lock used to only read metadata related information, shared with other readers
+    private MetadataLock readLockMetadataArtifact(ModuleRevisionId mrid) {
+        return lockMetadataArtifact(mrid, true);
+    }
+
+    /**
+     * Locks the metadata of a module. Threads of this process are synchronized with an in-process
+     * read/write lock, several of them being allowed to read the metadata at the same time, and
+     * other processes with the lock strategy.
+     *
+     * @param mrid
+     *            the module which metadata should be locked
+     * @param shared
+     *            true to lock the metadata for reading only
+     * @return the acquired lock, or null if it couldn't be acquired
+     */
+    private MetadataLock lockMetadataArtifact(ModuleRevisionId mrid, boolean shared) {
         Artifact artifact = getDefaultMetadataArtifact(mrid);
+        // we need to provide an artifact origin to be sure we do not end up in a stack
+        // overflow if the cache pattern is using original name, and the substitution thus
+        // trying to get the saved artifact origin value which in turns calls this method
+        File lockedFile = getArchiveFileInCache(artifact, getDefaultMetadataArtifactOrigin(mrid));
+        ReentrantReadWriteLock rwLock = acquireMetadataLockEntry(lockedFile);
+        boolean locked = false;
         try {
-            // we need to provide an artifact origin to be sure we do not end up in a stack
-            // overflow if the cache pattern is using original name, and the substitution thus
-            // trying to get the saved artifact origin value which in turns calls this method
-            return getLockStrategy().lockArtifact(artifact,
-                getArchiveFileInCache(artifact, getDefaultMetadataArtifactOrigin(mrid)));
+            if (!shared && rwLock.getReadHoldCount() > 0
+                    && !rwLock.isWriteLockedByCurrentThread()) {
+                // a read lock can't be upgraded, waiting for the write lock would never end
+                throw new IllegalStateException("impossible to write metadata of " + mrid
+                        + " while reading it");
+            }
+            Lock lock = shared ? rwLock.readLock() : rwLock.writeLock();
+            LockStrategy strategy = getLockStrategy();
+            if (!lock.tryLock(METADATA_LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+            try {
+                // readers take the lock of the strategy too: checking that no other process
+                // holds it before reading would leave a window for a writer to start meanwhile
+                if (!strategy.lockArtifact(artifact, lockedFile)) {
+                    return null;
+                }
+                locked = true;
+                return new MetadataLock(lock, strategy, artifact, lockedFile);
+            } finally {
+                if (!locked) {
+                    lock.unlock();
+                }
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // reset interrupt status
             throw new RuntimeException("operation interrupted");
+        } finally {
+            if (!locked) {
+                releaseMetadataLockEntry(lockedFile);
+            }
         }
     }
 
-    private void unlockMetadataArtifact(ModuleRevisionId mrid) {
-        Artifact artifact = getDefaultMetadataArtifact(mrid);
-        getLockStrategy().unlockArtifact(artifact,
-            getArchiveFileInCache(artifact, getDefaultMetadataArtifactOrigin(mrid)));
+    private static ReentrantReadWriteLock acquireMetadataLockEntry(File lockedFile) {
+        synchronized (METADATA_LOCKS) {
+            MetadataLockEntry entry = METADATA_LOCKS.get(lockedFile);
+            if (entry == null) {
+                entry = new MetadataLockEntry();
+                METADATA_LOCKS.put(lockedFile, entry);
+            }
+            entry.users++;
+            return entry.lock;
+        }
+    }
+
+    private static void releaseMetadataLockEntry(File lockedFile) {
+        synchronized (METADATA_LOCKS) {
+            MetadataLockEntry entry = METADATA_LOCKS.get(lockedFile);
+            if (--entry.users == 0) {
+                METADATA_LOCKS.remove(lockedFile);
+            }
+        }
+    }
+
+    /**
+     * @return the number of metadata files which in-process locks are currently in use
+     */
+    static int getMetadataLockCount() {
+        synchronized (METADATA_LOCKS) {
+            return METADATA_LOCKS.size();
+        }
     }
 
     private ArtifactOrigin getDefaultMetadataArtifactOrigin(ModuleRevisionId mrid) {
@@ -1527,6 +1900,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     public void clean() {
+        closeCacheDataStore();
         FileUtil.forceDelete(getBasedir());
     }
 
@@ -1535,6 +1909,11 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         Message.debug("\t\tivyPattern: " + getIvyPattern());
         Message.debug("\t\tartifactPattern: " + getArtifactPattern());
         Message.debug("\t\tlockingStrategy: " + getLockStrategy().getName());
+        Message.debug("\t\tdataStore: " + getDataStore());
+        Message.debug("\t\tmemorySize: " + getMemorySize());
+        Message.debug("\t\tmemoryMaxWeight: " + getMemoryMaxWeight());
+        Message.debug("\t\tbinaryDescriptors: " + isBinaryDescriptors());
+        Message.debug("\t\tmissingTTL: " + getMissingTTL());
         Message.debug("\t\tchangingPattern: " + getChangingPattern());
         Message.debug("\t\tchangingMatcher: " + getChangingMatcherName());
     }
@@ -1625,6 +2004,66 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     }
 
+    /**
+     * The data cached about a module revision, loaded from a {@link CacheDataStore}.
+     */
+    @SuppressWarnings("serial")
+    private static final class CachedDataFile extends Properties {
+        private final CacheDataStore store;
+
+        private final String path;
+
+        private final String description;
+
+        CachedDataFile(CacheDataStore store, String path, Properties data, String description) {
+            this.store = store;
+            this.path = path;
+            this.description = description;
+            putAll(data);
+        }
+
+        void save() {
+            store.save(path, this, description);
+        }
+    }
+
+    /**
+     * A lock acquired on the metadata of a module, which must be released by the thread which
+     * acquired it.
+     */
+    private static final class MetadataLock {
+        private final Lock lock;
+
+        private final LockStrategy lockStrategy;
+
+        private final Artifact artifact;
+
+        private final File lockedFile;
+
+        MetadataLock(Lock lock, LockStrategy lockStrategy, Artifact artifact, File lockedFile) {
+            this.lock = lock;
+            this.lockStrategy = lockStrategy;
+            this.artifact = artifact;
+            this.lockedFile = lockedFile;
+        }
+
+        void release() {
+            try {
+                lockStrategy.unlockArtifact(artifact, lockedFile);
+            } finally {
+                lock.unlock();
+                releaseMetadataLockEntry(lockedFile);
+            }
+        }
+    }
+
+    private static final class MetadataLockEntry {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // the number of threads holding or waiting for the lock; guarded by METADATA_LOCKS
+        private int users;
+    }
+
     private static final class ConfiguredTTL {
         // attributes on the TTL, that don't contribute to module matching
         private static final Set<String> attributesNotContributingToMatching = new HashSet<>();
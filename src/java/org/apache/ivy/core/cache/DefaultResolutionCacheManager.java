@@ -46,6 +46,7 @@ import org.apache.ivy.plugins.parser.ParserSettings;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
 import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
 
 public class DefaultResolutionCacheManager implements ResolutionCacheManager, IvySettingsAware {
 
@@ -142,6 +143,86 @@ public class DefaultResolutionCacheManager implements ResolutionCacheManager, Iv
         });
     }
 
+    /**
+     * Returns the file in which the fingerprint of the last resolve with the given resolve id is
+     * stored.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @return File
+     */
+    public File getResolveFingerprintInCache(String resolveId) {
+        return new File(getResolutionCacheRoot(), resolveId + "-fingerprint.properties");
+    }
+
+    /**
+     * Returns the fingerprint of the inputs of the last resolve with the given resolve id, if the
+     * resolve it describes can still be reused.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @return the fingerprint, or <code>null</code> if there is none or if it has expired
+     */
+    public String getResolveFingerprint(String resolveId) {
+        File file = getResolveFingerprintInCache(resolveId);
+        if (!file.exists()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (FileInputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            Message.verbose("impossible to read resolve fingerprint " + file + ": "
+                    + e.getMessage());
+            return null;
+        }
+        try {
+            String expiration = props.getProperty("expiration");
+            if (expiration != null && Long.parseLong(expiration) <= System.currentTimeMillis()) {
+                Message.verbose("\tresolve fingerprint expired: " + file);
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return props.getProperty("fingerprint");
+    }
+
+    /**
+     * Stores the fingerprint of the inputs of a resolve, so that the following resolves with the
+     * same resolve id can reuse its reports.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @param fingerprint
+     *            the fingerprint to store, or <code>null</code> to remove the stored one
+     * @param expiration
+     *            the time at which the fingerprint expires, or <code>Long.MAX_VALUE</code> if it
+     *            never does
+     * @throws IOException
+     *             if the fingerprint can't be stored
+     */
+    public void saveResolveFingerprint(String resolveId, String fingerprint, long expiration)
+            throws IOException {
+        File file = getResolveFingerprintInCache(resolveId);
+        assertInsideCache(file);
+        if (fingerprint == null) {
+            if (file.exists() && !file.delete()) {
+                throw new IOException("impossible to delete resolve fingerprint " + file);
+            }
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty("fingerprint", fingerprint);
+        if (expiration != Long.MAX_VALUE) {
+            props.setProperty("expiration", String.valueOf(expiration));
+        }
+        file.getParentFile().mkdirs();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            props.store(out, resolveId + " resolve fingerprint");
+        }
+    }
+
     public ModuleDescriptor getResolvedModuleDescriptor(ModuleRevisionId mrid)
             throws ParseException, IOException {
         File ivyFile = getResolvedIvyFileInCache(mrid);
@@ -17,27 +17,55 @@
  */
 package org.apache.ivy.core.cache;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.resolve.ResolveData;
 import org.apache.ivy.plugins.parser.ParserSettings;
 import org.apache.ivy.util.Message;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.text.ParseException;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Cache ModuleDescriptors so that when the same module is used twice (in multi-module build for
  * instance), it is parsed only once. This cache is has a limited size, and keep the most recently
  * used entries. The entry in the cache are invalidated if there is a change to one variable used in
  * the module descriptor.
+ * <p>
+ * The cache can be bounded by its number of entries, by the total weight of its entries, which is
+ * estimated from the size of their ivy files, or by both. Lookups don't take any lock, so that
+ * the cache can be shared by concurrent resolves: only adding an entry is serialized, to evict the
+ * least recently used entries. The last modification date of the ivy file of an entry is checked
+ * once per resolve, further lookups done by the same resolve trusting the first check.
+ * </p>
  */
 class ModuleDescriptorMemoryCache {
 
     private final int maxSize;
 
-    private final LinkedHashMap<File, CacheEntry> valueMap;
+    private final long maxWeight;
+
+    private final ConcurrentMap<File, CacheEntry> valueMap;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
 
     /**
      * Create a cache of the given size
@@ -45,8 +73,21 @@ class ModuleDescriptorMemoryCache {
      * @param size int
      */
     public ModuleDescriptorMemoryCache(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Create a cache of the given size and weight
+     *
+     * @param size
+     *            the maximum number of entries, the cache being disabled if not positive
+     * @param maxWeight
+     *            the maximum total weight of the entries in bytes, 0 or less for no limit
+     */
+    public ModuleDescriptorMemoryCache(int size, long maxWeight) {
         this.maxSize = size;
-        this.valueMap = new LinkedHashMap<>(size);
+        this.maxWeight = maxWeight;
+        this.valueMap = new ConcurrentHashMap<>(Math.max(size, 16));
     }
 
     public ModuleDescriptor get(File ivyFile, ParserSettings ivySettings, boolean validated,
@@ -76,26 +117,25 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return null;
         }
-        synchronized (valueMap) {
-            CacheEntry entry = valueMap.get(ivyFile);
-            if (entry != null) {
-                if (entry.isStale(ivyFile, validated, ivySettings)) {
-                    Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
-                            + "reevaluated : " + ivyFile);
-                    valueMap.remove(ivyFile);
-                    return null;
-                } else {
-                    // Move the entry at the end of the list
-                    valueMap.remove(ivyFile);
-                    valueMap.put(ivyFile, entry);
-                    Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
-                    return entry.md;
-                }
-            } else {
-                Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
-                return null;
+        CacheEntry entry = valueMap.get(ivyFile);
+        if (entry == null) {
+            missCount.increment();
+            Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
+            return null;
+        }
+        if (entry.isStale(ivyFile, validated, ivySettings)) {
+            Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
+                    + "reevaluated : " + ivyFile);
+            if (valueMap.remove(ivyFile, entry)) {
+                weight.addAndGet(-entry.weight);
             }
+            missCount.increment();
+            return null;
         }
+        entry.lastAccess = clock.incrementAndGet();
+        hitCount.increment();
+        Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
+        return entry.md;
     }
 
     void putInCache(File url, ParserSettingsMonitor ivySettingsMonitor, boolean validated,
@@ -104,15 +144,67 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return;
         }
-        synchronized (valueMap) {
-            if (valueMap.size() >= maxSize) {
+        CacheEntry entry = new CacheEntry(descriptor, validated, ivySettingsMonitor,
+                url.length());
+        entry.lastAccess = clock.incrementAndGet();
+        synchronized (evictionLock) {
+            CacheEntry previous = valueMap.put(url, entry);
+            weight.addAndGet(entry.weight - (previous == null ? 0 : previous.weight));
+            while (valueMap.size() > maxSize || maxWeight > 0 && weight.get() > maxWeight
+                    && valueMap.size() > 1) {
                 Message.debug("ModuleDescriptorCache is full, remove one entry");
-                Iterator<CacheEntry> it = valueMap.values().iterator();
-                it.next();
-                it.remove();
+                evictLeastRecentlyUsed(url);
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed(File keep) {
+        Map.Entry<File, CacheEntry> eldest = null;
+        for (Map.Entry<File, CacheEntry> candidate : valueMap.entrySet()) {
+            if (!candidate.getKey().equals(keep) && (eldest == null
+                    || candidate.getValue().lastAccess < eldest.getValue().lastAccess)) {
+                eldest = candidate;
             }
-            valueMap.put(url, new CacheEntry(descriptor, validated, ivySettingsMonitor));
         }
+        if (eldest != null && valueMap.remove(eldest.getKey(), eldest.getValue())) {
+            weight.addAndGet(-eldest.getValue().weight);
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * @return the number of lookups which found a valid entry in the cache
+     */
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups which didn't find a valid entry in the cache
+     */
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of entries removed from the cache to respect its bounds
+     */
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    int size() {
+        return valueMap.size();
+    }
+
+    /**
+     * @return the total estimated weight of the entries in the cache, in bytes
+     */
+    long getWeight() {
+        return weight.get();
     }
 
     private static class CacheEntry {
@@ -122,18 +214,43 @@ class ModuleDescriptorMemoryCache {
 
         private final ParserSettingsMonitor parserSettingsMonitor;
 
+        private final long weight;
+
+        private volatile long lastAccess;
+
+        /**
+         * The resolve during which the last modification date of the ivy file has been found up
+         * to date, if any.
+         */
+        private volatile Reference<ResolveData> checkedBy;
+
         CacheEntry(ModuleDescriptor md, boolean validated,
-                ParserSettingsMonitor parserSettingsMonitor) {
+                ParserSettingsMonitor parserSettingsMonitor, long weight) {
             this.md = md;
             this.validated = validated;
             this.parserSettingsMonitor = parserSettingsMonitor;
+            this.weight = weight;
         }
 
         boolean isStale(File ivyFile, boolean validated, ParserSettings newParserSettings) {
-            return (validated && !this.validated)
-                    || md.getLastModified() != ivyFile.lastModified()
+            return (validated && !this.validated) || isModified(ivyFile)
                     || parserSettingsMonitor.hasChanged(newParserSettings);
         }
+
+        private boolean isModified(File ivyFile) {
+            ResolveData resolve = IvyContext.getContext().getResolveData();
+            Reference<ResolveData> checked = checkedBy;
+            if (resolve != null && checked != null && checked.get() == resolve) {
+                return false;
+            }
+            if (md.getLastModified() != ivyFile.lastModified()) {
+                return true;
+            }
+            if (resolve != null) {
+                checkedBy = new WeakReference<>(resolve);
+            }
+            return false;
+        }
     }
 
 }
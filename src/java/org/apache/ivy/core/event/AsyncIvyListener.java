@@ -0,0 +1,182 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.MessageLogger;
+import org.apache.ivy.util.MessageLoggerEngine;
+import org.apache.ivy.util.filter.Filter;
+
+/**
+ * A filtered listener to which the accepted events are delivered asynchronously, so that a slow
+ * listener doesn't block the threads firing the events.
+ * <p>
+ * The events are filtered by the firing thread, then queued and delivered in the order they have
+ * been fired by a worker thread, in a copy of the {@link IvyContext} of the firing thread and with
+ * the same current {@link MessageLogger}. The queue is bounded: when it is full, the firing thread
+ * waits for the worker to catch up. The worker stops when no event has been queued for a while,
+ * and the failures of the listener are logged instead of being thrown to the firing thread.
+ * </p>
+ *
+ * @since 2.5.2
+ */
+public class AsyncIvyListener extends FilteredIvyListener {
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private static final long IDLE_TIMEOUT = 1000;
+
+    private final BlockingQueue<Delivery> queue;
+
+    private Thread worker;
+
+    private int pending = 0;
+
+    /**
+     * @param listener
+     *            the listener to which the events are delivered
+     * @param filter
+     *            the filter of the events to deliver
+     * @param queueSize
+     *            the maximum number of events waiting to be delivered, must be strictly positive
+     */
+    public AsyncIvyListener(IvyListener listener, Filter<IvyEvent> filter, int queueSize) {
+        super(listener, filter);
+        queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @Override
+    public void progress(IvyEvent event) {
+        if (!getFilter().accept(event)) {
+            return;
+        }
+        synchronized (this) {
+            if (Thread.currentThread() == worker) {
+                // fired by the listener itself, waiting for the queue could never end
+                getIvyListener().progress(event);
+                return;
+            }
+            pending++;
+        }
+        try {
+            queue.put(new Delivery(event));
+        } catch (InterruptedException e) {
+            delivered();
+            Thread.currentThread().interrupt(); // reset interrupt status
+            throw new RuntimeException("operation interrupted");
+        }
+        synchronized (this) {
+            if (worker == null) {
+                worker = new Thread(new Runnable() {
+                    public void run() {
+                        deliver();
+                    }
+                }, "ivy-async-listener-" + getIvyListener().getClass().getSimpleName());
+                // the events queued when the JVM is about to exit are still delivered
+                worker.setDaemon(false);
+                worker.start();
+            }
+        }
+    }
+
+    /**
+     * Waits for the events already fired to be delivered.
+     *
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    public synchronized void flush() throws InterruptedException {
+        while (pending > 0) {
+            wait();
+        }
+    }
+
+    private void deliver() {
+        while (true) {
+            Delivery delivery;
+            try {
+                delivery = queue.poll(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                delivery = null;
+            }
+            if (delivery == null) {
+                synchronized (this) {
+                    if (queue.isEmpty()) {
+                        worker = null;
+                        return;
+                    }
+                }
+                continue;
+            }
+            try {
+                delivery.run();
+            } finally {
+                delivered();
+            }
+        }
+    }
+
+    private synchronized void delivered() {
+        pending--;
+        notifyAll();
+    }
+
+    /**
+     * An event to deliver, with the context of the thread which fired it.
+     */
+    private final class Delivery {
+        private final IvyEvent event;
+
+        private final IvyContext context;
+
+        private final MessageLoggerEngine engine;
+
+        private final MessageLogger logger;
+
+        private Delivery(IvyEvent event) {
+            this.event = event;
+            context = new IvyContext(IvyContext.getContext());
+            MessageLogger current = context.getMessageLogger();
+            engine = current instanceof MessageLoggerEngine ? (MessageLoggerEngine) current
+                    : null;
+            logger = engine == null ? null : engine.peekLogger();
+        }
+
+        private void run() {
+            IvyContext.pushContext(context);
+            if (engine != null) {
+                engine.pushLogger(logger);
+            }
+            try {
+                getIvyListener().progress(event);
+            } catch (RuntimeException e) {
+                Message.warn("asynchronous listener " + getIvyListener() + " failed on "
+                        + event.getName() + " event", e);
+            } finally {
+                if (engine != null) {
+                    engine.popLogger();
+                }
+                IvyContext.popContext();
+            }
+        }
+    }
+}
@@ -17,7 +17,13 @@
  */
 package org.apache.ivy.core.event;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.event.EventListenerList;
 
@@ -29,8 +35,20 @@ public class EventManager implements TransferListener {
 
     private EventListenerList listeners = new EventListenerList();
 
-    public void addIvyListener(IvyListener listener) {
+    /**
+     * Whether some ivy listeners may accept the events of a name, cleared when the ivy listeners
+     * change.
+     */
+    private final Map<String, Boolean> listenedEvents = new ConcurrentHashMap<>();
+
+    /**
+     * Ivy events fired by threads which are currently deferring their events.
+     */
+    private final ThreadLocal<Deferral> deferredEvents = new ThreadLocal<>();
+
+    public synchronized void addIvyListener(IvyListener listener) {
         listeners.add(IvyListener.class, listener);
+        listenedEvents.clear();
     }
 
     public void addIvyListener(IvyListener listener, String eventName) {
@@ -38,10 +56,32 @@ public class EventManager implements TransferListener {
     }
 
     public void addIvyListener(IvyListener listener, Filter<IvyEvent> filter) {
-        listeners.add(IvyListener.class, new FilteredIvyListener(listener, filter));
+        addIvyListener(new FilteredIvyListener(listener, filter));
+    }
+
+    /**
+     * Adds a listener of the ivy events accepted by a filter.
+     *
+     * @param listener
+     *            the listener to add
+     * @param filter
+     *            the filter of the events to deliver to the listener
+     * @param async
+     *            <code>true</code> to deliver the events to the listener asynchronously, as an
+     *            {@link AsyncIvyListener} does
+     * @since 2.5.2
+     */
+    public void addIvyListener(IvyListener listener, Filter<IvyEvent> filter, boolean async) {
+        if (async) {
+            addIvyListener(new AsyncIvyListener(listener, filter,
+                    AsyncIvyListener.DEFAULT_QUEUE_SIZE));
+        } else {
+            addIvyListener(listener, filter);
+        }
     }
 
-    public void removeIvyListener(IvyListener listener) {
+    public synchronized void removeIvyListener(IvyListener listener) {
+        listenedEvents.clear();
         listeners.remove(IvyListener.class, listener);
         IvyListener[] listeners = this.listeners.getListeners(IvyListener.class);
         for (IvyListener listen : listeners) {
@@ -65,7 +105,61 @@ public class EventManager implements TransferListener {
         return false;
     }
 
+    /**
+     * Tells whether some ivy listeners may accept the events of the given name, so that firing
+     * events can be skipped, with their creation, when no listener would accept them.
+     *
+     * @param eventName
+     *            the name of the events
+     * @return <code>false</code> if no ivy listener accepts the events of this name
+     * @since 2.5.2
+     */
+    public boolean hasIvyListeners(String eventName) {
+        Boolean listened = listenedEvents.get(eventName);
+        return listened == null ? computeListened(eventName) : listened;
+    }
+
+    private synchronized boolean computeListened(String eventName) {
+        boolean listened = false;
+        for (IvyListener listener : listeners.getListeners(IvyListener.class)) {
+            Filter<IvyEvent> filter = listener instanceof FilteredIvyListener
+                    ? ((FilteredIvyListener) listener).getFilter() : null;
+            if (!(filter instanceof IvyEventFilter)
+                    || ((IvyEventFilter) filter).acceptsEventName(eventName)) {
+                listened = true;
+                break;
+            }
+        }
+        listenedEvents.put(eventName, listened);
+        return listened;
+    }
+
+    /**
+     * Waits for the events already fired to be delivered to the listeners added to be notified
+     * asynchronously.
+     *
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     * @since 2.5.2
+     */
+    public void flushIvyListeners() throws InterruptedException {
+        for (IvyListener listener : listeners.getListeners(IvyListener.class)) {
+            if (listener instanceof AsyncIvyListener) {
+                ((AsyncIvyListener) listener).flush();
+            }
+        }
+    }
+
     public void fireIvyEvent(IvyEvent evt) {
+        Deferral deferral = deferredEvents.get();
+        if (deferral != null && !deferral.immediateEvents.contains(evt.getName())) {
+            deferral.events.add(evt);
+            return;
+        }
+        doFireIvyEvent(evt);
+    }
+
+    private void doFireIvyEvent(IvyEvent evt) {
         Object[] listeners = this.listeners.getListenerList();
         for (int i = listeners.length - 2; i >= 0; i -= 2) {
             if (listeners[i] == IvyListener.class) {
@@ -97,7 +191,56 @@ public class EventManager implements TransferListener {
 
     public void transferProgress(TransferEvent evt) {
         fireTransferEvent(evt);
-        fireIvyEvent(evt);
+        // transfer events are reused by repositories during a transfer, so they can't be deferred
+        doFireIvyEvent(evt);
+    }
+
+    /**
+     * Starts deferring the ivy events fired by the current thread: instead of being dispatched to
+     * listeners, they are recorded until {@link #stopDeferringIvyEvents()} is called, so that they
+     * can be fired later on, in a predictable order, by the thread coordinating the work.
+     * <p>
+     * Transfer events are never deferred.
+     * </p>
+     */
+    public void deferIvyEvents() {
+        deferIvyEvents(Collections.<String> emptySet());
+    }
+
+    /**
+     * Starts deferring the ivy events fired by the current thread, except the events of the given
+     * names which are still dispatched right away, by the current thread: this is meant for the
+     * events of the triggers which must be performed before the current thread goes on.
+     *
+     * @param immediateEvents
+     *            the names of the events which must not be deferred
+     * @see #deferIvyEvents()
+     * @since 2.5.2
+     */
+    public void deferIvyEvents(Set<String> immediateEvents) {
+        deferredEvents.set(new Deferral(immediateEvents));
+    }
+
+    /**
+     * Stops deferring the ivy events fired by the current thread.
+     *
+     * @return the events fired by the current thread since {@link #deferIvyEvents()} was called,
+     *         in the order they were fired
+     */
+    public List<IvyEvent> stopDeferringIvyEvents() {
+        Deferral deferral = deferredEvents.get();
+        deferredEvents.remove();
+        return deferral == null ? Collections.<IvyEvent> emptyList() : deferral.events;
+    }
+
+    private static final class Deferral {
+        private final List<IvyEvent> events = new ArrayList<>();
+
+        private final Set<String> immediateEvents;
+
+        private Deferral(Set<String> immediateEvents) {
+            this.immediateEvents = immediateEvents;
+        }
     }
 
 }
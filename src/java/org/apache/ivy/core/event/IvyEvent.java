@@ -106,6 +106,18 @@ public class IvyEvent {
         return new HashMap<>(attributes);
     }
 
+    /**
+     * Returns the value of an attribute of this event, without copying its attributes.
+     *
+     * @param key
+     *            the name of the attribute
+     * @return the value of the attribute, or <code>null</code> if this event has no such attribute
+     * @since 2.5.2
+     */
+    public String getAttribute(String key) {
+        return attributes.get(key);
+    }
+
     public String toString() {
         return getName() + " " + getAttributes();
     }
@@ -84,6 +84,8 @@ public class IvyEventFilter implements Filter<IvyEvent> {
 
     private Filter<IvyEvent> nameFilter;
 
+    private Matcher eventNameMatcher;
+
     private Filter<IvyEvent> attFilter;
 
     public IvyEventFilter(String event, String filterExpression, PatternMatcher matcher) {
@@ -91,7 +93,7 @@ public class IvyEventFilter implements Filter<IvyEvent> {
         if (event == null) {
             nameFilter = NoFilter.instance();
         } else {
-            final Matcher eventNameMatcher = this.matcher.getMatcher(event);
+            eventNameMatcher = this.matcher.getMatcher(event);
             nameFilter = new Filter<IvyEvent>() {
                 public boolean accept(IvyEvent e) {
                     return eventNameMatcher.matches(e.getName());
@@ -133,7 +135,7 @@ public class IvyEventFilter implements Filter<IvyEvent> {
                     }
                     return new Filter<IvyEvent>() {
                         public boolean accept(IvyEvent e) {
-                            String val = e.getAttributes().get(attname);
+                            String val = e.getAttribute(attname);
                             if (val == null) {
                                 return false;
                             }
@@ -160,4 +162,17 @@ public class IvyEventFilter implements Filter<IvyEvent> {
         return nameFilter.accept(e) && attFilter.accept(e);
     }
 
+    /**
+     * Tells whether events of the given name can be accepted by this filter, depending on their
+     * attributes.
+     *
+     * @param eventName
+     *            the name of the events
+     * @return <code>false</code> if all the events of this name are rejected by this filter
+     * @since 2.5.2
+     */
+    public boolean acceptsEventName(String eventName) {
+        return eventNameMatcher == null || eventNameMatcher.matches(eventName);
+    }
+
 }
@@ -0,0 +1,132 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.IvyNode;
+import org.apache.ivy.core.resolve.ResolveEngine;
+import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.plugins.report.XmlReportParser;
+
+/**
+ * The report of a configuration reloaded from the xml report written in the cache by a previous
+ * resolve.
+ * <p>
+ * Such a report gives the resolved module revisions and the reports of their artifacts, but not
+ * the dependency graph: it has no {@link IvyNode}, and evicted module revisions are not part of
+ * it.
+ * </p>
+ */
+public class CachedConfigurationResolveReport extends ConfigurationResolveReport {
+    private final Set<ModuleRevisionId> mrids;
+
+    private final List<ArtifactDownloadReport> artifactReports;
+
+    private final Map<ModuleRevisionId, List<ArtifactDownloadReport>> artifactReportsByMrid
+            = new LinkedHashMap<>();
+
+    public CachedConfigurationResolveReport(ResolveEngine resolveEngine, ModuleDescriptor md,
+            String conf, ResolveOptions options, XmlReportParser parser) {
+        super(resolveEngine, md, conf, options.getDate(), options);
+        mrids = new LinkedHashSet<>(Arrays.asList(parser.getDependencyRevisionIds()));
+        artifactReports = Arrays.asList(parser.getArtifactReports());
+        for (ArtifactDownloadReport report : artifactReports) {
+            ModuleRevisionId mrid = report.getArtifact().getModuleRevisionId();
+            List<ArtifactDownloadReport> reports = artifactReportsByMrid.get(mrid);
+            if (reports == null) {
+                reports = new ArrayList<>();
+                artifactReportsByMrid.put(mrid, reports);
+            }
+            reports.add(report);
+        }
+    }
+
+    /**
+     * Does nothing: the dependencies of a reloaded report are the ones of the previous resolve.
+     */
+    @Override
+    public void checkIfChanged() {
+    }
+
+    @Override
+    public boolean hasChanged() {
+        return false;
+    }
+
+    @Override
+    public Set<ModuleRevisionId> getModuleRevisionIds() {
+        return Collections.unmodifiableSet(mrids);
+    }
+
+    @Override
+    public ArtifactDownloadReport[] getDownloadReports(ModuleRevisionId mrid) {
+        List<ArtifactDownloadReport> reports = artifactReportsByMrid.get(mrid);
+        if (reports == null) {
+            return new ArtifactDownloadReport[0];
+        }
+        return reports.toArray(new ArtifactDownloadReport[reports.size()]);
+    }
+
+    @Override
+    public List<ModuleId> getModuleIds() {
+        Set<ModuleId> mids = new LinkedHashSet<>();
+        for (ModuleRevisionId mrid : mrids) {
+            mids.add(mrid.getModuleId());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(mids));
+    }
+
+    @Override
+    public Collection<IvyNode> getNodes(ModuleId mid) {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public int getArtifactsNumber() {
+        return artifactReports.size();
+    }
+
+    @Override
+    public ArtifactDownloadReport[] getArtifactsReports(DownloadStatus downloadStatus,
+            boolean withEvicted) {
+        List<ArtifactDownloadReport> reports = new ArrayList<>();
+        for (ArtifactDownloadReport report : artifactReports) {
+            if (downloadStatus == null || report.getDownloadStatus() == downloadStatus) {
+                reports.add(report);
+            }
+        }
+        return reports.toArray(new ArtifactDownloadReport[reports.size()]);
+    }
+
+    @Override
+    public int getNodesNumber() {
+        return mrids.size();
+    }
+}
@@ -262,6 +262,18 @@ public class ResolveReport {
         return artifacts;
     }
 
+    /**
+     * Sets the list of all artifacts of this resolve, when this report doesn't come with the
+     * dependencies they have been collected from.
+     *
+     * @param artifacts
+     *            the artifacts of this resolve
+     * @see CachedConfigurationResolveReport
+     */
+    public void setArtifacts(List<Artifact> artifacts) {
+        this.artifacts = artifacts;
+    }
+
     /**
      * gives all the modules ids concerned by this report, from the most dependent to the least one
      *
@@ -21,7 +21,22 @@ import org.apache.ivy.core.LogOptions;
 
 public class DownloadOptions extends LogOptions {
 
+    /**
+     * The maximum number of threads to use to download artifacts of distinct modules concurrently,
+     * or 0 to use the number configured in the settings.
+     */
+    private int threads = 0;
+
     public DownloadOptions() {
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public DownloadOptions setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
 }
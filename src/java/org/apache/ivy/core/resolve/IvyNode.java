@@ -38,6 +38,7 @@ import java.util.regex.Pattern;
 
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.event.resolve.EndResolveDependencyEvent;
 import org.apache.ivy.core.event.resolve.StartResolveDependencyEvent;
 import org.apache.ivy.core.module.descriptor.Artifact;
@@ -186,13 +187,22 @@ public class IvyNode implements Comparable<IvyNode> {
                     long start = System.currentTimeMillis();
                     ModuleRevisionId requestedRevisionId = dependencyDescriptor
                             .getDependencyRevisionId();
-                    data.getEventManager().fireIvyEvent(
-                        new StartResolveDependencyEvent(resolver, dependencyDescriptor,
-                                requestedRevisionId));
+                    EventManager eventManager = data.getEventManager();
+                    if (eventManager.hasIvyListeners(StartResolveDependencyEvent.NAME)) {
+                        eventManager.fireIvyEvent(new StartResolveDependencyEvent(resolver,
+                                dependencyDescriptor, requestedRevisionId));
+                    }
+                    MetadataPrefetcher prefetcher = data.getMetadataPrefetcher();
+                    if (prefetcher != null) {
+                        // make sure no speculative lookup of this module is still running
+                        prefetcher.await(getModuleId());
+                    }
                     module = resolver.getDependency(dependencyDescriptor, data);
-                    data.getEventManager().fireIvyEvent(
-                        new EndResolveDependencyEvent(resolver, dependencyDescriptor,
-                                requestedRevisionId, module, System.currentTimeMillis() - start));
+                    if (eventManager.hasIvyListeners(EndResolveDependencyEvent.NAME)) {
+                        eventManager.fireIvyEvent(new EndResolveDependencyEvent(resolver,
+                                dependencyDescriptor, requestedRevisionId, module,
+                                System.currentTimeMillis() - start));
+                    }
 
                     if (module != null) {
                         module.getResolver()
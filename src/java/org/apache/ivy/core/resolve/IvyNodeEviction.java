@@ -18,6 +18,7 @@
 package org.apache.ivy.core.resolve;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -131,62 +132,42 @@ public class IvyNodeEviction {
         }
     }
 
-    private static final class ModuleIdConf {
-        private ModuleId moduleId;
+    /**
+     * The conflict resolution data of the dependencies on a module in a root module
+     * configuration, chained to the data of the same dependencies in the other root module
+     * configurations, which are usually few.
+     * <p>
+     * The collections are replaced but never modified, so that the empty ones can be shared.
+     * </p>
+     */
+    private static final class DependencyConflicts {
+        private final String rootModuleConf;
 
-        private String conf;
+        private final DependencyConflicts next;
 
-        public ModuleIdConf(ModuleId mid, String conf) {
-            if (mid == null) {
-                throw new NullPointerException("mid cannot be null");
-            }
-            if (conf == null) {
-                throw new NullPointerException("conf cannot be null");
-            }
-            moduleId = mid;
-            this.conf = conf;
-        }
+        private Collection<IvyNode> selected = Collections.emptySet();
 
-        public final String getConf() {
-            return conf;
-        }
+        private Collection<IvyNode> pending = Collections.emptySet();
 
-        public final ModuleId getModuleId() {
-            return moduleId;
-        }
+        private Collection<IvyNode> evicted = Collections.emptySet();
 
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof ModuleIdConf
-                    && getModuleId().equals(((ModuleIdConf) obj).getModuleId())
-                    && getConf().equals(((ModuleIdConf) obj).getConf());
-        }
+        private Collection<ModuleRevisionId> evictedRevs = Collections.emptySet();
 
-        @Override
-        public int hashCode() {
-            // CheckStyle:MagicNumber| OFF
-            int hash = 33;
-            hash += getModuleId().hashCode() * 17;
-            hash += getConf().hashCode() * 17;
-            // CheckStyle:MagicNumber| ON
-            return hash;
+        private DependencyConflicts(String rootModuleConf, DependencyConflicts next) {
+            if (rootModuleConf == null) {
+                throw new NullPointerException("conf cannot be null");
+            }
+            this.rootModuleConf = rootModuleConf;
+            this.next = next;
         }
     }
 
     private IvyNode node;
 
-    // map indicating for each dependency which node has been selected
-    private Map<ModuleIdConf, Set<IvyNode>> selectedDeps = new HashMap<>();
-
-    // map indicating for each dependency which nodes are in pending conflict (conflict detected but
-    // not yet resolved)
-    private Map<ModuleIdConf, Set<IvyNode>> pendingConflicts = new HashMap<>();
-
-    // map indicating for each dependency which node has been evicted
-    private Map<ModuleIdConf, Set<IvyNode>> evictedDeps = new HashMap<>();
-
-    // map indicating for each dependency which revision has been evicted
-    private Map<ModuleIdConf, Collection<ModuleRevisionId>> evictedRevs = new HashMap<>();
+    // the conflict resolution data of the dependencies of this node, by module id: which nodes
+    // have been selected, which nodes and revisions have been evicted, and which nodes are in
+    // pending conflict (conflict detected but not yet resolved)
+    private Map<ModuleId, DependencyConflicts> dependencyConflicts = new HashMap<>();
 
     // indicates if the node is evicted in each root module conf
     private Map<String, EvictionData> evicted = new HashMap<>();
@@ -204,23 +185,17 @@ public class IvyNodeEviction {
      * @return A copy of the set of resolved nodes (real nodes)
      */
     public Set<IvyNode> getResolvedNodes(ModuleId mid, String rootModuleConf) {
-        Collection<IvyNode> resolved = selectedDeps.get(new ModuleIdConf(mid, rootModuleConf));
-        Set<IvyNode> ret = new HashSet<>();
-        if (resolved != null) {
-            for (IvyNode node : resolved) {
-                ret.add(node.getRealNode());
-            }
-        }
-        return ret;
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        return conflicts == null ? new HashSet<IvyNode>() : getRealNodes(conflicts.selected);
     }
 
     public Collection<ModuleRevisionId> getResolvedRevisions(ModuleId mid, String rootModuleConf) {
-        Collection<IvyNode> resolved = selectedDeps.get(new ModuleIdConf(mid, rootModuleConf));
-        if (resolved == null) {
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        if (conflicts == null) {
             return new HashSet<>();
         } else {
             Collection<ModuleRevisionId> resolvedRevs = new HashSet<>();
-            for (IvyNode node : resolved) {
+            for (IvyNode node : conflicts.selected) {
                 ModuleRevisionId resolvedId = node.getResolvedId();
                 resolvedRevs.add(node.getId());
                 resolvedRevs.add(resolvedId);
@@ -238,41 +213,33 @@ public class IvyNodeEviction {
 
     public void setResolvedNodes(ModuleId moduleId, String rootModuleConf,
             Collection<IvyNode> resolved) {
-        ModuleIdConf moduleIdConf = new ModuleIdConf(moduleId, rootModuleConf);
-        selectedDeps.put(moduleIdConf, new HashSet<>(resolved));
+        addDependencyConflicts(moduleId, rootModuleConf).selected = copyOf(resolved);
     }
 
     public Collection<IvyNode> getEvictedNodes(ModuleId mid, String rootModuleConf) {
-        Collection<IvyNode> resolved = evictedDeps.get(new ModuleIdConf(mid, rootModuleConf));
-        Set<IvyNode> ret = new HashSet<>();
-        if (resolved != null) {
-            for (IvyNode node : resolved) {
-                ret.add(node.getRealNode());
-            }
-        }
-        return ret;
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        return conflicts == null ? new HashSet<IvyNode>() : getRealNodes(conflicts.evicted);
     }
 
     public Collection<ModuleRevisionId> getEvictedRevisions(ModuleId mid, String rootModuleConf) {
-        Collection<ModuleRevisionId> evicted = evictedRevs
-                .get(new ModuleIdConf(mid, rootModuleConf));
-        if (evicted == null) {
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        if (conflicts == null) {
             return new HashSet<>();
         } else {
-            return new HashSet<>(evicted);
+            return new HashSet<>(conflicts.evictedRevs);
         }
     }
 
     public void setEvictedNodes(ModuleId moduleId, String rootModuleConf,
             Collection<IvyNode> evicted) {
-        ModuleIdConf moduleIdConf = new ModuleIdConf(moduleId, rootModuleConf);
-        evictedDeps.put(moduleIdConf, new HashSet<>(evicted));
+        DependencyConflicts conflicts = addDependencyConflicts(moduleId, rootModuleConf);
+        conflicts.evicted = copyOf(evicted);
         Collection<ModuleRevisionId> evictedRevs = new HashSet<>();
         for (IvyNode node : evicted) {
             evictedRevs.add(node.getId());
             evictedRevs.add(node.getResolvedId());
         }
-        this.evictedRevs.put(moduleIdConf, evictedRevs);
+        conflicts.evictedRevs = copyOf(evictedRevs);
     }
 
     public boolean isEvicted(String rootModuleConf) {
@@ -408,20 +375,56 @@ public class IvyNodeEviction {
     }
 
     public Collection<IvyNode> getPendingConflicts(String rootModuleConf, ModuleId mid) {
-        Collection<IvyNode> resolved = pendingConflicts.get(new ModuleIdConf(mid, rootModuleConf));
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        return conflicts == null ? new HashSet<IvyNode>() : getRealNodes(conflicts.pending);
+    }
+
+    public void setPendingConflicts(ModuleId moduleId, String rootModuleConf,
+            Collection<IvyNode> conflicts) {
+        addDependencyConflicts(moduleId, rootModuleConf).pending = copyOf(conflicts);
+    }
+
+    private DependencyConflicts getDependencyConflicts(ModuleId mid, String rootModuleConf) {
+        DependencyConflicts conflicts = dependencyConflicts.get(mid);
+        while (conflicts != null && !conflicts.rootModuleConf.equals(rootModuleConf)) {
+            conflicts = conflicts.next;
+        }
+        return conflicts;
+    }
+
+    private DependencyConflicts addDependencyConflicts(ModuleId mid, String rootModuleConf) {
+        if (mid == null) {
+            throw new NullPointerException("mid cannot be null");
+        }
+        DependencyConflicts conflicts = getDependencyConflicts(mid, rootModuleConf);
+        if (conflicts == null) {
+            conflicts = new DependencyConflicts(rootModuleConf, dependencyConflicts.get(mid));
+            dependencyConflicts.put(mid, conflicts);
+        }
+        return conflicts;
+    }
+
+    private static Set<IvyNode> getRealNodes(Collection<IvyNode> nodes) {
         Set<IvyNode> ret = new HashSet<>();
-        if (resolved != null) {
-            for (IvyNode node : resolved) {
-                ret.add(node.getRealNode());
-            }
+        for (IvyNode node : nodes) {
+            ret.add(node.getRealNode());
         }
         return ret;
     }
 
-    public void setPendingConflicts(ModuleId moduleId, String rootModuleConf,
-            Collection<IvyNode> conflicts) {
-        ModuleIdConf moduleIdConf = new ModuleIdConf(moduleId, rootModuleConf);
-        pendingConflicts.put(moduleIdConf, new HashSet<>(conflicts));
+    /**
+     * Copies a collection into an unmodifiable set, most of the sets of the conflict resolution
+     * data being empty or singletons.
+     */
+    private static <T> Collection<T> copyOf(Collection<T> c) {
+        switch (c.size()) {
+            case 0:
+                return Collections.emptySet();
+            case 1:
+                return Collections.singleton(c.iterator().next());
+            default:
+                return new HashSet<>(c);
+        }
     }
 
 }
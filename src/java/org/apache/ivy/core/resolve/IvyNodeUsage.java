@@ -19,6 +19,7 @@ package org.apache.ivy.core.resolve;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -125,12 +126,14 @@ public class IvyNodeUsage {
     // rootConfName -> confNames
     private Map<String, Set<String>> rootModuleConfs = new HashMap<>();
 
+    // the sets of required configurations are never modified, a parent usually requiring a
+    // single configuration
     private Map<NodeConf, Set<String>> requiredConfs = new HashMap<>();
 
     private Map<String, Set<Depender>> dependers = new HashMap<>();
 
-    // rootModuleConf -> black list
-    private Map<String, IvyNodeBlacklist> blacklisted = new HashMap<>();
+    // rootModuleConf -> black list, created when a first black list is added
+    private Map<String, IvyNodeBlacklist> blacklisted = Collections.emptyMap();
 
     public IvyNodeUsage(IvyNode node) {
         this.node = node;
@@ -141,7 +144,9 @@ public class IvyNodeUsage {
     }
 
     protected void setRequiredConfs(IvyNode parent, String parentConf, Collection<String> confs) {
-        requiredConfs.put(new NodeConf(parent, parentConf), new HashSet<>(confs));
+        Set<String> required = confs.size() == 1
+                ? Collections.singleton(confs.iterator().next()) : new HashSet<>(confs);
+        requiredConfs.put(new NodeConf(parent, parentConf), required);
     }
 
     /**
@@ -174,8 +179,17 @@ public class IvyNodeUsage {
     }
 
     private void updateDataFrom(IvyNodeUsage usage, String rootModuleConf) {
-        // update requiredConfs
-        updateMapOfSet(usage.requiredConfs, requiredConfs);
+        // update requiredConfs, the sets of which are replaced rather than modified
+        for (Map.Entry<NodeConf, Set<String>> entry : usage.requiredConfs.entrySet()) {
+            Set<String> confs = requiredConfs.get(entry.getKey());
+            if (confs == null) {
+                requiredConfs.put(entry.getKey(), entry.getValue());
+            } else if (!confs.containsAll(entry.getValue())) {
+                Set<String> merged = new HashSet<>(confs);
+                merged.addAll(entry.getValue());
+                requiredConfs.put(entry.getKey(), merged);
+            }
+        }
 
         // update rootModuleConfs
         updateMapOfSetForKey(usage.rootModuleConfs, rootModuleConfs, rootModuleConf);
@@ -184,12 +198,6 @@ public class IvyNodeUsage {
         updateMapOfSetForKey(usage.dependers, dependers, rootModuleConf);
     }
 
-    private <K, V> void updateMapOfSet(Map<K, Set<V>> from, Map<K, Set<V>> to) {
-        for (K key : from.keySet()) {
-            updateMapOfSetForKey(from, to, key);
-        }
-    }
-
     private <K, V> void updateMapOfSetForKey(Map<K, Set<V>> from, Map<K, Set<V>> to, K key) {
         Set<V> set = from.get(key);
         if (set != null) {
@@ -256,6 +264,9 @@ public class IvyNodeUsage {
     }
 
     protected void blacklist(IvyNodeBlacklist bdata) {
+        if (blacklisted.isEmpty()) {
+            blacklisted = new HashMap<>();
+        }
         blacklisted.put(bdata.getRootModuleConf(), bdata);
     }
 
@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyWorkerPool;
+import org.apache.ivy.core.event.EventManager;
+import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.util.Message;
+
+/**
+ * Speculatively looks up the module descriptors of dependencies in worker threads, so that they
+ * are already in the repository cache when the resolve engine actually visits them.
+ * <p>
+ * Lookups are done with a {@link ResolveData} of their own, detached from the dependency graph,
+ * and their results are dropped: the traversal thread still does the actual lookup, served by the
+ * cache, so conflict resolution and eviction are not affected. Only static revisions are
+ * prefetched, and at most one lookup per module is running at any time, the traversal thread
+ * waiting for it before looking up the same module, so that the cache of a given module is never
+ * written by two threads at once.
+ * </p>
+ * <p>
+ * This class is not thread safe: it must only be used by the thread traversing the dependency
+ * graph.
+ * </p>
+ */
+final class MetadataPrefetcher {
+    private final ResolveEngine engine;
+
+    private final ResolveOptions options;
+
+    private final IvyWorkerPool pool;
+
+    private final Map<ModuleId, Future<List<IvyEvent>>> running = new LinkedHashMap<>();
+
+    private final Set<ModuleRevisionId> requested = new HashSet<>();
+
+    MetadataPrefetcher(ResolveEngine engine, ResolveOptions options, int threads) {
+        this.engine = engine;
+        this.options = options;
+        this.pool = new IvyWorkerPool("ivy-prefetch", threads);
+    }
+
+    /**
+     * Starts looking up the descriptors of the given dependencies which haven't been loaded yet.
+     *
+     * @param dependencies
+     *            the dependencies about to be visited
+     */
+    void prefetch(Collection<VisitNode> dependencies) {
+        for (VisitNode dependency : dependencies) {
+            IvyNode node = dependency.getNode();
+            ModuleRevisionId mrid = node.getId();
+            if (node.isLoaded() || node.hasProblem() || requested.contains(mrid)
+                    || running.containsKey(mrid.getModuleId())
+                    || engine.getSettings().getVersionMatcher().isDynamic(mrid)) {
+                continue;
+            }
+            DependencyResolver resolver = engine.getDictatorResolver();
+            if (resolver == null) {
+                resolver = engine.getSettings().getResolver(mrid);
+            }
+            DependencyDescriptor dd = dependency.getDependencyDescriptor();
+            if (resolver == null || dd == null) {
+                continue;
+            }
+            requested.add(mrid);
+            running.put(mrid.getModuleId(), pool.submit(new Lookup(resolver, dd)));
+        }
+    }
+
+    /**
+     * Waits for the lookup of a module to finish if one is running, and fires the events which
+     * were fired by this lookup.
+     *
+     * @param mid
+     *            the module about to be looked up by the traversal thread
+     */
+    void await(ModuleId mid) {
+        Future<List<IvyEvent>> lookup = running.remove(mid);
+        if (lookup != null) {
+            fireEvents(IvyWorkerPool.await(lookup));
+        }
+    }
+
+    /**
+     * Stops prefetching.
+     *
+     * @param completed
+     *            true if the traversal completed normally, in which case the running lookups are
+     *            awaited, false to abort them
+     */
+    void close(boolean completed) {
+        try {
+            if (completed) {
+                for (ModuleId mid : new ArrayList<>(running.keySet())) {
+                    await(mid);
+                }
+            }
+        } finally {
+            running.clear();
+            pool.shutdownNow();
+        }
+    }
+
+    private void fireEvents(List<IvyEvent> events) {
+        EventManager eventManager = engine.getEventManager();
+        for (IvyEvent event : events) {
+            eventManager.fireIvyEvent(event);
+        }
+    }
+
+    private final class Lookup implements Callable<List<IvyEvent>> {
+        private final DependencyResolver resolver;
+
+        private final DependencyDescriptor dd;
+
+        private Lookup(DependencyResolver resolver, DependencyDescriptor dd) {
+            this.resolver = resolver;
+            this.dd = dd;
+        }
+
+        public List<IvyEvent> call() {
+            ResolveData data = new ResolveData(engine, new ResolveOptions(options));
+            IvyContext.getContext().setResolveData(data);
+            EventManager eventManager = engine.getEventManager();
+            eventManager.deferIvyEvents();
+            List<IvyEvent> events;
+            try {
+                ResolvedModuleRevision module = resolver.getDependency(dd, data);
+                if (module != null) {
+                    // as done by IvyNode, so that wrapping resolvers are found again in the cache
+                    module.getResolver().getRepositoryCacheManager().saveResolvers(
+                        module.getDescriptor(), module.getResolver().getName(),
+                        module.getArtifactResolver().getName());
+                }
+            } catch (Exception e) {
+                // the traversal thread will do the lookup again and report the problem
+                Message.debug("prefetch of " + dd.getDependencyRevisionId() + " failed", e);
+            } finally {
+                events = eventManager.stopDeferringIvyEvents();
+            }
+            return events;
+        }
+    }
+}
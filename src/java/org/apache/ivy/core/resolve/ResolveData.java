@@ -47,6 +47,8 @@ public class ResolveData {
 
     private ResolvedModuleRevision currentResolvedModuleRevision;
 
+    private MetadataPrefetcher metadataPrefetcher;
+
     public ResolveData(ResolveData data, boolean validate) {
         this(data.engine, new ResolveOptions(data.options).setValidate(validate), data.report,
                 data.visitData);
@@ -332,4 +334,17 @@ public class ResolveData {
     public ResolvedModuleRevision getCurrentResolvedModuleRevision() {
         return currentResolvedModuleRevision;
     }
+
+    /**
+     * Returns the prefetcher looking up module descriptors ahead of the traversal, if any.
+     *
+     * @return the current metadata prefetcher, may be <code>null</code>
+     */
+    MetadataPrefetcher getMetadataPrefetcher() {
+        return metadataPrefetcher;
+    }
+
+    void setMetadataPrefetcher(MetadataPrefetcher metadataPrefetcher) {
+        this.metadataPrefetcher = metadataPrefetcher;
+    }
 }
@@ -29,21 +29,30 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyWorkerPool;
 import org.apache.ivy.core.LogOptions;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.DefaultResolutionCacheManager;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
 import org.apache.ivy.core.event.EventManager;
+import org.apache.ivy.core.event.IvyEvent;
 import org.apache.ivy.core.event.download.PrepareDownloadEvent;
+import org.apache.ivy.core.event.download.StartArtifactDownloadEvent;
 import org.apache.ivy.core.event.resolve.EndResolveEvent;
+import org.apache.ivy.core.event.resolve.StartResolveDependencyEvent;
 import org.apache.ivy.core.event.resolve.StartResolveEvent;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.Configuration;
@@ -54,6 +63,7 @@ import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.CachedConfigurationResolveReport;
 import org.apache.ivy.core.report.ConfigurationResolveReport;
 import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
@@ -65,10 +75,13 @@ import org.apache.ivy.core.sort.SortOptions;
 import org.apache.ivy.plugins.conflict.ConflictManager;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
+import org.apache.ivy.plugins.report.XmlReportParser;
 import org.apache.ivy.plugins.repository.url.URLResource;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
 import org.apache.ivy.plugins.version.VersionMatcher;
 import org.apache.ivy.util.Message;
+import org.apache.ivy.util.MessageLogger;
+import org.apache.ivy.util.MessageLoggerEngine;
 import org.apache.ivy.util.filter.Filter;
 
 /**
@@ -241,6 +254,37 @@ public class ResolveEngine {
             Message.verbose("\tvalidate = " + options.isValidate());
             Message.verbose("\trefresh = " + options.isRefresh());
 
+            ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+            DefaultResolutionCacheManager fingerprintCache = null;
+            String fingerprint = null;
+            if (cacheManager instanceof DefaultResolutionCacheManager) {
+                fingerprintCache = (DefaultResolutionCacheManager) cacheManager;
+                if (options.isIncremental() && settings instanceof IvySettings) {
+                    fingerprint = ResolveFingerprint.compute((IvySettings) settings, md, options);
+                    if (fingerprint != null && fingerprint.equals(
+                        fingerprintCache.getResolveFingerprint(options.getResolveId()))) {
+                        ResolveReport report = loadPreviousReport(md, options, cacheManager);
+                        if (report != null) {
+                            String msg = "\tnothing changed since the previous resolve: "
+                                    + "reusing its reports";
+                            if (ResolveOptions.LOG_DEFAULT.equals(options.getLog())) {
+                                Message.info(msg);
+                            } else {
+                                Message.verbose(msg);
+                            }
+                            report.setResolveTime(System.currentTimeMillis() - start);
+                            Message.sumupProblems();
+                            eventManager.fireIvyEvent(new EndResolveEvent(md, confs, report));
+                            return report;
+                        }
+                    }
+                }
+                if (options.isOutputReport()) {
+                    // the reports about to be written won't match the stored fingerprint anymore
+                    fingerprintCache.saveResolveFingerprint(options.getResolveId(), null, 0);
+                }
+            }
+
             ResolveReport report = new ResolveReport(md, options.getResolveId());
 
             ResolveData data = new ResolveData(this, options);
@@ -255,7 +299,6 @@ public class ResolveEngine {
             }
 
             // produce resolved ivy file and ivy properties in cache
-            ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
             cacheManager.saveResolvedModuleDescriptor(md);
 
             // we store the resolved dependencies revisions and statuses per asked dependency
@@ -358,6 +401,15 @@ public class ResolveEngine {
                 outputReport(report, cacheManager, options);
             }
 
+            if (fingerprint != null && !report.hasError()) {
+                long expiration = ResolveFingerprint.getExpiration((IvySettings) settings,
+                    dependencies, start);
+                if (expiration > start) {
+                    fingerprintCache.saveResolveFingerprint(options.getResolveId(), fingerprint,
+                        expiration);
+                }
+            }
+
             Message.verbose("\tresolve done (" + report.getResolveTime() + "ms resolve - "
                     + report.getDownloadTime() + "ms download)");
             Message.sumupProblems();
@@ -375,6 +427,196 @@ public class ResolveEngine {
         }
     }
 
+    /**
+     * Resolves the dependencies of several modules, concurrently.
+     * <p>
+     * Modules are started in the order given by the sort engine and resolved by up to
+     * <code>threads</code> workers sharing the caches of this engine. The resolve of a module
+     * only waits for the resolves of the modules of the collection on which it depends, so that
+     * what they write in the resolution cache is available to it, as in a sequential build.
+     * </p>
+     * <p>
+     * Each module is resolved with its own copy of the given options, with its default resolve
+     * id, and gets the same report as with {@link #resolve(ModuleDescriptor, ResolveOptions)}.
+     * The events fired while resolving a module are dispatched by the calling thread once the
+     * resolve of the module is over, except the pre-resolve, pre-resolve-dependency and
+     * pre-download-artifact events which are dispatched right away by the worker, so that their
+     * triggers are performed before it goes on.
+     * </p>
+     *
+     * @param mds
+     *            the descriptors of the modules to resolve
+     * @param options
+     *            the resolve options to use for each module, its resolve id is ignored
+     * @param threads
+     *            the maximum number of modules to resolve at the same time
+     * @return the reports of the resolves, by module descriptor, in the order of the sort engine
+     * @throws ParseException if the resolve of a module failed to parse a descriptor
+     * @throws IOException if the resolve of a module failed with an io problem
+     * @since 2.5.2
+     */
+    public Map<ModuleDescriptor, ResolveReport> resolve(Collection<ModuleDescriptor> mds,
+            ResolveOptions options, int threads) throws ParseException, IOException {
+        List<ModuleDescriptor> sorted = sortEngine.sortModuleDescriptors(mds, SortOptions.SILENT);
+        Map<ModuleDescriptor, ResolveReport> reports = new LinkedHashMap<>();
+        if (threads <= 1 || sorted.size() <= 1) {
+            for (ModuleDescriptor md : sorted) {
+                checkInterrupted();
+                reports.put(md, resolve(md, newModuleResolveOptions(md, options)));
+            }
+            return reports;
+        }
+
+        // a module waits for the modules it depends on and which are sorted before it, circular
+        // dependencies in the collection are thus ignored
+        Map<ModuleDescriptor, List<ModuleDescriptor>> dependencies = sortEngine
+                .getDirectDependencies(sorted, SortOptions.SILENT);
+        Map<ModuleDescriptor, Set<ModuleDescriptor>> waiting = new HashMap<>();
+        Map<ModuleDescriptor, List<ModuleDescriptor>> dependents = new HashMap<>();
+        Set<ModuleDescriptor> before = new HashSet<>();
+        for (ModuleDescriptor md : sorted) {
+            Set<ModuleDescriptor> awaited = new HashSet<>();
+            for (ModuleDescriptor dependency : dependencies.get(md)) {
+                if (before.contains(dependency)) {
+                    awaited.add(dependency);
+                    List<ModuleDescriptor> mdDependents = dependents.get(dependency);
+                    if (mdDependents == null) {
+                        mdDependents = new ArrayList<>();
+                        dependents.put(dependency, mdDependents);
+                    }
+                    mdDependents.add(md);
+                }
+            }
+            waiting.put(md, awaited);
+            before.add(md);
+        }
+
+        BlockingQueue<ModuleResolve> done = new LinkedBlockingQueue<>();
+        IvyWorkerPool pool = new IvyWorkerPool("ivy-resolve", Math.min(threads, sorted.size()));
+        Map<ModuleDescriptor, ResolveReport> resolved = new HashMap<>();
+        Throwable failure = null;
+        int running = 0;
+        try {
+            for (ModuleDescriptor md : sorted) {
+                if (waiting.get(md).isEmpty()) {
+                    pool.submit(new ModuleResolve(md, newModuleResolveOptions(md, options), done));
+                    running++;
+                }
+            }
+            while (running > 0) {
+                ModuleResolve moduleResolve;
+                try {
+                    moduleResolve = done.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // reset interrupt status
+                    throw new RuntimeException("operation interrupted");
+                }
+                running--;
+                for (IvyEvent evt : moduleResolve.events) {
+                    eventManager.fireIvyEvent(evt);
+                }
+                if (moduleResolve.failure != null) {
+                    // modules already started are left to complete, but no new one is started
+                    if (failure == null) {
+                        failure = moduleResolve.failure;
+                    }
+                    continue;
+                }
+                resolved.put(moduleResolve.md, moduleResolve.report);
+                List<ModuleDescriptor> mdDependents = dependents.get(moduleResolve.md);
+                if (mdDependents == null || failure != null) {
+                    continue;
+                }
+                for (ModuleDescriptor dependent : mdDependents) {
+                    Set<ModuleDescriptor> awaited = waiting.get(dependent);
+                    awaited.remove(moduleResolve.md);
+                    if (awaited.isEmpty()) {
+                        pool.submit(new ModuleResolve(dependent,
+                                newModuleResolveOptions(dependent, options), done));
+                        running++;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure instanceof ParseException) {
+            throw (ParseException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        for (ModuleDescriptor md : sorted) {
+            reports.put(md, resolved.get(md));
+        }
+        return reports;
+    }
+
+    private static ResolveOptions newModuleResolveOptions(ModuleDescriptor md,
+            ResolveOptions options) {
+        return new ResolveOptions(options).setResolveId(ResolveOptions.getDefaultResolveId(md));
+    }
+
+    /**
+     * The events which are not deferred by the workers of a multi-module resolve, because the
+     * triggers listening to them must be performed before the worker goes on.
+     */
+    private static final Set<String> MODULE_RESOLVE_IMMEDIATE_EVENTS = new HashSet<>(
+            Arrays.asList(StartResolveEvent.NAME, StartResolveDependencyEvent.NAME,
+                StartArtifactDownloadEvent.NAME));
+
+    /**
+     * The resolve of one module of a multi-module resolve, run in a worker thread.
+     */
+    private final class ModuleResolve implements Callable<Void> {
+        private final ModuleDescriptor md;
+
+        private final ResolveOptions options;
+
+        private final BlockingQueue<ModuleResolve> done;
+
+        private ResolveReport report;
+
+        private Throwable failure;
+
+        private List<IvyEvent> events = Collections.emptyList();
+
+        private ModuleResolve(ModuleDescriptor md, ResolveOptions options,
+                BlockingQueue<ModuleResolve> done) {
+            this.md = md;
+            this.options = options;
+            this.done = done;
+        }
+
+        public Void call() {
+            // the problems of each module are collected and summed up on their own
+            MessageLogger current = IvyContext.getContext().getMessageLogger();
+            MessageLoggerEngine logger = new MessageLoggerEngine();
+            logger.setDefaultLogger(current instanceof MessageLoggerEngine
+                    ? ((MessageLoggerEngine) current).peekLogger() : current);
+            IvyContext.getContext().setMessageLogger(logger);
+            eventManager.deferIvyEvents(MODULE_RESOLVE_IMMEDIATE_EVENTS);
+            try {
+                report = resolve(md, options);
+            } catch (Exception | Error e) {
+                failure = e;
+            } finally {
+                events = eventManager.stopDeferringIvyEvents();
+                done.add(this);
+            }
+            return null;
+        }
+    }
+
     public void outputReport(ResolveReport report, ResolutionCacheManager cacheMgr,
             ResolveOptions options) throws IOException {
         if (ResolveOptions.LOG_DEFAULT.equals(options.getLog())) {
@@ -389,6 +631,52 @@ public class ResolveEngine {
         report.output(settings.getReportOutputters(), cacheMgr, options);
     }
 
+    /**
+     * Reloads the report of the previous resolve from the reports it has written in the cache.
+     *
+     * @return the report, or <code>null</code> if the reports or the artifacts they refer to are
+     *         not in the cache anymore
+     */
+    private ResolveReport loadPreviousReport(ModuleDescriptor md, ResolveOptions options,
+            ResolutionCacheManager cacheManager) {
+        ModuleRevisionId mrid = md.getResolvedModuleRevisionId();
+        if (!cacheManager.getResolvedIvyFileInCache(mrid).exists()
+                || !cacheManager.getResolvedIvyPropertiesInCache(mrid).exists()) {
+            return null;
+        }
+        ResolveReport report = new ResolveReport(md, options.getResolveId());
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        for (String conf : options.getConfs()) {
+            File reportFile = cacheManager.getConfigurationResolveReportInCache(
+                options.getResolveId(), conf);
+            if (!reportFile.exists()) {
+                return null;
+            }
+            XmlReportParser parser = new XmlReportParser();
+            try {
+                parser.parse(reportFile);
+            } catch (ParseException e) {
+                Message.verbose("\timpossible to reuse previous resolve: " + e.getMessage());
+                return null;
+            }
+            if (parser.hasError()) {
+                return null;
+            }
+            for (ArtifactDownloadReport adr : parser.getArtifactReports()) {
+                if (adr.getDownloadStatus() == DownloadStatus.FAILED
+                        || adr.getLocalFile() != null && !adr.getLocalFile().exists()) {
+                    Message.verbose("\tartifact not in cache anymore: " + adr.getArtifact());
+                    return null;
+                }
+            }
+            report.addReport(conf, new CachedConfigurationResolveReport(this, md, conf, options,
+                    parser));
+            artifacts.addAll(Arrays.asList(parser.getArtifacts()));
+        }
+        report.setArtifacts(new ArrayList<>(artifacts));
+        return report;
+    }
+
     public void downloadArtifacts(ResolveReport report, Filter<Artifact> artifactFilter,
             DownloadOptions options) {
         long start = System.currentTimeMillis();
@@ -396,16 +684,47 @@ public class ResolveEngine {
         eventManager.fireIvyEvent(new PrepareDownloadEvent(report.getArtifacts().toArray(
             new Artifact[report.getArtifacts().size()])));
 
-        long totalSize = 0;
+        List<IvyNode> toDownload = new ArrayList<>();
         for (IvyNode dependency : report.getDependencies()) {
-            checkInterrupted();
             // download artifacts required in all asked configurations
             if (!dependency.isCompletelyEvicted() && !dependency.hasProblem()
                     && dependency.getModuleRevision() != null) {
-                DependencyResolver resolver = dependency.getModuleRevision()
-                        .getArtifactResolver();
-                Artifact[] selectedArtifacts = dependency.getSelectedArtifacts(artifactFilter);
-                DownloadReport dReport = resolver.download(selectedArtifacts, options);
+                toDownload.add(dependency);
+            }
+        }
+
+        int threads = options.getThreads() > 0 ? options.getThreads() : settings
+                .getDownloadThreads();
+        IvyWorkerPool pool = null;
+        List<Future<ModuleDownload>> downloads = null;
+        if (threads > 1 && toDownload.size() > 1) {
+            // artifacts of distinct modules are downloaded concurrently, but their results are
+            // still processed below in the order of the report dependencies
+            pool = new IvyWorkerPool("ivy-download", Math.min(threads, toDownload.size()));
+            downloads = new ArrayList<>(toDownload.size());
+            for (IvyNode dependency : toDownload) {
+                downloads.add(pool.submit(new ModuleDownload(dependency, artifactFilter, options,
+                        true)));
+            }
+        }
+
+        long totalSize = 0;
+        try {
+            for (int i = 0; i < toDownload.size(); i++) {
+                checkInterrupted();
+                IvyNode dependency = toDownload.get(i);
+                ModuleDownload download;
+                if (downloads == null) {
+                    download = new ModuleDownload(dependency, artifactFilter, options, false)
+                            .call();
+                } else {
+                    download = IvyWorkerPool.await(downloads.get(i));
+                    for (IvyEvent evt : download.events) {
+                        eventManager.fireIvyEvent(evt);
+                    }
+                }
+                DependencyResolver resolver = download.resolver;
+                DownloadReport dReport = download.report;
                 for (ArtifactDownloadReport adr : dReport.getArtifactsReports()) {
                     if (adr.getDownloadStatus() == DownloadStatus.FAILED) {
                         if (adr.getArtifact().getExtraAttribute("ivy:merged") != null) {
@@ -434,11 +753,60 @@ public class ResolveEngine {
                     }
                 }
             }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
         }
         report.setDownloadTime(System.currentTimeMillis() - start);
         report.setDownloadSize(totalSize);
     }
 
+    /**
+     * The download of the selected artifacts of one module, which can be run either in the
+     * operating thread or in a worker thread.
+     */
+    private final class ModuleDownload implements Callable<ModuleDownload> {
+        private final IvyNode dependency;
+
+        private final Filter<Artifact> artifactFilter;
+
+        private final DownloadOptions options;
+
+        private final boolean deferEvents;
+
+        private DependencyResolver resolver;
+
+        private DownloadReport report;
+
+        private List<IvyEvent> events = Collections.emptyList();
+
+        private ModuleDownload(IvyNode dependency, Filter<Artifact> artifactFilter,
+                DownloadOptions options, boolean deferEvents) {
+            this.dependency = dependency;
+            this.artifactFilter = artifactFilter;
+            this.options = options;
+            this.deferEvents = deferEvents;
+        }
+
+        public ModuleDownload call() {
+            resolver = dependency.getModuleRevision().getArtifactResolver();
+            Artifact[] selectedArtifacts = dependency.getSelectedArtifacts(artifactFilter);
+            if (!deferEvents) {
+                report = resolver.download(selectedArtifacts, options);
+                return this;
+            }
+            // events are recorded to be fired by the operating thread in a predictable order
+            eventManager.deferIvyEvents();
+            try {
+                report = resolver.download(selectedArtifacts, options);
+            } finally {
+                events = eventManager.stopDeferringIvyEvents();
+            }
+            return this;
+        }
+    }
+
     /**
      * Download an artifact to the cache. Not used internally, useful especially for IDE plugins
      * needing to download artifact one by one (for source or javadoc artifact, for instance).
@@ -580,43 +948,58 @@ public class ResolveEngine {
             }
             IvyNode rootNode = new IvyNode(data, md);
 
-            for (String conf : confs) {
-                Message.verbose("resolving dependencies for configuration '" + conf + "'");
-
-                ConfigurationResolveReport confReport = null;
-                if (report != null) {
-                    confReport = report.getConfigurationReport(conf);
-                    if (confReport == null) {
-                        confReport = new ConfigurationResolveReport(this, md, conf, reportDate,
-                                options);
-                        report.addReport(conf, confReport);
+            MetadataPrefetcher prefetcher = null;
+            if (data.getMetadataPrefetcher() == null && settings.getPrefetchThreads() > 0
+                    && !options.isUseCacheOnly()) {
+                prefetcher = new MetadataPrefetcher(this, options, settings.getPrefetchThreads());
+                data.setMetadataPrefetcher(prefetcher);
+            }
+            boolean completed = false;
+            try {
+                for (String conf : confs) {
+                    Message.verbose("resolving dependencies for configuration '" + conf + "'");
+
+                    ConfigurationResolveReport confReport = null;
+                    if (report != null) {
+                        confReport = report.getConfigurationReport(conf);
+                        if (confReport == null) {
+                            confReport = new ConfigurationResolveReport(this, md, conf, reportDate,
+                                    options);
+                            report.addReport(conf, confReport);
+                        }
                     }
-                }
-                // we reuse the same resolve data with a new report for each conf
-                data.setReport(confReport);
-
-                // update the root module conf we are about to fetch
-                VisitNode root = new VisitNode(data, rootNode, null, conf, null);
-                root.setRequestedConf(conf);
-                rootNode.updateConfsToFetch(Collections.singleton(conf));
-
-                // go fetch !
-                boolean fetched = false;
-                while (!fetched) {
-                    try {
-                        fetchDependencies(root, conf, new HashSet<String>(), false);
-                        fetched = true;
-                    } catch (RestartResolveProcess restart) {
-                        Message.verbose("====================================================");
-                        Message.verbose("=           RESTARTING RESOLVE PROCESS");
-                        Message.verbose("= " + restart.getMessage());
-                        Message.verbose("====================================================");
+                    // we reuse the same resolve data with a new report for each conf
+                    data.setReport(confReport);
+
+                    // update the root module conf we are about to fetch
+                    VisitNode root = new VisitNode(data, rootNode, null, conf, null);
+                    root.setRequestedConf(conf);
+                    rootNode.updateConfsToFetch(Collections.singleton(conf));
+
+                    // go fetch !
+                    boolean fetched = false;
+                    while (!fetched) {
+                        try {
+                            fetchDependencies(root, conf, new HashSet<String>(), false);
+                            fetched = true;
+                        } catch (RestartResolveProcess restart) {
+                            Message.verbose("====================================================");
+                            Message.verbose("=           RESTARTING RESOLVE PROCESS");
+                            Message.verbose("= " + restart.getMessage());
+                            Message.verbose("====================================================");
+                        }
                     }
-                }
 
-                // clean data
-                for (IvyNode dep : data.getNodes()) {
-                    dep.clean();
+                    // clean data
+                    for (IvyNode dep : data.getNodes()) {
+                        dep.clean();
+                    }
+                }
+                completed = true;
+            } finally {
+                if (prefetcher != null) {
+                    data.setMetadataPrefetcher(null);
+                    prefetcher.close(completed);
                 }
             }
 
@@ -794,7 +1177,12 @@ public class ResolveEngine {
 
         // now we can actually resolve this configuration dependencies
         if (!isDependenciesFetched(node.getNode(), conf, fetchedSet) && node.isTransitive()) {
-            for (VisitNode dep : node.getDependencies(conf)) {
+            Collection<VisitNode> dependencies = node.getDependencies(conf);
+            MetadataPrefetcher prefetcher = node.getNode().getData().getMetadataPrefetcher();
+            if (prefetcher != null) {
+                prefetcher.prefetch(dependencies);
+            }
+            for (VisitNode dep : dependencies) {
                 dep.useRealNode(); // the node may have been resolved to another real one while
                 // resolving other deps
                 for (String rconf : dep.getRequiredConfigurations(node, conf)) {
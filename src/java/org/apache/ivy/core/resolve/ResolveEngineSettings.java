@@ -42,4 +42,8 @@ public interface ResolveEngineSettings extends ResolverSettings {
 
     boolean logResolvedRevision();
 
+    int getDownloadThreads();
+
+    int getPrefetchThreads();
+
 }
@@ -0,0 +1,243 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.IvyNodeCallers.Caller;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
+import org.apache.ivy.plugins.resolver.AbstractPatternsBasedResolver;
+import org.apache.ivy.plugins.resolver.ChainResolver;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.DualResolver;
+import org.apache.ivy.plugins.resolver.util.ResolverHelper;
+import org.apache.ivy.plugins.version.VersionMatcher;
+import org.apache.ivy.util.ChecksumHelper;
+import org.apache.ivy.util.filter.FilterHelper;
+
+/**
+ * Computes the fingerprint of the inputs of a resolve, and how long a resolve stays valid, so that
+ * an incremental resolve can reuse the reports of the previous one.
+ * <p>
+ * The fingerprint covers the module descriptor, the settings files and the configuration of the
+ * resolvers, and the options of the resolve. The dependencies of a resolve can still change while
+ * its inputs don't when dynamic revisions are resolved again, which happens once the TTL of the
+ * cache has expired, or when modules are changing or checked for modifications, in which case the
+ * resolve is never reused.
+ * </p>
+ */
+final class ResolveFingerprint {
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private ResolveFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of a resolve.
+     *
+     * @param settings
+     *            the settings used by the resolve
+     * @param md
+     *            the module descriptor to resolve
+     * @param options
+     *            the options of the resolve, with its configurations already set
+     * @return the fingerprint, or <code>null</code> if a resolve with these options can't be
+     *         reused whatever its inputs
+     * @throws IOException
+     *             if the settings files can't be read
+     */
+    static String compute(IvySettings settings, ModuleDescriptor md, ResolveOptions options)
+            throws IOException {
+        if (options.isRefresh() || options.getDate() != null || !options.isOutputReport()
+                || options.getArtifactFilter() != FilterHelper.NO_FILTER) {
+            return null;
+        }
+        MessageDigest digest = newDigest();
+        XmlModuleDescriptorWriter.write(md, null, new DigestOutputStream(NULL_OUTPUT, digest));
+
+        StringBuilder inputs = new StringBuilder();
+        inputs.append("module=").append(md.getResolvedModuleRevisionId()).append('\n');
+        inputs.append("confs=").append(Arrays.asList(options.getConfs())).append('\n');
+        inputs.append("transitive=").append(options.isTransitive()).append('\n');
+        inputs.append("download=").append(options.isDownload()).append('\n');
+        inputs.append("useCacheOnly=").append(options.isUseCacheOnly()).append('\n');
+        inputs.append("validate=").append(options.isValidate()).append('\n');
+        inputs.append("resolveMode=").append(options.getResolveMode()).append('\n');
+
+        for (URL url : settings.getSettingsResources()) {
+            inputs.append("settings=").append(url).append(' ');
+            File file = toFile(url);
+            if (file == null) {
+                inputs.append("remote");
+            } else if (file.isFile()) {
+                inputs.append(ChecksumHelper.byteArrayToHexString(
+                    newDigest().digest(Files.readAllBytes(file.toPath()))));
+            } else {
+                inputs.append("missing");
+            }
+            inputs.append('\n');
+        }
+        for (String name : new TreeSet<>(settings.getResolverNames())) {
+            describe(settings.getResolver(name), inputs);
+        }
+        DependencyResolver defaultResolver = settings.getDefaultResolver();
+        inputs.append("defaultResolver=")
+                .append(defaultResolver == null ? null : defaultResolver.getName()).append('\n');
+        inputs.append("defaultConflictManager=")
+                .append(settings.getDefaultConflictManager().getName()).append('\n');
+        inputs.append("defaultLatestStrategy=")
+                .append(settings.getDefaultLatestStrategy().getName()).append('\n');
+        inputs.append("defaultBranch=").append(settings.getDefaultBranch()).append('\n');
+        inputs.append("defaultResolveMode=").append(settings.getDefaultResolveMode())
+                .append('\n');
+        inputs.append("useOrigin=").append(settings.isDefaultUseOrigin()).append('\n');
+        inputs.append("cache=").append(settings.getDefaultCache().getAbsolutePath()).append('\n');
+
+        digest.update(inputs.toString().getBytes(StandardCharsets.UTF_8));
+        return ChecksumHelper.byteArrayToHexString(digest.digest());
+    }
+
+    /**
+     * Computes until when a resolve stays valid.
+     *
+     * @param settings
+     *            the settings used by the resolve
+     * @param dependencies
+     *            the dependencies found by the resolve
+     * @param now
+     *            the time of the resolve
+     * @return the time until which the resolve can be reused, <code>Long.MAX_VALUE</code> if it
+     *         can be reused as long as its inputs don't change, <code>now</code> if it can't
+     */
+    static long getExpiration(IvySettings settings, IvyNode[] dependencies, long now) {
+        long expiration = Long.MAX_VALUE;
+        VersionMatcher versionMatcher = settings.getVersionMatcher();
+        for (IvyNode dependency : dependencies) {
+            ModuleRevisionId mrid = dependency.getResolvedId();
+            if (ResolverHelper.isCheckmodifiedOrChanging(settings, settings.getResolver(mrid),
+                mrid)) {
+                return now;
+            }
+            for (Caller caller : dependency.getAllCallers()) {
+                DependencyDescriptor dd = caller.getDependencyDescriptor();
+                if (dd == null) {
+                    continue;
+                }
+                if (dd.isChanging()) {
+                    return now;
+                }
+                for (ModuleRevisionId asked : Arrays.asList(dd.getDependencyRevisionId(),
+                    dd.getDynamicConstraintDependencyRevisionId())) {
+                    if (versionMatcher.isDynamic(asked)) {
+                        expiration = Math.min(expiration,
+                            getExpiration(settings.getResolver(asked), asked, now));
+                    }
+                }
+            }
+        }
+        return expiration;
+    }
+
+    private static long getExpiration(DependencyResolver resolver, ModuleRevisionId mrid,
+            long now) {
+        if (resolver == null) {
+            return now;
+        }
+        long expiration = Long.MAX_VALUE;
+        if (resolver instanceof ChainResolver) {
+            for (DependencyResolver child : ((ChainResolver) resolver).getResolvers()) {
+                expiration = Math.min(expiration, getExpiration(child, mrid, now));
+            }
+        }
+        if (resolver instanceof DualResolver) {
+            expiration = Math.min(expiration,
+                getExpiration(((DualResolver) resolver).getIvyResolver(), mrid, now));
+        }
+        RepositoryCacheManager cacheManager = resolver.getRepositoryCacheManager();
+        if (!(cacheManager instanceof DefaultRepositoryCacheManager)) {
+            return now;
+        }
+        long ttl = ((DefaultRepositoryCacheManager) cacheManager).getTTL(mrid);
+        return Math.min(expiration, ttl >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttl);
+    }
+
+    private static void describe(DependencyResolver resolver, StringBuilder inputs) {
+        inputs.append("resolver=").append(resolver.getName()).append(' ')
+                .append(resolver.getClass().getName());
+        if (resolver instanceof AbstractPatternsBasedResolver) {
+            AbstractPatternsBasedResolver patterns = (AbstractPatternsBasedResolver) resolver;
+            inputs.append(' ').append(patterns.getIvyPatterns()).append(' ')
+                    .append(patterns.getArtifactPatterns()).append(' ')
+                    .append(patterns.isM2compatible());
+        }
+        inputs.append('\n');
+        if (resolver instanceof ChainResolver) {
+            for (DependencyResolver child : ((ChainResolver) resolver).getResolvers()) {
+                describe(child, inputs);
+            }
+        }
+        if (resolver instanceof DualResolver) {
+            describe(((DualResolver) resolver).getIvyResolver(), inputs);
+            describe(((DualResolver) resolver).getArtifactResolver(), inputs);
+        }
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(url.getPath());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -121,6 +121,12 @@ public class ResolveOptions extends LogOptions {
      **/
     private boolean checkIfChanged = false;
 
+    /**
+     * True if the report of the previous resolve should be reused when nothing it depends on has
+     * changed since then
+     */
+    private boolean incremental = false;
+
     public ResolveOptions() {
     }
 
@@ -139,6 +145,7 @@ public class ResolveOptions extends LogOptions {
         artifactFilter = options.artifactFilter;
         resolveId = options.resolveId;
         checkIfChanged = options.checkIfChanged;
+        incremental = options.incremental;
     }
 
     public Filter<Artifact> getArtifactFilter() {
@@ -299,6 +306,23 @@ public class ResolveOptions extends LogOptions {
         return checkIfChanged;
     }
 
+    /**
+     * Tells whether the resolve should reuse the report of the previous resolve with the same
+     * resolve id, instead of resolving the dependencies again, when the module descriptor, the
+     * settings and the options haven't changed and no dynamic revision has expired since then.
+     *
+     * @return boolean
+     * @since 2.5.2
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public ResolveOptions setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
     public static String getDefaultResolveId(ModuleDescriptor md) {
         ModuleId module = md.getModuleRevisionId().getModuleId();
         return getDefaultResolveId(module);
@@ -18,10 +18,10 @@
 package org.apache.ivy.core.resolve;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 
 import org.apache.ivy.core.IvyContext;
@@ -63,8 +63,8 @@ public class VisitNode {
     private VisitNode root = null;
 
     /**
-     * Direct path from root to this node. Note that the collection is ordered but is not a list
-     * implementation This collection is null until it is required, see getPath
+     * Direct path from root to this node, as an unmodifiable list. This collection is null until
+     * it is required, see getPath
      */
     private Collection<VisitNode> path = null;
 
@@ -164,9 +164,11 @@ public class VisitNode {
 
     private Collection<VisitNode> computePath() {
         if (parent != null) {
-            Collection<VisitNode> p = new LinkedHashSet<>(parent.getPath());
-            p.add(this);
-            return p;
+            // an array rather than a set: the paths of all the visit nodes are kept in memory
+            Collection<VisitNode> parentPath = parent.getPath();
+            VisitNode[] p = parentPath.toArray(new VisitNode[parentPath.size() + 1]);
+            p[parentPath.size()] = this;
+            return Collections.unmodifiableList(Arrays.asList(p));
         } else {
             return Collections.singletonList(this);
         }
@@ -19,6 +19,7 @@ package org.apache.ivy.core.retrieve;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -30,12 +31,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.IvyPatternTemplate;
+import org.apache.ivy.core.IvyWorkerPool;
 import org.apache.ivy.core.LogOptions;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
 import org.apache.ivy.core.event.EventManager;
+import org.apache.ivy.core.event.IvyEvent;
 import org.apache.ivy.core.event.retrieve.EndRetrieveArtifactEvent;
 import org.apache.ivy.core.event.retrieve.EndRetrieveEvent;
 import org.apache.ivy.core.event.retrieve.StartRetrieveArtifactEvent;
@@ -132,7 +138,9 @@ public class RetrieveEngine {
             Collection<File> targetIvysStructure = new HashSet<>(); // same for ivy files
 
             // do retrieve
-            long totalCopiedSize = 0;
+            int threads = options.getThreads() > 0 ? options.getThreads() : settings
+                    .getRetrieveThreads();
+            List<FileRetrieval> retrievals = new ArrayList<>();
             for (Map.Entry<ArtifactDownloadReport, Set<String>> artifactAndPaths : artifactsToCopy
                     .entrySet()) {
                 ArtifactDownloadReport artifact = artifactAndPaths.getKey();
@@ -144,76 +152,84 @@ public class RetrieveEngine {
                     Message.verbose("\tno local file available for " + artifact + ": skipping");
                     continue;
                 }
-                Message.verbose("\tretrieving " + archive);
+                File root = "ivy".equals(artifact.getType()) ? ivyRetrieveRoot
+                        : fileRetrieveRoot;
                 for (String path : artifactAndPaths.getValue()) {
+                    retrievals.add(new FileRetrieval(artifact, archive, settings.resolveFile(path),
+                            root, options, threads > 1 && eventManager != null));
+                }
+            }
+            // the files are retrieved and reported in the order of their destination, whatever
+            // the number of threads, so that the report and the events are predictable
+            Collections.sort(retrievals);
+
+            IvyWorkerPool pool = null;
+            List<Future<FileRetrieval>> futures = null;
+            if (threads > 1) {
+                pool = new IvyWorkerPool("ivy-retrieve", threads);
+                futures = new ArrayList<>(retrievals.size());
+                File previous = null;
+                for (FileRetrieval retrieval : retrievals) {
+                    // a destination shared by several artifacts is never written concurrently,
+                    // the operating thread retrieves it again once the previous one is done
+                    futures.add(retrieval.destFile.equals(previous) ? null
+                            : pool.submit(retrieval));
+                    previous = retrieval.destFile;
+                }
+            }
+
+            long totalCopiedSize = 0;
+            try {
+                for (int i = 0; i < retrievals.size(); i++) {
                     IvyContext.getContext().checkInterrupted();
-                    File destFile = settings.resolveFile(path);
-                    if (!settings.isCheckUpToDate() || !upToDate(archive, destFile, options)) {
-                        Message.verbose("\t\tto " + destFile);
-                        if (this.eventManager != null) {
-                            this.eventManager.fireIvyEvent(new StartRetrieveArtifactEvent(artifact, destFile));
-                        }
-                        if (options.isMakeSymlinks()) {
-                            boolean symlinkCreated;
-                            try {
-                                symlinkCreated = FileUtil.symlink(archive, destFile,  true);
-                            } catch (IOException ioe) {
-                                symlinkCreated = false;
-                                // warn about the inability to create a symlink
-                                Message.warn("symlink creation failed at path " + destFile, ioe);
-                            }
-                            if (!symlinkCreated) {
-                                // since symlink creation failed, let's attempt to an actual copy instead
-                                Message.info("Attempting a copy operation (since symlink creation failed) at path " + destFile);
-                                FileUtil.copy(archive, destFile, null, true);
-                            }
-                        } else {
-                            FileUtil.copy(archive, destFile, null, true);
-                        }
-                        if (this.eventManager != null) {
-                            this.eventManager.fireIvyEvent(new EndRetrieveArtifactEvent(artifact, destFile));
-                        }
-                        totalCopiedSize += FileUtil.getFileLength(destFile);
-                        report.addCopiedFile(destFile, artifact);
+                    FileRetrieval retrieval;
+                    if (futures == null || futures.get(i) == null) {
+                        retrieval = retrievals.get(i).call();
                     } else {
-                        Message.verbose("\t\tto " + destFile + " [NOT REQUIRED]");
-                        report.addUpToDateFile(destFile, artifact);
+                        retrieval = IvyWorkerPool.await(futures.get(i));
                     }
-
-                    if ("ivy".equals(artifact.getType())) {
-                        targetIvysStructure
-                                .addAll(FileUtil.getPathFiles(ivyRetrieveRoot, destFile));
+                    for (IvyEvent evt : retrieval.events) {
+                        eventManager.fireIvyEvent(evt);
+                    }
+                    if (retrieval.copied) {
+                        totalCopiedSize += retrieval.size;
+                        report.addCopiedFile(retrieval.destFile, retrieval.artifact);
                     } else {
-                        Collection<File> files = FileUtil.listAll(destFile,
-                            Collections.<String> emptyList());
-                        for (File file : files) {
-                            targetArtifactsStructure.addAll(FileUtil.getPathFiles(fileRetrieveRoot,
-                                file));
-                        }
+                        report.addUpToDateFile(retrieval.destFile, retrieval.artifact);
+                    }
+                    if ("ivy".equals(retrieval.artifact.getType())) {
+                        targetIvysStructure.addAll(retrieval.structure);
+                    } else {
+                        targetArtifactsStructure.addAll(retrieval.structure);
                     }
                 }
-            }
 
-            if (options.isSync()) {
-                Message.verbose("\tsyncing...");
+                if (options.isSync()) {
+                    Message.verbose("\tsyncing...");
 
-                String[] ignorableFilenames = settings.getIgnorableFilenames();
-                Collection<String> ignoreList = Arrays.asList(ignorableFilenames);
+                    String[] ignorableFilenames = settings.getIgnorableFilenames();
+                    Collection<String> ignoreList = Arrays.asList(ignorableFilenames);
 
-                Collection<File> existingArtifacts = FileUtil.listAll(fileRetrieveRoot, ignoreList);
-                Collection<File> existingIvys = (ivyRetrieveRoot == null) ? null : FileUtil.listAll(
-                    ivyRetrieveRoot, ignoreList);
+                    Collection<File> existingArtifacts = listAll(fileRetrieveRoot, ignoreList,
+                        pool);
+                    Collection<File> existingIvys = (ivyRetrieveRoot == null) ? null : listAll(
+                        ivyRetrieveRoot, ignoreList, pool);
 
-                if (fileRetrieveRoot.equals(ivyRetrieveRoot)) {
-                    targetArtifactsStructure.addAll(targetIvysStructure);
-                    existingArtifacts.addAll(existingIvys);
-                    sync(targetArtifactsStructure, existingArtifacts);
-                } else {
-                    sync(targetArtifactsStructure, existingArtifacts);
-                    if (existingIvys != null) {
-                        sync(targetIvysStructure, existingIvys);
+                    if (fileRetrieveRoot.equals(ivyRetrieveRoot)) {
+                        targetArtifactsStructure.addAll(targetIvysStructure);
+                        existingArtifacts.addAll(existingIvys);
+                        sync(targetArtifactsStructure, existingArtifacts, pool);
+                    } else {
+                        sync(targetArtifactsStructure, existingArtifacts, pool);
+                        if (existingIvys != null) {
+                            sync(targetIvysStructure, existingIvys, pool);
+                        }
                     }
                 }
+            } finally {
+                if (pool != null) {
+                    pool.shutdownNow();
+                }
             }
             long elapsedTime = System.currentTimeMillis() - start;
             String msg = "\t"
@@ -239,6 +255,45 @@ public class RetrieveEngine {
         }
     }
 
+    private void retrieveFile(File archive, File destFile, RetrieveOptions options)
+            throws IOException {
+        if (options.isMakeSymlinks()) {
+            boolean symlinkCreated;
+            try {
+                symlinkCreated = FileUtil.symlink(archive, destFile,  true);
+            } catch (IOException ioe) {
+                symlinkCreated = false;
+                // warn about the inability to create a symlink
+                Message.warn("symlink creation failed at path " + destFile, ioe);
+            }
+            if (!symlinkCreated) {
+                // since symlink creation failed, let's attempt to an actual copy instead
+                Message.info("Attempting a copy operation (since symlink creation failed) at path " + destFile);
+                FileUtil.copy(archive, destFile, null, true);
+            }
+            return;
+        }
+        String linkMode = options.getLinkMode();
+        if (archive.isDirectory() || RetrieveOptions.LINKMODE_COPY.equals(linkMode)) {
+            if (destFile.isFile() && !archive.isDirectory()
+                    && !archive.getCanonicalFile().equals(destFile.getCanonicalFile())) {
+                // the destination may be a hard link to a file of the cache, which must not be
+                // written to
+                Files.delete(destFile.toPath());
+            }
+            FileUtil.copy(archive, destFile, null, true);
+        } else if (RetrieveOptions.LINKMODE_HARDLINK.equals(linkMode)) {
+            if (!FileUtil.hardLink(archive, destFile, true)) {
+                Message.verbose("\t\thard link creation failed, copying to " + destFile);
+                FileUtil.transfer(archive, destFile, true);
+            }
+        } else if (RetrieveOptions.LINKMODE_CLONE.equals(linkMode)) {
+            FileUtil.transfer(archive, destFile, true);
+        } else {
+            throw new IllegalArgumentException("unknown link mode: " + linkMode);
+        }
+    }
+
     private String[] getConfs(ModuleRevisionId mrid, RetrieveOptions options) throws IOException {
         String[] confs = options.getConfs();
         if (confs == null || (confs.length == 1 && "*".equals(confs[0]))) {
@@ -261,7 +316,7 @@ public class RetrieveEngine {
         return settings.getResolutionCacheManager();
     }
 
-    private void sync(Collection<File> target, Collection<File> existing) {
+    private void sync(Collection<File> target, Collection<File> existing, IvyWorkerPool pool) {
         Collection<File> toRemove = new HashSet<>();
         for (File file : existing) {
             toRemove.add(file.getAbsoluteFile());
@@ -269,12 +324,66 @@ public class RetrieveEngine {
         for (File file : target) {
             toRemove.remove(file.getAbsoluteFile());
         }
-        for (File file : toRemove) {
-            if (file.exists()) {
-                Message.verbose("\t\tdeleting " + file);
-                FileUtil.forceDelete(file);
+        List<Future<Boolean>> deletions = new ArrayList<>();
+        for (final File file : toRemove) {
+            if (toRemove.contains(file.getParentFile())) {
+                // deleted with its parent directory
+                continue;
+            }
+            if (pool == null) {
+                delete(file);
+            } else {
+                deletions.add(pool.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        return delete(file);
+                    }
+                }));
+            }
+        }
+        for (Future<Boolean> deletion : deletions) {
+            IvyWorkerPool.await(deletion);
+        }
+    }
+
+    private static boolean delete(File file) {
+        if (!file.exists()) {
+            return true;
+        }
+        Message.verbose("\t\tdeleting " + file);
+        return FileUtil.forceDelete(file);
+    }
+
+    /**
+     * Lists the given directory like {@link FileUtil#listAll(File, Collection)} does, its
+     * sub-directories being listed by the workers of the given pool, if any.
+     */
+    private static Collection<File> listAll(File dir, final Collection<String> ignore,
+            IvyWorkerPool pool) {
+        if (pool == null || ignore.contains(dir.getName()) || !dir.isDirectory()) {
+            return FileUtil.listAll(dir, ignore);
+        }
+        Collection<File> list = new ArrayList<>();
+        list.add(dir);
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return list;
+        }
+        List<Future<Collection<File>>> listings = new ArrayList<>();
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                listings.add(pool.submit(new Callable<Collection<File>>() {
+                    public Collection<File> call() {
+                        return FileUtil.listAll(file, ignore);
+                    }
+                }));
+            } else if (!ignore.contains(file.getName())) {
+                list.add(file);
             }
         }
+        for (Future<Collection<File>> listing : listings) {
+            list.addAll(IvyWorkerPool.await(listing));
+        }
+        return list;
     }
 
     public Map<ArtifactDownloadReport, Set<String>> determineArtifactsToCopy(ModuleRevisionId mrid,
@@ -294,6 +403,10 @@ public class RetrieveEngine {
                 .getTokenRoot(destFilePattern));
         File ivyRetrieveRoot = destIvyPattern == null ? null : settings
                 .resolveFile(IvyPatternHelper.getTokenRoot(destIvyPattern));
+        // the destination patterns are parsed once for all the artifacts
+        IvyPatternTemplate destFileTemplate = IvyPatternTemplate.compile(destFilePattern);
+        IvyPatternTemplate destIvyTemplate = destIvyPattern == null ? null
+                : IvyPatternTemplate.compile(destIvyPattern);
 
         // find what we must retrieve where
 
@@ -344,7 +457,8 @@ public class RetrieveEngine {
                     ext = unpackedArtifact.getExt();
                 }
 
-                String destPattern = "ivy".equals(adr.getType()) ? destIvyPattern : destFilePattern;
+                IvyPatternTemplate destTemplate = "ivy".equals(adr.getType()) ? destIvyTemplate
+                        : destFileTemplate;
                 File root = "ivy".equals(adr.getType()) ? ivyRetrieveRoot : fileRetrieveRoot;
 
                 if (!"ivy".equals(adr.getType())
@@ -353,9 +467,9 @@ public class RetrieveEngine {
                 }
 
                 ModuleRevisionId aMrid = artifact.getModuleRevisionId();
-                String destFileName = IvyPatternHelper.substitute(destPattern,
-                    aMrid.getOrganisation(), aMrid.getName(), aMrid.getBranch(),
-                    aMrid.getRevision(), artifact.getName(), artifact.getType(), ext, conf,
+                String destFileName = destTemplate.substitute(aMrid.getOrganisation(),
+                    aMrid.getName(), aMrid.getBranch(), aMrid.getRevision(), artifact.getName(),
+                    artifact.getType(), ext, conf,
                     adr.getArtifactOrigin(), aMrid.getQualifiedExtraAttributes(),
                     artifact.getQualifiedExtraAttributes());
                 Set<String> dest = artifactsToCopy.get(adr);
@@ -473,6 +587,18 @@ public class RetrieveEngine {
             return source.lastModified() == target.lastModified();
         }
 
+        if (RetrieveOptions.OVERWRITEMODE_CONTENT.equals(overwriteMode)) {
+            if (source.isDirectory() || target.isDirectory()) {
+                return source.lastModified() == target.lastModified();
+            }
+            try {
+                return FileUtil.contentEquals(source, target);
+            } catch (IOException e) {
+                Message.verbose("\t\timpossible to compare " + source + " to " + target + ": " + e);
+                return false;
+            }
+        }
+
         // unknown, so just to be sure
         return false;
     }
@@ -502,4 +628,91 @@ public class RetrieveEngine {
         };
     }
 
+
+    /**
+     * The retrieve of an artifact to one of its destinations, which can be run either in the
+     * operating thread or in a worker thread.
+     */
+    private final class FileRetrieval implements Callable<FileRetrieval>,
+            Comparable<FileRetrieval> {
+        private final ArtifactDownloadReport artifact;
+
+        private final File archive;
+
+        private final File destFile;
+
+        private final File root;
+
+        private final RetrieveOptions options;
+
+        private final boolean deferEvents;
+
+        private boolean copied;
+
+        private long size;
+
+        // the files which should be present at the end of the retrieve, useful for sync
+        private Collection<File> structure;
+
+        private List<IvyEvent> events = Collections.emptyList();
+
+        private FileRetrieval(ArtifactDownloadReport artifact, File archive, File destFile,
+                File root, RetrieveOptions options, boolean deferEvents) {
+            this.artifact = artifact;
+            this.archive = archive;
+            this.destFile = destFile;
+            this.root = root;
+            this.options = options;
+            this.deferEvents = deferEvents;
+        }
+
+        public FileRetrieval call() throws IOException {
+            if (!deferEvents) {
+                retrieve();
+                return this;
+            }
+            // events are recorded to be fired by the operating thread in a predictable order
+            eventManager.deferIvyEvents();
+            try {
+                retrieve();
+            } finally {
+                events = eventManager.stopDeferringIvyEvents();
+            }
+            return this;
+        }
+
+        private void retrieve() throws IOException {
+            IvyContext.getContext().checkInterrupted();
+            copied = !settings.isCheckUpToDate() || !upToDate(archive, destFile, options);
+            if (copied) {
+                Message.verbose("\tretrieving " + archive + " to " + destFile);
+                if (eventManager != null
+                        && eventManager.hasIvyListeners(StartRetrieveArtifactEvent.NAME)) {
+                    eventManager.fireIvyEvent(new StartRetrieveArtifactEvent(artifact, destFile));
+                }
+                retrieveFile(archive, destFile, options);
+                if (eventManager != null
+                        && eventManager.hasIvyListeners(EndRetrieveArtifactEvent.NAME)) {
+                    eventManager.fireIvyEvent(new EndRetrieveArtifactEvent(artifact, destFile));
+                }
+                size = FileUtil.getFileLength(destFile);
+            } else {
+                Message.verbose("\tretrieving " + archive + " to " + destFile
+                        + " [NOT REQUIRED]");
+            }
+
+            if ("ivy".equals(artifact.getType())) {
+                structure = FileUtil.getPathFiles(root, destFile);
+            } else {
+                structure = new ArrayList<>();
+                for (File file : FileUtil.listAll(destFile, Collections.<String> emptyList())) {
+                    structure.addAll(FileUtil.getPathFiles(root, file));
+                }
+            }
+        }
+
+        public int compareTo(FileRetrieval other) {
+            return destFile.compareTo(other.destFile);
+        }
+    }
 }
@@ -37,6 +37,39 @@ public class RetrieveOptions extends LogOptions {
 
     public static final String OVERWRITEMODE_DIFFERENT = "different";
 
+    /**
+     * Overwrites the destination files whose size or content differs from the retrieved ones,
+     * whatever their last modification date.
+     *
+     * @since 2.5.2
+     */
+    public static final String OVERWRITEMODE_CONTENT = "content";
+
+    /**
+     * Copies the retrieved files.
+     *
+     * @since 2.5.2
+     */
+    public static final String LINKMODE_COPY = "copy";
+
+    /**
+     * Creates hard links to the retrieved files when they are on the same filesystem as the
+     * destination, and copies them otherwise.
+     *
+     * @since 2.5.2
+     */
+    public static final String LINKMODE_HARDLINK = "hardlink";
+
+    /**
+     * Clones the retrieved files on the filesystems supporting copy-on-write, when the JVM does so
+     * for {@link java.nio.file.Files#copy(java.nio.file.Path, java.nio.file.Path,
+     * java.nio.file.CopyOption...)}, and copies them by letting the operating system transfer their
+     * content otherwise.
+     *
+     * @since 2.5.2
+     */
+    public static final String LINKMODE_CLONE = "clone";
+
     /**
      * The names of configurations to retrieve. If the array consists only of '*', then all
      * configurations of the module will be retrieved.
@@ -69,6 +102,8 @@ public class RetrieveOptions extends LogOptions {
 
     private String overwriteMode = OVERWRITEMODE_NEWER;
 
+    private String linkMode = LINKMODE_COPY;
+
     /**
      * True if the original files should be used instead of their cache copy.
      */
@@ -90,6 +125,12 @@ public class RetrieveOptions extends LogOptions {
 
     private FileNameMapper mapper;
 
+    /**
+     * The maximum number of threads to use to retrieve the files concurrently, or 0 to use the
+     * number configured in the settings.
+     */
+    private int threads = 0;
+
     public RetrieveOptions() {
     }
 
@@ -101,11 +142,13 @@ public class RetrieveOptions extends LogOptions {
         this.artifactFilter = options.artifactFilter;
         this.sync = options.sync;
         this.overwriteMode = options.overwriteMode;
+        this.linkMode = options.linkMode;
         this.useOrigin = options.useOrigin;
         this.makeSymlinks = options.makeSymlinks;
         this.makeSymlinksInMass = options.makeSymlinksInMass;
         this.resolveId = options.resolveId;
         this.mapper = options.mapper;
+        this.threads = options.threads;
     }
 
     public String getDestArtifactPattern() {
@@ -144,6 +187,22 @@ public class RetrieveOptions extends LogOptions {
         return this;
     }
 
+    /**
+     * Returns how the retrieved files which are not symlinked are written to their destination:
+     * {@link #LINKMODE_COPY}, {@link #LINKMODE_HARDLINK} or {@link #LINKMODE_CLONE}.
+     *
+     * @return the link mode
+     * @since 2.5.2
+     */
+    public String getLinkMode() {
+        return linkMode == null ? LINKMODE_COPY : linkMode;
+    }
+
+    public RetrieveOptions setLinkMode(String linkMode) {
+        this.linkMode = linkMode;
+        return this;
+    }
+
     public String getDestIvyPattern() {
         return destIvyPattern;
     }
@@ -223,4 +282,18 @@ public class RetrieveOptions extends LogOptions {
         return this;
     }
 
+    /**
+     * @return the maximum number of retrieve threads, or 0 to use the number configured in the
+     *         settings
+     * @since 2.5.2
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public RetrieveOptions setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
 }
@@ -20,19 +20,20 @@ package org.apache.ivy.core.retrieve;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 import org.apache.ivy.core.report.ArtifactDownloadReport;
 
 public class RetrieveReport {
 
-    private Collection<File> upToDateFiles = new HashSet<>();
+    // the files are kept in the order they are added, i.e. the order of their destination paths
+    private Collection<File> upToDateFiles = new LinkedHashSet<>();
 
-    private Collection<File> copiedFiles = new HashSet<>();
+    private Collection<File> copiedFiles = new LinkedHashSet<>();
 
-    private Map<File, ArtifactDownloadReport> downloadReport = new HashMap<>();
+    private Map<File, ArtifactDownloadReport> downloadReport = new LinkedHashMap<>();
 
     private File retrieveRoot;
 
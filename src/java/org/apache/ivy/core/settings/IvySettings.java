@@ -120,6 +120,30 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         ResolveEngineSettings, RetrieveEngineSettings, RepositoryManagementEngineSettings {
     private static final long INTERRUPT_TIMEOUT = 2000;
 
+    private static final Filter<ModuleSettings> RESOLVER_FILTER = new Filter<ModuleSettings>() {
+        public boolean accept(ModuleSettings o) {
+            return o.getResolverName() != null;
+        }
+    };
+
+    private static final Filter<ModuleSettings> BRANCH_FILTER = new Filter<ModuleSettings>() {
+        public boolean accept(ModuleSettings o) {
+            return o.getBranch() != null;
+        }
+    };
+
+    private static final Filter<ModuleSettings> CONFLICT_FILTER = new Filter<ModuleSettings>() {
+        public boolean accept(ModuleSettings o) {
+            return o.getConflictManager() != null;
+        }
+    };
+
+    private static final Filter<ModuleSettings> RESOLVE_MODE_FILTER = new Filter<ModuleSettings>() {
+        public boolean accept(ModuleSettings o) {
+            return o.getResolveMode() != null;
+        }
+    };
+
     private Map<String, Class<?>> typeDefs = new HashMap<>();
 
     private Map<String, DependencyResolver> resolversMap = new HashMap<>();
@@ -182,6 +206,12 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private boolean useRemoteConfig = false;
 
+    private int downloadThreads = 1;
+
+    private int prefetchThreads = 0;
+
+    private int retrieveThreads = 1;
+
     private File defaultUserDir;
 
     private File baseDir = new File(".").getAbsoluteFile();
@@ -216,6 +246,11 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private final Map<String, TimeoutConstraint> timeoutConstraints = new HashMap<>();
 
+    private final Map<String, URL> settingsResources = new LinkedHashMap<>();
+
+    // the settings read while resolving, dropped by each of their modifications
+    private volatile Snapshot snapshot;
+
     public IvySettings() {
         this(new IvyVariableContainerImpl());
     }
@@ -525,6 +560,9 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         Message.debug("\tcircular dependency strategy: " + getCircularDependencyStrategy());
         Message.debug("\tvalidate: " + doValidate());
         Message.debug("\tcheck up2date: " + isCheckUpToDate());
+        Message.debug("\tdownload threads: " + getDownloadThreads());
+        Message.debug("\tprefetch threads: " + getPrefetchThreads());
+        Message.debug("\tretrieve threads: " + getRetrieveThreads());
 
         if (!classpathURLs.isEmpty()) {
             Message.verbose("\t-- " + classpathURLs.size() + " custom classpath urls:");
@@ -546,6 +584,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void loadProperties(URL url, boolean overwrite) throws IOException {
         loadProperties(url.openStream(), overwrite);
+        addSettingsResource(url);
     }
 
     public synchronized void loadProperties(File file) throws IOException {
@@ -554,6 +593,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void loadProperties(File file, boolean overwrite) throws IOException {
         loadProperties(new FileInputStream(file), overwrite);
+        addSettingsResource(file.toURI().toURL());
     }
 
     private void loadProperties(InputStream stream, boolean overwrite) throws IOException {
@@ -616,8 +656,14 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
      * @return the string where all current ivy variables have been substituted by their value If
      *         the input str doesn't use any variable, the same object is returned
      */
-    public synchronized String substitute(String str) {
-        return IvyPatternHelper.substituteVariables(str, variableContainer);
+    public String substitute(String str) {
+        if (str == null || !str.contains("${")) {
+            // nothing to substitute, no need to lock the variables
+            return str;
+        }
+        synchronized (this) {
+            return IvyPatternHelper.substituteVariables(str, variableContainer);
+        }
     }
 
     /**
@@ -637,6 +683,24 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return substituted;
     }
 
+    /**
+     * Registers a settings or properties file from which these settings have been loaded.
+     *
+     * @param url
+     *            the url of the loaded file
+     */
+    public synchronized void addSettingsResource(URL url) {
+        settingsResources.put(url.toExternalForm(), url);
+    }
+
+    /**
+     * @return the urls of the settings and properties files from which these settings have been
+     *         loaded, in loading order
+     */
+    public synchronized List<URL> getSettingsResources() {
+        return new ArrayList<>(settingsResources.values());
+    }
+
     /**
      * Returns the variables loaded in configuration file. Those variables may better be seen as ant
      * properties
@@ -743,6 +807,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
                 addResolver(artifactResolver);
             }
         }
+        modified();
     }
 
     public synchronized void setDefaultCache(File cacheDirectory) {
@@ -763,6 +828,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
             defaultResolver = null;
         }
         defaultResolverName = resolverName;
+        modified();
     }
 
     private void checkResolverName(String resolverName) {
@@ -788,6 +854,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         checkResolverName(resolverName);
         moduleSettings.defineRule(new MapMatcher(attributes, matcher), new ModuleSettings(
                 resolverName, branch, conflictManager, resolveMode));
+        modified();
     }
 
     /**
@@ -888,6 +955,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDictatorResolver(DependencyResolver resolver) {
         dictatorResolver = resolver;
+        modified();
     }
 
     private DependencyResolver getDictatorResolver() {
@@ -900,20 +968,32 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return dictatorResolver;
     }
 
-    public synchronized DependencyResolver getResolver(ModuleRevisionId mrid) {
-        DependencyResolver r = getDictatorResolver();
-        if (r != null) {
-            return r;
+    public DependencyResolver getResolver(ModuleRevisionId mrid) {
+        Snapshot settings = getSnapshot();
+        if (settings.dictatorResolver != null) {
+            return settings.dictatorResolver;
         }
-        String resolverName = getResolverName(mrid);
-        return getResolver(resolverName);
+        return getResolver(settings, settings.getResolverName(mrid));
     }
 
     public synchronized boolean hasResolver(String resolverName) {
         return resolversMap.containsKey(resolverName);
     }
 
-    public synchronized DependencyResolver getResolver(String resolverName) {
+    public DependencyResolver getResolver(String resolverName) {
+        return getResolver(getSnapshot(), resolverName);
+    }
+
+    private DependencyResolver getResolver(Snapshot settings, String resolverName) {
+        if (settings.dictatorResolver != null) {
+            return settings.dictatorResolver;
+        }
+        DependencyResolver resolver = settings.resolvers.get(resolverName);
+        return resolver == null ? lookupResolver(resolverName) : resolver;
+    }
+
+    // looks up the resolvers which are unknown or not wrapped in the workspace resolver yet
+    private synchronized DependencyResolver lookupResolver(String resolverName) {
         DependencyResolver r = getDictatorResolver();
         if (r != null) {
             return r;
@@ -925,6 +1005,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
             resolver = new WorkspaceChainResolver(this, resolver, workspaceResolver);
             resolversMap.put(resolver.getName(), resolver);
             resolversMap.put(resolverName, resolver);
+            modified();
         }
         return resolver;
     }
@@ -943,38 +1024,27 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return defaultResolver;
     }
 
-    public synchronized String getResolverName(ModuleRevisionId mrid) {
-        ModuleSettings ms = moduleSettings.getRule(mrid, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getResolverName() != null;
-            }
-        });
-        return ms == null ? defaultResolverName : ms.getResolverName();
+    public String getResolverName(ModuleRevisionId mrid) {
+        return getSnapshot().getResolverName(mrid);
     }
 
-    public synchronized String getDefaultBranch(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getBranch() != null;
-            }
-        });
-        return ms == null ? getDefaultBranch() : ms.getBranch();
+    public String getDefaultBranch(ModuleId moduleId) {
+        Snapshot settings = getSnapshot();
+        ModuleSettings ms = settings.moduleSettings.getRule(moduleId, BRANCH_FILTER);
+        return ms == null ? settings.defaultBranch : ms.getBranch();
     }
 
-    public synchronized String getDefaultBranch() {
-        return defaultBranch;
+    public String getDefaultBranch() {
+        return getSnapshot().defaultBranch;
     }
 
     public synchronized void setDefaultBranch(String defaultBranch) {
         this.defaultBranch = defaultBranch;
+        modified();
     }
 
-    public synchronized ConflictManager getConflictManager(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getConflictManager() != null;
-            }
-        });
+    public ConflictManager getConflictManager(ModuleId moduleId) {
+        ModuleSettings ms = getSnapshot().moduleSettings.getRule(moduleId, CONFLICT_FILTER);
         if (ms == null) {
             return getDefaultConflictManager();
         } else {
@@ -987,51 +1057,57 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         }
     }
 
-    public synchronized String getResolveMode(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getResolveMode() != null;
-            }
-        });
-        return ms == null ? getDefaultResolveMode() : ms.getResolveMode();
+    public String getResolveMode(ModuleId moduleId) {
+        Snapshot settings = getSnapshot();
+        ModuleSettings ms = settings.moduleSettings.getRule(moduleId, RESOLVE_MODE_FILTER);
+        return ms == null ? settings.defaultResolveMode : ms.getResolveMode();
     }
 
-    public synchronized String getDefaultResolveMode() {
-        return defaultResolveMode;
+    public String getDefaultResolveMode() {
+        return getSnapshot().defaultResolveMode;
     }
 
     public synchronized void setDefaultResolveMode(String defaultResolveMode) {
         this.defaultResolveMode = defaultResolveMode;
+        modified();
     }
 
     public synchronized void addConfigured(ConflictManager cm) {
         addConflictManager(cm.getName(), cm);
     }
 
-    public synchronized ConflictManager getConflictManager(String name) {
+    public ConflictManager getConflictManager(String name) {
         if ("default".equals(name)) {
             return getDefaultConflictManager();
         }
-        return conflictsManager.get(name);
+        return getSnapshot().conflictManagers.get(name);
     }
 
     public synchronized void addConflictManager(String name, ConflictManager cm) {
         init(cm);
         conflictsManager.put(name, cm);
+        modified();
     }
 
     public synchronized void addConfigured(LatestStrategy latest) {
         addLatestStrategy(latest.getName(), latest);
     }
 
-    public synchronized LatestStrategy getLatestStrategy(String name) {
+    public LatestStrategy getLatestStrategy(String name) {
         if ("default".equals(name)) {
             return getDefaultLatestStrategy();
         }
+        LatestStrategy strategy = getSnapshot().latestStrategies.get(name);
+        return strategy == null ? lookupLatestStrategy(name) : strategy;
+    }
+
+    // looks up the strategies which are unknown or not wrapped for the workspace resolver yet
+    private synchronized LatestStrategy lookupLatestStrategy(String name) {
         LatestStrategy strategy = latestStrategies.get(name);
         if (workspaceResolver != null && !(strategy instanceof WorkspaceLatestStrategy)) {
             strategy = new WorkspaceLatestStrategy(strategy);
             latestStrategies.put(name, strategy);
+            modified();
         }
         return strategy;
     }
@@ -1039,6 +1115,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     public synchronized void addLatestStrategy(String name, LatestStrategy latest) {
         init(latest);
         latestStrategies.put(name, latest);
+        modified();
     }
 
     public synchronized void addConfigured(LockStrategy lockStrategy) {
@@ -1061,11 +1138,11 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         addNamespace(ns);
     }
 
-    public synchronized Namespace getNamespace(String name) {
+    public Namespace getNamespace(String name) {
         if ("system".equals(name)) {
             return getSystemNamespace();
         }
-        return namespaces.get(name);
+        return getSnapshot().namespaces.get(name);
     }
 
     public final Namespace getSystemNamespace() {
@@ -1075,6 +1152,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     public synchronized void addNamespace(Namespace ns) {
         init(ns);
         namespaces.put(ns.getName(), ns);
+        modified();
     }
 
     public void addConfigured(final NamedTimeoutConstraint timeoutConstraint) {
@@ -1095,26 +1173,28 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         addMatcher(m);
     }
 
-    public synchronized PatternMatcher getMatcher(String name) {
-        return matchers.get(name);
+    public PatternMatcher getMatcher(String name) {
+        return getSnapshot().matchers.get(name);
     }
 
     public synchronized void addMatcher(PatternMatcher m) {
         init(m);
         matchers.put(m.getName(), m);
+        modified();
     }
 
     public synchronized void addConfigured(RepositoryCacheManager c) {
         addRepositoryCacheManager(c);
     }
 
-    public synchronized RepositoryCacheManager getRepositoryCacheManager(String name) {
-        return repositoryCacheManagers.get(name);
+    public RepositoryCacheManager getRepositoryCacheManager(String name) {
+        return getSnapshot().repositoryCacheManagers.get(name);
     }
 
     public synchronized void addRepositoryCacheManager(RepositoryCacheManager c) {
         init(c);
         repositoryCacheManagers.put(c.getName(), c);
+        modified();
     }
 
     public synchronized RepositoryCacheManager[] getRepositoryCacheManagers() {
@@ -1143,8 +1223,8 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         addVersionMatcher(vmatcher);
     }
 
-    public synchronized VersionMatcher getVersionMatcher(String name) {
-        return versionMatchers.get(name);
+    public VersionMatcher getVersionMatcher(String name) {
+        return getSnapshot().versionMatchers.get(name);
     }
 
     public synchronized void addVersionMatcher(VersionMatcher vmatcher) {
@@ -1159,13 +1239,19 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
             ChainVersionMatcher chain = (ChainVersionMatcher) versionMatcher;
             chain.add(vmatcher);
         }
+        modified();
     }
 
     public synchronized VersionMatcher[] getVersionMatchers() {
         return versionMatchers.values().toArray(new VersionMatcher[versionMatchers.size()]);
     }
 
-    public synchronized VersionMatcher getVersionMatcher() {
+    public VersionMatcher getVersionMatcher() {
+        VersionMatcher matcher = getSnapshot().versionMatcher;
+        return matcher == null ? initVersionMatcher() : matcher;
+    }
+
+    private synchronized VersionMatcher initVersionMatcher() {
         if (versionMatcher == null) {
             configureDefaultVersionMatcher();
         }
@@ -1210,15 +1296,22 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         addCircularDependencyStrategy(IgnoreCircularDependencyStrategy.getInstance());
     }
 
-    public synchronized StatusManager getStatusManager() {
+    public StatusManager getStatusManager() {
+        StatusManager manager = getSnapshot().statusManager;
+        return manager == null ? initStatusManager() : manager;
+    }
+
+    private synchronized StatusManager initStatusManager() {
         if (statusManager == null) {
             statusManager = StatusManager.newDefaultInstance();
+            modified();
         }
         return statusManager;
     }
 
-    public void setStatusManager(StatusManager statusManager) {
+    public synchronized void setStatusManager(StatusManager statusManager) {
         this.statusManager = statusManager;
+        modified();
     }
 
     /**
@@ -1240,12 +1333,13 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         names.removeAll(listingIgnore);
     }
 
-    public synchronized boolean isCheckUpToDate() {
-        return checkUpToDate;
+    public boolean isCheckUpToDate() {
+        return getSnapshot().checkUpToDate;
     }
 
     public synchronized void setCheckUpToDate(boolean checkUpToDate) {
         this.checkUpToDate = checkUpToDate;
+        modified();
     }
 
     public synchronized boolean doValidate() {
@@ -1256,6 +1350,65 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         this.validate = validate;
     }
 
+    /**
+     * Returns the maximum number of threads used to download artifacts of distinct modules
+     * concurrently at the end of a resolve. 1 means artifacts are downloaded sequentially.
+     *
+     * @return the number of download threads
+     */
+    public int getDownloadThreads() {
+        return getSnapshot().downloadThreads;
+    }
+
+    public synchronized void setDownloadThreads(int downloadThreads) {
+        if (downloadThreads < 1) {
+            throw new IllegalArgumentException("downloadThreads must be at least 1: "
+                    + downloadThreads);
+        }
+        this.downloadThreads = downloadThreads;
+        modified();
+    }
+
+    /**
+     * Returns the number of threads used to speculatively look up the module descriptors of
+     * dependencies before the resolve engine visits them. 0 disables this prefetching.
+     *
+     * @return the number of prefetch threads
+     */
+    public int getPrefetchThreads() {
+        return getSnapshot().prefetchThreads;
+    }
+
+    public synchronized void setPrefetchThreads(int prefetchThreads) {
+        if (prefetchThreads < 0) {
+            throw new IllegalArgumentException("prefetchThreads must not be negative: "
+                    + prefetchThreads);
+        }
+        this.prefetchThreads = prefetchThreads;
+        modified();
+    }
+
+    /**
+     * Returns the maximum number of threads used to retrieve artifacts concurrently, and to list
+     * and delete the files of the retrieve destination when syncing. 1 means files are retrieved
+     * sequentially.
+     *
+     * @return the number of retrieve threads
+     * @since 2.5.2
+     */
+    public int getRetrieveThreads() {
+        return getSnapshot().retrieveThreads;
+    }
+
+    public synchronized void setRetrieveThreads(int retrieveThreads) {
+        if (retrieveThreads < 1) {
+            throw new IllegalArgumentException("retrieveThreads must be at least 1: "
+                    + retrieveThreads);
+        }
+        this.retrieveThreads = retrieveThreads;
+        modified();
+    }
+
     public synchronized String getVariable(String name) {
         return variableContainer.getVariable(name);
     }
@@ -1272,31 +1425,46 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return var == null ? valueIfUnset : Boolean.valueOf(var);
     }
 
-    public synchronized ConflictManager getDefaultConflictManager() {
+    public ConflictManager getDefaultConflictManager() {
+        ConflictManager cm = getSnapshot().defaultConflictManager;
+        return cm == null ? initDefaultConflictManager() : cm;
+    }
+
+    private synchronized ConflictManager initDefaultConflictManager() {
         if (defaultConflictManager == null) {
             defaultConflictManager = new LatestConflictManager(getDefaultLatestStrategy());
             ((LatestConflictManager) defaultConflictManager).setSettings(this);
+            modified();
         }
         return defaultConflictManager;
     }
 
     public synchronized void setDefaultConflictManager(ConflictManager defaultConflictManager) {
         this.defaultConflictManager = defaultConflictManager;
+        modified();
+    }
+
+    public LatestStrategy getDefaultLatestStrategy() {
+        LatestStrategy strategy = getSnapshot().defaultLatestStrategy;
+        return strategy == null ? initDefaultLatestStrategy() : strategy;
     }
 
-    public synchronized LatestStrategy getDefaultLatestStrategy() {
+    private synchronized LatestStrategy initDefaultLatestStrategy() {
         if (defaultLatestStrategy == null) {
             defaultLatestStrategy = new LatestRevisionStrategy();
+            modified();
         }
         if (workspaceResolver != null
                 && !(defaultLatestStrategy instanceof WorkspaceLatestStrategy)) {
             defaultLatestStrategy = new WorkspaceLatestStrategy(defaultLatestStrategy);
+            modified();
         }
         return defaultLatestStrategy;
     }
 
     public synchronized void setDefaultLatestStrategy(LatestStrategy defaultLatestStrategy) {
         this.defaultLatestStrategy = defaultLatestStrategy;
+        modified();
     }
 
     public synchronized LockStrategy getDefaultLockStrategy() {
@@ -1369,9 +1537,15 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return getVariableAsBoolean("ivy.log.resolved.revision", true);
     }
 
-    public synchronized boolean debugConflictResolution() {
+    public boolean debugConflictResolution() {
+        Boolean debug = getSnapshot().debugConflictResolution;
+        return debug == null ? initDebugConflictResolution() : debug;
+    }
+
+    private synchronized boolean initDebugConflictResolution() {
         if (debugConflictResolution == null) {
             debugConflictResolution = getVariableAsBoolean("ivy.log.conflict.resolution", false);
+            modified();
         }
         return debugConflictResolution;
     }
@@ -1390,12 +1564,13 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return dumpMemoryUsage;
     }
 
-    public synchronized boolean logNotConvertedExclusionRule() {
-        return logNotConvertedExclusionRule;
+    public boolean logNotConvertedExclusionRule() {
+        return getSnapshot().logNotConvertedExclusionRule;
     }
 
     public synchronized void setLogNotConvertedExclusionRule(boolean logNotConvertedExclusionRule) {
         this.logNotConvertedExclusionRule = logNotConvertedExclusionRule;
+        modified();
     }
 
     private void init(Object obj) {
@@ -1448,6 +1623,129 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         }
     }
 
+    private Snapshot getSnapshot() {
+        Snapshot settings = snapshot;
+        return settings == null ? takeSnapshot() : settings;
+    }
+
+    private synchronized Snapshot takeSnapshot() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(this);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of these settings, so that the next read takes a new one. Must be called
+     * with the lock of these settings held, by all the methods modifying a snapshot state.
+     */
+    private void modified() {
+        snapshot = null;
+    }
+
+    /**
+     * An immutable copy of the settings read for each dependency while resolving, so that they can
+     * be read by concurrent resolves without locking these settings.
+     * <p>
+     * The values still to be lazily initialized, and the resolvers and latest strategies still to
+     * be wrapped for the workspace resolver, are missing from the snapshot: their getter then
+     * falls back to the settings themselves, with their lock.
+     * </p>
+     */
+    private static final class Snapshot {
+        private final DependencyResolver dictatorResolver;
+
+        private final Map<String, DependencyResolver> resolvers;
+
+        private final String defaultResolverName;
+
+        private final ModuleRules<ModuleSettings> moduleSettings;
+
+        private final String defaultBranch;
+
+        private final String defaultResolveMode;
+
+        private final Map<String, ConflictManager> conflictManagers;
+
+        private final ConflictManager defaultConflictManager;
+
+        private final Map<String, LatestStrategy> latestStrategies;
+
+        private final LatestStrategy defaultLatestStrategy;
+
+        private final Map<String, PatternMatcher> matchers;
+
+        private final Map<String, VersionMatcher> versionMatchers;
+
+        private final VersionMatcher versionMatcher;
+
+        private final Map<String, Namespace> namespaces;
+
+        private final Map<String, RepositoryCacheManager> repositoryCacheManagers;
+
+        private final StatusManager statusManager;
+
+        private final Boolean debugConflictResolution;
+
+        private final boolean checkUpToDate;
+
+        private final boolean logNotConvertedExclusionRule;
+
+        private final boolean defaultUseOrigin;
+
+        private final int downloadThreads;
+
+        private final int prefetchThreads;
+
+        private final int retrieveThreads;
+
+        private Snapshot(IvySettings settings) {
+            boolean workspace = settings.workspaceResolver != null;
+            dictatorResolver = settings.getDictatorResolver();
+            resolvers = copyOf(settings.resolversMap,
+                workspace ? WorkspaceChainResolver.class : Object.class);
+            defaultResolverName = settings.defaultResolverName;
+            moduleSettings = settings.moduleSettings.clone();
+            defaultBranch = settings.defaultBranch;
+            defaultResolveMode = settings.defaultResolveMode;
+            conflictManagers = new HashMap<>(settings.conflictsManager);
+            defaultConflictManager = settings.defaultConflictManager;
+            latestStrategies = copyOf(settings.latestStrategies,
+                workspace ? WorkspaceLatestStrategy.class : Object.class);
+            defaultLatestStrategy = !workspace
+                    || settings.defaultLatestStrategy instanceof WorkspaceLatestStrategy
+                    ? settings.defaultLatestStrategy : null;
+            matchers = new HashMap<>(settings.matchers);
+            versionMatchers = new HashMap<>(settings.versionMatchers);
+            versionMatcher = settings.versionMatcher;
+            namespaces = new HashMap<>(settings.namespaces);
+            repositoryCacheManagers = new HashMap<>(settings.repositoryCacheManagers);
+            statusManager = settings.statusManager;
+            debugConflictResolution = settings.debugConflictResolution;
+            checkUpToDate = settings.checkUpToDate;
+            logNotConvertedExclusionRule = settings.logNotConvertedExclusionRule;
+            defaultUseOrigin = settings.defaultUseOrigin;
+            downloadThreads = settings.downloadThreads;
+            prefetchThreads = settings.prefetchThreads;
+            retrieveThreads = settings.retrieveThreads;
+        }
+
+        private static <T> Map<String, T> copyOf(Map<String, T> map, Class<?> type) {
+            Map<String, T> copy = new HashMap<>();
+            for (Map.Entry<String, T> entry : map.entrySet()) {
+                if (type.isInstance(entry.getValue())) {
+                    copy.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return copy;
+        }
+
+        private String getResolverName(ModuleRevisionId mrid) {
+            ModuleSettings ms = moduleSettings.getRule(mrid, RESOLVER_FILTER);
+            return ms == null ? defaultResolverName : ms.getResolverName();
+        }
+    }
+
     public final long getInterruptTimeout() {
         return INTERRUPT_TIMEOUT;
     }
@@ -1501,10 +1799,11 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDefaultUseOrigin(boolean useOrigin) {
         defaultUseOrigin = useOrigin;
+        modified();
     }
 
-    public synchronized boolean isDefaultUseOrigin() {
-        return defaultUseOrigin;
+    public boolean isDefaultUseOrigin() {
+        return getSnapshot().defaultUseOrigin;
     }
 
     public synchronized void useDeprecatedUseOrigin() {
@@ -1562,8 +1861,9 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return packingRegistry;
     }
 
-    public void addConfigured(AbstractWorkspaceResolver workspaceResolver) {
+    public synchronized void addConfigured(AbstractWorkspaceResolver workspaceResolver) {
         this.workspaceResolver = workspaceResolver;
+        modified();
         if (workspaceResolver != null) {
             workspaceResolver.setSettings(this);
             DefaultRepositoryCacheManager cacheManager = new DefaultRepositoryCacheManager();
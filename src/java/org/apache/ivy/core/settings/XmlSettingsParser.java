@@ -47,6 +47,7 @@ import org.apache.ivy.util.Configurator;
 import org.apache.ivy.util.FileResolver;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.url.CredentialsStore;
+import org.apache.ivy.util.url.HttpClientConfig;
 import org.apache.ivy.util.url.TimeoutConstrainedURLHandler;
 import org.apache.ivy.util.url.URLHandlerRegistry;
 import org.xml.sax.Attributes;
@@ -155,6 +156,7 @@ public class XmlSettingsParser extends DefaultHandler {
             InputSource inSrc = new InputSource(stream);
             inSrc.setSystemId(settingsUrl.toExternalForm());
             SAXParserFactory.newInstance().newSAXParser().parse(settingsUrl.toExternalForm(), this);
+            ivy.addSettingsResource(settingsUrl);
             ivy.validate();
         } catch (IOException e) {
             throw e;
@@ -215,6 +217,8 @@ public class XmlSettingsParser extends DefaultHandler {
                 moduleStarted(attributes);
             } else if ("credentials".equals(qName)) {
                 credentialsStarted(attributes);
+            } else if ("http-client".equals(qName)) {
+                httpClientStarted(attributes);
             }
         } catch (ParseException ex) {
             throw new SAXException("problem in config file: " + ex.getMessage(), ex);
@@ -231,6 +235,34 @@ public class XmlSettingsParser extends DefaultHandler {
         CredentialsStore.INSTANCE.addCredentials(realm, host, userName, passwd);
     }
 
+    private void httpClientStarted(Map<String, String> attributes) {
+        HttpClientConfig config = HttpClientConfig.INSTANCE;
+        String maxConnections = attributes.get("maxConnections");
+        if (maxConnections != null) {
+            config.setMaxConnections(Integer.parseInt(maxConnections));
+        }
+        String maxConnectionsPerRoute = attributes.get("maxConnectionsPerRoute");
+        if (maxConnectionsPerRoute != null) {
+            config.setMaxConnectionsPerRoute(Integer.parseInt(maxConnectionsPerRoute));
+        }
+        String idleTimeout = attributes.get("idleTimeout");
+        if (idleTimeout != null) {
+            config.setIdleTimeout(Long.parseLong(idleTimeout));
+        }
+        String connectionTTL = attributes.get("connectionTTL");
+        if (connectionTTL != null) {
+            config.setConnectionTTL(Long.parseLong(connectionTTL));
+        }
+        String sendBufferSize = attributes.get("sendBufferSize");
+        if (sendBufferSize != null) {
+            config.setSendBufferSize(Integer.parseInt(sendBufferSize));
+        }
+        String receiveBufferSize = attributes.get("receiveBufferSize");
+        if (receiveBufferSize != null) {
+            config.setReceiveBufferSize(Integer.parseInt(receiveBufferSize));
+        }
+    }
+
     private void moduleStarted(Map<String, String> attributes) {
         attributes.put(IvyPatternHelper.MODULE_KEY, attributes.remove("name"));
         String resolver = attributes.remove("resolver");
@@ -340,6 +372,18 @@ public class XmlSettingsParser extends DefaultHandler {
                     + ")");
             ivy.setCheckUpToDate(Boolean.valueOf(up2d));
         }
+        String downloadThreads = attributes.get("downloadThreads");
+        if (downloadThreads != null) {
+            ivy.setDownloadThreads(Integer.parseInt(downloadThreads));
+        }
+        String prefetchThreads = attributes.get("prefetchThreads");
+        if (prefetchThreads != null) {
+            ivy.setPrefetchThreads(Integer.parseInt(prefetchThreads));
+        }
+        String retrieveThreads = attributes.get("retrieveThreads");
+        if (retrieveThreads != null) {
+            ivy.setRetrieveThreads(Integer.parseInt(retrieveThreads));
+        }
         String useRemoteConfig = attributes.get("useRemoteConfig");
         if (useRemoteConfig != null) {
             ivy.setUseRemoteConfig(Boolean.valueOf(useRemoteConfig));
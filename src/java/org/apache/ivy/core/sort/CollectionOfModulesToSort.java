@@ -17,33 +17,36 @@
  */
 package org.apache.ivy.core.sort;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
+import org.apache.ivy.Ivy;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.plugins.version.VersionMatcher;
 
 /**
- * Wrap a collection of descriptors wrapped themselves in ModuleInSort elements. It contains some
- * dedicated function to retrieve module descriptors based on dependencies descriptors.
+ * Wrap a collection of descriptors, each of them being identified by its index in the collection.
+ * It contains some dedicated function to retrieve module descriptors based on dependencies
+ * descriptors.
  * <p>
  * <i>This class is designed to be used internally by the ModuleDescriptorSorter.</i>
  * </p>
  */
-class CollectionOfModulesToSort implements Iterable<ModuleInSort> {
+class CollectionOfModulesToSort {
 
-    private final List<ModuleInSort> moduleDescriptors;
+    private final ModuleDescriptor[] moduleDescriptors;
 
     private final VersionMatcher versionMatcher;
 
-    private final Map<ModuleId, Collection<ModuleInSort>> modulesByModuleId;
+    // the index of the last module of each module id, the previous modules of the same id being
+    // chained through previousOfSameId
+    private final Map<ModuleId, Integer> modulesByModuleId;
+
+    private final int[] previousOfSameId;
 
     private final NonMatchingVersionReporter nonMatchingVersionReporter;
 
@@ -59,55 +62,60 @@ class CollectionOfModulesToSort implements Iterable<ModuleInSort> {
             VersionMatcher matcher, NonMatchingVersionReporter nonMatchingVersionReporter) {
         this.versionMatcher = matcher;
         this.nonMatchingVersionReporter = nonMatchingVersionReporter;
+        this.moduleDescriptors = modulesToSort.toArray(new ModuleDescriptor[modulesToSort.size()]);
         this.modulesByModuleId = new HashMap<>();
-        moduleDescriptors = new ArrayList<>(modulesToSort.size());
-        for (ModuleDescriptor md : modulesToSort) {
-            ModuleInSort mdInSort = new ModuleInSort(md);
-            moduleDescriptors.add(mdInSort);
-            addToModulesByModuleId(md, mdInSort);
+        this.previousOfSameId = new int[moduleDescriptors.length];
+        Arrays.fill(previousOfSameId, -1);
+        for (int i = 0; i < moduleDescriptors.length; i++) {
+            ModuleId mdId = moduleDescriptors[i].getModuleRevisionId().getModuleId();
+            Integer previous = modulesByModuleId.put(mdId, i);
+            if (previous != null) {
+                previousOfSameId[i] = previous;
+            }
         }
     }
 
-    private void addToModulesByModuleId(ModuleDescriptor md, ModuleInSort mdInSort) {
-        ModuleId mdId = md.getModuleRevisionId().getModuleId();
-        List<ModuleInSort> mdInSortAsList = new LinkedList<>();
-        mdInSortAsList.add(mdInSort);
-        Collection<ModuleInSort> previousList = modulesByModuleId.put(mdId, mdInSortAsList);
-        if (previousList != null) {
-            mdInSortAsList.addAll(previousList);
-        }
+    public int size() {
+        return moduleDescriptors.length;
     }
 
-    public Iterator<ModuleInSort> iterator() {
-        return moduleDescriptors.iterator();
-    }
-
-    public int size() {
-        return moduleDescriptors.size();
+    public ModuleDescriptor get(int index) {
+        return moduleDescriptors[index];
     }
 
     /**
      * Find a matching module descriptor in the list of module to sort.
      *
      * @param descriptor ditto
-     * @return a ModuleDescriptor from the collection of module descriptors to sort. If none exists
-     *         returns null.
+     * @return the index of a ModuleDescriptor from the collection of module descriptors to sort.
+     *         If none exists returns -1.
      */
-    public ModuleInSort getModuleDescriptorDependency(DependencyDescriptor descriptor) {
-        Collection<ModuleInSort> modulesOfSameId = modulesByModuleId.get(descriptor
-                .getDependencyId());
-        if (modulesOfSameId == null) {
-            return null;
+    public int getModuleDescriptorDependency(DependencyDescriptor descriptor) {
+        Integer last = modulesByModuleId.get(descriptor.getDependencyId());
+        if (last == null) {
+            return -1;
         }
-        for (ModuleInSort mdInSort : modulesOfSameId) {
-            if (mdInSort.match(descriptor, versionMatcher)) {
-                return mdInSort;
+        for (int index = last; index != -1; index = previousOfSameId[index]) {
+            if (match(moduleDescriptors[index], descriptor)) {
+                return index;
             } else {
                 nonMatchingVersionReporter.reportNonMatchingVersion(descriptor,
-                    mdInSort.getSortedModuleDescriptor());
+                    moduleDescriptors[index]);
             }
         }
-        return null;
+        return -1;
+    }
+
+    /**
+     * Return true if the module match the DependencyDescriptor with the version matcher. If the
+     * module has no version defined, then true is always returned.
+     */
+    private boolean match(ModuleDescriptor md, DependencyDescriptor descriptor) {
+        String revision = md.getResolvedModuleRevisionId().getRevision();
+        // Checking revision.equals(Ivy.getWorkingRevision()) allow to consider any local non
+        // resolved ivy.xml as a valid module.
+        return revision == null || revision.equals(Ivy.getWorkingRevision())
+                || versionMatcher.accept(descriptor.getDependencyRevisionId(), md);
     }
 
 }
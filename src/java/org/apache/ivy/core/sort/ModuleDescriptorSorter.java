@@ -17,12 +17,15 @@
  */
 package org.apache.ivy.core.sort;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.circular.CircularDependencyException;
 import org.apache.ivy.plugins.circular.CircularDependencyStrategy;
 import org.apache.ivy.plugins.version.VersionMatcher;
@@ -31,77 +34,308 @@ import org.apache.ivy.util.Message;
 /**
  * Inner helper class for sorting ModuleDescriptors.
  * <p>
- * ModuleDescriptorSorter use CollectionOfModulesToSort to find the dependencies of the modules, and
- * use ModuleInSort to store some temporary values attached to the modules to sort.
+ * ModuleDescriptorSorter use CollectionOfModulesToSort to find the dependencies of the modules
+ * once, storing them as arrays of module indexes. The modules are then sorted by an iterative
+ * depth first traversal of these arrays which finds the strongly connected components of the
+ * dependency graph (Tarjan's algorithm): each component is a set of modules which depend on each
+ * other, i.e. a circular dependency when it has more than one module, and the components are found
+ * after all the components they depend on.
+ * </p>
+ * <p>
+ * The modules of a component are added contiguously to the sorted list, and each module gets a
+ * level: the modules of the level 0 don't depend on any other module of the collection, and the
+ * modules of a level only depend on modules of the previous levels or of their own circular
+ * dependency.
  * </p>
  *
- * @see ModuleInSort
  * @see CollectionOfModulesToSort
  */
 public class ModuleDescriptorSorter {
 
     private final CollectionOfModulesToSort moduleDescriptors;
 
-    private final List<ModuleDescriptor> sorted = new LinkedList<>();
-
     private final CircularDependencyStrategy circularDepStrategy;
 
+    // the dependencies of the module i are the modules dependencies[dependenciesStart[i]] to
+    // dependencies[dependenciesStart[i + 1] - 1], without duplicates nor the module itself
+    private final int[] dependenciesStart;
+
+    private final int[] dependencies;
+
+    private final boolean[] selfDependent;
+
+    // the indexes of the modules in the sort order, and the level of each module
+    private int[] sorted;
+
+    private int[] levels;
+
+    // reused by the searches of the circular dependencies to report
+    private int[] loopPrevious;
+
+    private int[] loopQueue;
+
     public ModuleDescriptorSorter(Collection<ModuleDescriptor> modulesDescriptorsToSort,
             VersionMatcher matcher, NonMatchingVersionReporter nonMatchingVersionReporter,
             CircularDependencyStrategy circularDepStrategy) {
         this.circularDepStrategy = circularDepStrategy;
         moduleDescriptors = new CollectionOfModulesToSort(modulesDescriptorsToSort, matcher,
                 nonMatchingVersionReporter);
+
+        int size = moduleDescriptors.size();
+        dependenciesStart = new int[size + 1];
+        selfDependent = new boolean[size];
+        int[] deps = new int[size];
+        int count = 0;
+        // lastDependent[j] == i + 1 when j has already been added to the dependencies of i
+        int[] lastDependent = new int[size];
+        for (int i = 0; i < size; i++) {
+            dependenciesStart[i] = count;
+            for (DependencyDescriptor descriptor : moduleDescriptors.get(i).getDependencies()) {
+                int dependency = moduleDescriptors.getModuleDescriptorDependency(descriptor);
+                if (dependency == i) {
+                    selfDependent[i] = true;
+                } else if (dependency != -1 && lastDependent[dependency] != i + 1) {
+                    lastDependent[dependency] = i + 1;
+                    if (count == deps.length) {
+                        deps = Arrays.copyOf(deps, deps.length * 2);
+                    }
+                    deps[count++] = dependency;
+                }
+            }
+        }
+        dependenciesStart[size] = count;
+        dependencies = deps;
     }
 
     /**
-     * Iterates over all modules calling sortModuleDescriptorsHelp.
+     * Sorts the modules from the less dependent to the more dependent, the modules of a circular
+     * dependency being sorted contiguously.
      *
      * @return sorted module
-     * @throws CircularDependencyException somehow
+     * @throws CircularDependencyException
+     *             if a circular dependency exists and circular dependency strategy decide to
+     *             throw an exception
      */
     public List<ModuleDescriptor> sortModuleDescriptors() throws CircularDependencyException {
-        Message.debug("Nbr of module to sort : " + moduleDescriptors.size());
-        for (ModuleInSort m : moduleDescriptors) {
-            sortModuleDescriptorsHelp(m, m);
+        int[] order = sort();
+        List<ModuleDescriptor> result = new ArrayList<>(order.length);
+        for (int index : order) {
+            result.add(moduleDescriptors.get(index));
         }
-        return sorted;
+        return result;
     }
 
     /**
-     * If current module has already been added to list, returns, Otherwise invokes
-     * sortModuleDescriptorsHelp for all dependencies contained within set of moduleDescriptors.
-     * Then finally adds self to list of sorted.<br/>
-     * When a loop is detected by a recursive call, the moduleDescriptors are not added immediately
-     * added to the sorted list. They are added as loop dependencies of the root, and will be added
-     * to the sorted list only when the root itself will be added.
+     * Sorts the modules by levels: the modules of a level only depend on modules of the previous
+     * levels, or on modules of a same circular dependency, which are always in the same level.
      *
-     * @param current
-     *            Current module to add to sorted list.
-     * @throws CircularDependencyException somehow
+     * @return the modules of each level, in the sort order
+     * @throws CircularDependencyException
+     *             if a circular dependency exists and circular dependency strategy decide to
+     *             throw an exception
+     * @since 2.5.2
      */
-    private void sortModuleDescriptorsHelp(ModuleInSort current, ModuleInSort caller)
+    public List<List<ModuleDescriptor>> sortModuleDescriptorsByLevel()
             throws CircularDependencyException {
-        // if already sorted return
-        if (current.isProcessed()) {
-            return;
+        int[] order = sort();
+        List<List<ModuleDescriptor>> result = new ArrayList<>();
+        for (int index : order) {
+            int level = levels[index];
+            while (result.size() <= level) {
+                result.add(new ArrayList<ModuleDescriptor>());
+            }
+            result.get(level).add(moduleDescriptors.get(index));
         }
-        if (current.checkLoop(caller, circularDepStrategy)) {
-            return;
+        return result;
+    }
+
+    /**
+     * @param index
+     *            the index of a module in the collection to sort
+     * @return the modules of the collection on which the module directly depends, itself excepted
+     */
+    List<ModuleDescriptor> getDependencies(int index) {
+        List<ModuleDescriptor> result = new ArrayList<>(
+                dependenciesStart[index + 1] - dependenciesStart[index]);
+        for (int i = dependenciesStart[index]; i < dependenciesStart[index + 1]; i++) {
+            result.add(moduleDescriptors.get(dependencies[i]));
+        }
+        return result;
+    }
+
+    int size() {
+        return moduleDescriptors.size();
+    }
+
+    ModuleDescriptor get(int index) {
+        return moduleDescriptors.get(index);
+    }
+
+    /**
+     * Sorts the modules, the circular dependencies being reported to the circular dependency
+     * strategy, one per strongly connected component.
+     *
+     * @return the indexes of the modules in the sort order
+     */
+    int[] sort() throws CircularDependencyException {
+        if (sorted != null) {
+            return sorted;
         }
-        DependencyDescriptor[] descriptors = current.getDependencies();
-        Message.debug("Sort dependencies of : " + current.toString()
-                + " / Number of dependencies = " + descriptors.length);
-        current.setCaller(caller);
-        for (DependencyDescriptor descriptor : descriptors) {
-            ModuleInSort child = moduleDescriptors.getModuleDescriptorDependency(descriptor);
-            if (child != null) {
-                sortModuleDescriptorsHelp(child, current);
+        int size = moduleDescriptors.size();
+        Message.debug("Nbr of module to sort : " + size);
+        int[] order = new int[size];
+        int sortedCount = 0;
+        levels = new int[size];
+
+        // discovery index and lowest reachable discovery index of the modules on the stack
+        int[] discovery = new int[size];
+        Arrays.fill(discovery, -1);
+        int[] lowLink = new int[size];
+        int discovered = 0;
+        int[] finished = new int[size];
+        int finishedCount = 0;
+        // the component of each module once found
+        int[] component = new int[size];
+        Arrays.fill(component, -1);
+        int componentCount = 0;
+        // the modules visited but not yet assigned to a component
+        int[] stack = new int[size];
+        int stackSize = 0;
+        boolean[] onStack = new boolean[size];
+        // the traversal path, and the next dependency to visit of each module of the path
+        int[] path = new int[size];
+        int pathSize = 0;
+        int[] nextDependency = new int[size];
+
+        for (int root = 0; root < size; root++) {
+            if (discovery[root] != -1) {
+                continue;
+            }
+            discovery[root] = lowLink[root] = discovered++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            nextDependency[root] = dependenciesStart[root];
+            path[pathSize++] = root;
+            while (pathSize > 0) {
+                int current = path[pathSize - 1];
+                if (nextDependency[current] < dependenciesStart[current + 1]) {
+                    int dependency = dependencies[nextDependency[current]++];
+                    if (discovery[dependency] == -1) {
+                        discovery[dependency] = lowLink[dependency] = discovered++;
+                        stack[stackSize++] = dependency;
+                        onStack[dependency] = true;
+                        nextDependency[dependency] = dependenciesStart[dependency];
+                        path[pathSize++] = dependency;
+                    } else if (onStack[dependency]) {
+                        lowLink[current] = Math.min(lowLink[current], discovery[dependency]);
+                    }
+                    continue;
+                }
+                pathSize--;
+                finished[current] = finishedCount++;
+                if (pathSize > 0) {
+                    int caller = path[pathSize - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[current]);
+                }
+                if (lowLink[current] != discovery[current]) {
+                    continue;
+                }
+                // current is the root of a component made of the modules above it on the stack
+                int first = stackSize - 1;
+                while (stack[first] != current) {
+                    first--;
+                }
+                int[] members = Arrays.copyOfRange(stack, first, stackSize);
+                stackSize = first;
+                for (int member : members) {
+                    onStack[member] = false;
+                    component[member] = componentCount;
+                }
+                if (members.length > 1) {
+                    // the modules of a loop are sorted as they have been finished by the traversal
+                    sortByFinish(members, finished);
+                }
+                int level = 0;
+                for (int member : members) {
+                    for (int i = dependenciesStart[member]; i < dependenciesStart[member + 1];
+                            i++) {
+                        int dependency = dependencies[i];
+                        if (component[dependency] != componentCount) {
+                            level = Math.max(level, levels[dependency] + 1);
+                        }
+                    }
+                }
+                for (int member : members) {
+                    levels[member] = level;
+                    order[sortedCount++] = member;
+                }
+                if (members.length > 1 || selfDependent[current]) {
+                    circularDepStrategy.handleCircularDependency(
+                        getLoop(current, component, componentCount));
+                }
+                componentCount++;
             }
         }
-        current.endOfCall();
-        Message.debug("Sort done for : " + current.toString());
-        current.addToSortedListIfRequired(sorted);
+        sorted = order;
+        return sorted;
     }
 
+    private static void sortByFinish(int[] members, int[] finished) {
+        long[] keys = new long[members.length];
+        for (int i = 0; i < members.length; i++) {
+            keys[i] = (long) finished[members[i]] << Integer.SIZE | members[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < members.length; i++) {
+            members[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Finds a shortest circular dependency starting and ending with the given module, among the
+     * modules of its component.
+     */
+    private ModuleRevisionId[] getLoop(int start, int[] component, int componentId) {
+        if (selfDependent[start]) {
+            ModuleRevisionId mrid = moduleDescriptors.get(start).getModuleRevisionId();
+            return new ModuleRevisionId[] {mrid, mrid};
+        }
+        // breadth first search of the modules of the component, from start back to start
+        if (loopPrevious == null) {
+            loopPrevious = new int[moduleDescriptors.size()];
+            Arrays.fill(loopPrevious, -1);
+            loopQueue = new int[moduleDescriptors.size()];
+        }
+        int[] previous = loopPrevious;
+        int[] queue = loopQueue;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        int last = -1;
+        while (last == -1) {
+            int current = queue[head++];
+            for (int i = dependenciesStart[current]; i < dependenciesStart[current + 1]; i++) {
+                int dependency = dependencies[i];
+                if (dependency == start) {
+                    last = current;
+                    break;
+                }
+                if (component[dependency] == componentId && previous[dependency] == -1) {
+                    previous[dependency] = current;
+                    queue[tail++] = dependency;
+                }
+            }
+        }
+        List<ModuleRevisionId> loop = new ArrayList<>();
+        loop.add(moduleDescriptors.get(start).getModuleRevisionId());
+        for (int current = last; current != start; current = previous[current]) {
+            loop.add(moduleDescriptors.get(current).getModuleRevisionId());
+        }
+        loop.add(moduleDescriptors.get(start).getModuleRevisionId());
+        Collections.reverse(loop);
+        for (int i = 0; i < tail; i++) {
+            previous[queue[i]] = -1;
+        }
+        return loop.toArray(new ModuleRevisionId[loop.size()]);
+    }
 }
@@ -18,7 +18,9 @@
 package org.apache.ivy.core.sort;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,36 +59,49 @@ public class SortEngine {
      */
     public List<IvyNode> sortNodes(Collection<IvyNode> nodes, SortOptions options) {
         /*
-         * here we want to use the sort algorithm which work on module descriptors : so we first put
-         * dependencies on a map from descriptors to dependency, then we sort the keySet (i.e. a
-         * collection of descriptors), then we replace in the sorted list each descriptor by the
-         * corresponding dependency
+         * here we want to use the sort algorithm which work on module descriptors : so we first
+         * give an index to each distinct descriptor, then we sort the descriptors, and finally we
+         * replace in the sorted order each descriptor index by the corresponding nodes
          */
-
-        Map<ModuleDescriptor, List<IvyNode>> dependenciesMap = new LinkedHashMap<>();
-        List<IvyNode> nulls = new ArrayList<>();
+        List<ModuleDescriptor> mds = new ArrayList<>(nodes.size());
+        Map<ModuleDescriptor, Integer> indexes = new HashMap<>();
+        List<IvyNode> ret = new ArrayList<>(nodes.size());
+        IvyNode[] describedNodes = new IvyNode[nodes.size()];
+        int[] nodeIndexes = new int[nodes.size()];
+        int described = 0;
         for (IvyNode node : nodes) {
             if (node.getDescriptor() == null) {
-                nulls.add(node);
+                ret.add(node);
             } else {
-                List<IvyNode> n = dependenciesMap.get(node.getDescriptor());
-                if (n == null) {
-                    n = new ArrayList<>();
-                    dependenciesMap.put(node.getDescriptor(), n);
+                Integer index = indexes.get(node.getDescriptor());
+                if (index == null) {
+                    index = mds.size();
+                    indexes.put(node.getDescriptor(), index);
+                    mds.add(node.getDescriptor());
                 }
-                n.add(node);
+                describedNodes[described] = node;
+                nodeIndexes[described++] = index;
             }
         }
-        List<ModuleDescriptor> list = sortModuleDescriptors(dependenciesMap.keySet(), options);
-        final double adjustFactor = 1.3;
-        List<IvyNode> ret = new ArrayList<>(
-                (int) (list.size() * adjustFactor + nulls.size()));
-        // attempt to adjust the size to avoid too much list resizing
-        for (ModuleDescriptor md : list) {
-            List<IvyNode> n = dependenciesMap.get(md);
-            ret.addAll(n);
+        // the nodes of each descriptor are nodesByIndex[nodesStart[i]] to
+        // nodesByIndex[nodesStart[i + 1] - 1], in the order of the given collection
+        int[] nodesStart = new int[mds.size() + 1];
+        for (int i = 0; i < described; i++) {
+            nodesStart[nodeIndexes[i] + 1]++;
+        }
+        for (int i = 0; i < mds.size(); i++) {
+            nodesStart[i + 1] += nodesStart[i];
+        }
+        IvyNode[] nodesByIndex = new IvyNode[described];
+        int[] next = Arrays.copyOf(nodesStart, mds.size());
+        for (int i = 0; i < described; i++) {
+            nodesByIndex[next[nodeIndexes[i]]++] = describedNodes[i];
+        }
+        for (int index : newSorter(mds, options).sort()) {
+            for (int i = nodesStart[index]; i < nodesStart[index + 1]; i++) {
+                ret.add(nodesByIndex[i]);
+            }
         }
-        ret.addAll(0, nulls);
         return ret;
     }
 
@@ -107,12 +122,66 @@ public class SortEngine {
     public List<ModuleDescriptor> sortModuleDescriptors(
             Collection<ModuleDescriptor> moduleDescriptors, SortOptions options)
             throws CircularDependencyException {
+        return newSorter(moduleDescriptors, options).sortModuleDescriptors();
+    }
+
+    /**
+     * Sorts the given ModuleDescriptors by levels, from the less dependent to the more dependent.
+     * The ModuleDescriptors of a level only depend on ModuleDescriptors of the previous levels, or
+     * on the ones of a same circular dependency which are always in the same level: the
+     * ModuleDescriptors of a level can thus be processed concurrently once the previous levels
+     * have been processed.
+     *
+     * @param moduleDescriptors
+     *            a Collection of ModuleDescriptor to sort
+     * @param options
+     *            Options to use to sort the descriptors.
+     * @return the List of levels, each level being a List of ModuleDescriptors in the order of
+     *         {@link #sortModuleDescriptors(Collection, SortOptions)}
+     * @throws CircularDependencyException
+     *             if a circular dependency exists and circular dependency strategy decide to throw
+     *             an exception
+     * @since 2.5.2
+     */
+    public List<List<ModuleDescriptor>> sortModuleDescriptorsByLevel(
+            Collection<ModuleDescriptor> moduleDescriptors, SortOptions options)
+            throws CircularDependencyException {
+        return newSorter(moduleDescriptors, options).sortModuleDescriptorsByLevel();
+    }
+
+    /**
+     * Returns the ModuleDescriptors of the given collection on which each of them directly
+     * depends, matched the same way as when sorting them.
+     *
+     * @param moduleDescriptors
+     *            a Collection of ModuleDescriptor
+     * @param options
+     *            Options to use to match the dependencies, only the non matching version
+     *            reporter is used.
+     * @return a Map giving for each ModuleDescriptor of the collection, in the order of the
+     *         collection, the List of ModuleDescriptors of the collection it directly depends on
+     * @since 2.5.2
+     */
+    public Map<ModuleDescriptor, List<ModuleDescriptor>> getDirectDependencies(
+            Collection<ModuleDescriptor> moduleDescriptors, SortOptions options) {
         Checks.checkNotNull(options, "options");
         ModuleDescriptorSorter sorter = new ModuleDescriptorSorter(moduleDescriptors,
                 getVersionMatcher(), options.getNonMatchingVersionReporter(),
+                IgnoreCircularDependencyStrategy.getInstance());
+        Map<ModuleDescriptor, List<ModuleDescriptor>> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < sorter.size(); i++) {
+            dependencies.put(sorter.get(i), sorter.getDependencies(i));
+        }
+        return dependencies;
+    }
+
+    private ModuleDescriptorSorter newSorter(Collection<ModuleDescriptor> moduleDescriptors,
+            SortOptions options) {
+        Checks.checkNotNull(options, "options");
+        return new ModuleDescriptorSorter(moduleDescriptors, getVersionMatcher(),
+                options.getNonMatchingVersionReporter(),
                 options.isUseCircularDependencyStrategy() ? getCircularStrategy()
                         : IgnoreCircularDependencyStrategy.getInstance());
-        return sorter.sortModuleDescriptors();
     }
 
     protected CircularDependencyStrategy getCircularStrategy() {
@@ -17,8 +17,11 @@
  */
 package org.apache.ivy.plugins.latest;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -33,24 +36,18 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
      */
     final class MridComparator implements Comparator<ModuleRevisionId> {
         public int compare(ModuleRevisionId o1, ModuleRevisionId o2) {
-            String rev1 = o1.getRevision();
-            String rev2 = o2.getRevision();
-
-            rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-            rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-
-            String[] parts1 = rev1.split("[\\._\\-\\+]");
-            String[] parts2 = rev2.split("[\\._\\-\\+]");
+            return compare(ParsedRevision.parse(o1.getRevision()),
+                ParsedRevision.parse(o2.getRevision()));
+        }
 
+        int compare(ParsedRevision rev1, ParsedRevision rev2) {
             int i = 0;
-            for (; i < parts1.length && i < parts2.length; i++) {
-                if (parts1[i].equals(parts2[i])) {
+            for (; i < rev1.size() && i < rev2.size(); i++) {
+                if (rev1.getPart(i).equals(rev2.getPart(i))) {
                     continue;
                 }
-                boolean is1Number = isNumber(parts1[i]);
-                boolean is2Number = isNumber(parts2[i]);
+                boolean is1Number = rev1.isNumber(i);
+                boolean is2Number = rev2.isNumber(i);
                 if (is1Number && !is2Number) {
                     return 1;
                 }
@@ -58,35 +55,28 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
                     return -1;
                 }
                 if (is1Number && is2Number) {
-                    return Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i]));
+                    return rev1.compareNumbers(i, rev2, i);
                 }
                 // both are strings, we compare them taking into account special meaning
                 Map<String, Integer> specialMeanings = getSpecialMeanings();
-                Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
-                Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
+                Integer sm1 = specialMeanings.get(rev1.getLowerCasePart(i));
+                Integer sm2 = specialMeanings.get(rev2.getLowerCasePart(i));
                 if (sm1 != null) {
-                    if (sm2 == null) {
-                        sm2 = new Integer(0);
-                    }
-                    return sm1.compareTo(sm2);
+                    return Integer.compare(sm1, sm2 == null ? 0 : sm2);
                 }
                 if (sm2 != null) {
-                    return new Integer(0).compareTo(sm2);
+                    return Integer.compare(0, sm2);
                 }
-                return parts1[i].compareTo(parts2[i]);
+                return rev1.getPart(i).compareTo(rev2.getPart(i));
             }
-            if (i < parts1.length) {
-                return isNumber(parts1[i]) ? 1 : -1;
+            if (i < rev1.size()) {
+                return rev1.isNumber(i) ? 1 : -1;
             }
-            if (i < parts2.length) {
-                return isNumber(parts2[i]) ? -1 : 1;
+            if (i < rev2.size()) {
+                return rev2.isNumber(i) ? -1 : 1;
             }
             return 0;
         }
-
-        private boolean isNumber(String str) {
-            return str.matches("\\d+");
-        }
     }
 
     /**
@@ -96,9 +86,12 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
      */
     final class ArtifactInfoComparator implements Comparator<ArtifactInfo> {
         public int compare(ArtifactInfo o1, ArtifactInfo o2) {
-            String rev1 = o1.getRevision();
-            String rev2 = o2.getRevision();
+            VersionMatcher vmatcher = IvyContext.getContext().getSettings().getVersionMatcher();
+            return compare(new SortedRevision(o1, vmatcher), new SortedRevision(o2, vmatcher),
+                vmatcher);
+        }
 
+        int compare(SortedRevision rev1, SortedRevision rev2, VersionMatcher vmatcher) {
             /*
              * The revisions can still be not resolved, so we use the current version matcher to
              * know if one revision is dynamic, and in this case if it should be considered greater
@@ -107,19 +100,35 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
              * consider the dynamic one to be greater, because most of the time it will then be
              * actually resolved and a real comparison will occur.
              */
-            VersionMatcher vmatcher = IvyContext.getContext().getSettings().getVersionMatcher();
-            ModuleRevisionId mrid1 = ModuleRevisionId.newInstance("", "", rev1);
-            ModuleRevisionId mrid2 = ModuleRevisionId.newInstance("", "", rev2);
-
-            if (vmatcher.isDynamic(mrid1)) {
-                int c = vmatcher.compare(mrid1, mrid2, mridComparator);
+            if (rev1.dynamic) {
+                int c = vmatcher.compare(rev1.mrid, rev2.mrid, mridComparator);
                 return c >= 0 ? 1 : -1;
-            } else if (vmatcher.isDynamic(mrid2)) {
-                int c = vmatcher.compare(mrid2, mrid1, mridComparator);
+            } else if (rev2.dynamic) {
+                int c = vmatcher.compare(rev2.mrid, rev1.mrid, mridComparator);
                 return c >= 0 ? -1 : 1;
             }
 
-            return mridComparator.compare(mrid1, mrid2);
+            return mridComparator.compare(rev1.parsed, rev2.parsed);
+        }
+    }
+
+    /**
+     * An ArtifactInfo with what its revision is compared with, computed once per sort.
+     */
+    private static final class SortedRevision {
+        private final ArtifactInfo info;
+
+        private final ModuleRevisionId mrid;
+
+        private final boolean dynamic;
+
+        private final ParsedRevision parsed;
+
+        SortedRevision(ArtifactInfo info, VersionMatcher vmatcher) {
+            this.info = info;
+            mrid = ModuleRevisionId.newInstance("", "", info.getRevision());
+            dynamic = vmatcher.isDynamic(mrid);
+            parsed = ParsedRevision.parse(info.getRevision());
         }
     }
 
@@ -162,9 +171,9 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
         DEFAULT_SPECIAL_MEANINGS.put("final", 2);
     }
 
-    private final Comparator<ModuleRevisionId> mridComparator = new MridComparator();
+    private final MridComparator mridComparator = new MridComparator();
 
-    private final Comparator<ArtifactInfo> artifactInfoComparator = new ArtifactInfoComparator();
+    private final ArtifactInfoComparator artifactInfoComparator = new ArtifactInfoComparator();
 
     private Map<String, Integer> specialMeanings = null;
 
@@ -175,6 +184,33 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
         setName("latest-revision");
     }
 
+    /**
+     * Sorts the given infos by revision, each revision being parsed once instead of once per
+     * comparison, unless another comparator has been set.
+     */
+    @Override
+    public List<ArtifactInfo> sort(ArtifactInfo[] infos) {
+        if (getComparator() != artifactInfoComparator) {
+            return super.sort(infos);
+        }
+        final VersionMatcher vmatcher = IvyContext.getContext().getSettings()
+                .getVersionMatcher();
+        List<SortedRevision> revisions = new ArrayList<>(infos.length);
+        for (ArtifactInfo info : infos) {
+            revisions.add(new SortedRevision(info, vmatcher));
+        }
+        Collections.sort(revisions, new Comparator<SortedRevision>() {
+            public int compare(SortedRevision rev1, SortedRevision rev2) {
+                return artifactInfoComparator.compare(rev1, rev2, vmatcher);
+            }
+        });
+        List<ArtifactInfo> ret = new ArrayList<>(revisions.size());
+        for (SortedRevision revision : revisions) {
+            ret.add(revision.info);
+        }
+        return ret;
+    }
+
     public void addConfiguredSpecialMeaning(SpecialMeaning meaning) {
         meaning.validate();
         getSpecialMeanings().put(meaning.getName().toLowerCase(Locale.US), meaning.getValue());
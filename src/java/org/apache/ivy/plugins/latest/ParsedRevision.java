@@ -0,0 +1,208 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.latest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A revision split into the parts compared by {@link LatestRevisionStrategy}, so that revisions
+ * are parsed once and then compared without any regular expression nor allocation.
+ * <p>
+ * A revision is split on the <code>.</code>, <code>_</code>, <code>-</code> and <code>+</code>
+ * characters, and between letters and digits, the trailing empty parts being dropped.
+ * </p>
+ */
+final class ParsedRevision {
+    // the parsed revisions are shared, the cache being cleared when it grows too large
+    private static final int MAX_CACHED = 10000;
+
+    private static final Map<String, ParsedRevision> CACHE = new ConcurrentHashMap<>();
+
+    // the numbers with more digits may not fit in a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final String[] parts;
+
+    private final String[] lowerCaseParts;
+
+    private final boolean[] numbers;
+
+    // the value of the numeric parts, or -1 when a number doesn't fit in a long
+    private final long[] values;
+
+    private ParsedRevision(String[] parts) {
+        this.parts = parts;
+        lowerCaseParts = new String[parts.length];
+        numbers = new boolean[parts.length];
+        values = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            numbers[i] = isNumber(parts[i]);
+            if (numbers[i]) {
+                values[i] = significantDigits(parts[i]) > MAX_LONG_DIGITS ? -1
+                        : Long.parseLong(parts[i]);
+            } else {
+                lowerCaseParts[i] = parts[i].toLowerCase(Locale.US);
+            }
+        }
+    }
+
+    /**
+     * Returns the parsed form of a revision.
+     *
+     * @param revision
+     *            the revision to parse
+     * @return ParsedRevision
+     */
+    static ParsedRevision parse(String revision) {
+        ParsedRevision parsed = CACHE.get(revision);
+        if (parsed == null) {
+            parsed = new ParsedRevision(split(revision));
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            CACHE.put(revision, parsed);
+        }
+        return parsed;
+    }
+
+    int size() {
+        return parts.length;
+    }
+
+    String getPart(int index) {
+        return parts[index];
+    }
+
+    /**
+     * @param index
+     *            the index of a part
+     * @return the part in lower case, or <code>null</code> if it's a number
+     */
+    String getLowerCasePart(int index) {
+        return lowerCaseParts[index];
+    }
+
+    boolean isNumber(int index) {
+        return numbers[index];
+    }
+
+    /**
+     * Compares two numeric parts.
+     *
+     * @param index
+     *            the index of a numeric part of this revision
+     * @param other
+     *            the other revision
+     * @param otherIndex
+     *            the index of a numeric part of the other revision
+     * @return -1, 0 or 1 as the number of this revision is lower, equal or greater than the
+     *         number of the other one
+     */
+    int compareNumbers(int index, ParsedRevision other, int otherIndex) {
+        long value = values[index];
+        long otherValue = other.values[otherIndex];
+        if (value >= 0 && otherValue >= 0) {
+            return Long.compare(value, otherValue);
+        }
+        // at least one number doesn't fit in a long, compare their digits
+        String number = parts[index];
+        String otherNumber = other.parts[otherIndex];
+        int digits = significantDigits(number);
+        int otherDigits = significantDigits(otherNumber);
+        if (digits != otherDigits) {
+            return digits < otherDigits ? -1 : 1;
+        }
+        int offset = number.length() - digits;
+        int otherOffset = otherNumber.length() - otherDigits;
+        for (int i = 0; i < digits; i++) {
+            char digit = number.charAt(offset + i);
+            char otherDigit = otherNumber.charAt(otherOffset + i);
+            if (digit != otherDigit) {
+                return digit < otherDigit ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Splits a revision as <code>revision.replaceAll("([a-zA-Z])(\\d)", "$1.$2")
+     * .replaceAll("(\\d)([a-zA-Z])", "$1.$2").split("[\\._\\-\\+]")</code> does.
+     */
+    private static String[] split(String revision) {
+        List<String> parts = new ArrayList<>();
+        boolean split = false;
+        int start = 0;
+        for (int i = 0; i < revision.length(); i++) {
+            char c = revision.charAt(i);
+            if (c == '.' || c == '_' || c == '-' || c == '+') {
+                parts.add(revision.substring(start, i));
+                start = i + 1;
+                split = true;
+            } else if (i > 0 && isBoundary(revision.charAt(i - 1), c)) {
+                parts.add(revision.substring(start, i));
+                start = i;
+                split = true;
+            }
+        }
+        if (!split) {
+            return new String[] {revision};
+        }
+        parts.add(revision.substring(start));
+        int size = parts.size();
+        while (size > 0 && parts.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return parts.subList(0, size).toArray(new String[size]);
+    }
+
+    private static boolean isBoundary(char previous, char c) {
+        return isLetter(previous) && isDigit(c) || isDigit(previous) && isLetter(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNumber(String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int significantDigits(String number) {
+        int i = 0;
+        while (i < number.length() - 1 && number.charAt(i) == '0') {
+            i++;
+        }
+        return number.length() - i;
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.m2;
+
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.MetadataArtifactDownloadReport;
+import org.apache.ivy.core.resolve.ResolvedModuleRevision;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.util.Message;
+
+/**
+ * Keeps the effective POMs of the parents and imported modules of the POMs being parsed, so that
+ * the parents and BOMs shared by many modules are looked up, and their properties, dependency
+ * management and plugins extracted, once per process rather than once per child.
+ * <p>
+ * An entry is found by the resolver and the module revision id of the POM, and stays valid as long
+ * as the metadata file it has been read from, in the repository cache, is not modified, nor the
+ * files of the parent and imported POMs it has inherited from when it has been parsed. The cache
+ * keeps the most recently used entries, and is bounded both by its number of entries and by their
+ * total weight, estimated from their number of properties, managed dependencies and plugins.
+ * </p>
+ * <p>
+ * The cache is shared by the whole process, so it only references resolvers weakly, and doesn't
+ * keep anything referencing them: the entries of the resolvers of discarded settings are removed
+ * once these resolvers have been garbage collected.
+ * </p>
+ */
+final class EffectivePomCache {
+
+    private final int maxSize;
+
+    private final long maxWeight;
+
+    // in access order, from the least recently used entry; guarded by this
+    private final Map<Key, EffectivePom> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // guarded by this
+    private long weight;
+
+    // the keys which resolver has been garbage collected
+    private final ReferenceQueue<DependencyResolver> collectedResolvers = new ReferenceQueue<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize
+     *            the maximum number of entries
+     * @param maxWeight
+     *            the maximum total weight of the entries
+     */
+    EffectivePomCache(int maxSize, long maxWeight) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the effective POM of the given module found by the given resolver, if it is in the
+     * cache and still up to date.
+     *
+     * @param resolver
+     *            the resolver of the module
+     * @param mrid
+     *            the module revision id of the POM
+     * @return the effective POM, or <code>null</code> if it has to be looked up again
+     */
+    EffectivePom get(DependencyResolver resolver, ModuleRevisionId mrid) {
+        Key key = new Key(resolver, mrid, null);
+        EffectivePom pom;
+        synchronized (this) {
+            removeCollectedEntries();
+            pom = entries.get(key);
+        }
+        if (pom == null) {
+            missCount.increment();
+            return null;
+        }
+        if (pom.isModified()) {
+            Message.debug("effective pom of " + mrid + " is out of date: " + pom.source);
+            synchronized (this) {
+                if (entries.remove(key, pom)) {
+                    weight -= pom.weight;
+                }
+            }
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return pom;
+    }
+
+    /**
+     * Computes the effective POM of a module which has just been looked up, and keeps it in the
+     * cache if the metadata file it has been read from is known.
+     *
+     * @param resolver
+     *            the resolver of the module
+     * @param mrid
+     *            the module revision id of the POM
+     * @param module
+     *            the module found by the resolver
+     * @param inherited
+     *            the effective POMs of the parent and imported POMs looked up while parsing it
+     * @return the effective POM of the module
+     */
+    EffectivePom put(DependencyResolver resolver, ModuleRevisionId mrid,
+            ResolvedModuleRevision module, List<EffectivePom> inherited) {
+        EffectivePom pom = new EffectivePom(module, inherited);
+        if (!pom.isCacheable()) {
+            return pom;
+        }
+        synchronized (this) {
+            removeCollectedEntries();
+            EffectivePom previous = entries.put(new Key(resolver, mrid, collectedResolvers), pom);
+            weight += pom.weight - (previous == null ? 0 : previous.weight);
+            Iterator<EffectivePom> eldest = entries.values().iterator();
+            while ((entries.size() > maxSize || weight > maxWeight) && entries.size() > 1) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictionCount.increment();
+            }
+        }
+        return pom;
+    }
+
+    // must be called with the lock held
+    private void removeCollectedEntries() {
+        Reference<? extends DependencyResolver> collected;
+        while ((collected = collectedResolvers.poll()) != null) {
+            EffectivePom pom = entries.remove(collected);
+            if (pom != null) {
+                weight -= pom.weight;
+            }
+        }
+    }
+
+    /**
+     * @return the number of lookups which found an up to date entry in the cache
+     */
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups which didn't find an up to date entry in the cache
+     */
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of entries removed from the cache to respect its bounds
+     */
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the entries in the cache
+     */
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * A parent or imported POM, with the data its children inherit from it.
+     */
+    static final class EffectivePom {
+        private final ModuleDescriptor descriptor;
+
+        private final Map<String, String> properties;
+
+        private final List<PomDependencyMgt> dependencyManagements;
+
+        private final List<PomDependencyMgt> plugins;
+
+        // the metadata file in the repository cache, null if unknown
+        private final File source;
+
+        private final long lastModified;
+
+        private final long weight;
+
+        // the poms this one has inherited from when it has been parsed
+        private final List<EffectivePom> inherited;
+
+        EffectivePom(ResolvedModuleRevision module, List<EffectivePom> inherited) {
+            this.inherited = inherited;
+            ModuleDescriptor md = module.getDescriptor();
+            descriptor = md;
+            properties = Collections.unmodifiableMap(PomModuleDescriptorBuilder
+                    .extractPomProperties(md.getExtraInfos()));
+            dependencyManagements = Collections.unmodifiableList(PomModuleDescriptorBuilder
+                    .getDependencyManagements(md));
+            plugins = Collections.unmodifiableList(PomModuleDescriptorBuilder.getPlugins(md));
+            MetadataArtifactDownloadReport report = module.getReport();
+            File localFile = report == null ? null : report.getLocalFile();
+            source = localFile != null && localFile.isFile() ? localFile : null;
+            lastModified = source == null ? 0 : source.lastModified();
+            weight = 1 + properties.size() + dependencyManagements.size() + plugins.size();
+        }
+
+        private boolean isCacheable() {
+            if (source == null) {
+                return false;
+            }
+            for (EffectivePom pom : inherited) {
+                if (!pom.isCacheable()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isModified() {
+            if (source.lastModified() != lastModified) {
+                return true;
+            }
+            for (EffectivePom pom : inherited) {
+                if (pom.isModified()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ModuleDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        Map<String, String> getProperties() {
+            return properties;
+        }
+
+        List<PomDependencyMgt> getDependencyManagements() {
+            return dependencyManagements;
+        }
+
+        List<PomDependencyMgt> getPlugins() {
+            return plugins;
+        }
+    }
+
+    /**
+     * The same module may be found in distinct repositories by the resolvers of distinct
+     * settings, so resolvers are part of the key, compared by identity. A key which resolver has
+     * been garbage collected is only equal to itself.
+     */
+    private static final class Key extends WeakReference<DependencyResolver> {
+        private final ModuleRevisionId mrid;
+
+        private final int hash;
+
+        private Key(DependencyResolver resolver, ModuleRevisionId mrid,
+                ReferenceQueue<DependencyResolver> queue) {
+            super(resolver, queue);
+            this.mrid = mrid;
+            this.hash = 31 * System.identityHashCode(resolver) + mrid.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            DependencyResolver resolver = get();
+            return resolver != null && resolver == other.get() && mrid.equals(other.mrid);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.plugins.circular.CircularDependencyException;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.parser.m2.EffectivePomCache.EffectivePom;
 import org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.PomDependencyDescriptor;
 import org.apache.ivy.plugins.parser.m2.PomReader.PomDependencyData;
 import org.apache.ivy.plugins.parser.m2.PomReader.PomDependencyMgtElement;
@@ -55,15 +56,13 @@ import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.plugins.repository.url.URLResource;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.util.ResolverHelper;
 import org.apache.ivy.util.Message;
 import org.xml.sax.SAXException;
 
 import static org.apache.ivy.core.module.descriptor.Configuration.Visibility.PUBLIC;
 import static org.apache.ivy.plugins.namespace.NameSpaceHelper.toSystem;
 import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.MAVEN2_CONFIGURATIONS;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.extractPomProperties;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.getDependencyManagements;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.getPlugins;
 
 /**
  * A parser for Maven 2 POM.
@@ -82,10 +81,48 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
 
     private static final String PARENT_MAP_KEY = PomModuleDescriptorParser.class.getName() + ".parentMap";
 
+    private static final String INHERITED_POMS_KEY = PomModuleDescriptorParser.class.getName()
+            + ".inheritedPoms";
+
+    private static final int MAX_EFFECTIVE_POMS = 1000;
+
+    // the number of properties, managed dependencies and plugins of the effective poms
+    private static final long MAX_EFFECTIVE_POMS_WEIGHT = 100000;
+
+    // the parents and imported modules, shared by all the poms parsed in this process
+    private static final EffectivePomCache EFFECTIVE_POMS = new EffectivePomCache(
+            MAX_EFFECTIVE_POMS, MAX_EFFECTIVE_POMS_WEIGHT);
+
     public static PomModuleDescriptorParser getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * @return the number of lookups of parent and imported poms which have been served by the
+     *         effective pom cache
+     * @since 2.5.2
+     */
+    public long getEffectivePomCacheHitCount() {
+        return EFFECTIVE_POMS.getHitCount();
+    }
+
+    /**
+     * @return the number of lookups of parent and imported poms which haven't been served by the
+     *         effective pom cache, because it had no up to date entry for them
+     * @since 2.5.2
+     */
+    public long getEffectivePomCacheMissCount() {
+        return EFFECTIVE_POMS.getMissCount();
+    }
+
+    /**
+     * @return the number of effective poms removed from the cache to respect its bounds
+     * @since 2.5.2
+     */
+    public long getEffectivePomCacheEvictionCount() {
+        return EFFECTIVE_POMS.getEvictionCount();
+    }
+
     private PomModuleDescriptorParser() {
     }
 
@@ -170,6 +207,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                 }
             }
 
+            EffectivePom parentPom = null;
             ModuleDescriptor parentDescr = null;
             if (domReader.hasParent()) {
                 // Is there any other parent properties?
@@ -185,15 +223,14 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     parents.add(parentModRevID);
                 }
 
-                final ResolvedModuleRevision parentModule = parseOtherPom(ivySettings, parentModRevID, true);
-                if (parentModule == null) {
+                parentPom = parseOtherPom(ivySettings, parentModRevID, true);
+                if (parentPom == null) {
                     throw new IOException("Impossible to load parent for " + res.getName()
                             + ". Parent=" + parentModRevID);
                 }
-                parentDescr = parentModule.getDescriptor();
+                parentDescr = parentPom.getDescriptor();
                 if (parentDescr != null) {
-                    for (Map.Entry<String, String> prop
-                            : extractPomProperties(parentDescr.getExtraInfos()).entrySet()) {
+                    for (Map.Entry<String, String> prop : parentPom.getProperties().entrySet()) {
                         domReader.setProperty(prop.getKey(), prop.getValue());
                     }
                 }
@@ -225,7 +262,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                             + ". Please update your dependency to directly use the right version.");
                     Message.warn("Resolution will only pick dependencies of the relocated element."
                             + "  Artifact and other metadata will be ignored.");
-                    ResolvedModuleRevision relocatedModule = parseOtherPom(ivySettings, relocation, false);
+                    EffectivePom relocatedModule = parseOtherPom(ivySettings, relocation, false);
                     if (relocatedModule == null) {
                         throw new ParseException(
                                 "impossible to load module " + relocation + " to which "
@@ -267,7 +304,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     mdBuilder.addExtraInfos(parentDescr.getExtraInfos());
 
                     // add dependency management info from parent
-                    for (PomDependencyMgt dep : getDependencyManagements(parentDescr)) {
+                    for (PomDependencyMgt dep : parentPom.getDependencyManagements()) {
                         if (dep instanceof PomDependencyMgtElement) {
                             dep = domReader.new PomDependencyMgtElement(
                                     (PomDependencyMgtElement) dep);
@@ -276,7 +313,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     }
 
                     // add plugins from parent
-                    for (PomDependencyMgt pomDependencyMgt : getPlugins(parentDescr)) {
+                    for (PomDependencyMgt pomDependencyMgt : parentPom.getPlugins()) {
                         mdBuilder.addPlugin(pomDependencyMgt);
                     }
                 }
@@ -340,16 +377,15 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
             // in the current module's dependencies
             ModuleRevisionId importModRevID = ModuleRevisionId.newInstance(dep.getGroupId(),
                     dep.getArtifactId(), dep.getVersion());
-            ResolvedModuleRevision importModule = parseOtherPom(ivySettings, importModRevID, false);
+            EffectivePom importModule = parseOtherPom(ivySettings, importModRevID, false);
             if (importModule == null) {
                 throw new IOException("Impossible to import module for "
                         + mdBuilder.getModuleDescriptor().getResource().getName() + ". Import="
                         + importModRevID);
             }
-            ModuleDescriptor importDescr = importModule.getDescriptor();
 
             // add dependency management info from imported module
-            for (PomDependencyMgt importedDepMgt : getDependencyManagements(importDescr)) {
+            for (PomDependencyMgt importedDepMgt : importModule.getDependencyManagements()) {
                 mdBuilder.addDependencyMgt(new DefaultPomDependencyMgt(importedDepMgt.getGroupId(),
                         importedDepMgt.getArtifactId(), importedDepMgt.getVersion(),
                         importedDepMgt.getScope(), importedDepMgt.getExcludedModules()));
@@ -428,7 +464,11 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
         }
     }
 
-    private ResolvedModuleRevision parseOtherPom(final ParserSettings ivySettings,
+    /**
+     * Looks up a parent, imported or relocated pom, through the effective pom cache unless the
+     * resolve refreshes the modules or the pom is a snapshot.
+     */
+    private EffectivePom parseOtherPom(final ParserSettings ivySettings,
             final ModuleRevisionId parentModRevID, final boolean isParentPom) throws ParseException {
 
         Set<ModuleRevisionId> previousParents = null;
@@ -455,8 +495,23 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                 // TODO: Throw exception here?
                 return null;
             }
-            dd = toSystem(dd, ivySettings.getContextNamespace());
-            return resolver.getDependency(dd, data);
+            // modules which may change while keeping their revision are looked up again
+            boolean cacheable = !data.getOptions().isRefresh()
+                    && !parentModRevID.getRevision().endsWith("SNAPSHOT")
+                    && !ResolverHelper.isCheckmodifiedOrChanging(ivySettings, resolver,
+                        parentModRevID);
+            EffectivePom pom = cacheable ? EFFECTIVE_POMS.get(resolver, parentModRevID) : null;
+            if (pom != null) {
+                Message.debug("effective pom found in cache: " + parentModRevID);
+            } else {
+                pom = lookupOtherPom(ivySettings, resolver, dd, data, cacheable);
+            }
+            // the pom being parsed, if any, inherits from this one
+            List<EffectivePom> inheriting = IvyContext.getContext().get(INHERITED_POMS_KEY);
+            if (inheriting != null && pom != null) {
+                inheriting.add(pom);
+            }
+            return pom;
         } finally {
             if (!isParentPom) {
                 // switch back to the previous state of the parent tracking
@@ -465,6 +520,33 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
         }
     }
 
+    /**
+     * Looks up a parent, imported or relocated pom with its resolver, recording the poms it
+     * inherits from while it's parsed, so that its effective pom is known to be out of date when
+     * one of them is modified.
+     */
+    private EffectivePom lookupOtherPom(ParserSettings ivySettings, DependencyResolver resolver,
+            DependencyDescriptor dd, ResolveData data, boolean cacheable) throws ParseException {
+        ModuleRevisionId mrid = dd.getDependencyRevisionId();
+        List<EffectivePom> previousInherited = IvyContext.getContext().get(INHERITED_POMS_KEY);
+        List<EffectivePom> inherited = new ArrayList<>();
+        IvyContext.getContext().set(INHERITED_POMS_KEY, inherited);
+        ResolvedModuleRevision module;
+        try {
+            module = resolver.getDependency(toSystem(dd, ivySettings.getContextNamespace()), data);
+        } finally {
+            IvyContext.getContext().set(INHERITED_POMS_KEY, previousInherited);
+        }
+        if (module == null) {
+            return null;
+        }
+        // dynamic revisions may be resolved differently later on
+        if (cacheable && mrid.getRevision().equals(module.getId().getRevision())) {
+            return EFFECTIVE_POMS.put(resolver, mrid, module, inherited);
+        }
+        return new EffectivePom(module, inherited);
+    }
+
     private ParseException newParserException(Exception e) {
         Message.error(e.getMessage());
         ParseException pe = new ParseException(e.getMessage(), 0);
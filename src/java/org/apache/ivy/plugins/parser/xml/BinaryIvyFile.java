@@ -0,0 +1,312 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ivy.util.Message;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * An ivy file stored as the compact binary stream of the SAX events its parse reported.
+ * <p>
+ * Replaying the events in a {@link XmlModuleDescriptorParser.Parser} builds the same module
+ * descriptor as parsing the ivy file, without any XML parsing nor validation, while still
+ * resolving variables, conflict managers, matchers and parent descriptors against the current
+ * settings. A binary file is only used if the ivy file hasn't changed since it was written, which
+ * is checked with the size and the last modification date of the ivy file, and if it was written
+ * from a validated parse when validation is required.
+ * </p>
+ * <p>
+ * Binary files are written to a temporary file which is then moved in place, so that concurrent
+ * readers, in this process or in another one, never see a partially written file.
+ * </p>
+ */
+final class BinaryIvyFile {
+    private static final int MAGIC = 0x49564542; // IVEB
+
+    private static final int VERSION = 1;
+
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 1;
+
+    private static final byte END_DOCUMENT = 0;
+
+    private static final byte START_ELEMENT = 1;
+
+    private static final byte END_ELEMENT = 2;
+
+    private static final byte CHARACTERS = 3;
+
+    /** The code of a null string, other codes are the code of a new string or a string index. */
+    private static final int NULL_STRING = 0;
+
+    private static final int NEW_STRING = 1;
+
+    private final byte[] data;
+
+    private int position;
+
+    private BinaryIvyFile(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Loads a binary ivy file, if it is up to date.
+     *
+     * @param binaryFile
+     *            the binary file to load
+     * @param ivyFile
+     *            the ivy file from which the binary file has been written
+     * @param validate
+     *            <code>true</code> if the ivy file must be validated
+     * @return the binary ivy file, or <code>null</code> if the binary file doesn't exist, is
+     *         corrupted or is out of date
+     */
+    static BinaryIvyFile load(File binaryFile, File ivyFile, boolean validate) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(binaryFile.toPath());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            Message.verbose("impossible to read " + binaryFile + ": " + e.getMessage());
+            return null;
+        }
+        BinaryIvyFile binary = new BinaryIvyFile(data);
+        if (data.length <= HEADER_LENGTH || binary.readInt() != MAGIC
+                || binary.readInt() != VERSION || binary.readLong() != ivyFile.length()
+                || binary.readLong() != ivyFile.lastModified()
+                || validate && data[binary.position] == 0
+                || data[data.length - 1] != END_DOCUMENT) {
+            Message.debug("\tbinary ivy file out of date: " + binaryFile);
+            return null;
+        }
+        return binary;
+    }
+
+    /**
+     * Replays the recorded events to the given handler.
+     *
+     * @param handler
+     *            the handler to which events must be reported
+     * @throws SAXException if the handler fails
+     * @throws IOException if the binary file is corrupted
+     */
+    void replay(ContentHandler handler) throws SAXException, IOException {
+        List<String> strings = new ArrayList<>();
+        AttributesImpl attributes = new AttributesImpl();
+        position = HEADER_LENGTH;
+        try {
+            handler.startDocument();
+            while (true) {
+                switch (data[position++]) {
+                    case START_ELEMENT:
+                        String uri = readString(strings);
+                        String localName = readString(strings);
+                        String qName = readString(strings);
+                        attributes.clear();
+                        for (int i = readVarInt(); i > 0; i--) {
+                            attributes.addAttribute(readString(strings), readString(strings),
+                                readString(strings), readString(strings), readString(strings));
+                        }
+                        handler.startElement(uri, localName, qName, attributes);
+                        break;
+                    case END_ELEMENT:
+                        handler.endElement(readString(strings), readString(strings),
+                            readString(strings));
+                        break;
+                    case CHARACTERS:
+                        char[] text = readString(strings).toCharArray();
+                        handler.characters(text, 0, text.length);
+                        break;
+                    case END_DOCUMENT:
+                        handler.endDocument();
+                        return;
+                    default:
+                        throw new IOException("corrupted binary ivy file");
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("corrupted binary ivy file", e);
+        }
+    }
+
+    private int readInt() {
+        return (data[position++] & 0xFF) << 24 | (data[position++] & 0xFF) << 16
+                | (data[position++] & 0xFF) << 8 | data[position++] & 0xFF;
+    }
+
+    private long readLong() {
+        return (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private String readString(List<String> strings) {
+        int code = readVarInt();
+        if (code == NULL_STRING) {
+            return null;
+        }
+        if (code == NEW_STRING) {
+            int length = readVarInt();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+        return strings.get(code - 2);
+    }
+
+    /**
+     * Records the events reported by the parse of an ivy file, to write them in a binary file.
+     */
+    static final class Recorder {
+        private final long ivyFileLength;
+
+        private final long ivyFileLastModified;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        /**
+         * @param ivyFile
+         *            the ivy file about to be parsed
+         */
+        Recorder(File ivyFile) {
+            // taken before the parse, so that a change during the parse makes the binary stale
+            ivyFileLength = ivyFile.length();
+            ivyFileLastModified = ivyFile.lastModified();
+        }
+
+        void startElement(String uri, String localName, String qName, Attributes attributes) {
+            out.write(START_ELEMENT);
+            writeString(uri);
+            writeString(localName);
+            writeString(qName);
+            writeVarInt(attributes.getLength());
+            for (int i = 0; i < attributes.getLength(); i++) {
+                writeString(attributes.getURI(i));
+                writeString(attributes.getLocalName(i));
+                writeString(attributes.getQName(i));
+                writeString(attributes.getType(i));
+                writeString(attributes.getValue(i));
+            }
+        }
+
+        void endElement(String uri, String localName, String qName) {
+            out.write(END_ELEMENT);
+            writeString(uri);
+            writeString(localName);
+            writeString(qName);
+        }
+
+        void characters(char[] ch, int start, int length) {
+            out.write(CHARACTERS);
+            writeString(new String(ch, start, length));
+        }
+
+        /**
+         * Writes the recorded events in the given binary file.
+         *
+         * @param binaryFile
+         *            the file to write
+         * @param validated
+         *            <code>true</code> if the recorded parse validated the ivy file
+         */
+        void save(File binaryFile, boolean validated) {
+            File tmp = null;
+            try {
+                out.write(END_DOCUMENT);
+                tmp = File.createTempFile(binaryFile.getName(), ".part",
+                    binaryFile.getParentFile());
+                try (DataOutputStream file = new DataOutputStream(new FileOutputStream(tmp))) {
+                    file.writeInt(MAGIC);
+                    file.writeInt(VERSION);
+                    file.writeLong(ivyFileLength);
+                    file.writeLong(ivyFileLastModified);
+                    file.writeBoolean(validated);
+                    out.writeTo(file);
+                }
+                try {
+                    Files.move(tmp.toPath(), binaryFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp.toPath(), binaryFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                Message.verbose("impossible to write " + binaryFile + ": " + e.getMessage());
+                if (tmp != null) {
+                    tmp.delete();
+                }
+            }
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write(value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarInt(NULL_STRING);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(NEW_STRING);
+            writeVarInt(utf8.length);
+            out.write(utf8, 0, utf8.length);
+        }
+    }
+}
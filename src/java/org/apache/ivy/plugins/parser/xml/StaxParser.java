@@ -0,0 +1,321 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.ValidatorHandler;
+
+import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser.Parser;
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.XMLHelper;
+import org.apache.ivy.util.url.URLHandlerRegistry;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * A {@link Parser} reading ivy files with a StAX reader rather than a SAX parser.
+ * <p>
+ * The reader feeds this handler with the very same events a SAX parser would, so that both produce
+ * the same module descriptors, but the XML input factory is reused between parses, the schema is
+ * compiled only once, and the elements of the info section which are not stored in module
+ * descriptors are skipped without being reported when the descriptor isn't validated.
+ * </p>
+ */
+public class StaxParser extends Parser {
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY
+            = new ThreadLocal<XMLInputFactory>() {
+                @Override
+                protected XMLInputFactory initialValue() {
+                    XMLInputFactory factory = XMLInputFactory.newInstance();
+                    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+                    factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+                    return factory;
+                }
+            };
+
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private static volatile boolean canUseSchemaValidation = true;
+
+    public StaxParser(ModuleDescriptorParser parser, ParserSettings ivySettings) {
+        super(parser, ivySettings);
+    }
+
+    @Override
+    protected void readDescriptor(URL schemaURL) throws SAXException, IOException {
+        if (getDescriptorURL() != null) {
+            try (InputStream xmlStream = URLHandlerRegistry.getDefault().openStream(
+                getDescriptorURL())) {
+                read(xmlStream, XMLHelper.toSystemId(getDescriptorURL()), schemaURL);
+            }
+        } else {
+            read(getDescriptorInput(), null, schemaURL);
+        }
+    }
+
+    /**
+     * Tells whether the element at the current position of the reader can be skipped, because this
+     * parser would ignore it and all its content.
+     *
+     * @param reader
+     *            the reader, positioned on the start of an element
+     * @return boolean
+     */
+    protected boolean canSkipElement(XMLStreamReader reader) {
+        if (isValidate() || getState() != State.INFO) {
+            return false;
+        }
+        String prefix = reader.getPrefix();
+        if (prefix != null && !prefix.isEmpty()) {
+            return false;
+        }
+        String name = reader.getLocalName();
+        return "ivyauthor".equals(name) || "repository".equals(name);
+    }
+
+    private void read(InputStream xmlStream, String systemId, URL schemaURL)
+            throws SAXException, IOException {
+        XMLStreamReader reader = null;
+        StreamLocator locator = new StreamLocator(systemId);
+        try {
+            reader = INPUT_FACTORY.get().createXMLStreamReader(systemId, xmlStream);
+            locator.reader = reader;
+            ContentHandler handler = new NamespacePrefixesFilter(this);
+            Schema schema = schemaURL == null ? null : getSchema(schemaURL);
+            if (schema != null) {
+                ValidatorHandler validator = schema.newValidatorHandler();
+                validator.setErrorHandler(this);
+                validator.setContentHandler(handler);
+                handler = validator;
+            }
+            read(reader, handler, locator);
+        } catch (XMLStreamException ex) {
+            SAXParseException spe = new SAXParseException(ex.getMessage(), locator, ex);
+            fatalError(spe);
+            throw spe;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ex) {
+                    // ignored
+                }
+            }
+        }
+    }
+
+    private void read(XMLStreamReader reader, ContentHandler handler, Locator locator)
+            throws XMLStreamException, SAXException {
+        handler.setDocumentLocator(locator);
+        handler.startDocument();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (canSkipElement(reader)) {
+                        skipElement(reader);
+                    } else {
+                        startElement(reader, handler);
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement(reader, handler);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    handler.characters(reader.getTextCharacters(), reader.getTextStart(),
+                        reader.getTextLength());
+                    break;
+                case XMLStreamConstants.SPACE:
+                    handler.ignorableWhitespace(reader.getTextCharacters(),
+                        reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    handler.processingInstruction(reader.getPITarget(), reader.getPIData());
+                    break;
+                default:
+                    // comments, DTD and entities are not reported to the handler
+            }
+        }
+        handler.endDocument();
+    }
+
+    private static void startElement(XMLStreamReader reader, ContentHandler handler)
+            throws SAXException {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            handler.startPrefixMapping(nullToEmpty(reader.getNamespacePrefix(i)),
+                nullToEmpty(reader.getNamespaceURI(i)));
+        }
+        AttributesImpl attributes = new AttributesImpl();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String prefix = reader.getAttributePrefix(i);
+            String localName = reader.getAttributeLocalName(i);
+            attributes.addAttribute(nullToEmpty(reader.getAttributeNamespace(i)), localName,
+                toQName(prefix, localName), nullToEmpty(reader.getAttributeType(i)),
+                reader.getAttributeValue(i));
+        }
+        String localName = reader.getLocalName();
+        handler.startElement(nullToEmpty(reader.getNamespaceURI()), localName,
+            toQName(reader.getPrefix(), localName), attributes);
+    }
+
+    private static void endElement(XMLStreamReader reader, ContentHandler handler)
+            throws SAXException {
+        String localName = reader.getLocalName();
+        handler.endElement(nullToEmpty(reader.getNamespaceURI()), localName,
+            toQName(reader.getPrefix(), localName));
+        for (int i = reader.getNamespaceCount() - 1; i >= 0; i--) {
+            handler.endPrefixMapping(nullToEmpty(reader.getNamespacePrefix(i)));
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String toQName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static Schema getSchema(URL schemaURL) {
+        if (!canUseSchemaValidation) {
+            return null;
+        }
+        String key = schemaURL.toExternalForm();
+        Schema schema = SCHEMAS.get(key);
+        if (schema == null) {
+            try (InputStream schemaStream = URLHandlerRegistry.getDefault().openStream(
+                schemaURL)) {
+                schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(
+                    new StreamSource(schemaStream, XMLHelper.toSystemId(schemaURL)));
+            } catch (Exception ex) {
+                Message.warn("problem while loading the schema " + schemaURL
+                        + "... XML validation will not be done", ex);
+                canUseSchemaValidation = false;
+                return null;
+            }
+            SCHEMAS.put(key, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Reports namespace declarations as attributes too, like SAX parsers do when the
+     * namespace-prefixes feature is enabled, since the module descriptors keep them as extra
+     * attributes.
+     */
+    private static final class NamespacePrefixesFilter extends XMLFilterImpl {
+        private final List<String[]> mappings = new ArrayList<>();
+
+        private NamespacePrefixesFilter(ContentHandler handler) {
+            setContentHandler(handler);
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            mappings.add(new String[] {prefix, uri});
+            super.startPrefixMapping(prefix, uri);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts)
+                throws SAXException {
+            if (mappings.isEmpty()) {
+                super.startElement(uri, localName, qName, atts);
+                return;
+            }
+            AttributesImpl attributes = new AttributesImpl();
+            for (String[] mapping : mappings) {
+                String prefix = mapping[0];
+                attributes.addAttribute("", prefix, prefix.isEmpty() ? "xmlns" : "xmlns:"
+                        + prefix, "CDATA", mapping[1]);
+            }
+            mappings.clear();
+            for (int i = 0; i < atts.getLength(); i++) {
+                attributes.addAttribute(atts.getURI(i), atts.getLocalName(i), atts.getQName(i),
+                    atts.getType(i), atts.getValue(i));
+            }
+            super.startElement(uri, localName, qName, attributes);
+        }
+    }
+
+    /**
+     * Gives the current position of a StAX reader.
+     */
+    private static final class StreamLocator implements Locator {
+        private final String systemId;
+
+        private XMLStreamReader reader;
+
+        private StreamLocator(String systemId) {
+            this.systemId = systemId;
+        }
+
+        public String getPublicId() {
+            return null;
+        }
+
+        public String getSystemId() {
+            return systemId;
+        }
+
+        public int getLineNumber() {
+            Location location = reader == null ? null : reader.getLocation();
+            return location == null ? -1 : location.getLineNumber();
+        }
+
+        public int getColumnNumber() {
+            Location location = reader == null ? null : reader.getLocation();
+            return location == null ? -1 : location.getColumnNumber();
+        }
+    }
+}
@@ -89,11 +89,25 @@ import static org.apache.ivy.util.StringUtils.splitToArray;
 /**
  * Parses an xml ivy file and output a ModuleDescriptor. For dependency and performance reasons, it
  * uses only the SAX API, which makes the parsing code harder to understand.
+ * <p>
+ * Ivy files are read with a SAX parser, unless the variable {@value #PARSER_VARIABLE} is set to
+ * {@value #STAX_PARSER}, in which case they are read with a StAX reader feeding the same handler.
+ * </p>
  */
 public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
     static final List<String> DEPENDENCY_REGULAR_ATTRIBUTES = Arrays.asList("org", "name", "branch",
             "branchConstraint", "rev", "revConstraint", "force", "transitive", "changing", "conf");
 
+    /**
+     * The variable selecting the XML parser used to read ivy files, either {@value #SAX_PARSER}
+     * (the default) or {@value #STAX_PARSER}.
+     */
+    public static final String PARSER_VARIABLE = "ivy.xml.parser";
+
+    public static final String SAX_PARSER = "sax";
+
+    public static final String STAX_PARSER = "stax";
+
     private static final XmlModuleDescriptorParser INSTANCE = new XmlModuleDescriptorParser();
 
     public static XmlModuleDescriptorParser getInstance() {
@@ -124,6 +138,50 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
         return parser.getModuleDescriptor();
     }
 
+    /**
+     * Parses an ivy file, replaying the events recorded in the given binary file if it is up to
+     * date, and recording them in it otherwise, so that the next parses of the ivy file don't need
+     * any XML parsing.
+     *
+     * @param ivySettings ParserSettings
+     * @param ivyFile
+     *            the ivy file to parse
+     * @param binaryFile
+     *            the binary file in which the parse events of the ivy file are recorded
+     * @param validate boolean
+     * @return ModuleDescriptor
+     * @throws ParseException if something goes wrong
+     * @throws IOException if something goes wrong
+     */
+    public ModuleDescriptor parseDescriptor(ParserSettings ivySettings, File ivyFile,
+            File binaryFile, boolean validate) throws ParseException, IOException {
+        URL xmlURL = ivyFile.toURI().toURL();
+        BinaryIvyFile binary = BinaryIvyFile.load(binaryFile, ivyFile, validate);
+        if (binary != null) {
+            Parser parser = newParser(ivySettings);
+            parser.setValidate(validate);
+            parser.setResource(new URLResource(xmlURL));
+            parser.setInput(xmlURL);
+            parser.setBinaryInput(binary);
+            try {
+                parser.parse();
+                return parser.getModuleDescriptor();
+            } catch (ParseException ex) {
+                // the ivy file will tell what's wrong
+                Message.debug("\tproblem while replaying " + binaryFile + ": " + ex.getMessage());
+            }
+        }
+        BinaryIvyFile.Recorder recorder = new BinaryIvyFile.Recorder(ivyFile);
+        Parser parser = newParser(ivySettings);
+        parser.setValidate(validate);
+        parser.setResource(new URLResource(xmlURL));
+        parser.setInput(xmlURL);
+        parser.setRecorder(recorder);
+        parser.parse();
+        recorder.save(binaryFile, validate);
+        return parser.getModuleDescriptor();
+    }
+
     /** Used for test purpose */
     ModuleDescriptor parseDescriptor(ParserSettings ivySettings, InputStream descriptor,
             Resource res, boolean validate) throws ParseException {
@@ -146,6 +204,9 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
      * @return the Parser instance used for parsing Ivy files
      */
     protected Parser newParser(ParserSettings ivySettings) {
+        if (STAX_PARSER.equals(ivySettings.getVariable(PARSER_VARIABLE))) {
+            return new StaxParser(this, ivySettings);
+        }
         return new Parser(this, ivySettings);
     }
 
@@ -225,6 +286,10 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
 
         private InputStream descriptorInput;
 
+        private BinaryIvyFile binaryInput;
+
+        private BinaryIvyFile.Recorder recorder;
+
         /* Parsing state */
         private int state = State.NONE;
 
@@ -261,17 +326,31 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
             this.descriptorURL = descriptorURL;
         }
 
+        /**
+         * Replays the events of a binary ivy file instead of reading the descriptor input, which
+         * is still used to locate relative resources and in error messages.
+         */
+        void setBinaryInput(BinaryIvyFile binaryInput) {
+            this.binaryInput = binaryInput;
+        }
+
+        /**
+         * Records the events reported while reading the descriptor input.
+         */
+        void setRecorder(BinaryIvyFile.Recorder recorder) {
+            this.recorder = recorder;
+        }
+
         public void setValidate(boolean validate) {
             this.validate = validate;
         }
 
         public void parse() throws ParseException {
             try {
-                URL schemaURL = validate ? getSchemaURL() : null;
-                if (descriptorURL != null) {
-                    XMLHelper.parse(descriptorURL, schemaURL, this);
+                if (binaryInput != null) {
+                    binaryInput.replay(this);
                 } else {
-                    XMLHelper.parse(descriptorInput, schemaURL, this, null);
+                    readDescriptor(validate ? getSchemaURL() : null);
                 }
                 checkConfigurations();
                 replaceConfigurationWildcards();
@@ -296,9 +375,34 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
             }
         }
 
+        /**
+         * Reads the descriptor input, feeding this handler with its content.
+         * <p>
+         * Override this method if you want to read the descriptor with another XML parser.
+         * </p>
+         *
+         * @param schemaURL
+         *            the URL of the schema to validate the descriptor against, <code>null</code>
+         *            if it must not be validated
+         * @throws SAXException if the descriptor can't be parsed
+         * @throws IOException if the descriptor can't be read
+         * @throws ParserConfigurationException if no XML parser is available
+         */
+        protected void readDescriptor(URL schemaURL) throws SAXException, IOException,
+                ParserConfigurationException {
+            if (descriptorURL != null) {
+                XMLHelper.parse(descriptorURL, schemaURL, this);
+            } else {
+                XMLHelper.parse(descriptorInput, schemaURL, this, null);
+            }
+        }
+
         @Override
         public void startElement(String uri, String localName, String qName, Attributes attributes)
                 throws SAXException {
+            if (recorder != null) {
+                recorder.startElement(uri, localName, qName, attributes);
+            }
             try {
                 if (state == State.DESCRIPTION) {
                     // make sure we don't interpret any tag while in description tag
@@ -1206,6 +1310,9 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
 
         @Override
         public void characters(char[] ch, int start, int length) throws SAXException {
+            if (recorder != null) {
+                recorder.characters(ch, start, length);
+            }
             if (buffer != null) {
                 buffer.append(ch, start, length);
             }
@@ -1213,6 +1320,9 @@ public class XmlModuleDescriptorParser extends AbstractModuleDescriptorParser {
 
         @Override
         public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (recorder != null) {
+                recorder.endElement(uri, localName, qName);
+            }
             if (state == State.PUB && "artifact".equals(qName)
                     && artifact.getConfigurations().length == 0) {
                 String[] configs = (publicationsDefaultConf == null)
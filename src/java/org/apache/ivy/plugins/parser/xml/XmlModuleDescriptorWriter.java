@@ -20,6 +20,7 @@ package org.apache.ivy.plugins.parser.xml;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
@@ -68,8 +69,24 @@ public final class XmlModuleDescriptorWriter {
         if (output.getParentFile() != null) {
             output.getParentFile().mkdirs();
         }
-        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(output),
-                StandardCharsets.UTF_8))) {
+        try (FileOutputStream out = new FileOutputStream(output)) {
+            write(md, licenseHeader, out);
+        }
+    }
+
+    /**
+     * Writes a module descriptor as an ivy file in the given stream, which is left open.
+     *
+     * @param md
+     *            the module descriptor to write
+     * @param licenseHeader
+     *            the license header to write, may be <code>null</code>
+     * @param output
+     *            the stream to write to
+     */
+    public static void write(ModuleDescriptor md, String licenseHeader, OutputStream output) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try {
             out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
             if (licenseHeader != null) {
                 out.print(licenseHeader);
@@ -92,6 +109,8 @@ public final class XmlModuleDescriptorWriter {
             printPublications(md, out);
             printDependencies(md, out);
             out.println("</ivy-module>");
+        } finally {
+            out.flush();
         }
     }
 
@@ -58,9 +58,15 @@ public class XmlReportOutputter implements ReportOutputter {
         }
         File reportParentDir = reportFile.getParentFile();
         reportParentDir.mkdirs();
+        XmlReportParser.invalidate(reportFile);
         OutputStream stream = new FileOutputStream(reportFile);
-        writer.output(report, confs, stream);
-        stream.close();
+        try {
+            writer.output(report, confs, stream);
+        } finally {
+            stream.close();
+            // a parse made while the report was written must not be reused
+            XmlReportParser.invalidate(reportFile);
+        }
 
         Message.verbose("\treport for " + report.getModuleDescriptor().getModuleRevisionId() + " "
                 + report.getConfiguration() + " produced in " + reportFile);
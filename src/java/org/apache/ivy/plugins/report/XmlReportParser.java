@@ -22,6 +22,7 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -38,12 +39,33 @@ import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.MetadataArtifactDownloadReport;
 import org.apache.ivy.util.DateUtil;
+import org.apache.ivy.util.Message;
 import org.apache.ivy.util.extendable.ExtendableItemHelper;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+/**
+ * Parses the XML report of a resolved configuration, as written in the resolution cache.
+ * <p>
+ * The parsed reports are kept in memory, so that the tasks reading the same report after a
+ * resolve, like cachepath, artifactproperty, report or retrieve, don't parse it again: a report
+ * is parsed again only when its file has been written since. The reports returned by a parser may
+ * thus be shared with other parsers, and must not be modified.
+ * </p>
+ */
 public class XmlReportParser {
+    // the number of parsed reports kept in memory, the least recently used ones being dropped
+    private static final int MAX_CACHED_REPORTS = 32;
+
+    private static final Map<File, SaxXmlReportParser> CACHE
+            = new LinkedHashMap<File, SaxXmlReportParser>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<File, SaxXmlReportParser> eldest) {
+                    return size() > MAX_CACHED_REPORTS;
+                }
+            };
+
     private static class SaxXmlReportParser {
         private final class XmlReportParserHandler extends DefaultHandler {
             private String organisation;
@@ -235,10 +257,21 @@ public class XmlReportParser {
 
         private File report;
 
+        // the state of the report file when it was parsed
+        private final long lastModified;
+
+        private final long length;
+
         private boolean hasError = false;
 
         SaxXmlReportParser(File report) {
             this.report = report;
+            this.lastModified = report.lastModified();
+            this.length = report.length();
+        }
+
+        boolean isUpToDate() {
+            return report.lastModified() == lastModified && report.length() == length;
         }
 
         public void parse() throws Exception {
@@ -283,7 +316,17 @@ public class XmlReportParser {
                     + "' does not exist.");
         }
 
-        parser = new SaxXmlReportParser(report);
+        File reportFile = report.getAbsoluteFile();
+        SaxXmlReportParser cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(reportFile);
+        }
+        if (cached != null && cached.isUpToDate()) {
+            Message.debug("\treusing parsed report " + reportFile);
+            parser = cached;
+            return;
+        }
+        parser = new SaxXmlReportParser(reportFile);
         try {
             parser.parse();
         } catch (Exception e) {
@@ -292,6 +335,21 @@ public class XmlReportParser {
             pe.initCause(e);
             throw pe;
         }
+        synchronized (CACHE) {
+            CACHE.put(reportFile, parser);
+        }
+    }
+
+    /**
+     * Forgets the parsed report of the given file, which is being written again.
+     *
+     * @param report
+     *            the report file
+     */
+    static void invalidate(File report) {
+        synchronized (CACHE) {
+            CACHE.remove(report.getAbsoluteFile());
+        }
     }
 
     public Artifact[] getArtifacts() {
@@ -27,13 +27,18 @@ public class RepositoryCopyProgressListener implements CopyProgressListener {
         this.repository = repository;
     }
 
-    private Long totalLength = null;
+    /**
+     * The total length of the copy in progress, per thread, the same listener being shared by all
+     * the transfers of its repository.
+     */
+    private final ThreadLocal<Long> totalLength = new ThreadLocal<>();
 
     public void start(CopyProgressEvent evt) {
-        if (totalLength == null) {
+        Long length = totalLength.get();
+        if (length == null) {
             repository.fireTransferStarted();
         } else {
-            repository.fireTransferStarted(totalLength);
+            repository.fireTransferStarted(length);
         }
     }
 
@@ -47,10 +52,14 @@ public class RepositoryCopyProgressListener implements CopyProgressListener {
     }
 
     public Long getTotalLength() {
-        return totalLength;
+        return totalLength.get();
     }
 
     public void setTotalLength(Long totalLength) {
-        this.totalLength = totalLength;
+        if (totalLength == null) {
+            this.totalLength.remove();
+        } else {
+            this.totalLength.set(totalLength);
+        }
     }
 }
@@ -24,9 +24,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.plugins.repository.AbstractRepository;
@@ -39,7 +39,7 @@ import org.apache.ivy.util.url.ApacheURLLister;
 public class URLRepository extends AbstractRepository {
     private RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
 
-    private final Map<String, Resource> resourcesCache = new HashMap<>();
+    private final Map<String, Resource> resourcesCache = new ConcurrentHashMap<>();
 
     public URLRepository() {
     }
@@ -74,6 +74,72 @@ public class URLRepository extends AbstractRepository {
         }
     }
 
+    /**
+     * Downloads a resource, unless the destination file is a previous download of this resource
+     * which the server reports as still up to date, or which has been sent or validated by the
+     * server recently. Unlike {@link #get(String, File)}, the
+     * resource isn't requested once more beforehand to know its length.
+     *
+     * @param source
+     *            the resource to download
+     * @param destination
+     *            the file to download the resource to
+     * @param maxAge
+     *            the time in milliseconds during which a previous download the server has sent or
+     *            validated is considered up to date without sending any request, 0 to always
+     *            revalidate it
+     * @return <code>true</code> if the resource has been downloaded, <code>false</code> if the
+     *         destination was up to date
+     * @throws IOException
+     *             if the resource can't be downloaded
+     * @since 2.5.2
+     */
+    public boolean getIfModified(String source, File destination, long maxAge)
+            throws IOException {
+        fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
+        try {
+            boolean downloaded = FileUtil.copyIfModified(new URL(source), destination, progress,
+                getTimeoutConstraint(), maxAge);
+            if (!downloaded) {
+                fireTransferCompleted(0);
+            }
+            return downloaded;
+        } catch (IOException | RuntimeException ex) {
+            fireTransferError(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Downloads a resource, resuming the previous download of this resource to the destination
+     * file if it has been interrupted, instead of transferring the whole resource again.
+     *
+     * @param source
+     *            the resource to download
+     * @param destination
+     *            the file to download the resource to, which is kept when the download fails so
+     *            that the next one can be resumed
+     * @throws IOException
+     *             if the resource can't be downloaded
+     * @since 2.5.2
+     */
+    public void resumeGet(String source, File destination) throws IOException {
+        fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
+        try {
+            Resource res = getResource(source);
+            long totalLength = res.getContentLength();
+            if (totalLength > 0) {
+                progress.setTotalLength(totalLength);
+            }
+            FileUtil.resumeCopy(new URL(source), destination, progress, getTimeoutConstraint());
+        } catch (IOException | RuntimeException ex) {
+            fireTransferError(ex);
+            throw ex;
+        } finally {
+            progress.setTotalLength(null);
+        }
+    }
+
     public void put(File source, String destination, boolean overwrite) throws IOException {
         if (!overwrite && getResource(destination).exists()) {
             throw new IOException("destination file exists and overwrite == false");
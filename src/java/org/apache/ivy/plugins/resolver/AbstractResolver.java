@@ -400,6 +400,30 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         checkmodified = check;
     }
 
+    /**
+     * Tells whether a module revision found by this resolver may change while keeping the same
+     * revision, because this resolver checks cached metadata for modifications or because the
+     * revision matches its changing pattern.
+     *
+     * @param mrid
+     *            the module revision id to check
+     * @return boolean
+     */
+    public boolean isCheckmodifiedOrChanging(ModuleRevisionId mrid) {
+        if (Boolean.TRUE.equals(checkmodified)) {
+            return true;
+        }
+        String pattern = getChangingPattern();
+        if (pattern == null) {
+            return false;
+        }
+        String matcherName = getChangingMatcherName() == null ? PatternMatcher.EXACT_OR_REGEXP
+                : getChangingMatcherName();
+        PatternMatcher matcher = getSettings() == null ? null : getSettings().getMatcher(
+            matcherName);
+        return matcher == null || matcher.getMatcher(pattern).matches(mrid.getRevision());
+    }
+
     public RepositoryCacheManager getRepositoryCacheManager() {
         if (repositoryCacheManager == null) {
             initRepositoryCacheManagerFromSettings();
@@ -499,7 +523,7 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
     private DownloadListener getDownloadListener(final DownloadOptions options) {
         return new DownloadListener() {
             public void needArtifact(RepositoryCacheManager cache, Artifact artifact) {
-                if (eventManager != null) {
+                if (eventManager != null && eventManager.hasIvyListeners(NeedArtifactEvent.NAME)) {
                     eventManager
                             .fireIvyEvent(new NeedArtifactEvent(AbstractResolver.this, artifact));
                 }
@@ -512,7 +536,8 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
                 } else {
                     Message.info("downloading " + rres.getResource() + " ...");
                 }
-                if (eventManager != null) {
+                if (eventManager != null
+                        && eventManager.hasIvyListeners(StartArtifactDownloadEvent.NAME)) {
                     eventManager.fireIvyEvent(new StartArtifactDownloadEvent(AbstractResolver.this,
                             artifact, origin));
                 }
@@ -520,7 +545,8 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
 
             public void endArtifactDownload(RepositoryCacheManager cache, Artifact artifact,
                     ArtifactDownloadReport adr, File archiveFile) {
-                if (eventManager != null) {
+                if (eventManager != null
+                        && eventManager.hasIvyListeners(EndArtifactDownloadEvent.NAME)) {
                     eventManager.fireIvyEvent(new EndArtifactDownloadEvent(AbstractResolver.this,
                             artifact, adr, archiveFile));
                 }
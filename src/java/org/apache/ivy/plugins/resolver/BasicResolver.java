@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
@@ -77,7 +78,9 @@ import org.apache.ivy.plugins.resolver.util.ResourceMDParser;
 import org.apache.ivy.plugins.version.VersionMatcher;
 import org.apache.ivy.util.Checks;
 import org.apache.ivy.util.ChecksumHelper;
+import org.apache.ivy.util.CopyDigests;
 import org.apache.ivy.util.DateUtil;
+import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.HostUtil;
 import org.apache.ivy.util.Message;
 
@@ -144,9 +147,18 @@ public abstract class BasicResolver extends AbstractResolver {
      */
     private boolean envDependent = true;
 
-    private List<String> ivyattempts = new ArrayList<>();
+    /**
+     * The locations tried to find a module descriptor, per thread: module descriptors may be
+     * looked up concurrently with the same resolver when they are prefetched.
+     */
+    private final ThreadLocal<List<String>> ivyattempts = new ThreadLocal<List<String>>() {
+        @Override
+        protected List<String> initialValue() {
+            return new ArrayList<>();
+        }
+    };
 
-    private Map<Artifact, List<String>> artattempts = new HashMap<>();
+    private final Map<Artifact, List<String>> artattempts = new ConcurrentHashMap<>();
 
     private boolean checkconsistency = true;
 
@@ -767,12 +779,12 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected void clearIvyAttempts() {
-        ivyattempts.clear();
+        ivyattempts.get().clear();
         clearArtifactAttempts();
     }
 
     protected void logIvyAttempt(String attempt) {
-        ivyattempts.add(attempt);
+        ivyattempts.get().add(attempt);
         Message.verbose("\t\ttried " + attempt);
     }
 
@@ -798,7 +810,7 @@ public abstract class BasicResolver extends AbstractResolver {
     @Override
     public void reportFailure() {
         Message.warn("==== " + getName() + ": tried");
-        for (String m : ivyattempts) {
+        for (String m : ivyattempts.get()) {
             Message.warn("  " + m);
         }
         for (Map.Entry<Artifact, List<String>> entry : artattempts.entrySet()) {
@@ -830,7 +842,9 @@ public abstract class BasicResolver extends AbstractResolver {
     public DownloadReport download(Artifact[] artifacts, DownloadOptions options) {
         RepositoryCacheManager cacheManager = getRepositoryCacheManager();
 
-        clearArtifactAttempts();
+        // only forget about the attempts of the requested artifacts: artifacts of other modules
+        // may be downloaded concurrently with the same resolver
+        clearArtifactAttempts(artifacts);
         DownloadReport dr = new DownloadReport();
         for (Artifact artifact : artifacts) {
             ArtifactDownloadReport adr = cacheManager.download(artifact, artifactResourceResolver,
@@ -856,6 +870,12 @@ public abstract class BasicResolver extends AbstractResolver {
         artattempts.clear();
     }
 
+    protected void clearArtifactAttempts(Artifact[] artifacts) {
+        for (Artifact artifact : artifacts) {
+            artattempts.remove(artifact);
+        }
+    }
+
     @Override
     public ArtifactDownloadReport download(final ArtifactOrigin origin, DownloadOptions options) {
         Checks.checkNotNull(origin, "origin");
@@ -973,9 +993,27 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected long getAndCheck(Resource resource, File dest) throws IOException {
-        long size = get(resource, dest);
-        for (String checksum : getChecksumAlgorithms()) {
-            if (check(resource, dest, checksum)) {
+        return getAndCheck(resource, dest, false);
+    }
+
+    private long getAndCheck(Resource resource, File dest, boolean resume) throws IOException {
+        String[] algorithms = getChecksumAlgorithms();
+        for (String algorithm : algorithms) {
+            if (!ChecksumHelper.isKnownAlgorithm(algorithm)) {
+                throw new IllegalArgumentException("Unknown checksum algorithm: " + algorithm);
+            }
+        }
+        // the checksums are computed while downloading, instead of reading the file once again
+        CopyDigests digests = algorithms.length == 0 ? null : new CopyDigests(algorithms);
+        long size;
+        FileUtil.setCopyDigests(digests);
+        try {
+            size = resume ? resumeGet(resource, dest) : get(resource, dest);
+        } finally {
+            FileUtil.setCopyDigests(null);
+        }
+        for (String checksum : algorithms) {
+            if (check(resource, dest, checksum, digests)) {
                 break;
             }
         }
@@ -991,16 +1029,16 @@ public abstract class BasicResolver extends AbstractResolver {
      *            the file where the resource has been downloaded
      * @param algorithm
      *            the checksum algorithm to use
+     * @param digests
+     *            the checksums computed while downloading the resource, used if they are the
+     *            ones of the downloaded file
      * @return true if the checksum has been successfully checked, false if the checksum wasn't
      *         available
      * @throws IOException
      *             if a checksum exist but do not match the downloaded file checksum
      */
-    private boolean check(Resource resource, File dest, String algorithm) throws IOException {
-        if (!ChecksumHelper.isKnownAlgorithm(algorithm)) {
-            throw new IllegalArgumentException("Unknown checksum algorithm: " + algorithm);
-        }
-
+    private boolean check(Resource resource, File dest, String algorithm, CopyDigests digests)
+            throws IOException {
         Resource csRes = resource.clone(resource.getName() + "." + algorithm);
         if (csRes.exists()) {
             Message.debug(algorithm + " file found for " + resource + ": checking...");
@@ -1008,7 +1046,11 @@ public abstract class BasicResolver extends AbstractResolver {
             try {
                 get(csRes, csFile);
                 try {
-                    ChecksumHelper.check(dest, csFile, algorithm);
+                    if (digests.isDigestOf(dest)) {
+                        ChecksumHelper.check(digests.getChecksum(algorithm), csFile, algorithm);
+                    } else {
+                        ChecksumHelper.check(dest, csFile, algorithm);
+                    }
                     Message.verbose(algorithm + " OK for " + resource);
                     return true;
                 } catch (IOException ex) {
@@ -1060,6 +1102,27 @@ public abstract class BasicResolver extends AbstractResolver {
 
     protected abstract long get(Resource resource, File dest) throws IOException;
 
+    /**
+     * Downloads a resource to a file which may contain the beginning of a previous download of
+     * this resource which has been interrupted, resuming this download if the repository
+     * supports it.
+     * <p>
+     * This implementation downloads the whole resource again.
+     * </p>
+     *
+     * @param resource
+     *            the resource to download
+     * @param dest
+     *            the file to download the resource to
+     * @return the size of the downloaded file
+     * @throws IOException
+     *             if the resource can't be downloaded
+     * @since 2.5.2
+     */
+    protected long resumeGet(Resource resource, File dest) throws IOException {
+        return get(resource, dest);
+    }
+
     public boolean isCheckconsistency() {
         return checkconsistency;
     }
@@ -1147,7 +1210,8 @@ public abstract class BasicResolver extends AbstractResolver {
                 }
                 extartifactrep.get(resource.getName(), part);
             } else {
-                getAndCheck(resource, part);
+                // the part file of an interrupted download is kept, so that it can be resumed
+                getAndCheck(resource, part, true);
             }
             if (!part.renameTo(dest)) {
                 throw new IOException("impossible to move part file to definitive one: " + part
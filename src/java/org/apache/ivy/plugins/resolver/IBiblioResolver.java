@@ -19,6 +19,7 @@ package org.apache.ivy.plugins.resolver;
 
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -33,6 +34,7 @@ import org.apache.ivy.core.search.RevisionEntry;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.url.URLRepository;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.version.MavenTimedSnapshotVersionMatcher;
 import org.apache.ivy.util.ContextualSAXHandler;
@@ -42,6 +44,7 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
@@ -217,12 +220,12 @@ public class IBiblioResolver extends URLResolver {
         try {
             final String metadataLocation = IvyPatternHelper.substitute(root
                     + "[organisation]/[module]/[revision]/maven-metadata.xml", mrid);
-            final Resource metadata = getRepository().getResource(metadataLocation);
-            if (!metadata.exists()) {
-                Message.verbose("\tmaven-metadata not available for: " + mrid);
-                return null;
-            }
-            try (final InputStream metadataStream = metadata.openStream()) {
+            try (final InputStream metadataStream = openMavenMetadata(getRepository(),
+                    metadataLocation)) {
+                if (metadataStream == null) {
+                    Message.verbose("\tmaven-metadata not available for: " + mrid);
+                    return null;
+                }
                 final StringBuilder timestamp = new StringBuilder();
                 final StringBuilder buildNumber = new StringBuilder();
                 XMLHelper.parse(metadataStream, null, new ContextualSAXHandler() {
@@ -490,11 +493,10 @@ public class IBiblioResolver extends URLResolver {
         List<String> revs = null;
         InputStream metadataStream = null;
         try {
-            Resource metadata = repository.getResource(metadataLocation);
-            if (metadata.exists()) {
-                Message.verbose("\tlisting revisions from maven-metadata: " + metadata);
+            metadataStream = openMavenMetadata(repository, metadataLocation);
+            if (metadataStream != null) {
+                Message.verbose("\tlisting revisions from maven-metadata: " + metadataLocation);
                 final List<String> metadataRevs = new ArrayList<>();
-                metadataStream = metadata.openStream();
                 XMLHelper.parse(metadataStream, null, new ContextualSAXHandler() {
                     @Override
                     public void endElement(String uri, String localName, String qName)
@@ -507,7 +509,7 @@ public class IBiblioResolver extends URLResolver {
                 }, null);
                 revs = metadataRevs;
             } else {
-                Message.verbose("\tmaven-metadata not available: " + metadata);
+                Message.verbose("\tmaven-metadata not available: " + metadataLocation);
             }
         } catch (IOException e) {
             Message.verbose("impossible to access maven metadata file, ignored", e);
@@ -525,6 +527,56 @@ public class IBiblioResolver extends URLResolver {
         return revs;
     }
 
+    /**
+     * Opens the maven metadata at the given location.
+     * <p>
+     * The maven metadata of an http repository is kept in the cache, and is only transferred again
+     * when the server reports it has changed since it was downloaded, with a conditional request.
+     * No request is sent at all while the default TTL of the cache hasn't expired since the server
+     * last sent or validated it, unless the resolve refreshes the modules.
+     * </p>
+     *
+     * @param repository
+     *            the repository of the metadata
+     * @param metadataLocation
+     *            the location of the metadata
+     * @return the content of the metadata, or <code>null</code> if it isn't available
+     * @throws IOException
+     *             if the metadata can't be read
+     */
+    private InputStream openMavenMetadata(Repository repository, String metadataLocation)
+            throws IOException {
+        File cachedMetadata = getCachedMavenMetadata(repository, metadataLocation);
+        if (cachedMetadata == null) {
+            Resource metadata = repository.getResource(metadataLocation);
+            return metadata.exists() ? metadata.openStream() : null;
+        }
+        long maxAge = isRefresh() ? 0
+                : ((DefaultRepositoryCacheManager) getRepositoryCacheManager()).getDefaultTTL();
+        try {
+            if (!((URLRepository) repository).getIfModified(metadataLocation, cachedMetadata,
+                maxAge)) {
+                Message.debug("\tmaven-metadata not modified since last download: "
+                        + metadataLocation);
+            }
+        } catch (IOException e) {
+            Message.debug("\tmaven-metadata not downloaded: " + e.getMessage());
+            return null;
+        }
+        return new FileInputStream(cachedMetadata);
+    }
+
+    private File getCachedMavenMetadata(Repository repository, String metadataLocation) {
+        if (!(repository instanceof URLRepository) || !metadataLocation.startsWith(root)
+                || !metadataLocation.startsWith("http")
+                || !(getRepositoryCacheManager() instanceof DefaultRepositoryCacheManager)) {
+            return null;
+        }
+        File cache = ((DefaultRepositoryCacheManager) getRepositoryCacheManager()).getBasedir();
+        return new File(cache, "maven-metadata/" + getName() + "/"
+                + metadataLocation.substring(root.length()));
+    }
+
     @Override
     protected void findTokenValues(Collection<String> names, List<String> patterns,
                                    Map<String, String> tokenValues, String token) {
@@ -30,7 +30,11 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.IvyPatternTemplate;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
@@ -38,11 +42,13 @@ import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.resolve.DownloadOptions;
+import org.apache.ivy.core.resolve.ResolveData;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
 import org.apache.ivy.plugins.repository.AbstractRepository;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.url.URLRepository;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.resolver.util.ResolverHelper;
 import org.apache.ivy.plugins.resolver.util.ResourceMDParser;
@@ -88,6 +94,26 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         this.signerName = signerName;
     }
 
+    /**
+     * Returns the cache in which the resources found missing are recorded, so that they are not
+     * looked for again until its missing TTL expires.
+     *
+     * @return the cache, or <code>null</code> if the missing resources aren't recorded
+     */
+    private DefaultRepositoryCacheManager getMissingResourcesCache() {
+        RepositoryCacheManager cacheManager = getRepositoryCacheManager();
+        if (cacheManager instanceof DefaultRepositoryCacheManager
+                && ((DefaultRepositoryCacheManager) cacheManager).getMissingTTL() > 0) {
+            return (DefaultRepositoryCacheManager) cacheManager;
+        }
+        return null;
+    }
+
+    boolean isRefresh() {
+        ResolveData data = IvyContext.getContext().getResolveData();
+        return data != null && data.getOptions().isRefresh();
+    }
+
     @Override
     protected ResolvedResource findResourceUsingPattern(ModuleRevisionId mrid, String pattern,
             Artifact artifact, ResourceMDParser rmdparser, Date date) {
@@ -95,11 +121,24 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         VersionMatcher versionMatcher = getSettings().getVersionMatcher();
         try {
             if (!versionMatcher.isDynamic(mrid) || isAlwaysCheckExactRevision()) {
-                String resourceName = IvyPatternHelper.substitute(pattern, mrid, artifact);
+                String resourceName = IvyPatternTemplate.compile(pattern).substitute(mrid,
+                    artifact);
                 Message.debug("\t trying " + resourceName);
                 logAttempt(resourceName);
+                DefaultRepositoryCacheManager missingCache = versionMatcher.isDynamic(mrid) ? null
+                        : getMissingResourcesCache();
+                boolean refresh = isRefresh();
+                if (missingCache != null && !refresh
+                        && missingCache.isKnownMissing(name, mrid, resourceName)) {
+                    Message.debug("\t" + name + ": resource recently found missing for " + mrid
+                            + ": res=" + resourceName);
+                    return null;
+                }
                 Resource res = repository.getResource(resourceName);
                 boolean reachable = res.exists();
+                if (missingCache != null && (refresh || !reachable)) {
+                    missingCache.saveMissing(name, mrid, resourceName, !reachable);
+                }
                 if (reachable) {
                     String revision;
                     if (pattern.contains(IvyPatternHelper.REVISION_KEY)) {
@@ -198,6 +237,20 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         return dest.length();
     }
 
+    @Override
+    protected long resumeGet(Resource resource, File dest) throws IOException {
+        if (!(repository instanceof URLRepository)) {
+            return get(resource, dest);
+        }
+        Message.verbose("\t" + getName() + ": downloading " + resource.getName());
+        Message.debug("\t\tto " + dest);
+        if (dest.getParentFile() != null) {
+            dest.getParentFile().mkdirs();
+        }
+        ((URLRepository) repository).resumeGet(resource.getName(), dest);
+        return dest.length();
+    }
+
     public void publish(Artifact artifact, File src, boolean overwrite) throws IOException {
         String destPattern;
         if ("ivy".equals(artifact.getType()) && !getIvyPatterns().isEmpty()) {
@@ -222,7 +275,7 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
     }
 
     protected String getDestination(String pattern, Artifact artifact, ModuleRevisionId mrid) {
-        return IvyPatternHelper.substitute(pattern, mrid, artifact);
+        return IvyPatternTemplate.compile(pattern).substitute(mrid, artifact);
     }
 
     protected void put(Artifact artifact, File src, String dest, boolean overwrite)
@@ -27,10 +27,18 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.parser.ParserSettings;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.resolver.AbstractResolver;
+import org.apache.ivy.plugins.resolver.ChainResolver;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.DualResolver;
 import org.apache.ivy.util.Message;
 
 public final class ResolverHelper {
@@ -324,4 +332,54 @@ public final class ResolverHelper {
             return null;
         }
     }
+
+    /**
+     * Tells whether a module revision found by a resolver may change while keeping the same
+     * revision, because the resolver, one of the resolvers it delegates to, or its cache, checks
+     * cached metadata for modifications or considers the revision as changing.
+     *
+     * @param settings
+     *            the settings giving the pattern matchers
+     * @param resolver
+     *            the resolver of the module revision, may be <code>null</code>
+     * @param mrid
+     *            the module revision to check
+     * @return <code>true</code> if the module revision may change, or if it can't be told
+     * @since 2.5.2
+     */
+    public static boolean isCheckmodifiedOrChanging(ParserSettings settings,
+            DependencyResolver resolver, ModuleRevisionId mrid) {
+        if (resolver == null) {
+            return true;
+        }
+        if (resolver instanceof AbstractResolver
+                && ((AbstractResolver) resolver).isCheckmodifiedOrChanging(mrid)) {
+            return true;
+        }
+        if (resolver instanceof ChainResolver) {
+            for (DependencyResolver child : ((ChainResolver) resolver).getResolvers()) {
+                if (isCheckmodifiedOrChanging(settings, child, mrid)) {
+                    return true;
+                }
+            }
+        }
+        if (resolver instanceof DualResolver && isCheckmodifiedOrChanging(settings,
+            ((DualResolver) resolver).getIvyResolver(), mrid)) {
+            return true;
+        }
+        RepositoryCacheManager cacheManager = resolver.getRepositoryCacheManager();
+        if (!(cacheManager instanceof DefaultRepositoryCacheManager)) {
+            return true;
+        }
+        DefaultRepositoryCacheManager cache = (DefaultRepositoryCacheManager) cacheManager;
+        if (cache.isCheckmodified()) {
+            return true;
+        }
+        if (cache.getChangingPattern() == null) {
+            return false;
+        }
+        PatternMatcher matcher = settings.getMatcher(cache.getChangingMatcherName());
+        return matcher == null
+                || matcher.getMatcher(cache.getChangingPattern()).matches(mrid.getRevision());
+    }
 }
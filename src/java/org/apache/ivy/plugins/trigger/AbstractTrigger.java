@@ -41,6 +41,8 @@ public abstract class AbstractTrigger implements Trigger {
 
     private String matcher = PatternMatcher.EXACT;
 
+    private boolean async = false;
+
     public Filter<IvyEvent> getEventFilter() {
         if (filter == null) {
             filter = createFilter();
@@ -80,4 +82,17 @@ public abstract class AbstractTrigger implements Trigger {
         this.matcher = matcher;
     }
 
+    /**
+     * @return <code>true</code> if the trigger is performed asynchronously, not blocking the
+     *         thread which fired the event
+     * @since 2.5.2
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
 }
@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Checksums computed while copying a stream, so that a downloaded file can be checked without
+ * reading it again.
+ * <p>
+ * The digests are attached to the current thread with {@link FileUtil#setCopyDigests(CopyDigests)}
+ * and are then updated by the stream copies of {@link FileUtil}, each copy starting over. They
+ * should only be used for a file if {@link #isDigestOf(File)} returns <code>true</code>, which is
+ * not the case when the file has been written without a stream copy of {@link FileUtil}.
+ * </p>
+ */
+public final class CopyDigests {
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final Map<String, String> checksums = new HashMap<>();
+
+    private long count;
+
+    private long length = -1;
+
+    /**
+     * @param algorithms
+     *            the checksum algorithms to compute, as understood by {@link ChecksumHelper}
+     * @throws IllegalArgumentException
+     *             if an algorithm is unknown
+     */
+    public CopyDigests(String... algorithms) {
+        for (String algorithm : algorithms) {
+            digests.put(algorithm, ChecksumHelper.getMessageDigest(algorithm));
+        }
+    }
+
+    void start() {
+        for (MessageDigest digest : digests.values()) {
+            digest.reset();
+        }
+        checksums.clear();
+        count = 0;
+        length = -1;
+    }
+
+    void update(byte[] buffer, int offset, int len) {
+        for (MessageDigest digest : digests.values()) {
+            digest.update(buffer, offset, len);
+        }
+        count += len;
+    }
+
+    void end() {
+        length = count;
+    }
+
+    /**
+     * Tells whether the digests are the ones of the given file, i.e. whether the last copy was
+     * complete and copied as many bytes as the file contains.
+     *
+     * @param file
+     *            the file written by the last copy
+     * @return <code>true</code> if the checksums can be used for this file
+     */
+    public boolean isDigestOf(File file) {
+        return length >= 0 && length == file.length();
+    }
+
+    /**
+     * Returns the checksum of the bytes of the last copy.
+     *
+     * @param algorithm
+     *            one of the algorithms given when creating this instance
+     * @return the checksum, as an hexadecimal string
+     * @throws IllegalArgumentException
+     *             if the algorithm isn't computed by this instance
+     */
+    public String getChecksum(String algorithm) {
+        String checksum = checksums.get(algorithm);
+        if (checksum == null) {
+            MessageDigest digest = digests.get(algorithm);
+            if (digest == null) {
+                throw new IllegalArgumentException("checksum not computed: " + algorithm);
+            }
+            checksum = ChecksumHelper.byteArrayToHexString(digest.digest());
+            checksums.put(algorithm, checksum);
+        }
+        return checksum;
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.ivy.util;
 
 import org.apache.ivy.core.settings.TimeoutConstraint;
+import org.apache.ivy.util.url.ConditionalURLHandler;
 import org.apache.ivy.util.url.TimeoutConstrainedURLHandler;
 import org.apache.ivy.util.url.URLHandler;
 import org.apache.ivy.util.url.URLHandlerRegistry;
@@ -33,8 +34,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -63,6 +68,8 @@ public final class FileUtil {
 
     private static final byte[] EMPTY_BUFFER = new byte[0];
 
+    private static final ThreadLocal<CopyDigests> copyDigests = new ThreadLocal<>();
+
     /**
      * Creates a symbolic link at {@code link} whose target will be the {@code target}. Depending
      * on the underlying filesystem, this method may not always be able to create a symbolic link,
@@ -200,6 +207,168 @@ public final class FileUtil {
         return true;
     }
 
+    /**
+     * Creates a hard link at {@code link} to the {@code target} file, so that both share the same
+     * content without it being copied. Depending on the underlying filesystem, or if the link and
+     * its target are not on the same filesystem, this method may not be able to create a hard
+     * link, in which case this method returns {@code false}.
+     * <p>
+     * An existing file at {@code link} is replaced rather than written to, since it may itself be
+     * a link to another file.
+     * </p>
+     *
+     * @param target    The regular {@link File} which will be the target of the hard link
+     * @param link      The path to the hard link that needs to be created
+     * @param overwrite {@code true} if any existing file at {@code link} has to be replaced.
+     *                  False otherwise
+     * @return Returns true if the hard link was created, or already existed. Returns false if the
+     * hard link could not be created
+     * @throws IOException if an existing file at {@code link} can't be deleted
+     * @since 2.5.2
+     */
+    public static boolean hardLink(final File target, final File link, final boolean overwrite)
+            throws IOException {
+        if (!target.isFile()) {
+            return false;
+        }
+        if (!prepareReplace(target, link, overwrite)) {
+            return isSameFile(target, link);
+        }
+        try {
+            Files.createLink(link.toPath(), target.toPath());
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Message.verbose("impossible to create a hard link at " + link + ": " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Copies a regular file with {@link Files#copy(java.nio.file.Path, java.nio.file.Path,
+     * java.nio.file.CopyOption...)}, which recent JVMs implement by cloning the file on the
+     * filesystems supporting copy-on-write (clonefile on macOS, FICLONE on Linux). When this copy
+     * fails, the file is copied again with {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)}, letting the operating system transfer its content
+     * without bringing it into the JVM. The copy gets the last modification date of its source.
+     * <p>
+     * An existing file at {@code dest} is replaced rather than written to, since it may be a link
+     * to another file.
+     * </p>
+     *
+     * @param src       The regular file to copy
+     * @param dest      The destination
+     * @param overwrite {@code true} if any existing file at {@code dest} has to be replaced.
+     *                  False otherwise
+     * @return Returns true if the file was copied. Else returns false
+     * @throws IOException If any exception occurs during the copy operation
+     * @since 2.5.2
+     */
+    public static boolean transfer(final File src, final File dest, final boolean overwrite)
+            throws IOException {
+        if (!prepareReplace(src, dest, overwrite)) {
+            return overwrite && isSameFile(src, dest);
+        }
+        try {
+            Files.copy(src.toPath(), dest.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+            return true;
+        } catch (IOException e) {
+            Message.verbose("impossible to clone " + src + " at " + dest + ": " + e);
+            Files.deleteIfExists(dest.toPath());
+        }
+        try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(dest.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE_NEW)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        } catch (IOException e) {
+            dest.delete();
+            throw e;
+        }
+        dest.setLastModified(src.lastModified());
+        return true;
+    }
+
+    /**
+     * Deletes the file at {@code dest} to replace it by {@code src}, unless it's the same file.
+     *
+     * @return true if the destination can be created
+     */
+    private static boolean prepareReplace(File src, File dest, boolean overwrite)
+            throws IOException {
+        if (dest.exists() || Files.isSymbolicLink(dest.toPath())) {
+            if (!overwrite || isSameFile(src, dest) && !Files.isSymbolicLink(dest.toPath())) {
+                Message.verbose(dest + " already exists, nothing done");
+                return false;
+            }
+            if (dest.isDirectory()) {
+                throw new IOException("impossible to replace: destination is a directory: "
+                        + dest);
+            }
+            Files.delete(dest.toPath());
+        } else if (dest.getParentFile() != null) {
+            dest.getParentFile().mkdirs();
+        }
+        return true;
+    }
+
+    private static boolean isSameFile(File file1, File file2) {
+        try {
+            return Files.isSameFile(file1.toPath(), file2.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether two files have the same content, comparing their sizes first, and then their
+     * bytes if their sizes are equal.
+     *
+     * @param file1 a regular file
+     * @param file2 another regular file
+     * @return true if both files have the same content
+     * @throws IOException If any exception occurs while reading the files
+     * @since 2.5.2
+     */
+    public static boolean contentEquals(final File file1, final File file2) throws IOException {
+        if (file1.length() != file2.length()) {
+            return false;
+        }
+        if (isSameFile(file1, file2)) {
+            return true;
+        }
+        byte[] buffer1 = new byte[BUFFER_SIZE];
+        byte[] buffer2 = new byte[BUFFER_SIZE];
+        try (InputStream in1 = new FileInputStream(file1);
+                InputStream in2 = new FileInputStream(file2)) {
+            int length;
+            while ((length = readFully(in1, buffer1)) > 0) {
+                if (readFully(in2, buffer2) != length) {
+                    return false;
+                }
+                for (int i = 0; i < length; i++) {
+                    if (buffer1[i] != buffer2[i]) {
+                        return false;
+                    }
+                }
+            }
+            return in2.read() == -1;
+        }
+    }
+
+    // reads until the buffer is full or the end of the stream is reached
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length
+                && (read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
     public static boolean deepCopy(File src, File dest, CopyProgressListener l, boolean overwrite)
             throws IOException {
         // the list of files which already exist in the destination folder
@@ -257,6 +426,73 @@ public final class FileUtil {
         handler.download(src, dest, listener);
     }
 
+    /**
+     * Downloads a resource, unless the destination file is a previous download of this resource
+     * which is still up to date.
+     *
+     * @param src
+     *            the URL of the resource
+     * @param dest
+     *            the file to download the resource to
+     * @param listener
+     *            the listener notified of the download progress, may be <code>null</code>
+     * @param timeoutConstraint
+     *            the connectivity timeout constraints, may be <code>null</code>
+     * @param maxAge
+     *            the time in milliseconds during which a previous download the server has sent or
+     *            validated is considered up to date without sending any request, 0 to always
+     *            revalidate it
+     * @return <code>true</code> if the resource has been downloaded, <code>false</code> if
+     *         <code>dest</code> was up to date
+     * @throws IOException
+     *             if the resource can't be downloaded
+     * @see ConditionalURLHandler
+     * @since 2.5.2
+     */
+    @SuppressWarnings("deprecation")
+    public static boolean copyIfModified(final URL src, final File dest,
+            final CopyProgressListener listener, final TimeoutConstraint timeoutConstraint,
+            final long maxAge) throws IOException {
+        final URLHandler handler = URLHandlerRegistry.getDefault();
+        if (handler instanceof ConditionalURLHandler) {
+            return ((ConditionalURLHandler) handler).downloadIfModified(src, dest, listener,
+                timeoutConstraint, maxAge);
+        }
+        copy(src, dest, listener, timeoutConstraint);
+        return true;
+    }
+
+    /**
+     * Downloads a resource, resuming the previous download of this resource to the destination
+     * file if it has been interrupted.
+     *
+     * @param src
+     *            the URL of the resource
+     * @param dest
+     *            the file to download the resource to
+     * @param listener
+     *            the listener notified of the download progress, may be <code>null</code>
+     * @param timeoutConstraint
+     *            the connectivity timeout constraints, may be <code>null</code>
+     * @throws IOException
+     *             if the resource can't be downloaded
+     * @see ConditionalURLHandler#resumeDownload(URL, File, CopyProgressListener,
+     *      TimeoutConstraint)
+     * @since 2.5.2
+     */
+    @SuppressWarnings("deprecation")
+    public static void resumeCopy(final URL src, final File dest,
+            final CopyProgressListener listener, final TimeoutConstraint timeoutConstraint)
+            throws IOException {
+        final URLHandler handler = URLHandlerRegistry.getDefault();
+        if (handler instanceof ConditionalURLHandler) {
+            ((ConditionalURLHandler) handler).resumeDownload(src, dest, listener,
+                timeoutConstraint);
+            return;
+        }
+        copy(src, dest, listener, timeoutConstraint);
+    }
+
     @SuppressWarnings("deprecation")
     public static void copy(final File src, final URL dest, final CopyProgressListener listener,
                             final TimeoutConstraint timeoutConstraint) throws IOException {
@@ -280,12 +516,33 @@ public final class FileUtil {
         copy(src, dest, l, true);
     }
 
+    /**
+     * Sets the checksums to compute, in the current thread, while copying streams. Each stream
+     * copy made by this class then starts over the given checksums, and marks them as complete
+     * once it has copied the whole stream.
+     *
+     * @param digests
+     *            the checksums to compute, <code>null</code> to stop computing checksums
+     * @since 2.5.2
+     */
+    public static void setCopyDigests(CopyDigests digests) {
+        if (digests == null) {
+            copyDigests.remove();
+        } else {
+            copyDigests.set(digests);
+        }
+    }
+
     public static void copy(InputStream src, OutputStream dest, CopyProgressListener l,
             boolean autoClose) throws IOException {
         CopyProgressEvent evt = null;
         if (l != null) {
             evt = new CopyProgressEvent();
         }
+        CopyDigests digests = copyDigests.get();
+        if (digests != null) {
+            digests.start();
+        }
         try {
             byte[] buffer = new byte[BUFFER_SIZE];
             int c;
@@ -300,6 +557,9 @@ public final class FileUtil {
                 }
                 dest.write(buffer, 0, c);
                 total += c;
+                if (digests != null) {
+                    digests.update(buffer, 0, c);
+                }
                 if (l != null) {
                     l.progress(evt.update(buffer, c, total));
                 }
@@ -320,6 +580,9 @@ public final class FileUtil {
                 src.close();
                 dest.close();
             }
+            if (digests != null) {
+                digests.end();
+            }
         } finally {
             if (autoClose) {
                 try {
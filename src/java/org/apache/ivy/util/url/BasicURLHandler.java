@@ -26,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -37,7 +38,7 @@ import java.net.UnknownHostException;
 /**
  *
  */
-public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler {
+public class BasicURLHandler extends AbstractURLHandler implements ConditionalURLHandler {
 
     private static final int BUFFER_SIZE = 64 * 1024;
 
@@ -46,6 +47,10 @@ public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstr
     private static final class HttpStatus {
         static final int SC_OK = 200;
 
+        static final int SC_PARTIAL_CONTENT = 206;
+
+        static final int SC_REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+
         static final int SC_PROXY_AUTHENTICATION_REQUIRED = 407;
 
         private HttpStatus() {
@@ -259,33 +264,182 @@ public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstr
                 }
             }
 
-            // do the download
-            InputStream inStream = getDecodingInputStream(srcConn.getContentEncoding(),
-                    srcConn.getInputStream());
-            FileUtil.copy(inStream, dest, listener);
+            copy(srcConn, normalizedURL, dest, listener);
+        } finally {
+            disconnect(srcConn);
+        }
+    }
 
-            // check content length only if content was not encoded
-            if (srcConn.getContentEncoding() == null) {
-                final int contentLength = srcConn.getContentLength();
-                final long destFileSize = dest.length();
-                if (contentLength != -1 && destFileSize != contentLength) {
-                    dest.delete();
-                    throw new IOException(
-                            "Downloaded file size (" + destFileSize + ") doesn't match expected " +
-                                    "Content Length (" + contentLength + ") for " + normalizedURL + ". Please retry.");
+    @Override
+    public boolean downloadIfModified(final URL src, final File dest, final CopyProgressListener listener,
+                                      final TimeoutConstraint timeoutConstraint, final long maxAge)
+            throws IOException {
+        if (!"http".equals(src.getProtocol()) && !"https".equals(src.getProtocol())) {
+            // no validator to revalidate the download with
+            download(src, dest, listener, timeoutConstraint);
+            return true;
+        }
+        final DownloadValidators validators = DownloadValidators.read(dest);
+        if (validators != null && validators.isFresh(maxAge)) {
+            Message.verbose("\tvalidated recently: " + src);
+            return false;
+        }
+        // Install the IvyAuthenticator
+        IvyAuthenticator.install();
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+
+        HttpURLConnection srcConn = null;
+        File part = null;
+        try {
+            final URL normalizedURL = normalizeToURL(src);
+            srcConn = (HttpURLConnection) normalizedURL.openConnection();
+            srcConn.setConnectTimeout(connectionTimeout);
+            srcConn.setReadTimeout(readTimeout);
+            srcConn.setRequestProperty("User-Agent", getUserAgent());
+            srcConn.setRequestProperty("Accept", ACCEPT_HEADER_VALUE);
+            srcConn.setRequestProperty("Accept-Encoding", "gzip,deflate");
+            if (validators != null) {
+                if (validators.getETag() != null) {
+                    srcConn.setRequestProperty(DownloadValidators.IF_NONE_MATCH, validators.getETag());
                 }
+                if (validators.getLastModified() != null) {
+                    srcConn.setRequestProperty(DownloadValidators.IF_MODIFIED_SINCE,
+                            validators.getLastModified());
+                }
+                if (srcConn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    Message.verbose("\tnot modified: " + normalizedURL);
+                    DownloadValidators.revalidated(dest, validators);
+                    return false;
+                }
+            }
+            if (!checkStatusCode(normalizedURL, srcConn)) {
+                throw new IOException("The HTTP response code for " + normalizedURL
+                        + " did not indicate a success." + " See log for more detail.");
+            }
+            part = DownloadValidators.newPartFile(dest);
+            copy(srcConn, normalizedURL, part, listener);
+            DownloadValidators.install(part, dest, new DownloadValidators(
+                    srcConn.getHeaderField(DownloadValidators.ETAG),
+                    srcConn.getHeaderField(DownloadValidators.LAST_MODIFIED)));
+            part = null;
+            return true;
+        } finally {
+            disconnect(srcConn);
+            if (part != null) {
+                part.delete();
             }
+        }
+    }
+
+    @Override
+    public void resumeDownload(final URL src, final File dest, final CopyProgressListener listener,
+                               final TimeoutConstraint timeoutConstraint) throws IOException {
+        if (!"http".equals(src.getProtocol()) && !"https".equals(src.getProtocol())) {
+            // no range request
+            download(src, dest, listener, timeoutConstraint);
+            return;
+        }
+        // Install the IvyAuthenticator
+        IvyAuthenticator.install();
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+        final DownloadValidators previous = DownloadValidators.readResume(src, dest);
+        final long offset = previous == null ? 0 : dest.length();
 
-            // update modification date
-            long lastModified = srcConn.getLastModified();
-            if (lastModified > 0) {
-                dest.setLastModified(lastModified);
+        HttpURLConnection srcConn = null;
+        try {
+            final URL normalizedURL = normalizeToURL(src);
+            srcConn = (HttpURLConnection) normalizedURL.openConnection();
+            srcConn.setConnectTimeout(connectionTimeout);
+            srcConn.setReadTimeout(readTimeout);
+            srcConn.setRequestProperty("User-Agent", getUserAgent());
+            srcConn.setRequestProperty("Accept", ACCEPT_HEADER_VALUE);
+            // the ranges are positions in the encoded content
+            srcConn.setRequestProperty("Accept-Encoding", "identity");
+            if (previous != null) {
+                srcConn.setRequestProperty(DownloadValidators.RANGE, "bytes=" + offset + "-");
+                srcConn.setRequestProperty(DownloadValidators.IF_RANGE, previous.getIfRange());
+                final int status = srcConn.getResponseCode();
+                if (status == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                    Message.verbose("\tinterrupted download can't be resumed, restarting it: "
+                            + normalizedURL);
+                    DownloadValidators.deleteResume(dest);
+                    dest.delete();
+                    disconnect(srcConn);
+                    srcConn = null;
+                    resumeDownload(src, dest, listener, timeoutConstraint);
+                    return;
+                }
+                if (status == HttpStatus.SC_PARTIAL_CONTENT) {
+                    if (DownloadValidators.getRangeStart(srcConn.getHeaderField(
+                            DownloadValidators.CONTENT_RANGE)) != offset) {
+                        throw new IOException("Unexpected partial content for " + normalizedURL
+                                + ": " + srcConn.getHeaderField(DownloadValidators.CONTENT_RANGE));
+                    }
+                    Message.verbose("\tresuming download of " + normalizedURL + " after "
+                            + offset + " bytes");
+                    copy(srcConn, normalizedURL, dest, listener, offset);
+                    DownloadValidators.deleteResume(dest);
+                    return;
+                }
+            }
+            if (!checkStatusCode(normalizedURL, srcConn)) {
+                throw new IOException("The HTTP response code for " + normalizedURL
+                        + " did not indicate a success." + " See log for more detail.");
             }
+            DownloadValidators.writeResume(src, dest, new DownloadValidators(
+                    srcConn.getHeaderField(DownloadValidators.ETAG),
+                    srcConn.getHeaderField(DownloadValidators.LAST_MODIFIED)));
+            copy(srcConn, normalizedURL, dest, listener);
+            DownloadValidators.deleteResume(dest);
         } finally {
             disconnect(srcConn);
         }
     }
 
+    private void copy(final URLConnection srcConn, final URL normalizedURL, final File dest,
+                      final CopyProgressListener listener) throws IOException {
+        copy(srcConn, normalizedURL, dest, listener, -1);
+    }
+
+    /**
+     * Copies the content of a response to a file.
+     *
+     * @param offset the number of bytes of <code>dest</code> the content comes after, or -1 if
+     *               <code>dest</code> is overwritten
+     */
+    private void copy(final URLConnection srcConn, final URL normalizedURL, final File dest,
+                      final CopyProgressListener listener, final long offset) throws IOException {
+        // do the download
+        InputStream inStream = getDecodingInputStream(srcConn.getContentEncoding(),
+                srcConn.getInputStream());
+        if (offset < 0) {
+            FileUtil.copy(inStream, dest, listener);
+        } else {
+            FileUtil.copy(inStream, new FileOutputStream(dest, true), listener);
+        }
+
+        // check content length only if content was not encoded
+        if (srcConn.getContentEncoding() == null) {
+            final long contentLength = srcConn.getContentLengthLong();
+            final long expectedFileSize = offset < 0 ? contentLength : offset + contentLength;
+            final long destFileSize = dest.length();
+            if (contentLength != -1 && destFileSize != expectedFileSize) {
+                dest.delete();
+                throw new IOException(
+                        "Downloaded file size (" + destFileSize + ") doesn't match expected " +
+                                "Content Length (" + expectedFileSize + ") for " + normalizedURL + ". Please retry.");
+            }
+        }
+
+        // update modification date
+        long lastModified = srcConn.getLastModified();
+        if (lastModified > 0) {
+            dest.setLastModified(lastModified);
+        }
+    }
+
     @Override
     public void upload(final File source, final URL dest, final CopyProgressListener l) throws IOException {
         this.upload(source, dest, l, null);
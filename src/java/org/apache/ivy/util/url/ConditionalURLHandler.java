@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import org.apache.ivy.core.settings.TimeoutConstraint;
+import org.apache.ivy.util.CopyProgressListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * A {@link TimeoutConstrainedURLHandler} which can revalidate a previous download with a
+ * conditional request, so that a resource which hasn't changed isn't transferred again, and which
+ * can resume an interrupted download with a conditional range request.
+ *
+ * @since 2.5.2
+ */
+public interface ConditionalURLHandler extends TimeoutConstrainedURLHandler {
+
+    /**
+     * Downloads the resource available at <code>src</code> to the target <code>dest</code>,
+     * unless <code>dest</code> is a previous download of this resource which is still up to date.
+     * <p>
+     * The validators the server gave with the resource, i.e. its <code>ETag</code> and
+     * <code>Last-Modified</code> headers, are recorded next to <code>dest</code>, and sent back
+     * in the <code>If-None-Match</code> and <code>If-Modified-Since</code> headers of the next
+     * download, the server then answering with a <code>304 Not Modified</code> status and no
+     * content when the resource hasn't changed. The time of the last download or revalidation is
+     * recorded too, so that no request at all is sent while the previous download is recent
+     * enough.
+     * </p>
+     *
+     * @param src               The source URL to download the resource from
+     * @param dest              The destination {@link File} to download the resource to
+     * @param listener          The listener that will be notified of the download progress
+     * @param timeoutConstraint The connectivity timeout constraints. Can be null, in which case
+     *                          the timeouts are implementation specific
+     * @param maxAge            The time in milliseconds during which a previous download the
+     *                          server has sent or validated is considered up to date without
+     *                          sending any request, 0 to always revalidate it
+     * @return <code>true</code> if the resource has been downloaded, <code>false</code> if
+     *         <code>dest</code> was up to date
+     * @throws IOException if something goes wrong
+     */
+    boolean downloadIfModified(URL src, File dest, CopyProgressListener listener,
+            TimeoutConstraint timeoutConstraint, long maxAge) throws IOException;
+
+    /**
+     * Downloads the resource available at <code>src</code> to the target <code>dest</code>,
+     * resuming the previous download of this resource to <code>dest</code> if it has been
+     * interrupted.
+     * <p>
+     * The validators the server gave with the resource are recorded next to <code>dest</code>
+     * until the download is complete. If the download is interrupted, the next one only asks
+     * for the bytes which are not in <code>dest</code> yet, with a <code>Range</code> header,
+     * and with the recorded validators in an <code>If-Range</code> header so that the server
+     * sends the whole resource again if it has changed since. Any other file at
+     * <code>dest</code> is overwritten.
+     * </p>
+     *
+     * @param src               The source URL to download the resource from
+     * @param dest              The destination {@link File} to download the resource to
+     * @param listener          The listener that will be notified of the download progress
+     * @param timeoutConstraint The connectivity timeout constraints. Can be null, in which case
+     *                          the timeouts are implementation specific
+     * @throws IOException if something goes wrong, <code>dest</code> then being kept if the
+     *                     download can be resumed
+     */
+    void resumeDownload(URL src, File dest, CopyProgressListener listener,
+            TimeoutConstraint timeoutConstraint) throws IOException;
+}
@@ -0,0 +1,336 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import org.apache.ivy.util.Message;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * The validators of a downloaded resource, recorded in a properties file next to the downloaded
+ * file with the time the server last sent or validated it, so that a later download of the
+ * resource can be skipped or be a conditional request, or so that an interrupted download can be
+ * resumed with a range request.
+ */
+final class DownloadValidators {
+    static final String ETAG = "ETag";
+
+    static final String LAST_MODIFIED = "Last-Modified";
+
+    static final String IF_NONE_MATCH = "If-None-Match";
+
+    static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    static final String RANGE = "Range";
+
+    static final String IF_RANGE = "If-Range";
+
+    static final String CONTENT_RANGE = "Content-Range";
+
+    private static final String SUFFIX = ".validators";
+
+    private static final String RESUME_SUFFIX = ".resume";
+
+    private static final String SOURCE = "source";
+
+    // the time the download has been sent or last validated by the server
+    private static final String VALIDATED = "validated";
+
+    private final String etag;
+
+    private final String lastModified;
+
+    private final long validated;
+
+    DownloadValidators(String etag, String lastModified) {
+        this(etag, lastModified, 0);
+    }
+
+    private DownloadValidators(String etag, String lastModified, long validated) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.validated = validated;
+    }
+
+    String getETag() {
+        return etag;
+    }
+
+    String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Reads the validators of a previous download.
+     *
+     * @param dest
+     *            the file of the previous download
+     * @return the validators, or <code>null</code> if there is no previous download or no
+     *         validator was given with it
+     */
+    static DownloadValidators read(File dest) {
+        File file = getFile(dest);
+        if (!dest.isFile() || !file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            Message.verbose("impossible to read " + file + ": " + e.getMessage());
+            return null;
+        }
+        String etag = props.getProperty(ETAG);
+        String lastModified = props.getProperty(LAST_MODIFIED);
+        if (etag == null && lastModified == null) {
+            return null;
+        }
+        long validated;
+        try {
+            validated = Long.parseLong(props.getProperty(VALIDATED, "0"));
+        } catch (NumberFormatException e) {
+            validated = 0;
+        }
+        return new DownloadValidators(etag, lastModified, validated);
+    }
+
+    /**
+     * Tells whether the download these validators were read with has been sent or validated by
+     * the server recently enough to be used without sending any request.
+     *
+     * @param maxAge
+     *            the time in milliseconds during which a download is considered up to date
+     * @return boolean
+     */
+    boolean isFresh(long maxAge) {
+        long age = System.currentTimeMillis() - validated;
+        return validated > 0 && age >= 0 && age < maxAge;
+    }
+
+    /**
+     * Records that the server has just reported a previous download as up to date.
+     *
+     * @param dest
+     *            the file of the previous download
+     * @param validators
+     *            the validators read with it
+     */
+    static void revalidated(File dest, DownloadValidators validators) {
+        write(getFile(dest), new DownloadValidators(validators.etag, validators.lastModified,
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns the validator to send in the <code>If-Range</code> header of a request resuming a
+     * download: the entity tag if it's a strong one, the last modification date otherwise.
+     *
+     * @return the validator, or <code>null</code> if there is none
+     */
+    String getIfRange() {
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return lastModified;
+    }
+
+    /**
+     * Reads the validators of a download which has been interrupted, and which can be resumed
+     * from the end of the file it was writing to.
+     *
+     * @param src
+     *            the resource to download
+     * @param dest
+     *            the file the interrupted download was writing to
+     * @return the validators of the interrupted download, or <code>null</code> if
+     *         <code>dest</code> isn't the beginning of an interrupted download of
+     *         <code>src</code> which can be resumed
+     */
+    static DownloadValidators readResume(URL src, File dest) {
+        File file = getResumeFile(dest);
+        if (!dest.isFile() || dest.length() == 0 || !file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            Message.verbose("impossible to read " + file + ": " + e.getMessage());
+            return null;
+        }
+        if (!src.toExternalForm().equals(props.getProperty(SOURCE))) {
+            return null;
+        }
+        DownloadValidators validators = new DownloadValidators(props.getProperty(ETAG),
+                props.getProperty(LAST_MODIFIED));
+        return validators.getIfRange() == null ? null : validators;
+    }
+
+    /**
+     * Records the validators of a download before it starts writing to its file, so that the
+     * download can be resumed if it is interrupted. Nothing is recorded if there is no validator
+     * to check that the resource hasn't changed when resuming the download.
+     *
+     * @param src
+     *            the downloaded resource
+     * @param dest
+     *            the file the download writes to
+     * @param validators
+     *            the validators given with the download
+     */
+    static void writeResume(URL src, File dest, DownloadValidators validators) {
+        File file = getResumeFile(dest);
+        if (validators.getIfRange() == null) {
+            file.delete();
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty(SOURCE, src.toExternalForm());
+        if (validators.etag != null) {
+            props.setProperty(ETAG, validators.etag);
+        }
+        if (validators.lastModified != null) {
+            props.setProperty(LAST_MODIFIED, validators.lastModified);
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, null);
+        } catch (IOException e) {
+            Message.verbose("impossible to write " + file + ": " + e.getMessage());
+            file.delete();
+        }
+    }
+
+    /**
+     * Forgets about the interrupted download of a file, once it has been completed or can't be
+     * resumed.
+     *
+     * @param dest
+     *            the file the download was writing to
+     */
+    static void deleteResume(File dest) {
+        getResumeFile(dest).delete();
+    }
+
+    /**
+     * Returns the position of the first byte of a partial content, as given by the
+     * <code>Content-Range</code> header of the response to a range request.
+     *
+     * @param contentRange
+     *            the value of the <code>Content-Range</code> header, may be <code>null</code>
+     * @return the position of the first byte, or -1 if the header can't be parsed
+     */
+    static long getRangeStart(String contentRange) {
+        // bytes <first>-<last>/<length>
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1;
+        }
+        int dash = contentRange.indexOf('-');
+        if (dash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring("bytes ".length(), dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Creates the file in which a resource is downloaded before being installed with
+     * {@link #install(File, File, DownloadValidators)}.
+     *
+     * @param dest
+     *            the file where the resource will be installed
+     * @return a new temporary file in the directory of <code>dest</code>
+     * @throws IOException
+     *             if the file can't be created
+     */
+    static File newPartFile(File dest) throws IOException {
+        File dir = dest.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        return File.createTempFile(dest.getName(), ".part", dir);
+    }
+
+    /**
+     * Moves a downloaded file to its destination and records its validators, replacing the ones
+     * of the previous download. The file is moved before the validators are written, so that
+     * validators are never more recent than the file they are read with.
+     *
+     * @param part
+     *            the downloaded file
+     * @param dest
+     *            the destination of the download
+     * @param validators
+     *            the validators given with the download
+     * @throws IOException
+     *             if the file can't be moved
+     */
+    static void install(File part, File dest, DownloadValidators validators) throws IOException {
+        File file = getFile(dest);
+        file.delete();
+        try {
+            Files.move(part.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (validators.etag == null && validators.lastModified == null) {
+            return;
+        }
+        write(file, new DownloadValidators(validators.etag, validators.lastModified,
+                System.currentTimeMillis()));
+    }
+
+    private static void write(File file, DownloadValidators validators) {
+        Properties props = new Properties();
+        if (validators.etag != null) {
+            props.setProperty(ETAG, validators.etag);
+        }
+        if (validators.lastModified != null) {
+            props.setProperty(LAST_MODIFIED, validators.lastModified);
+        }
+        props.setProperty(VALIDATED, String.valueOf(validators.validated));
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, null);
+        } catch (IOException e) {
+            Message.verbose("impossible to write " + file + ": " + e.getMessage());
+            file.delete();
+        }
+    }
+
+    private static File getFile(File dest) {
+        return new File(dest.getPath() + SUFFIX);
+    }
+
+    private static File getResumeFile(File dest) {
+        return new File(dest.getPath() + RESUME_SUFFIX);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import org.apache.ivy.util.Message;
+
+/**
+ * The configuration of the connections made by the HTTP handler backed by Apache HttpComponents
+ * HttpClient: size of the connection pool, eviction of the pooled connections and sizes of the
+ * socket buffers.
+ * <p>
+ * Like the {@link CredentialsStore credentials}, this configuration is shared by all the Ivy
+ * instances of the JVM, the HTTP handler being itself shared. A change is taken into account by
+ * the next requests, which are then made with a new connection pool, the previous one being
+ * closed once the requests made with it are over. Setting a value which is already the current
+ * one isn't a change, so reloading the same settings keeps the current pool.
+ * </p>
+ *
+ * @since 2.5.2
+ */
+public final class HttpClientConfig {
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 2;
+
+    public static final HttpClientConfig INSTANCE = new HttpClientConfig();
+
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+    private long idleTimeout = -1;
+
+    private long connectionTTL = -1;
+
+    private int sendBufferSize = 0;
+
+    private int receiveBufferSize = 0;
+
+    private volatile int modCount = 0;
+
+    private HttpClientConfig() {
+    }
+
+    /**
+     * @return the maximum number of connections of the pool
+     */
+    public synchronized int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public synchronized void setMaxConnections(int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive: "
+                    + maxConnections);
+        }
+        if (this.maxConnections != maxConnections) {
+            this.maxConnections = maxConnections;
+            modified();
+        }
+    }
+
+    /**
+     * @return the maximum number of connections of the pool to a same host
+     */
+    public synchronized int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public synchronized void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        if (maxConnectionsPerRoute <= 0) {
+            throw new IllegalArgumentException("maxConnectionsPerRoute must be positive: "
+                    + maxConnectionsPerRoute);
+        }
+        if (this.maxConnectionsPerRoute != maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            modified();
+        }
+    }
+
+    /**
+     * @return the time in milliseconds after which a pooled connection which isn't used is
+     *         closed, or a negative value if idle connections are kept open
+     */
+    public synchronized long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public synchronized void setIdleTimeout(long idleTimeout) {
+        if (this.idleTimeout != idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            modified();
+        }
+    }
+
+    /**
+     * @return the time in milliseconds after which a connection is not reused anymore, or a
+     *         negative value if connections can be reused as long as the server keeps them open
+     */
+    public synchronized long getConnectionTTL() {
+        return connectionTTL;
+    }
+
+    public synchronized void setConnectionTTL(long connectionTTL) {
+        if (this.connectionTTL != connectionTTL) {
+            this.connectionTTL = connectionTTL;
+            modified();
+        }
+    }
+
+    /**
+     * @return the size in bytes of the send buffer of the sockets, 0 for the system default
+     */
+    public synchronized int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public synchronized void setSendBufferSize(int sendBufferSize) {
+        if (sendBufferSize < 0) {
+            throw new IllegalArgumentException("sendBufferSize can't be negative: "
+                    + sendBufferSize);
+        }
+        if (this.sendBufferSize != sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            modified();
+        }
+    }
+
+    /**
+     * @return the size in bytes of the receive buffer of the sockets, 0 for the system default
+     */
+    public synchronized int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public synchronized void setReceiveBufferSize(int receiveBufferSize) {
+        if (receiveBufferSize < 0) {
+            throw new IllegalArgumentException("receiveBufferSize can't be negative: "
+                    + receiveBufferSize);
+        }
+        if (this.receiveBufferSize != receiveBufferSize) {
+            this.receiveBufferSize = receiveBufferSize;
+            modified();
+        }
+    }
+
+    /**
+     * Restores the default configuration.
+     */
+    public synchronized void reset() {
+        setMaxConnections(DEFAULT_MAX_CONNECTIONS);
+        setMaxConnectionsPerRoute(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        setIdleTimeout(-1);
+        setConnectionTTL(-1);
+        setSendBufferSize(0);
+        setReceiveBufferSize(0);
+    }
+
+    /**
+     * @return a number which changes each time the configuration is modified, read without
+     *         locking by the handler before each request
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    private void modified() {
+        modCount++;
+        Message.debug("http client configuration changed: " + this);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "maxConnections=" + maxConnections + " maxConnectionsPerRoute="
+                + maxConnectionsPerRoute + " idleTimeout=" + idleTimeout + " connectionTTL="
+                + connectionTTL + " sendBufferSize=" + sendBufferSize + " receiveBufferSize="
+                + receiveBufferSize;
+    }
+}
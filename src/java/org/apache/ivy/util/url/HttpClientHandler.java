@@ -32,16 +32,22 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.config.Lookup;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.auth.BasicSchemeFactory;
 import org.apache.http.impl.auth.DigestSchemeFactory;
 import org.apache.http.impl.auth.NTLMSchemeFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
@@ -52,6 +58,7 @@ import org.apache.ivy.util.HostUtil;
 import org.apache.ivy.util.Message;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ProxySelector;
@@ -59,15 +66,19 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
  */
-public class HttpClientHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler, AutoCloseable {
+public class HttpClientHandler extends AbstractURLHandler implements ConditionalURLHandler, AutoCloseable {
     private static final SimpleDateFormat LAST_MODIFIED_FORMAT = new SimpleDateFormat(
             "EEE, d MMM yyyy HH:mm:ss z", Locale.US);
 
@@ -92,20 +103,113 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
-    private final CloseableHttpClient httpClient;
+    // the client built with the current configuration, replaced when the configuration changes
+    private volatile Client client;
+
+    // the clients built with a previous configuration, which are closed once the requests
+    // started with them are over; guarded by this
+    private final List<Client> retiredClients = new ArrayList<>();
+
+    private volatile boolean hasRetiredClients;
 
     public HttpClientHandler() {
-        this.httpClient = buildUnderlyingClient();
+        this.client = newClient();
     }
 
-    private CloseableHttpClient buildUnderlyingClient() {
-        return HttpClients.custom()
-                .setConnectionManager(createConnectionManager())
+    private Client newClient() {
+        final int configModCount = HttpClientConfig.INSTANCE.getModCount();
+        final PoolingHttpClientConnectionManager connectionManager = createConnectionManager(
+                HttpClientConfig.INSTANCE);
+        return new Client(buildUnderlyingClient(connectionManager, HttpClientConfig.INSTANCE),
+                connectionManager, configModCount);
+    }
+
+    private CloseableHttpClient buildUnderlyingClient(final HttpClientConnectionManager connectionManager,
+                                                      final HttpClientConfig config) {
+        final HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
                 .setRoutePlanner(createProxyRoutePlanner())
                 .setUserAgent(this.getUserAgent())
                 .setDefaultAuthSchemeRegistry(createAuthSchemeRegistry())
-                .setDefaultCredentialsProvider(new IvyCredentialsProvider())
-                .build();
+                .setDefaultCredentialsProvider(new IvyCredentialsProvider());
+        if (config.getIdleTimeout() >= 0) {
+            builder.evictIdleConnections(config.getIdleTimeout(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getConnectionTTL() >= 0) {
+            builder.evictExpiredConnections();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Executes a request with the current client, building a new one if the
+     * {@link HttpClientConfig configuration} has changed since the current one was built.
+     *
+     * @param request the request to execute
+     * @return the response
+     * @throws IOException if the request fails
+     */
+    private CloseableHttpResponse execute(final HttpUriRequest request) throws IOException {
+        final Client current = this.acquireClient();
+        try {
+            return current.httpClient.execute(request);
+        } finally {
+            current.users.decrementAndGet();
+            if (this.hasRetiredClients) {
+                this.closeUnusedClients();
+            }
+        }
+    }
+
+    private Client acquireClient() {
+        while (true) {
+            Client current = this.client;
+            if (current.configModCount != HttpClientConfig.INSTANCE.getModCount()) {
+                current = this.renewClient();
+            }
+            current.users.incrementAndGet();
+            if (!current.closed) {
+                return current;
+            }
+            // retired and closed in the meantime
+            current.users.decrementAndGet();
+        }
+    }
+
+    private synchronized Client renewClient() {
+        if (this.client.configModCount != HttpClientConfig.INSTANCE.getModCount()) {
+            Message.verbose("building a new http client with " + HttpClientConfig.INSTANCE);
+            this.retiredClients.add(this.client);
+            this.hasRetiredClients = true;
+            this.client = this.newClient();
+            this.closeUnusedClients();
+        }
+        return this.client;
+    }
+
+    /**
+     * Closes the retired clients which are not used anymore by a request, or by a response which
+     * hasn't been consumed yet.
+     */
+    private synchronized void closeUnusedClients() {
+        final Iterator<Client> it = this.retiredClients.iterator();
+        while (it.hasNext()) {
+            final Client retired = it.next();
+            retired.connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            if (retired.users.get() > 0
+                    || retired.connectionManager.getTotalStats().getLeased() > 0) {
+                continue;
+            }
+            retired.closed = true;
+            if (retired.users.get() > 0) {
+                // acquired in the meantime, before it has been flagged as closed
+                retired.closed = false;
+                continue;
+            }
+            retired.close();
+            it.remove();
+        }
+        this.hasRetiredClients = !this.retiredClients.isEmpty();
     }
 
     private static HttpRoutePlanner createProxyRoutePlanner() {
@@ -121,8 +225,20 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 .build();
     }
 
-    private static HttpClientConnectionManager createConnectionManager() {
-        return new PoolingHttpClientConnectionManager();
+    private static PoolingHttpClientConnectionManager createConnectionManager(
+            final HttpClientConfig config) {
+        final RegistryBuilder<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSocketFactory());
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                registry.build(), null, null, null, config.getConnectionTTL(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(config.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSndBufSize(config.getSendBufferSize())
+                .setRcvBufSize(config.getReceiveBufferSize())
+                .build());
+        return connectionManager;
     }
 
     private static List<String> getAuthSchemePreferredOrder() {
@@ -158,13 +274,114 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         try (final CloseableHttpResponse response = doGet(src, connectionTimeout, readTimeout)) {
             // We can only figure the content we got is want we want if the status is success.
             this.requireSuccessStatus(HttpGet.METHOD_NAME, src, response);
-            final Header encoding = this.getContentEncoding(response);
-            try (final InputStream is = getDecodingInputStream(encoding == null ? null : encoding.getValue(),
-                    response.getEntity().getContent())) {
+            this.copy(response, dest, listener);
+        }
+    }
+
+    @Override
+    public boolean downloadIfModified(final URL src, final File dest, final CopyProgressListener listener,
+                                      final TimeoutConstraint timeoutConstraint, final long maxAge)
+            throws IOException {
+        final DownloadValidators validators = DownloadValidators.read(dest);
+        if (validators != null && validators.isFresh(maxAge)) {
+            Message.verbose("\tvalidated recently: " + src);
+            return false;
+        }
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+        final HttpGet httpGet = createGet(src, connectionTimeout, readTimeout);
+        if (validators != null) {
+            if (validators.getETag() != null) {
+                httpGet.addHeader(DownloadValidators.IF_NONE_MATCH, validators.getETag());
+            }
+            if (validators.getLastModified() != null) {
+                httpGet.addHeader(DownloadValidators.IF_MODIFIED_SINCE, validators.getLastModified());
+            }
+        }
+        File part = null;
+        try (final CloseableHttpResponse response = this.execute(httpGet)) {
+            if (validators != null && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                Message.verbose("\tnot modified: " + src);
+                DownloadValidators.revalidated(dest, validators);
+                return false;
+            }
+            this.requireSuccessStatus(HttpGet.METHOD_NAME, src, response);
+            part = DownloadValidators.newPartFile(dest);
+            this.copy(response, part, listener);
+            DownloadValidators.install(part, dest, new DownloadValidators(
+                    getHeaderValue(response, DownloadValidators.ETAG),
+                    getHeaderValue(response, DownloadValidators.LAST_MODIFIED)));
+            part = null;
+            return true;
+        } finally {
+            if (part != null) {
+                part.delete();
+            }
+        }
+    }
+
+    @Override
+    public void resumeDownload(final URL src, final File dest, final CopyProgressListener listener,
+                               final TimeoutConstraint timeoutConstraint) throws IOException {
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+        final DownloadValidators previous = DownloadValidators.readResume(src, dest);
+        final long offset = previous == null ? 0 : dest.length();
+        final HttpGet httpGet = createGet(src, connectionTimeout, readTimeout);
+        // the ranges are positions in the encoded content
+        httpGet.setHeader("Accept-Encoding", "identity");
+        if (previous != null) {
+            httpGet.addHeader(DownloadValidators.RANGE, "bytes=" + offset + "-");
+            httpGet.addHeader(DownloadValidators.IF_RANGE, previous.getIfRange());
+        }
+        try (final CloseableHttpResponse response = this.execute(httpGet)) {
+            final int status = response.getStatusLine().getStatusCode();
+            if (previous != null && status == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                Message.verbose("	interrupted download can't be resumed, restarting it: " + src);
+                DownloadValidators.deleteResume(dest);
+                dest.delete();
+            } else if (status == HttpStatus.SC_PARTIAL_CONTENT) {
+                final long start = DownloadValidators.getRangeStart(
+                        getHeaderValue(response, DownloadValidators.CONTENT_RANGE));
+                if (previous == null || start != offset) {
+                    throw new IOException("Unexpected partial content for '" + HttpGet.METHOD_NAME
+                            + " " + src + "': " + getHeaderValue(response, DownloadValidators.CONTENT_RANGE));
+                }
+                Message.verbose("	resuming download of " + src + " after " + offset + " bytes");
+                this.copy(response, dest, listener, true);
+                DownloadValidators.deleteResume(dest);
+                return;
+            } else {
+                this.requireSuccessStatus(HttpGet.METHOD_NAME, src, response);
+                DownloadValidators.writeResume(src, dest, new DownloadValidators(
+                        getHeaderValue(response, DownloadValidators.ETAG),
+                        getHeaderValue(response, DownloadValidators.LAST_MODIFIED)));
+                this.copy(response, dest, listener, false);
+                DownloadValidators.deleteResume(dest);
+                return;
+            }
+        }
+        // the interrupted download has been discarded, the resource is downloaded from the start
+        this.resumeDownload(src, dest, listener, timeoutConstraint);
+    }
+
+    private void copy(final HttpResponse response, final File dest, final CopyProgressListener listener)
+            throws IOException {
+        this.copy(response, dest, listener, false);
+    }
+
+    private void copy(final HttpResponse response, final File dest, final CopyProgressListener listener,
+                      final boolean append) throws IOException {
+        final Header encoding = this.getContentEncoding(response);
+        try (final InputStream is = getDecodingInputStream(encoding == null ? null : encoding.getValue(),
+                response.getEntity().getContent())) {
+            if (append) {
+                FileUtil.copy(is, new FileOutputStream(dest, true), listener);
+            } else {
                 FileUtil.copy(is, dest, listener);
             }
-            dest.setLastModified(getLastModified(response));
         }
+        dest.setLastModified(getLastModified(response));
     }
 
     @Override
@@ -186,7 +403,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         final HttpPut put = new HttpPut(normalizeToString(dest));
         put.setConfig(requestConfig);
         put.setEntity(new FileEntity(src));
-        try (final CloseableHttpResponse response = this.httpClient.execute(put)) {
+        try (final CloseableHttpResponse response = this.execute(put)) {
             validatePutStatusCode(dest, response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
         }
     }
@@ -309,6 +526,11 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         return response.getFirstHeader("Content-Encoding");
     }
 
+    private static String getHeaderValue(final HttpResponse response, final String name) {
+        final Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
     private long getLastModified(final HttpResponse response) {
         final Header header = response.getFirstHeader("last-modified");
         if (header == null) {
@@ -324,6 +546,10 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
     }
 
     private CloseableHttpResponse doGet(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
+        return this.execute(createGet(url, connectionTimeout, readTimeout));
+    }
+
+    private HttpGet createGet(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
         final RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(readTimeout)
                 .setConnectTimeout(connectionTimeout)
                 .setAuthenticationEnabled(hasCredentialsConfigured(url))
@@ -333,7 +559,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         final HttpGet httpGet = new HttpGet(normalizeToString(url));
         httpGet.setConfig(requestConfig);
         httpGet.addHeader("Accept-Encoding", "gzip,deflate");
-        return this.httpClient.execute(httpGet);
+        return httpGet;
     }
 
     private CloseableHttpResponse doHead(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
@@ -345,7 +571,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 .build();
         final HttpHead httpHead = new HttpHead(normalizeToString(url));
         httpHead.setConfig(requestConfig);
-        return this.httpClient.execute(httpHead);
+        return this.execute(httpHead);
     }
 
     private boolean hasCredentialsConfigured(final URL url) {
@@ -353,9 +579,46 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
     }
 
     @Override
-    public void close() throws Exception {
-        if (this.httpClient != null) {
-            this.httpClient.close();
+    public synchronized void close() throws Exception {
+        for (final Client retired : this.retiredClients) {
+            retired.close();
+        }
+        this.retiredClients.clear();
+        this.hasRetiredClients = false;
+        this.client.close();
+    }
+
+    /**
+     * A client with its connection pool, and the number of requests being executed with it.
+     */
+    private static final class Client {
+        private final CloseableHttpClient httpClient;
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        // the modification count of the configuration the client has been built with
+        private final int configModCount;
+
+        private final AtomicInteger users = new AtomicInteger();
+
+        private volatile boolean closed;
+
+        private Client(final CloseableHttpClient httpClient,
+                       final PoolingHttpClientConnectionManager connectionManager,
+                       final int configModCount) {
+            this.httpClient = httpClient;
+            this.connectionManager = connectionManager;
+            this.configModCount = configModCount;
+        }
+
+        private void close() {
+            this.closed = true;
+            try {
+                // also stops the thread evicting its idle connections, if any
+                this.httpClient.close();
+            } catch (IOException e) {
+                Message.debug("problem while closing an http client", e);
+            }
         }
     }
 
@@ -32,7 +32,7 @@ import java.util.Map;
  * and a fallback default {@link URLHandler} for dealing with downloads, uploads and
  * general reachability checks
  */
-public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
+public class URLHandlerDispatcher implements ConditionalURLHandler {
     @SuppressWarnings("deprecation")
     private final Map<String, URLHandler> handlers = new HashMap<>();
 
@@ -155,6 +155,32 @@ public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
         handler.download(src, dest, listener);
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public boolean downloadIfModified(final URL src, final File dest, final CopyProgressListener listener,
+                                      final TimeoutConstraint timeoutConstraint, final long maxAge)
+            throws IOException {
+        final URLHandler handler = this.getHandler(src.getProtocol());
+        if (handler instanceof ConditionalURLHandler) {
+            return ((ConditionalURLHandler) handler).downloadIfModified(src, dest, listener,
+                    timeoutConstraint, maxAge);
+        }
+        this.download(src, dest, listener, timeoutConstraint);
+        return true;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void resumeDownload(final URL src, final File dest, final CopyProgressListener listener,
+                               final TimeoutConstraint timeoutConstraint) throws IOException {
+        final URLHandler handler = this.getHandler(src.getProtocol());
+        if (handler instanceof ConditionalURLHandler) {
+            ((ConditionalURLHandler) handler).resumeDownload(src, dest, listener, timeoutConstraint);
+            return;
+        }
+        this.download(src, dest, listener, timeoutConstraint);
+    }
+
     @Override
     public void upload(final File src, final URL dest, final CopyProgressListener l) throws IOException {
         this.upload(src, dest, l, null);
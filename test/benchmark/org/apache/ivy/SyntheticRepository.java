@@ -0,0 +1,213 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.resolver.FileSystemResolver;
+import org.apache.ivy.util.FileUtil;
+
+/**
+ * Generates a repository of modules forming a random, but reproducible, dependency graph, used to
+ * benchmark resolve related engines on graphs of any size.
+ * <p>
+ * Each module is published in two revisions with the same dependencies. Every module but the first
+ * one is a dependency of a module with a lower index, so that the whole graph is reachable from the
+ * first module, and modules also depend on a few random modules with a higher index. Dependencies
+ * ask for one revision or the other, so that resolves have conflicts to manage.
+ * </p>
+ */
+public final class SyntheticRepository {
+    public static final String ORGANISATION = "org.apache.ivy.synthetic";
+
+    public static final String[] REVISIONS = {"1.0", "1.1"};
+
+    private static final String IVY_PATTERN = "[organisation]/[module]/[revision]/ivy.xml";
+
+    private static final String ARTIFACT_PATTERN
+            = "[organisation]/[module]/[revision]/[artifact]-[revision].[ext]";
+
+    private static final int EXTRA_DEPENDENCIES = 2;
+
+    private static final long SEED = 42;
+
+    private static final String BENCHMARK_DIR = "ivy.benchmark.dir";
+
+    private final int size;
+
+    private final List<Map<Integer, String>> dependencies;
+
+    /**
+     * @param size
+     *            the number of modules of the graph
+     */
+    public SyntheticRepository(int size) {
+        this.size = size;
+        this.dependencies = new ArrayList<>(size);
+        Random random = new Random(SEED);
+        for (int i = 0; i < size; i++) {
+            dependencies.add(new LinkedHashMap<Integer, String>());
+        }
+        for (int i = 1; i < size; i++) {
+            dependencies.get(random.nextInt(i)).put(i, REVISIONS[random.nextInt(2)]);
+        }
+        for (int i = 0; i < size - 1; i++) {
+            for (int j = 0; j < EXTRA_DEPENDENCIES; j++) {
+                int dependency = i + 1 + random.nextInt(size - i - 1);
+                dependencies.get(i).put(dependency, REVISIONS[random.nextInt(2)]);
+            }
+        }
+    }
+
+    /**
+     * @param name
+     *            the name of a directory
+     * @return the directory with the given name in the working directory of the benchmarks
+     */
+    public static File getWorkDir(String name) {
+        return new File(System.getProperty(BENCHMARK_DIR, "build/benchmark"), name);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public static String getModuleName(int index) {
+        return String.format("module-%05d", index);
+    }
+
+    /**
+     * @return the id of the module from which the whole graph is reachable
+     */
+    public ModuleRevisionId getRootModuleRevisionId() {
+        return ModuleRevisionId.newInstance(ORGANISATION, getModuleName(0), REVISIONS[1]);
+    }
+
+    /**
+     * Writes the ivy files and artifacts of the modules in the given directory, unless they have
+     * already been written by a previous call.
+     *
+     * @param dir
+     *            the root directory of the repository
+     * @throws IOException
+     *             if the repository can't be written
+     */
+    public void generate(File dir) throws IOException {
+        File marker = new File(dir, "complete");
+        if (marker.exists()) {
+            return;
+        }
+        FileUtil.forceDelete(dir);
+        for (int i = 0; i < size; i++) {
+            for (String revision : REVISIONS) {
+                File moduleDir = new File(dir,
+                        ORGANISATION + "/" + getModuleName(i) + "/" + revision);
+                moduleDir.mkdirs();
+                writeIvyFile(new File(moduleDir, "ivy.xml"), i, revision);
+                try (FileOutputStream jar = new FileOutputStream(new File(moduleDir,
+                        getModuleName(i) + "-" + revision + ".jar"))) {
+                    jar.write(getModuleName(i).getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+        }
+        marker.createNewFile();
+    }
+
+    private void writeIvyFile(File file, int index, String revision) throws IOException {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.println("<ivy-module version=\"2.0\">");
+            out.println("    <info organisation=\"" + ORGANISATION + "\" module=\""
+                    + getModuleName(index) + "\" revision=\"" + revision
+                    + "\" status=\"release\" publication=\"20200101000000\"/>");
+            out.println("    <configurations>");
+            out.println("        <conf name=\"default\"/>");
+            out.println("    </configurations>");
+            out.println("    <publications>");
+            out.println("        <artifact name=\"" + getModuleName(index) + "\"/>");
+            out.println("    </publications>");
+            out.println("    <dependencies>");
+            for (Map.Entry<Integer, String> dependency : dependencies.get(index).entrySet()) {
+                out.println("        <dependency name=\"" + getModuleName(dependency.getKey())
+                        + "\" rev=\"" + dependency.getValue() + "\" conf=\"default\"/>");
+            }
+            out.println("    </dependencies>");
+            out.println("</ivy-module>");
+        }
+    }
+
+    /**
+     * Creates settings using the given repository and cache.
+     *
+     * @param dir
+     *            the root directory of the repository
+     * @param cache
+     *            the cache directory
+     * @return IvySettings
+     */
+    public static IvySettings newSettings(File dir, File cache) {
+        IvySettings settings = new IvySettings();
+        settings.setDefaultCache(cache);
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("synthetic");
+        resolver.addIvyPattern(new File(dir, IVY_PATTERN).getAbsolutePath());
+        resolver.addArtifactPattern(new File(dir, ARTIFACT_PATTERN).getAbsolutePath());
+        settings.addResolver(resolver);
+        settings.setDefaultResolver(resolver.getName());
+        return settings;
+    }
+
+    /**
+     * Creates the module descriptors of the last revision of the modules in memory, their
+     * dependencies asking for the last revision too.
+     *
+     * @return a list of ModuleDescriptor
+     */
+    public List<ModuleDescriptor> newModuleDescriptors() {
+        List<ModuleDescriptor> mds = new ArrayList<>(size);
+        Date publication = new Date();
+        for (int i = 0; i < size; i++) {
+            DefaultModuleDescriptor md = new DefaultModuleDescriptor(
+                    ModuleRevisionId.newInstance(ORGANISATION, getModuleName(i), REVISIONS[1]),
+                    "release", publication);
+            for (int dependency : dependencies.get(i).keySet()) {
+                md.addDependency(new DefaultDependencyDescriptor(md,
+                        ModuleRevisionId.newInstance(ORGANISATION, getModuleName(dependency),
+                            REVISIONS[1]), false, false, true));
+            }
+            mds.add(md);
+        }
+        return mds;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the substitution of tokens in the patterns used by caches and resolvers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IvyPatternHelperBenchmark {
+    @Param({"[organisation]/[module](/[branch])/[type]s/[artifact]-[revision]"
+            + "(-[classifier])(.[ext])",
+            "[organisation]/[module]/[revision]/[artifact]-[revision](-[classifier]).[ext]"})
+    private String pattern;
+
+    private String variablesPattern;
+
+    private Artifact artifact;
+
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> extraAttributes = new HashMap<>();
+        extraAttributes.put("classifier", "sources");
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org.apache.ivy", "ivy", "2.5.2");
+        artifact = new DefaultArtifact(mrid, null, "ivy", "source", "jar", extraAttributes);
+        variables = new HashMap<>();
+        variables.put("ivy.cache.dir", "/home/user/.ivy2/cache");
+        variables.put("ivy.default.ivy.user.dir", "/home/user/.ivy2");
+        variablesPattern = "${ivy.cache.dir}/" + pattern;
+    }
+
+    @Benchmark
+    public String substituteArtifact() {
+        return IvyPatternHelper.substitute(pattern, artifact);
+    }
+
+    @Benchmark
+    public String substituteVariables() {
+        return IvyPatternHelper.substituteVariables(variablesPattern, variables);
+    }
+}
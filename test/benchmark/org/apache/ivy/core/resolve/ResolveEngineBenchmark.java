@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.SyntheticRepository;
+import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolve of synthetic dependency graphs from a file system repository, with the
+ * metadata and artifacts of the modules already in the cache, as in a build run again without
+ * any change to its dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ResolveEngineBenchmark {
+    @Param({"100", "1000", "5000"})
+    private int size;
+
+    private SyntheticRepository repository;
+
+    private Ivy ivy;
+
+    private ResolveOptions options;
+
+    @Setup
+    public void setUp() throws Exception {
+        repository = new SyntheticRepository(size);
+        File dir = SyntheticRepository.getWorkDir("repositories/" + size);
+        repository.generate(dir);
+        File cache = SyntheticRepository.getWorkDir("resolve-cache/" + size);
+        FileUtil.forceDelete(cache);
+
+        ivy = Ivy.newInstance(SyntheticRepository.newSettings(dir, cache));
+        ivy.getLoggerEngine().setDefaultLogger(new DefaultMessageLogger(Message.MSG_WARN));
+        options = new ResolveOptions().setConfs(new String[] {"default"});
+        options.setLog(LogOptions.LOG_QUIET);
+        // fills the cache
+        resolve();
+    }
+
+    @Benchmark
+    public ResolveReport resolve() throws Exception {
+        ResolveReport report = ivy.resolve(repository.getRootModuleRevisionId(), options, false);
+        if (report.hasError()) {
+            throw new IllegalStateException("resolve failed: " + report.getAllProblemMessages());
+        }
+        return report;
+    }
+}
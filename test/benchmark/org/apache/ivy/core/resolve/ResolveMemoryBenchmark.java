@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.SyntheticRepository;
+import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by the report of the resolve of synthetic dependency graphs, that is
+ * mostly by the resolved graph of nodes, reported as the <code>retainedKilobytes</code> secondary
+ * result.
+ * <p>
+ * The heap used is measured after garbage collections before and after each resolve, the metadata
+ * of the modules being already cached in memory by a previous resolve.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+// the auxiliary counters are summed over the measurement iterations
+@Measurement(iterations = 1)
+public class ResolveMemoryBenchmark {
+    private static final int GC_RUNS = 3;
+
+    @Param({"1000", "5000"})
+    private int size;
+
+    private SyntheticRepository repository;
+
+    private Ivy ivy;
+
+    private ResolveOptions options;
+
+    private ResolveReport report;
+
+    /**
+     * The heap retained by the last resolve report.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long retainedKilobytes;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            retainedKilobytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        repository = new SyntheticRepository(size);
+        File dir = SyntheticRepository.getWorkDir("repositories/" + size);
+        repository.generate(dir);
+        File cache = SyntheticRepository.getWorkDir("resolve-cache/" + size);
+        FileUtil.forceDelete(cache);
+
+        ivy = Ivy.newInstance(SyntheticRepository.newSettings(dir, cache));
+        ivy.getLoggerEngine().setDefaultLogger(new DefaultMessageLogger(Message.MSG_WARN));
+        options = new ResolveOptions().setConfs(new String[] {"default"});
+        options.setLog(LogOptions.LOG_QUIET);
+        // fills the cache
+        report = resolve();
+    }
+
+    @Benchmark
+    public ResolveReport resolveRetained(RetainedHeap heap) throws Exception {
+        report = null;
+        long before = usedHeap();
+        report = resolve();
+        heap.retainedKilobytes = (usedHeap() - before) / 1024;
+        return report;
+    }
+
+    private ResolveReport resolve() throws Exception {
+        ResolveReport report = ivy.resolve(repository.getRootModuleRevisionId(), options, false);
+        if (report.hasError()) {
+            throw new IllegalStateException("resolve failed: " + report.getAllProblemMessages());
+        }
+        return report;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < GC_RUNS; i++) {
+            memory.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.settings;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the settings read for each dependency during a resolve, by several threads sharing the
+ * same settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IvySettingsBenchmark {
+    private static final int MODULES = 64;
+
+    private IvySettings settings;
+
+    private ModuleRevisionId[] mrids;
+
+    @Setup
+    public void setUp() throws ParseException, IOException {
+        settings = new IvySettings();
+        settings.loadDefault();
+        for (int i = 0; i < MODULES; i += 8) {
+            settings.addModuleConfiguration(Collections.singletonMap("organisation", "org" + i),
+                ExactPatternMatcher.INSTANCE, "public", null, null, null);
+        }
+        mrids = new ModuleRevisionId[MODULES];
+        for (int i = 0; i < MODULES; i++) {
+            mrids[i] = ModuleRevisionId.newInstance("org" + i, "module" + i, "1." + i);
+        }
+    }
+
+    @Benchmark
+    public void readSettings(Blackhole blackhole) {
+        for (ModuleRevisionId mrid : mrids) {
+            blackhole.consume(settings.getResolver(mrid));
+            blackhole.consume(settings.getConflictManager(mrid.getModuleId()));
+            blackhole.consume(settings.getDefaultBranch(mrid.getModuleId()));
+            blackhole.consume(settings.getVersionMatcher());
+            blackhole.consume(settings.substitute(mrid.getRevision()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.latest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the sort of the revisions of a module by the latest-revision strategy, as done for
+ * each dynamic revision to resolve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LatestRevisionStrategyBenchmark {
+    private static final String[] QUALIFIERS = {"", "", "", "-SNAPSHOT", "-rc", "-beta",
+            "-alpha", "-final", ".Final", "-dev"};
+
+    @Param({"100", "2000"})
+    private int revisions;
+
+    private LatestRevisionStrategy strategy;
+
+    private ArtifactInfo[] infos;
+
+    @Setup
+    public void setUp() {
+        strategy = new LatestRevisionStrategy();
+        Random random = new Random(42);
+        List<ArtifactInfo> list = new ArrayList<>();
+        for (int i = 0; i < revisions; i++) {
+            String qualifier = QUALIFIERS[random.nextInt(QUALIFIERS.length)];
+            if (qualifier.length() > 0 && random.nextBoolean()) {
+                qualifier += random.nextInt(5);
+            }
+            final String revision = random.nextInt(5) + "." + random.nextInt(20) + "."
+                    + random.nextInt(30) + qualifier;
+            list.add(new ArtifactInfo() {
+                public String getRevision() {
+                    return revision;
+                }
+
+                public long getLastModified() {
+                    return 0;
+                }
+            });
+        }
+        Collections.shuffle(list, random);
+        infos = list.toArray(new ArtifactInfo[list.size()]);
+    }
+
+    @Benchmark
+    public List<ArtifactInfo> sort() {
+        return strategy.sort(infos);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.m2;
+
+import java.io.File;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.SyntheticRepository;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.util.FileUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parse of a pom with a parent and an imported pom already in the repository cache,
+ * as done for each module of a project sharing the same parent and BOM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PomParentBenchmark {
+    private Ivy ivy;
+
+    private URL pomFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        File cache = SyntheticRepository.getWorkDir("pom-parent-cache");
+        FileUtil.forceDelete(cache);
+        ivy = new Ivy();
+        ivy.configure(new File("test/repositories/parentPom/ivysettings.xml"));
+        ivy.getSettings().setDefaultCache(cache);
+        ivy.getSettings().setDefaultResolver("parentChain");
+        // sibling1 has a parent and imports sibling2, which has the same parent
+        pomFile = new File(
+                "test/repositories/parentPom/org/apache/dm/sibling1/1.0/sibling1-1.0.pom").toURI()
+                .toURL();
+    }
+
+    @Benchmark
+    public ModuleDescriptor parseDescriptor() throws Exception {
+        ivy.pushContext();
+        try {
+            return PomModuleDescriptorParser.getInstance().parseDescriptor(ivy.getSettings(),
+                pomFile, false);
+        } finally {
+            ivy.popContext();
+        }
+    }
+}
@@ -71,12 +71,27 @@ final class LocalFileRepoOverHttp implements HttpHandler {
         if (!httpExchange.getRequestMethod().equals("GET")) {
             throw new IOException("Cannot handle " + httpExchange.getRequestMethod() + " HTTP method");
         }
+        if (!this.isPresent(localFilePath)) {
+            httpExchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        final String etag = this.getETag(localFilePath);
+        httpExchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(httpExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            httpExchange.sendResponseHeaders(304, -1);
+            return;
+        }
         final OutputStream responseStream = httpExchange.getResponseBody();
         @SuppressWarnings("unused")
         final int numBytes = this.serve(httpExchange, localFilePath, responseStream);
         responseStream.close();
     }
 
+    private String getETag(final Path localFile) throws IOException {
+        return "\"" + Files.getLastModifiedTime(localFile).toMillis() + "-" + Files.size(localFile)
+                + "\"";
+    }
+
     private boolean isPresent(final Path localFile) {
         return Files.isRegularFile(localFile);
     }
@@ -87,6 +102,23 @@ final class LocalFileRepoOverHttp implements HttpHandler {
         }
         Message.debug("Serving contents of " + localFile + " for request " + httpExchange.getRequestURI());
         final byte[] data = Files.readAllBytes(localFile);
+        final String range = httpExchange.getRequestHeaders().getFirst("Range");
+        final String ifRange = httpExchange.getRequestHeaders().getFirst("If-Range");
+        if (range != null && range.startsWith("bytes=") && range.endsWith("-")
+                && (ifRange == null || ifRange.equals(this.getETag(localFile)))) {
+            // only the ranges going up to the end of the file are supported
+            final int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            if (start >= data.length) {
+                httpExchange.getResponseHeaders().set("Content-Range", "bytes */" + data.length);
+                httpExchange.sendResponseHeaders(416, -1);
+                return 0;
+            }
+            httpExchange.getResponseHeaders().set("Content-Range",
+                    "bytes " + start + "-" + (data.length - 1) + "/" + data.length);
+            httpExchange.sendResponseHeaders(206, data.length - start);
+            os.write(data, start, data.length - start);
+            return data.length - start;
+        }
         httpExchange.sendResponseHeaders(200, data.length);
         os.write(data);
         return data.length;
@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.ant;
+
+import java.io.File;
+
+import org.apache.ivy.TestHelper;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.types.FileSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IvyResolveAllTest {
+
+    private Project project;
+
+    private IvyResolveAll resolveAll;
+
+    @Before
+    public void setUp() {
+        TestHelper.createCache();
+        project = TestHelper.newProject();
+        project.setProperty("ivy.settings.file", "test/repositories/ivysettings.xml");
+        project.setProperty("ivy.cache.dir", TestHelper.cache.getAbsolutePath());
+
+        resolveAll = new IvyResolveAll();
+        resolveAll.setProject(project);
+        resolveAll.setThreads(2);
+    }
+
+    @After
+    public void tearDown() {
+        TestHelper.cleanCache();
+    }
+
+    @Test
+    public void testResolveAll() {
+        resolveAll.addFileset(newFileSet("a/ivy.xml,c/ivy.xml"));
+        resolveAll.execute();
+
+        ResolveReport report = project.getReference("ivy.resolved.report.resolveall-a");
+        assertNotNull(report);
+        assertFalse(report.hasError());
+        assertEquals(ModuleRevisionId.newInstance("resolveall", "a", "1.0"),
+            report.getModuleDescriptor().getModuleRevisionId());
+        assertTrue(getArchiveFileInCache("org1", "mod1.1", "1.0", "mod1.1", "jar", "jar")
+                .exists());
+
+        report = project.getReference("ivy.resolved.report.resolveall.c");
+        assertNotNull(report);
+        assertEquals("resolveall-c", report.getResolveId());
+        assertTrue(getArchiveFileInCache("org1", "mod1.2", "2.0", "mod1.2", "jar", "jar")
+                .exists());
+        // no module is kept as the last resolved one
+        assertNull(project.getReference("ivy.resolved.report"));
+
+        // the reports can be used by post resolve tasks
+        IvyCachePath path = new IvyCachePath();
+        path.setProject(project);
+        path.setOrganisation("resolveall");
+        path.setModule("c");
+        path.setConf("default");
+        path.setResolveId("resolveall-c");
+        path.setPathid("resolveall-c-path");
+        path.execute();
+        assertNotNull(project.getReference("resolveall-c-path"));
+        assertEquals("1.0", project.getProperty("ivy.revision.resolveall-c"));
+        assertEquals("default", project.getProperty("ivy.resolved.configurations.resolveall-c"));
+    }
+
+    @Test(expected = BuildException.class)
+    public void testFailure() {
+        resolveAll.addFileset(newFileSet("*/ivy.xml"));
+        resolveAll.execute();
+    }
+
+    @Test
+    public void testFailureProperty() {
+        resolveAll.addFileset(newFileSet("*/ivy.xml"));
+        resolveAll.setHaltonfailure(false);
+        resolveAll.setFailureProperty("failed");
+        resolveAll.execute();
+
+        assertEquals("true", project.getProperty("failed"));
+        ResolveReport report = project.getReference("ivy.resolved.report.resolveall-b");
+        assertTrue(report.hasError());
+        report = project.getReference("ivy.resolved.report.resolveall-c");
+        assertFalse(report.hasError());
+    }
+
+    @Test(expected = BuildException.class)
+    public void testNoFileset() {
+        resolveAll.execute();
+    }
+
+    private FileSet newFileSet(String includes) {
+        FileSet fs = new FileSet();
+        fs.setDir(new File("test/resolveall"));
+        fs.setIncludes(includes);
+        return fs;
+    }
+
+    private File getArchiveFileInCache(String organisation, String module, String revision,
+            String artifact, String type, String ext) {
+        return TestHelper.getArchiveFileInCache(resolveAll.getIvyInstance(), organisation,
+            module, revision, artifact, type, ext);
+    }
+}
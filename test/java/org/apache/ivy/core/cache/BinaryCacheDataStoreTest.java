@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryCacheDataStoreTest {
+    private static final String DATA_FILE_PATTERN = "[organisation]/[module](/[branch])/ivydata-[revision].properties";
+
+    private File root = new File("build/test/binary-cache");
+
+    private BinaryCacheDataStore store;
+
+    @Before
+    public void setUp() {
+        FileUtil.forceDelete(root);
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        FileUtil.forceDelete(root);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        assertTrue(store.load("org/mod/ivydata-1.0.properties").isEmpty());
+
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "r1"), null);
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "r2"), null);
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "r3"), null);
+        assertEquals(properties("resolver", "r3"), store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+
+        // data must survive a restart
+        store.close();
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertEquals(properties("resolver", "r3"), store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+    }
+
+    @Test
+    public void testImportDataFiles() throws Exception {
+        store.close();
+        FileUtil.forceDelete(root);
+        storeDataFile("org/mod/ivydata-1.0.properties", properties("resolver", "r1"));
+        storeDataFile("org/mod/ivydata-1.0.properties.resolver",
+            properties("resolved.revision", "1.0"));
+        storeDataFile("org/mod/jars/mod-1.0.properties", properties("foo", "bar"));
+
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertEquals(properties("resolver", "r1"), store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolved.revision", "1.0"),
+            store.load("org/mod/ivydata-1.0.properties.resolver"));
+        assertTrue(store.load("org/mod/jars/mod-1.0.properties").isEmpty());
+    }
+
+    @Test
+    public void testIncompleteRecordIsIgnored() throws Exception {
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "r1"), null);
+        store.close();
+
+        // simulate a process which crashed while writing a record
+        File file = new File(root, BinaryCacheDataStore.FILE_NAME);
+        long length = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(length);
+            raf.writeInt(1000);
+            raf.writeInt(0);
+            raf.write(new byte[] {1, 2, 3});
+        }
+
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertEquals(properties("resolver", "r1"), store.load("org/mod/ivydata-1.0.properties"));
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "r2"), null);
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+    }
+
+    @Test
+    public void testCompaction() {
+        Properties data = new Properties();
+        for (int i = 0; i < 50000; i++) {
+            data.setProperty("location", "/path/to/some/artifact/in/a/repository-" + i);
+            store.save("org/mod/ivydata-1.0.properties", data, null);
+        }
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "r2"), null);
+        File file = new File(root, BinaryCacheDataStore.FILE_NAME);
+        long length = file.length();
+        store.close();
+
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertEquals(data, store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+        assertTrue(file.length() < length / 100);
+    }
+
+    @Test
+    public void testSharedStore() {
+        BinaryCacheDataStore other = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertSame(store, other);
+        other.save("org/mod/ivydata-1.0.properties", properties("resolver", "r1"), null);
+
+        // the store must stay open as long as one of its users hasn't released it
+        other.close();
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "r2"), null);
+        assertEquals(properties("resolver", "r1"), store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+    }
+
+    @Test
+    public void testDeletedStore() {
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "r1"), null);
+
+        // the cache is cleaned by another cache manager using it, and the store checks its file
+        store.setRefreshInterval(0);
+        FileUtil.forceDelete(root);
+        assertTrue(store.load("org/mod/ivydata-1.0.properties").isEmpty());
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "r2"), null);
+        assertTrue(new File(root, BinaryCacheDataStore.FILE_NAME).exists());
+        assertEquals(properties("resolver", "r2"), store.load("org/mod/ivydata-2.0.properties"));
+    }
+
+    @Test
+    public void testLargeValue() {
+        StringBuilder value = new StringBuilder();
+        while (value.length() < 100000) {
+            value.append("/path/to/some/artifact/\u00e9;");
+        }
+        store.save("org/mod/ivydata-1.0.properties", properties("location", value.toString()),
+            null);
+        store.close();
+
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        assertEquals(properties("location", value.toString()),
+            store.load("org/mod/ivydata-1.0.properties"));
+    }
+
+    @Test
+    public void testConcurrentLoadsAndSaves() throws Exception {
+        final int threads = 4;
+        final int keys = 200;
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            workers.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < keys; i++) {
+                            String key = "org/mod" + worker + "/ivydata-" + i + ".properties";
+                            store.save(key, properties("resolver", "r" + i), null);
+                            assertEquals(properties("resolver", "r" + i), store.load(key));
+                            // the records of the other workers are read while they're appended
+                            store.load("org/mod" + ((worker + 1) % threads) + "/ivydata-" + i
+                                    + ".properties");
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+
+        store.close();
+        store = BinaryCacheDataStore.getInstance(root, DATA_FILE_PATTERN);
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keys; i++) {
+                assertEquals(properties("resolver", "r" + i),
+                    store.load("org/mod" + t + "/ivydata-" + i + ".properties"));
+            }
+        }
+    }
+
+    private void storeDataFile(String path, Properties data) throws Exception {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            data.store(out, null);
+        }
+    }
+
+    private static Properties properties(String name, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(name, value);
+        return properties;
+    }
+}
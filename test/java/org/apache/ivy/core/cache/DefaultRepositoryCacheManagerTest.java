@@ -18,6 +18,7 @@
 package org.apache.ivy.core.cache;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -33,6 +34,7 @@ import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
@@ -41,6 +43,8 @@ import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.lock.CreateFileLockStrategy;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
 import org.apache.ivy.plugins.repository.ArtifactResourceResolver;
 import org.apache.ivy.plugins.repository.BasicResource;
@@ -116,6 +120,40 @@ public class DefaultRepositoryCacheManagerTest {
         assertTrue(ArtifactOrigin.isUnknown(found));
     }
 
+    @Test
+    public void testArtifactOriginWithLockHeldByAnotherProcess() throws Exception {
+        cacheManager.setLockStrategy(new CreateFileLockStrategy(false));
+        assertEquals(origin, cacheManager.getSavedArtifactOrigin(artifact));
+
+        // simulate a lock on the module metadata held by another process
+        File lockFile = new File(cacheManager.getRepositoryCacheRoot(),
+                "org/module/metadatas/metadata-rev.ivy.lck");
+        lockFile.getParentFile().mkdirs();
+        assertTrue(lockFile.createNewFile());
+        final ArtifactOrigin[] found = new ArtifactOrigin[1];
+        Thread reader = new Thread() {
+            public void run() {
+                found[0] = cacheManager.getSavedArtifactOrigin(artifact);
+            }
+        };
+        reader.start();
+        reader.join(500);
+        assertTrue("reader should wait for the lock to be released", reader.isAlive());
+
+        lockFile.delete();
+        reader.join(10000);
+        assertFalse(reader.isAlive());
+        assertEquals(origin, found[0]);
+    }
+
+    @Test
+    public void testMetadataLocksReleased() {
+        cacheManager.saveArtifactOrigin(artifact, origin);
+        assertEquals(origin, cacheManager.getSavedArtifactOrigin(artifact));
+        // the in-process locks of the metadata files no longer used are not kept
+        assertEquals(0, DefaultRepositoryCacheManager.getMetadataLockCount());
+    }
+
     @Test
     public void testUniqueness() {
         cacheManager.saveArtifactOrigin(artifact, origin);
@@ -196,6 +234,62 @@ public class DefaultRepositoryCacheManagerTest {
         assertTrue(report.getDownloadDetails().contains("is outside"));
     }
 
+    @Test
+    public void testMissingResources() {
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "rev");
+        String resource = "http://repo/org/module/rev/module-rev.pom";
+
+        // nothing is recorded without a missing TTL
+        cacheManager.saveMissing("resolver1", mrid, resource, true);
+        cacheManager.setMissingTTL("1h");
+        assertFalse(cacheManager.isKnownMissing("resolver1", mrid, resource));
+
+        cacheManager.saveMissing("resolver1", mrid, resource, true);
+        assertTrue(cacheManager.isKnownMissing("resolver1", mrid, resource));
+        assertFalse(cacheManager.isKnownMissing("resolver2", mrid, resource));
+        assertFalse(cacheManager.isKnownMissing("resolver1", mrid, resource + ".sha1"));
+
+        cacheManager.setMissingTTL(-1);
+        assertFalse(cacheManager.isKnownMissing("resolver1", mrid, resource));
+        cacheManager.setMissingTTL("1h");
+
+        cacheManager.saveMissing("resolver1", mrid, resource, false);
+        assertFalse(cacheManager.isKnownMissing("resolver1", mrid, resource));
+    }
+
+    @Test
+    public void testBinaryDescriptors() throws Exception {
+        MockResolver resolver = new MockResolver();
+        resolver.setName("resolver1");
+        resolver.setSettings(ivy.getSettings());
+        ivy.getSettings().addResolver(resolver);
+        cacheManager.setMemorySize(0);
+        cacheManager.setBinaryDescriptors(true);
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "rev");
+        File ivyFile = cacheManager.getIvyFileInCache(mrid);
+        XmlModuleDescriptorWriter.write(DefaultModuleDescriptor.newDefaultInstance(mrid),
+            ivyFile);
+        cacheManager.saveResolvers(
+            XmlModuleDescriptorParser.getInstance().parseDescriptor(ivy.getSettings(),
+                ivyFile.toURI().toURL(), false), "resolver1", "resolver1");
+        File binaryFile = new File(ivyFile.getParentFile(), "ivy-rev.bin");
+        assertFalse(binaryFile.exists());
+
+        DependencyDescriptor dd = new DefaultDependencyDescriptor(mrid, false);
+        CacheMetadataOptions options = new CacheMetadataOptions().setCheckTTL(false);
+        ResolvedModuleRevision rmr = cacheManager.findModuleInCache(dd, mrid, options, null);
+        assertEquals(mrid, rmr.getId());
+        assertTrue(binaryFile.exists());
+        long recorded = binaryFile.lastModified();
+
+        // the descriptor is now read from the binary file, which is thus not written again
+        binaryFile.setLastModified(recorded - 10000);
+        rmr = cacheManager.findModuleInCache(dd, mrid, options, null);
+        assertEquals(mrid, rmr.getId());
+        assertEquals(recorded - 10000, binaryFile.lastModified());
+    }
+
     @Test
     @Ignore
     public void testLatestIntegrationIsCachedPerResolver() throws Exception {
@@ -17,19 +17,24 @@
  */
 package org.apache.ivy.core.cache;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.ResolveData;
+import org.apache.ivy.core.resolve.ResolveOptions;
 import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.plugins.parser.ParserSettings;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.ParseException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ModuleDescriptorMemoryCacheTest {
@@ -172,6 +177,72 @@ public class ModuleDescriptorMemoryCacheTest {
         providerMock2.assertCalled();
     }
 
+    @Test
+    public void testWeightIsLimited() throws ParseException, IOException {
+        cache = new ModuleDescriptorMemoryCache(10, 250);
+        write(url1, 100);
+        write(url2, 100);
+        write(url3, 100);
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock1b = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md2);
+        ModuleDescriptorProviderMock providerMock3 = new ModuleDescriptorProviderMock(md3);
+        cache.get(url1, ivySettings, false, providerMock);
+        cache.get(url2, ivySettings, false, providerMock2);
+        assertEquals(200, cache.getWeight());
+        cache.get(url3, ivySettings, false, providerMock3); // adding 1
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.getWeight());
+        cache.get(url1, ivySettings, false, providerMock1b); // and one has been removed
+        providerMock1b.assertCalled();
+    }
+
+    @Test
+    public void testStatistics() throws ParseException, IOException {
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md2);
+        ModuleDescriptorProviderMock providerMock3 = new ModuleDescriptorProviderMock(md3);
+        cache.get(url1, ivySettings, false, providerMock);
+        cache.get(url1, ivySettings, false, null);
+        cache.get(url2, ivySettings, false, providerMock2);
+        cache.get(url1, ivySettings, false, null);
+        cache.get(url3, ivySettings, false, providerMock3);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testLastModifiedIsCheckedOncePerResolve() throws ParseException, IOException {
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md1);
+        IvyContext.pushNewContext();
+        try {
+            IvyContext.getContext().setResolveData(
+                new ResolveData(null, new ResolveOptions()));
+            assertEquals(md1, cache.get(url1, ivySettings, false, providerMock));
+            assertEquals(md1, cache.get(url1, ivySettings, false, null));
+
+            // the ivy file is not checked again during the same resolve
+            assertTrue(url1.setLastModified(url1.lastModified() + 10000));
+            assertEquals(md1, cache.get(url1, ivySettings, false, null));
+            assertFalse(providerMock2.called);
+
+            IvyContext.getContext().setResolveData(
+                new ResolveData(null, new ResolveOptions()));
+            assertEquals(md1, cache.get(url1, ivySettings, false, providerMock2));
+            providerMock2.assertCalled();
+        } finally {
+            IvyContext.popContext();
+        }
+    }
+
+    private static void write(File file, int length) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[length]);
+        }
+    }
+
     private static class ModuleDescriptorProviderMock implements ModuleDescriptorProvider {
 
         private boolean called = false;
@@ -0,0 +1,160 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.ivy.core.event.resolve.EndResolveEvent;
+import org.apache.ivy.core.event.resolve.StartResolveEvent;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.util.filter.NoFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventManagerTest {
+
+    private EventManager eventManager;
+
+    private ModuleDescriptor md;
+
+    @Before
+    public void setUp() {
+        eventManager = new EventManager();
+        md = new DefaultModuleDescriptor(ModuleRevisionId.newInstance("foo", "bar", "1.0"),
+                "integration", new Date());
+    }
+
+    @Test
+    public void testHasIvyListeners() {
+        IvyListener listener = new RecordingListener();
+        assertFalse(eventManager.hasIvyListeners(StartResolveEvent.NAME));
+
+        eventManager.addIvyListener(listener, StartResolveEvent.NAME);
+        assertTrue(eventManager.hasIvyListeners(StartResolveEvent.NAME));
+        assertFalse(eventManager.hasIvyListeners(EndResolveEvent.NAME));
+
+        eventManager.addIvyListener(listener,
+            new IvyEventFilter(EndResolveEvent.NAME, "organisation = foo", null));
+        assertTrue(eventManager.hasIvyListeners(EndResolveEvent.NAME));
+
+        eventManager.removeIvyListener(listener);
+        assertFalse(eventManager.hasIvyListeners(StartResolveEvent.NAME));
+        assertFalse(eventManager.hasIvyListeners(EndResolveEvent.NAME));
+
+        // listeners without a name filter may accept any event
+        eventManager.addIvyListener(listener);
+        assertTrue(eventManager.hasIvyListeners(EndResolveEvent.NAME));
+    }
+
+    @Test
+    public void testAsyncListener() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        RecordingListener listener = new RecordingListener() {
+            @Override
+            public void progress(IvyEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                super.progress(event);
+            }
+        };
+        eventManager.addIvyListener(listener,
+            new IvyEventFilter(null, "organisation = foo", null), true);
+
+        StartResolveEvent start = new StartResolveEvent(md, new String[] {"default"});
+        EndResolveEvent end = new EndResolveEvent(md, new String[] {"default"},
+                new ResolveReport(md));
+        // rejected by the filter
+        eventManager.fireIvyEvent(new StartResolveEvent(new DefaultModuleDescriptor(
+                ModuleRevisionId.newInstance("foo2", "bar", "1.0"), "integration", new Date()),
+                new String[] {"default"}));
+        eventManager.fireIvyEvent(start);
+        eventManager.fireIvyEvent(end);
+        // the firing thread isn't blocked by the listener
+        assertTrue(listener.events.isEmpty());
+
+        release.countDown();
+        eventManager.flushIvyListeners();
+        assertEquals(2, listener.events.size());
+        assertEquals(start, listener.events.get(0));
+        assertEquals(end, listener.events.get(1));
+        assertNotSame(Thread.currentThread(), listener.threads.get(0));
+    }
+
+    @Test
+    public void testAsyncListenerFailure() throws Exception {
+        RecordingListener listener = new RecordingListener() {
+            @Override
+            public void progress(IvyEvent event) {
+                super.progress(event);
+                if (events.size() == 1) {
+                    throw new IllegalStateException("failing listener");
+                }
+            }
+        };
+        eventManager.addIvyListener(listener, NoFilter.<IvyEvent> instance(), true);
+
+        eventManager.fireIvyEvent(new StartResolveEvent(md, new String[] {"default"}));
+        eventManager.fireIvyEvent(new StartResolveEvent(md, new String[] {"compile"}));
+        eventManager.flushIvyListeners();
+        // the failure is logged, the next events are still delivered
+        assertEquals(2, listener.events.size());
+    }
+
+    @Test
+    public void testDeferIvyEventsExceptImmediateOnes() {
+        RecordingListener listener = new RecordingListener();
+        eventManager.addIvyListener(listener);
+        StartResolveEvent start = new StartResolveEvent(md, new String[] {"default"});
+        EndResolveEvent end = new EndResolveEvent(md, new String[] {"default"},
+                new ResolveReport(md));
+
+        eventManager.deferIvyEvents(Collections.singleton(StartResolveEvent.NAME));
+        eventManager.fireIvyEvent(start);
+        eventManager.fireIvyEvent(end);
+        List<IvyEvent> deferred = eventManager.stopDeferringIvyEvents();
+
+        assertEquals(Collections.<IvyEvent> singletonList(start), listener.events);
+        assertEquals(Collections.<IvyEvent> singletonList(end), deferred);
+    }
+
+    private static class RecordingListener implements IvyListener {
+        final List<IvyEvent> events = Collections.synchronizedList(new ArrayList<IvyEvent>());
+
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        public void progress(IvyEvent event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+    }
+}
@@ -18,18 +18,40 @@
 package org.apache.ivy.core.resolve;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.cache.DefaultResolutionCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.event.IvyListener;
+import org.apache.ivy.core.event.resolve.EndResolveEvent;
+import org.apache.ivy.core.event.resolve.StartResolveDependencyEvent;
+import org.apache.ivy.core.event.resolve.StartResolveEvent;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.CachedConfigurationResolveReport;
+import org.apache.ivy.core.report.ConfigurationResolveReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
 import org.apache.ivy.plugins.resolver.FileSystemResolver;
+import org.apache.ivy.plugins.trigger.AbstractTrigger;
 import org.apache.ivy.util.CacheCleaner;
 
 import org.junit.After;
@@ -38,6 +60,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -152,6 +175,210 @@ public class ResolveEngineTest {
 
     }
 
+    @Test
+    public void testIncrementalResolve() throws Exception {
+        File ivyFile = writeIvyFile("org1", "mod1.1", "1.0");
+        ResolveOptions options = new ResolveOptions().setIncremental(true);
+        DefaultResolutionCacheManager cacheManager = (DefaultResolutionCacheManager) ivy
+                .getSettings().getResolutionCacheManager();
+
+        ResolveReport report = ivy.resolve(ivyFile.toURI().toURL(), options);
+        assertFalse(report.hasError());
+        assertFalse(isReused(report));
+        assertTrue(cacheManager.getResolveFingerprintInCache(report.getResolveId()).exists());
+
+        ResolveReport reused = ivy.resolve(ivyFile.toURI().toURL(), options);
+        assertTrue(isReused(reused));
+        assertFalse(reused.hasError());
+        assertEquals(report.getArtifacts().size(), reused.getArtifacts().size());
+        ConfigurationResolveReport expected = report.getConfigurationReport("default");
+        ConfigurationResolveReport actual = reused.getConfigurationReport("default");
+        assertEquals(expected.getModuleRevisionIds(), actual.getModuleRevisionIds());
+        assertEquals(expected.getModuleIds(), actual.getModuleIds());
+        assertEquals(expected.getArtifactsNumber(), actual.getArtifactsNumber());
+        ModuleRevisionId mrid = ModuleRevisionId.parse("org1#mod1.2;2.0");
+        assertEquals(expected.getDownloadReports(mrid)[0].getLocalFile(),
+            actual.getDownloadReports(mrid)[0].getLocalFile());
+
+        // other options
+        options.setTransitive(false);
+        assertFalse(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+        assertTrue(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+        options.setTransitive(true);
+        assertFalse(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+
+        // other descriptor
+        writeIvyFile("org1", "mod1.2", "2.0");
+        assertFalse(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+        assertTrue(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+
+        // a resolve which isn't incremental invalidates the fingerprint
+        ivy.resolve(ivyFile.toURI().toURL(), new ResolveOptions());
+        assertFalse(cacheManager.getResolveFingerprintInCache(report.getResolveId()).exists());
+        assertFalse(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+        assertTrue(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+    }
+
+    @Test
+    public void testIncrementalResolveWithMissingArtifact() throws Exception {
+        File ivyFile = writeIvyFile("org1", "mod1.2", "2.0");
+        ResolveOptions options = new ResolveOptions().setIncremental(true);
+
+        ResolveReport report = ivy.resolve(ivyFile.toURI().toURL(), options);
+        assertFalse(isReused(report));
+        File jar = report.getAllArtifactsReports()[0].getLocalFile();
+        assertTrue(jar.delete());
+
+        report = ivy.resolve(ivyFile.toURI().toURL(), options);
+        assertFalse(isReused(report));
+        assertTrue(jar.exists());
+        assertTrue(isReused(ivy.resolve(ivyFile.toURI().toURL(), options)));
+    }
+
+    @Test
+    public void testIncrementalResolveWithDynamicRevision() throws Exception {
+        File ivyFile = writeIvyFile("org1", "mod1.2", "latest.integration");
+        ResolveOptions options = new ResolveOptions().setIncremental(true);
+        DefaultResolutionCacheManager cacheManager = (DefaultResolutionCacheManager) ivy
+                .getSettings().getResolutionCacheManager();
+
+        long start = System.currentTimeMillis();
+        ResolveReport report = ivy.resolve(ivyFile.toURI().toURL(), options);
+        assertFalse(report.hasError());
+        Properties fingerprint = new Properties();
+        try (FileInputStream in = new FileInputStream(
+                cacheManager.getResolveFingerprintInCache(report.getResolveId()))) {
+            fingerprint.load(in);
+        }
+        long ttl = ((DefaultRepositoryCacheManager) ivy.getSettings()
+                .getDefaultRepositoryCacheManager()).getDefaultTTL();
+        long expiration = Long.parseLong(fingerprint.getProperty("expiration"));
+        assertTrue(expiration >= start + ttl);
+        assertTrue(expiration <= System.currentTimeMillis() + ttl);
+    }
+
+    @Test
+    public void testResolveMultipleModules() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final List<String> ended = new ArrayList<>();
+        final List<Thread> startThreads = new ArrayList<>();
+        final List<Thread> endThreads = new ArrayList<>();
+        ivy.getEventManager().addIvyListener(new IvyListener() {
+            public void progress(IvyEvent event) {
+                if (event instanceof StartResolveEvent) {
+                    synchronized (startThreads) {
+                        startThreads.add(Thread.currentThread());
+                    }
+                }
+                if (event instanceof EndResolveEvent) {
+                    synchronized (endThreads) {
+                        endThreads.add(Thread.currentThread());
+                    }
+                    ended.add(((EndResolveEvent) event).getModuleDescriptor()
+                            .getModuleRevisionId().getName());
+                }
+            }
+        });
+        ResolveOptions options = new ResolveOptions().setConfs(new String[] {"*"});
+
+        Map<ModuleDescriptor, ResolveReport> sequential = ivy.resolve(parseResolveAllModules(),
+            options, 1);
+        ended.clear();
+        startThreads.clear();
+        endThreads.clear();
+        Map<ModuleDescriptor, ResolveReport> concurrent = ivy.resolve(parseResolveAllModules(),
+            options, 3);
+
+        // the pre-resolve events are dispatched by the workers, for their triggers
+        assertEquals(3, startThreads.size());
+        assertFalse(startThreads.contains(caller));
+        assertEquals(Arrays.asList(caller, caller, caller), endThreads);
+        assertEquals(3, ended.size());
+        // b depends on a, so its resolve only starts once the one of a is over
+        assertTrue(ended.toString(), ended.indexOf("a") < ended.indexOf("b"));
+
+        assertEquals(3, concurrent.size());
+        Iterator<ResolveReport> sequentialReports = sequential.values().iterator();
+        for (ResolveReport report : concurrent.values()) {
+            ResolveReport expected = sequentialReports.next();
+            ModuleRevisionId mrid = expected.getModuleDescriptor().getModuleRevisionId();
+            assertEquals(mrid, report.getModuleDescriptor().getModuleRevisionId());
+            assertEquals(mrid.toString(), expected.hasError(), report.hasError());
+            assertEquals(mrid.toString(), expected.getAllProblemMessages(),
+                report.getAllProblemMessages());
+            assertEquals(mrid.toString(), expected.getDependencies().size(),
+                report.getDependencies().size());
+            assertEquals(mrid.toString(), expected.getArtifacts().toString(),
+                report.getArtifacts().toString());
+            // resolveall#a isn't in the repository
+            assertEquals(mrid.toString(), "b".equals(mrid.getName()), report.hasError());
+        }
+    }
+
+    /**
+     * The events which have a trigger must be dispatched while the module is being resolved,
+     * even when several modules are resolved concurrently.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testResolveMultipleModulesWithTrigger() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final List<String> dependencies = new ArrayList<>();
+        final List<Thread> triggerThreads = new ArrayList<>();
+        AbstractTrigger trigger = new AbstractTrigger() {
+            public void progress(IvyEvent event) {
+                synchronized (dependencies) {
+                    dependencies.add(((StartResolveDependencyEvent) event)
+                            .getDependencyDescriptor().getDependencyRevisionId().getName());
+                    triggerThreads.add(Thread.currentThread());
+                }
+            }
+        };
+        trigger.setEvent(StartResolveDependencyEvent.NAME);
+        ivy.getEventManager().addIvyListener(trigger, trigger.getEventFilter());
+        ResolveOptions options = new ResolveOptions().setConfs(new String[] {"*"});
+
+        ivy.resolve(parseResolveAllModules(), options, 1);
+        List<String> expected = new ArrayList<>(dependencies);
+        Collections.sort(expected);
+        dependencies.clear();
+        triggerThreads.clear();
+        ivy.resolve(parseResolveAllModules(), options, 3);
+
+        Collections.sort(dependencies);
+        assertEquals(expected, dependencies);
+        // the trigger was run by the workers, before the resolve of the dependency, rather
+        // than replayed by the calling thread once the resolve of the module was over
+        assertFalse(triggerThreads.isEmpty());
+        assertFalse(triggerThreads.contains(caller));
+    }
+
+    private List<ModuleDescriptor> parseResolveAllModules() throws Exception {
+        List<ModuleDescriptor> mds = new ArrayList<>();
+        // the order is the reverse of the dependencies, which the resolve has to follow
+        for (String module : new String[] {"b", "c", "a"}) {
+            mds.add(XmlModuleDescriptorParser.getInstance().parseDescriptor(ivy.getSettings(),
+                new File("test/resolveall/" + module + "/ivy.xml").toURI().toURL(), true));
+        }
+        return mds;
+    }
+
+    private File writeIvyFile(String org, String module, String revision) throws IOException {
+        File ivyFile = new File(cache, "incremental/ivy.xml");
+        ivyFile.getParentFile().mkdirs();
+        String content = "<ivy-module version=\"2.0\">"
+                + "<info organisation=\"apache\" module=\"incremental\" revision=\"1.0\"/>"
+                + "<dependencies><dependency org=\"" + org + "\" name=\"" + module
+                + "\" rev=\"" + revision + "\"/></dependencies></ivy-module>";
+        Files.write(ivyFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return ivyFile;
+    }
+
+    private static boolean isReused(ResolveReport report) {
+        return report.getConfigurationReport("default") instanceof CachedConfigurationResolveReport;
+    }
+
     private void testLocateThenDownload(ResolveEngine engine, Artifact artifact, File artifactFile) {
         ArtifactOrigin origin = engine.locate(artifact);
         assertNotNull(origin);
@@ -22,6 +22,11 @@ import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.deliver.DeliverOptions;
+import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.event.IvyListener;
+import org.apache.ivy.core.event.download.DownloadEvent;
+import org.apache.ivy.core.event.download.EndArtifactDownloadEvent;
+import org.apache.ivy.core.event.download.StartArtifactDownloadEvent;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -51,6 +56,7 @@ import org.apache.ivy.plugins.resolver.FileSystemResolver;
 import org.apache.ivy.util.CacheCleaner;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.MockMessageLogger;
+import org.apache.ivy.util.filter.Filter;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -2657,6 +2663,75 @@ public class ResolveTest {
         assertFalse(getArchiveFileInCache("org1", "mod1.2", "2.1", "mod1.2", "jar", "jar").exists());
     }
 
+    @Test
+    public void testResolveWithParallelDownloads() throws Exception {
+        // mod4.1 v 4.9 depends on mod3.2, mod3.1 and mod1.2: the artifacts of these modules are
+        // downloaded concurrently, but events and reports must be the same as sequentially
+        List<String> sequentialEvents = new ArrayList<>();
+        List<String> sequentialArtifacts = resolveAndRecordDownloads(1, sequentialEvents);
+
+        CacheCleaner.deleteDir(cache);
+        createCache();
+        List<String> parallelEvents = new ArrayList<>();
+        List<String> parallelArtifacts = resolveAndRecordDownloads(4, parallelEvents);
+
+        assertEquals(3, parallelArtifacts.size());
+        assertEquals(sequentialArtifacts, parallelArtifacts);
+        assertEquals(sequentialEvents, parallelEvents);
+        assertTrue(getArchiveFileInCache("org3", "mod3.2", "1.1", "mod3.2", "jar", "jar").exists());
+        assertTrue(getArchiveFileInCache("org3", "mod3.1", "1.1", "mod3.1", "jar", "jar").exists());
+        assertTrue(getArchiveFileInCache("org1", "mod1.2", "2.0", "mod1.2", "jar", "jar").exists());
+    }
+
+    private List<String> resolveAndRecordDownloads(int threads, final List<String> events)
+            throws Exception {
+        Ivy ivy = Ivy.newInstance();
+        ivy.configure(new File("test/repositories/ivysettings.xml"));
+        ivy.getSettings().setDownloadThreads(threads);
+        ivy.getEventManager().addIvyListener(new IvyListener() {
+            public void progress(IvyEvent event) {
+                events.add(event.getName() + " " + ((DownloadEvent) event).getArtifact());
+            }
+        }, new Filter<IvyEvent>() {
+            public boolean accept(IvyEvent event) {
+                return event instanceof StartArtifactDownloadEvent
+                        || event instanceof EndArtifactDownloadEvent;
+            }
+        });
+        ResolveReport report = ivy.resolve(new File("test/repositories/2/mod4.1/ivy-4.9.xml"),
+            getResolveOptions(new String[] {"default"}));
+        assertFalse(report.hasError());
+
+        // artifacts are compared by name, their publication date being the resolve date
+        List<String> artifacts = new ArrayList<>();
+        for (ArtifactDownloadReport adr : report.getConfigurationReport("default")
+                .getAllArtifactsReports()) {
+            artifacts.add(adr.getArtifact().toString());
+        }
+        return artifacts;
+    }
+
+    @Test
+    public void testResolveWithMetadataPrefetch() throws Exception {
+        // mod4.1 v 4.9 dependencies are found through a chain and a dual resolver: the ivy files
+        // prefetched in the cache must lead to the same resolution and downloads
+        Ivy ivy = Ivy.newInstance();
+        ivy.configure(new File("test/repositories/ivysettings.xml"));
+        ivy.getSettings().setPrefetchThreads(4);
+        ResolveReport report = ivy.resolve(new File("test/repositories/2/mod4.1/ivy-4.9.xml"),
+            getResolveOptions(new String[] {"*"}));
+        assertFalse(report.hasError());
+
+        ConfigurationResolveReport crr = report.getConfigurationReport("default");
+        assertEquals(3, crr.getDownloadedArtifactsReports().length);
+        assertNotNull(crr.getDependency(ModuleRevisionId.newInstance("org1", "mod1.2", "2.0")));
+        assertTrue(getIvyFileInCache(ModuleRevisionId.newInstance("org3", "mod3.2", "1.1"))
+                .exists());
+        assertTrue(getArchiveFileInCache("org3", "mod3.2", "1.1", "mod3.2", "jar", "jar").exists());
+        assertTrue(getArchiveFileInCache("org1", "mod1.2", "2.0", "mod1.2", "jar", "jar").exists());
+        assertFalse(getArchiveFileInCache("org1", "mod1.2", "2.1", "mod1.2", "jar", "jar").exists());
+    }
+
     /**
      * Test case for IVY-193.
      *
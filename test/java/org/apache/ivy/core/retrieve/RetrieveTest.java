@@ -25,6 +25,7 @@ import org.apache.ivy.core.event.IvyEvent;
 import org.apache.ivy.core.event.IvyListener;
 import org.apache.ivy.core.event.retrieve.EndRetrieveArtifactEvent;
 import org.apache.ivy.core.event.retrieve.EndRetrieveEvent;
+import org.apache.ivy.core.event.retrieve.RetrieveArtifactEvent;
 import org.apache.ivy.core.event.retrieve.StartRetrieveArtifactEvent;
 import org.apache.ivy.core.event.retrieve.StartRetrieveEvent;
 import org.apache.ivy.core.module.descriptor.Configuration;
@@ -36,6 +37,7 @@ import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.ResolveReport;
 import org.apache.ivy.core.resolve.ResolveOptions;
 import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.MockMessageLogger;
 import org.apache.tools.ant.Project;
@@ -260,6 +262,56 @@ public class RetrieveTest {
         assertEquals(1, ev.getNbUpToDate());
     }
 
+    /**
+     * Tests that a retrieve run by several threads retrieves and syncs the same files as a
+     * sequential one, with the same report and events.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testRetrieveConcurrently() throws Exception {
+        // mod4.1 v 4.9 depends on 3 modules
+        ResolveReport report = ivy.resolve(new File("test/repositories/2/mod4.1/ivy-4.9.xml"),
+            getResolveOptions(new String[] {"*"}));
+        assertFalse(report.hasError());
+        ModuleDescriptor md = report.getModuleDescriptor();
+
+        final List<String> events = new ArrayList<>();
+        ivy.getEventManager().addIvyListener(new IvyListener() {
+            public void progress(IvyEvent event) {
+                if (event instanceof RetrieveArtifactEvent) {
+                    events.add(event.getName() + " "
+                            + ((RetrieveArtifactEvent) event).getDestFile());
+                }
+            }
+        });
+        String pattern = "build/test/retrieve/[conf]/[module]/[artifact]-[revision].[ext]";
+        RetrieveReport sequentialReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setDestArtifactPattern(pattern));
+        List<String> sequentialEvents = new ArrayList<>(events);
+        assertEquals(3, sequentialReport.getNbrArtifactsCopied());
+
+        File retrieveRoot = new File("build/test/retrieve");
+        FileUtil.forceDelete(retrieveRoot);
+        File staleFile = new File(retrieveRoot, "default/mod1.2/mod1.2-1.0.jar");
+        File staleDir = new File(retrieveRoot, "stale/dir");
+        staleFile.getParentFile().mkdirs();
+        staleFile.createNewFile();
+        staleDir.mkdirs();
+        new File(staleDir, "file.jar").createNewFile();
+
+        events.clear();
+        RetrieveReport parallelReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setSync(true).setThreads(4).setDestArtifactPattern(pattern));
+        assertEquals(sequentialReport.getCopiedFiles(), parallelReport.getCopiedFiles());
+        assertEquals(sequentialEvents, events);
+        for (File file : parallelReport.getCopiedFiles()) {
+            assertTrue(file.exists());
+        }
+        assertFalse(staleFile.exists());
+        assertFalse(new File(retrieveRoot, "stale").exists());
+    }
+
     @Test
     public void testRetrieveOverwrite() throws Exception {
         // mod1.1 depends on mod1.2
@@ -283,6 +335,108 @@ public class RetrieveTest {
             file.lastModified());
     }
 
+    /**
+     * Tests that retrieve, when invoked with the "hardlink" link mode, creates hard links to the
+     * artifacts of the cache, and that retrieving a copy afterwards doesn't write to the cache.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testRetrieveWithHardLinks() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        File inCache = report.getArtifactsReports(
+            ModuleRevisionId.newInstance("org1", "mod1.2", "2.0"))[0].getLocalFile();
+        byte[] contentInCache = Files.readAllBytes(inCache.toPath());
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions()
+                .setLinkMode(RetrieveOptions.LINKMODE_HARDLINK).setDestArtifactPattern(pattern));
+        Path retrieved = Paths.get(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        assertTrue(Files.isRegularFile(retrieved, LinkOption.NOFOLLOW_LINKS));
+        // the cache and the retrieved files are both in the build directory
+        assertTrue("hard link not created", Files.isSameFile(inCache.toPath(), retrieved));
+
+        ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions()
+                .setOverwriteMode(RetrieveOptions.OVERWRITEMODE_ALWAYS)
+                .setDestArtifactPattern(pattern));
+        assertFalse("hard link not replaced", Files.isSameFile(inCache.toPath(), retrieved));
+        assertTrue(Arrays.equals(contentInCache, Files.readAllBytes(retrieved)));
+        assertTrue(Arrays.equals(contentInCache, Files.readAllBytes(inCache.toPath())));
+    }
+
+    /**
+     * Tests that retrieve, when invoked with the "clone" link mode, copies the artifacts with
+     * their last modification date.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testRetrieveWithClones() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        File inCache = report.getArtifactsReports(
+            ModuleRevisionId.newInstance("org1", "mod1.2", "2.0"))[0].getLocalFile();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions()
+                .setLinkMode(RetrieveOptions.LINKMODE_CLONE).setDestArtifactPattern(pattern));
+        File retrieved = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        assertTrue(retrieved.isFile());
+        assertFalse(Files.isSameFile(inCache.toPath(), retrieved.toPath()));
+        assertTrue(Arrays.equals(Files.readAllBytes(inCache.toPath()),
+            Files.readAllBytes(retrieved.toPath())));
+        assertEquals(inCache.lastModified(), retrieved.lastModified());
+    }
+
+    /**
+     * Tests that the "content" overwrite mode doesn't retrieve again the touched files whose
+     * content is unchanged, but retrieves the files whose content has changed.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testRetrieveOverwriteContent() throws Exception {
+        // mod2.1 depends on mod1.1 and mod1.2, whose jar isn't empty
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org2/mod2.1/ivys/ivy-0.6.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveOptions options = getRetrieveOptions()
+                .setOverwriteMode(RetrieveOptions.OVERWRITEMODE_CONTENT)
+                .setDestArtifactPattern(pattern);
+        int nbrArtifacts = ivy.retrieve(md.getModuleRevisionId(), options)
+                .getNbrArtifactsCopied();
+
+        File retrieved = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "1.0",
+            "mod1.2", "jar", "jar", "default"));
+        byte[] content = Files.readAllBytes(retrieved.toPath());
+        assertTrue(retrieved.setLastModified(retrieved.lastModified() + 60000));
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(), options);
+        assertEquals(0, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(nbrArtifacts, retrieveReport.getNbrArtifactsUpToDate());
+
+        // same size, different content
+        byte[] modified = content.clone();
+        modified[0]++;
+        Files.write(retrieved.toPath(), modified);
+        assertEquals(1, ivy.retrieve(md.getModuleRevisionId(), options).getNbrArtifactsCopied());
+        assertTrue(Arrays.equals(content, Files.readAllBytes(retrieved.toPath())));
+    }
+
     @Test
     public void testRetrieveWithSymlinks() throws Exception {
         // mod1.1 depends on mod1.2
@@ -19,9 +19,17 @@ package org.apache.ivy.core.settings;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.ivy.Ivy;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.conflict.ConflictManager;
+import org.apache.ivy.plugins.conflict.NoConflictManager;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.IBiblioResolver;
 
 import org.junit.Test;
 
@@ -106,4 +114,84 @@ public class IvySettingsTest {
         settings.setVariable("ivy", "rocks", true, "foo", "noexist");
         assertEquals("rocks", settings.getVariable("ivy"));
     }
+
+    /**
+     * The settings read without locking must reflect the modifications made after a first read.
+     */
+    @Test
+    public void testReadAfterModification() throws ParseException, IOException {
+        Ivy ivy = new Ivy();
+        ivy.configureDefault();
+        IvySettings settings = ivy.getSettings();
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "mod", "1.0");
+        ModuleId mid = mrid.getModuleId();
+        assertEquals("default", settings.getResolver(mrid).getName());
+        assertNull(settings.getDefaultBranch(mid));
+        ConflictManager defaultConflictManager = settings.getConflictManager(mid);
+        assertSame(settings.getDefaultConflictManager(), defaultConflictManager);
+        assertNull(settings.getResolver("other"));
+
+        IBiblioResolver other = new IBiblioResolver();
+        other.setName("other");
+        settings.addResolver(other);
+        NoConflictManager all = new NoConflictManager();
+        settings.addConflictManager("other-all", all);
+        settings.addModuleConfiguration(Collections.singletonMap("organisation", "org"),
+            ExactPatternMatcher.INSTANCE, "other", "trunk", "other-all", "dynamic");
+        settings.setDefaultBranch("main");
+
+        assertSame(other, settings.getResolver("other"));
+        assertSame(other, settings.getResolver(mrid));
+        assertEquals("trunk", settings.getDefaultBranch(mid));
+        assertEquals("main", settings.getDefaultBranch(new ModuleId("foo", "bar")));
+        assertSame(all, settings.getConflictManager(mid));
+        assertEquals("dynamic", settings.getResolveMode(mid));
+
+        settings.setDictatorResolver(other);
+        assertSame(other, settings.getResolver("default"));
+    }
+
+    /**
+     * The settings can be read concurrently with their modifications.
+     */
+    @Test
+    public void testConcurrentReads() throws Exception {
+        Ivy ivy = new Ivy();
+        ivy.configureDefault();
+        final IvySettings settings = ivy.getSettings();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "mod", "1.0");
+
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 10000; j++) {
+                            assertNotNull(settings.getResolver(mrid));
+                            assertNotNull(settings.getConflictManager(mrid.getModuleId()));
+                            assertNotNull(settings.getVersionMatcher());
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        for (int j = 0; j < 200; j++) {
+            settings.addModuleConfiguration(
+                Collections.singletonMap("organisation", "org" + j),
+                ExactPatternMatcher.INSTANCE, "public", null, null, null);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals("public", settings.getResolverName(
+            ModuleRevisionId.newInstance("org199", "mod", "1.0")));
+    }
 }
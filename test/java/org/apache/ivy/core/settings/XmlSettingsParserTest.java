@@ -43,6 +43,7 @@ import org.apache.ivy.plugins.version.ChainVersionMatcher;
 import org.apache.ivy.plugins.version.MavenTimedSnapshotVersionMatcher;
 import org.apache.ivy.plugins.version.MockVersionMatcher;
 import org.apache.ivy.plugins.version.VersionMatcher;
+import org.apache.ivy.util.url.HttpClientConfig;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -769,6 +770,31 @@ public class XmlSettingsParserTest {
 
     }
 
+    /**
+     * Tests that the <code>http-client</code> element in a Ivy settings file configures the
+     * connections of the HTTP handler.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testHttpClient() throws Exception {
+        final IvySettings settings = new IvySettings();
+        final XmlSettingsParser parser = new XmlSettingsParser(settings);
+        try {
+            parser.parse(XmlSettingsParserTest.class.getResource("ivysettings-http-client.xml"));
+
+            final HttpClientConfig config = HttpClientConfig.INSTANCE;
+            assertEquals(50, config.getMaxConnections());
+            assertEquals(10, config.getMaxConnectionsPerRoute());
+            assertEquals(30000, config.getIdleTimeout());
+            assertEquals(600000, config.getConnectionTTL());
+            assertEquals(0, config.getSendBufferSize());
+            assertEquals(65536, config.getReceiveBufferSize());
+        } finally {
+            HttpClientConfig.INSTANCE.reset();
+        }
+    }
+
     public static class MyOutputter implements ReportOutputter {
         public void output(ResolveReport report, ResolutionCacheManager cacheMgr,
                            ResolveOptions options) {
@@ -20,6 +20,7 @@ package org.apache.ivy.core.sort;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -37,7 +38,9 @@ import org.apache.ivy.plugins.version.LatestVersionMatcher;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class SortTest {
@@ -266,6 +269,77 @@ public class SortTest {
         nonMatchingVersionReporterMock.validate();
     }
 
+    /**
+     * The modules of a level only depend on modules of the previous levels, the modules of a loop
+     * being in the same level.
+     */
+    @Test
+    public void testSortByLevel() {
+        DefaultModuleDescriptor md5 = createModuleDescriptorToSort("md5", "rev5");
+        addDependency(md2, "md1", "rev1");
+        addDependency(md3, "md1", "rev1");
+        addDependency(md3, "md4", "rev4");
+        addDependency(md4, "md3", "rev3");
+        addDependency(md5, "md2", "rev2");
+        addDependency(md5, "md4", "rev4");
+
+        List<List<ModuleDescriptor>> levels = sortEngine.sortModuleDescriptorsByLevel(
+            Arrays.<ModuleDescriptor> asList(md5, md4, md3, md2, md1), SortOptions.SILENT);
+        assertEquals(3, levels.size());
+        assertEquals(Arrays.asList(md1), levels.get(0));
+        assertEquals(3, levels.get(1).size());
+        assertTrue(levels.get(1).containsAll(Arrays.asList(md2, md3, md4)));
+        assertEquals(Arrays.asList(md5), levels.get(2));
+    }
+
+    /**
+     * Sorting a long chain of dependencies must not overflow the stack.
+     */
+    @Test
+    public void testSortLongChain() {
+        final int size = 20000;
+        List<ModuleDescriptor> toSort = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DefaultModuleDescriptor md = createModuleDescriptorToSort("chain" + i, "1");
+            if (i > 0) {
+                addDependency(md, "chain" + (i - 1), "1");
+            }
+            toSort.add(md);
+        }
+        List<ModuleDescriptor> reversed = new ArrayList<>(toSort);
+        Collections.reverse(reversed);
+
+        assertEquals(toSort, sortModuleDescriptors(reversed, nonMatchReporter));
+        assertEquals(size, sortEngine.sortModuleDescriptorsByLevel(reversed, SortOptions.SILENT)
+                .size());
+    }
+
+    /**
+     * A module depending on itself is reported as a circular dependency.
+     */
+    @Test
+    public void testSelfDependencyReport() {
+        addDependency(md2, "md2", "rev2");
+        addDependency(md2, "md1", "rev1");
+
+        final List<ModuleRevisionId[]> loops = new ArrayList<>();
+        settings.setCircularDependencyStrategy(new CircularDependencyStrategy() {
+            public String getName() {
+                return "CircularDependencyReporterMock";
+            }
+
+            public void handleCircularDependency(ModuleRevisionId[] mrids) {
+                loops.add(mrids);
+            }
+        });
+
+        assertEquals(Arrays.asList(md1, md2),
+            sortModuleDescriptors(Arrays.<ModuleDescriptor> asList(md2, md1), nonMatchReporter));
+        assertEquals(1, loops.size());
+        assertArrayEquals(new ModuleRevisionId[] {md2.getModuleRevisionId(),
+                md2.getModuleRevisionId()}, loops.get(0));
+    }
+
     private List<ModuleDescriptor> sortModuleDescriptors(List<ModuleDescriptor> toSort,
             NonMatchingVersionReporter nonMatchingVersionReporter) {
         return sortEngine.sortModuleDescriptors(toSort,
@@ -17,13 +17,18 @@
  */
 package org.apache.ivy.plugins.latest;
 
+import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -90,6 +95,95 @@ public class LatestRevisionStrategyTest {
         assertEquals(Arrays.asList(revs), shuffled);
     }
 
+    /**
+     * Tests that revisions are ordered as they were when they were split with regular expressions
+     * on each comparison.
+     */
+    @Test
+    public void testParsedRevisionOrdering() {
+        String[] fragments = {"", "0", "1", "01", "10", "2", "a", "B", "rc", "RC", "final", "dev",
+                "alpha", "SNAPSHOT", ".", "..", "_", "-", "+", "-rc", "beta2", "1a", "a1"};
+        LatestRevisionStrategy strategy = new LatestRevisionStrategy();
+        Comparator<ModuleRevisionId> comparator = strategy.new MridComparator();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            ModuleRevisionId mrid1 = ModuleRevisionId.newInstance("org", "mod",
+                randomRevision(fragments, random));
+            ModuleRevisionId mrid2 = ModuleRevisionId.newInstance("org", "mod",
+                randomRevision(fragments, random));
+            assertEquals(mrid1.getRevision() + " <> " + mrid2.getRevision(),
+                regexCompare(strategy, mrid1.getRevision(), mrid2.getRevision()),
+                comparator.compare(mrid1, mrid2));
+        }
+    }
+
+    @Test
+    public void testLongNumbers() {
+        Comparator<ModuleRevisionId> comparator = new LatestRevisionStrategy().new MridComparator();
+        assertEquals(-1, comparator.compare(ModuleRevisionId.newInstance("org", "mod", "1.9"),
+            ModuleRevisionId.newInstance("org", "mod", "1.20231231235959000000")));
+        assertEquals(1, comparator.compare(
+            ModuleRevisionId.newInstance("org", "mod", "1.20231231235959000001"),
+            ModuleRevisionId.newInstance("org", "mod", "1.020231231235959000000")));
+    }
+
+    private static String randomRevision(String[] fragments, Random random) {
+        StringBuilder revision = new StringBuilder();
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            revision.append(fragments[random.nextInt(fragments.length)]);
+        }
+        return revision.toString();
+    }
+
+    /**
+     * The comparison of revisions as it was implemented with regular expressions.
+     */
+    private static int regexCompare(LatestRevisionStrategy strategy, String rev1, String rev2) {
+        rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+        rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+        rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+        rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+
+        String[] parts1 = rev1.split("[\\._\\-\\+]");
+        String[] parts2 = rev2.split("[\\._\\-\\+]");
+
+        int i = 0;
+        for (; i < parts1.length && i < parts2.length; i++) {
+            if (parts1[i].equals(parts2[i])) {
+                continue;
+            }
+            boolean is1Number = parts1[i].matches("\\d+");
+            boolean is2Number = parts2[i].matches("\\d+");
+            if (is1Number && !is2Number) {
+                return 1;
+            }
+            if (is2Number && !is1Number) {
+                return -1;
+            }
+            if (is1Number && is2Number) {
+                return Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i]));
+            }
+            Map<String, Integer> specialMeanings = strategy.getSpecialMeanings();
+            Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
+            Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
+            if (sm1 != null) {
+                return sm1.compareTo(sm2 == null ? 0 : sm2);
+            }
+            if (sm2 != null) {
+                return Integer.valueOf(0).compareTo(sm2);
+            }
+            return parts1[i].compareTo(parts2[i]);
+        }
+        if (i < parts1.length) {
+            return parts1[i].matches("\\d+") ? 1 : -1;
+        }
+        if (i < parts2.length) {
+            return parts2[i].matches("\\d+") ? -1 : 1;
+        }
+        return 0;
+    }
+
     private static class MockArtifactInfo implements ArtifactInfo {
 
         private long lastModified;
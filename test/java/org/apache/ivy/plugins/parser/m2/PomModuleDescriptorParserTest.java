@@ -40,6 +40,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ivy.Ivy;
+import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.DependencyArtifactDescriptor;
@@ -56,7 +58,9 @@ import org.apache.ivy.plugins.parser.AbstractModuleDescriptorParserTester;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParserTest;
 import org.apache.ivy.plugins.repository.url.URLResource;
+import org.apache.ivy.plugins.resolver.ChainResolver;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.FileSystemResolver;
 import org.apache.ivy.plugins.resolver.MockResolver;
 import org.junit.After;
 import org.junit.Before;
@@ -1289,6 +1293,153 @@ public class PomModuleDescriptorParserTest extends AbstractModuleDescriptorParse
         }
     }
 
+    /**
+     * Tests that the parent and imported poms found in the repository cache are reused by the
+     * following parses, as long as their cached file isn't modified.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testEffectivePomCache() throws Exception {
+        Ivy ivy = new Ivy();
+        ivy.configure(new File("test/repositories/parentPom/ivysettings.xml"));
+        ivy.getSettings().setDefaultResolver("parentChain");
+        // sibling1 has a parent and imports sibling2, which has the same parent
+        URL pom = new File(
+                "test/repositories/parentPom/org/apache/dm/sibling1/1.0/sibling1-1.0.pom").toURI()
+                .toURL();
+        PomModuleDescriptorParser parser = PomModuleDescriptorParser.getInstance();
+        TestHelper.createCache();
+        ivy.pushContext();
+        try {
+            ModuleDescriptor md = parser.parseDescriptor(ivy.getSettings(), pom, false);
+            List<String> dependencyMgts = getDependencyMgts(md);
+
+            long hits = parser.getEffectivePomCacheHitCount();
+            md = parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(hits + 2, parser.getEffectivePomCacheHitCount());
+            assertEquals(dependencyMgts, getDependencyMgts(md));
+
+            TestHelper.cleanCache();
+            long misses = parser.getEffectivePomCacheMissCount();
+            md = parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(misses + 2, parser.getEffectivePomCacheMissCount());
+            assertEquals(dependencyMgts, getDependencyMgts(md));
+        } finally {
+            ivy.popContext();
+            TestHelper.cleanCache();
+        }
+    }
+
+    /**
+     * The effective poms of modules which may change while keeping their revision must not be
+     * taken from the cache.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testEffectivePomCacheCheckmodified() throws Exception {
+        Ivy ivy = new Ivy();
+        ivy.configure(new File("test/repositories/parentPom/ivysettings.xml"));
+        ivy.getSettings().setDefaultResolver("parentChain");
+        ((ChainResolver) ivy.getSettings().getResolver("parentChain")).setCheckmodified(true);
+        URL pom = new File(
+                "test/repositories/parentPom/org/apache/dm/sibling1/1.0/sibling1-1.0.pom").toURI()
+                .toURL();
+        PomModuleDescriptorParser parser = PomModuleDescriptorParser.getInstance();
+        TestHelper.createCache();
+        ivy.pushContext();
+        try {
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            long hits = parser.getEffectivePomCacheHitCount();
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(hits, parser.getEffectivePomCacheHitCount());
+        } finally {
+            ivy.popContext();
+            TestHelper.cleanCache();
+        }
+    }
+
+    /**
+     * The effective poms of modules which may change while keeping their revision must not be
+     * taken from the cache, even when it's a resolver of the chain which checks them.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testEffectivePomCacheCheckmodifiedInChain() throws Exception {
+        Ivy ivy = new Ivy();
+        ivy.configure(new File("test/repositories/parentPom/ivysettings.xml"));
+        ivy.getSettings().setDefaultResolver("parentChain");
+        ((FileSystemResolver) ivy.getSettings().getResolver("m2")).setCheckmodified(true);
+        URL pom = new File(
+                "test/repositories/parentPom/org/apache/dm/sibling1/1.0/sibling1-1.0.pom").toURI()
+                .toURL();
+        PomModuleDescriptorParser parser = PomModuleDescriptorParser.getInstance();
+        TestHelper.createCache();
+        ivy.pushContext();
+        try {
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            long hits = parser.getEffectivePomCacheHitCount();
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(hits, parser.getEffectivePomCacheHitCount());
+        } finally {
+            ivy.popContext();
+            TestHelper.cleanCache();
+        }
+    }
+
+    /**
+     * The effective pom of a parent must be looked up again when the pom it inherits from is
+     * modified in the repository cache.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testEffectivePomCacheModifiedGrandParent() throws Exception {
+        Ivy ivy = new Ivy();
+        ivy.configure(new File("test/repositories/parentPom/ivysettings.xml"));
+        ivy.getSettings().setDefaultResolver("parentChain");
+        // test 2.0 has parent 2.0 as parent, which has parent2 as parent
+        URL pom = new File("test/repositories/parentPom/org/apache/dm/test/2.0/test-2.0.pom")
+                .toURI().toURL();
+        PomModuleDescriptorParser parser = PomModuleDescriptorParser.getInstance();
+        TestHelper.createCache();
+        ivy.pushContext();
+        try {
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            long hits = parser.getEffectivePomCacheHitCount();
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(hits + 1, parser.getEffectivePomCacheHitCount());
+
+            File grandParentDir = new File(ivy.getSettings().getDefaultCache(),
+                    "org.apache.dm/parent2");
+            File[] files = grandParentDir.listFiles();
+            assertNotNull(files);
+            for (File file : files) {
+                assertTrue(file.setLastModified(file.lastModified() - 60000));
+            }
+            hits = parser.getEffectivePomCacheHitCount();
+            long misses = parser.getEffectivePomCacheMissCount();
+            parser.parseDescriptor(ivy.getSettings(), pom, false);
+            assertEquals(hits, parser.getEffectivePomCacheHitCount());
+            assertEquals(misses + 1, parser.getEffectivePomCacheMissCount());
+        } finally {
+            ivy.popContext();
+            TestHelper.cleanCache();
+        }
+    }
+
+    private static List<String> getDependencyMgts(ModuleDescriptor md) {
+        List<String> dependencyMgts = new ArrayList<>();
+        for (PomDependencyMgt dep : PomModuleDescriptorBuilder.getDependencyManagements(md)) {
+            dependencyMgts.add(dep.getGroupId() + ":" + dep.getArtifactId() + ":"
+                    + dep.getVersion() + ":" + dep.getScope());
+        }
+        Collections.sort(dependencyMgts);
+        return dependencyMgts;
+    }
+
     private static String chooseSomeEnvVar() {
         final Map<String, String> env = System.getenv();
         for (final Map.Entry<String, String> entry : env.entrySet()) {
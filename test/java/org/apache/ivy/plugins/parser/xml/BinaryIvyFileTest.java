@@ -0,0 +1,152 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.xml;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.RandomAccessFile;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryIvyFileTest {
+    private File dir = new File("test/java/org/apache/ivy/plugins/parser/xml");
+
+    private File work = new File("build/test/binary-ivy-file");
+
+    private IvySettings settings;
+
+    @Before
+    public void setUp() {
+        Message.setDefaultLogger(new DefaultMessageLogger(Message.MSG_ERR));
+
+        settings = new IvySettings();
+        settings.setDefaultCache(new File("build/cache"));
+        work.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(work);
+    }
+
+    @Test
+    public void testSameModuleDescriptors() throws Exception {
+        String[] names = dir.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".xml");
+            }
+        });
+        assertNotNull(names);
+        Arrays.sort(names);
+        for (String name : names) {
+            File ivyFile = new File(dir, name);
+            String expected = write(parse(ivyFile, null, true), "expected");
+            if (expected == null) {
+                continue;
+            }
+            File binaryFile = new File(work, name + ".bin");
+            assertEquals(name, expected, write(parse(ivyFile, binaryFile, true), "recorded"));
+            assertTrue(name, binaryFile.exists());
+            assertNotNull(name, BinaryIvyFile.load(binaryFile, ivyFile, true));
+            assertEquals(name, expected, write(parse(ivyFile, binaryFile, true), "replayed"));
+        }
+    }
+
+    @Test
+    public void testOutOfDate() throws Exception {
+        File ivyFile = new File(work, "ivy.xml");
+        FileUtil.copy(new File(dir, "test.xml"), ivyFile, null);
+        File binaryFile = new File(work, "ivy.bin");
+
+        parse(ivyFile, binaryFile, false);
+        assertNotNull(BinaryIvyFile.load(binaryFile, ivyFile, false));
+        // the recorded parse didn't validate the ivy file
+        assertNull(BinaryIvyFile.load(binaryFile, ivyFile, true));
+
+        parse(ivyFile, binaryFile, true);
+        assertNotNull(BinaryIvyFile.load(binaryFile, ivyFile, true));
+        assertNotNull(BinaryIvyFile.load(binaryFile, ivyFile, false));
+
+        assertTrue(ivyFile.setLastModified(ivyFile.lastModified() - 10000));
+        assertNull(BinaryIvyFile.load(binaryFile, ivyFile, false));
+    }
+
+    @Test
+    public void testCorruptedBinaryFile() throws Exception {
+        File ivyFile = new File(dir, "test.xml");
+        File binaryFile = new File(work, "ivy.bin");
+        String expected = write(parse(ivyFile, binaryFile, false), "expected");
+
+        try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+            // replace the first event by an unknown one
+            raf.seek(BinaryIvyFile.HEADER_LENGTH);
+            raf.write(42);
+        }
+        assertEquals(expected, write(parse(ivyFile, binaryFile, false), "corrupted"));
+        assertNotNull(BinaryIvyFile.load(binaryFile, ivyFile, false));
+
+        try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        assertNull(BinaryIvyFile.load(binaryFile, ivyFile, false));
+        assertEquals(expected, write(parse(ivyFile, binaryFile, false), "truncated"));
+        for (String name : work.list()) {
+            assertFalse(name, name.endsWith(".part"));
+        }
+    }
+
+    private ModuleDescriptor parse(File ivyFile, File binaryFile, boolean validate)
+            throws Exception {
+        try {
+            if (binaryFile == null) {
+                return XmlModuleDescriptorParser.getInstance().parseDescriptor(settings,
+                    ivyFile.toURI().toURL(), validate);
+            }
+            return XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, ivyFile,
+                binaryFile, validate);
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+
+    private String write(ModuleDescriptor md, String name) throws Exception {
+        if (md == null) {
+            return null;
+        }
+        File file = new File(work, name + ".xml");
+        XmlModuleDescriptorWriter.write(md, file);
+        return FileUtil.readEntirely(file) + md.getLastModified()
+                + md.getExtraAttributesNamespaces()
+                + md.getModuleRevisionId().getQualifiedExtraAttributes();
+    }
+}
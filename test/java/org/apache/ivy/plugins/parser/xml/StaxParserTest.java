@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.xml;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.net.URL;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StaxParserTest {
+    private File dir = new File("test/java/org/apache/ivy/plugins/parser/xml");
+
+    private File work = new File("build/test/stax-parser");
+
+    private IvySettings saxSettings;
+
+    private IvySettings staxSettings;
+
+    @Before
+    public void setUp() {
+        Message.setDefaultLogger(new DefaultMessageLogger(Message.MSG_ERR));
+
+        saxSettings = new IvySettings();
+        saxSettings.setDefaultCache(new File("build/cache"));
+        staxSettings = new IvySettings();
+        staxSettings.setDefaultCache(new File("build/cache"));
+        staxSettings.setVariable(XmlModuleDescriptorParser.PARSER_VARIABLE,
+            XmlModuleDescriptorParser.STAX_PARSER);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(work);
+    }
+
+    @Test
+    public void testParserSelection() {
+        XmlModuleDescriptorParser parser = XmlModuleDescriptorParser.getInstance();
+        assertEquals(XmlModuleDescriptorParser.Parser.class,
+            parser.newParser(saxSettings).getClass());
+        assertEquals(StaxParser.class, parser.newParser(staxSettings).getClass());
+    }
+
+    @Test
+    public void testSameModuleDescriptors() throws Exception {
+        String[] names = dir.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".xml");
+            }
+        });
+        assertNotNull(names);
+        Arrays.sort(names);
+        for (String name : names) {
+            URL url = new File(dir, name).toURI().toURL();
+            assertSameModuleDescriptor(url, true);
+            assertSameModuleDescriptor(url, false);
+        }
+    }
+
+    @Test
+    public void testValidationErrors() throws Exception {
+        URL url = new File(dir, "test-novalidate.xml").toURI().toURL();
+        String saxMessage = parseError(saxSettings, url);
+        String staxMessage = parseError(staxSettings, url);
+        assertTrue(staxMessage, staxMessage.contains("unknown tag mytag"));
+        assertEquals(saxMessage, staxMessage);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testMalformedDescriptor() throws Exception {
+        File file = new File(work, "malformed.xml");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(),
+            "<ivy-module version=\"2.0\"><info organisation=\"org\"".getBytes("UTF-8"));
+        XmlModuleDescriptorParser.getInstance().parseDescriptor(staxSettings,
+            file.toURI().toURL(), false);
+    }
+
+    private void assertSameModuleDescriptor(URL url, boolean validate) throws Exception {
+        String expected = write(saxSettings, url, validate, "sax");
+        String actual = write(staxSettings, url, validate, "stax");
+        assertEquals(url + " validate=" + validate, expected, actual);
+    }
+
+    private String write(IvySettings settings, URL url, boolean validate, String name)
+            throws Exception {
+        ModuleDescriptor md;
+        try {
+            md = XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, url, validate);
+        } catch (ParseException ex) {
+            return "failure";
+        }
+        File file = new File(work, name + ".xml");
+        XmlModuleDescriptorWriter.write(md, file);
+        return FileUtil.readEntirely(file) + md.getExtraAttributesNamespaces()
+                + md.getModuleRevisionId().getQualifiedExtraAttributes();
+    }
+
+    private String parseError(IvySettings settings, URL url) throws Exception {
+        try {
+            XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, url, true);
+            fail("validation errors expected in " + url);
+            return null;
+        } catch (ParseException ex) {
+            return ex.getMessage();
+        }
+    }
+}
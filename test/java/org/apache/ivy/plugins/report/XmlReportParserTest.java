@@ -22,6 +22,7 @@ import java.io.File;
 import org.apache.ivy.Ivy;
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.ResolveReport;
 import org.apache.ivy.core.resolve.ResolveOptions;
 import org.junit.After;
@@ -30,6 +31,9 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class XmlReportParserTest {
 
@@ -65,6 +69,34 @@ public class XmlReportParserTest {
         assertEquals("Resolved module doesn't equals parsed module", modRevId, parsedModRevId);
     }
 
+    /**
+     * The reports parsed by several parsers must be parsed only once, as long as their file
+     * doesn't change.
+     */
+    @Test
+    public void testParsedReportReused() throws Exception {
+        ivy.resolve(new File("test/repositories/1/org1/mod1.4/ivys/ivy-1.0.2.xml"),
+            getResolveOptions(new String[] {"default"}).setResolveId("testParsedReportReused"));
+        File reportFile = ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+            "testParsedReportReused", "default");
+
+        XmlReportParser parser = new XmlReportParser();
+        parser.parse(reportFile);
+        ArtifactDownloadReport[] reports = parser.getArtifactReports();
+        assertTrue(reports.length > 0);
+
+        XmlReportParser other = new XmlReportParser();
+        other.parse(reportFile);
+        assertSame("parsed report not reused", reports[0], other.getArtifactReports()[0]);
+
+        // a modified report is parsed again
+        assertTrue(reportFile.setLastModified(reportFile.lastModified() - 2000));
+        other.parse(reportFile);
+        assertNotSame("modified report not parsed again", reports[0],
+            other.getArtifactReports()[0]);
+        assertEquals(reports[0].getArtifact(), other.getArtifactReports()[0].getArtifact());
+    }
+
     private ResolveOptions getResolveOptions(String[] confs) {
         return new ResolveOptions().setConfs(confs);
     }
@@ -20,6 +20,7 @@ package org.apache.ivy.plugins.resolver;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -223,6 +224,34 @@ public class FileSystemResolverTest extends AbstractDependencyResolverTest {
         resolver.reportFailure();
     }
 
+    @Test
+    public void testMissingTTL() throws Exception {
+        cacheManager.setMissingTTL("1h");
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(IVY_PATTERN);
+        resolver.addArtifactPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]");
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("myorg", "mymodule", "1.0");
+        assertNull(resolver.getDependency(new DefaultDependencyDescriptor(mrid, false), data));
+
+        // the module published since then isn't looked for until the missing TTL expires
+        File ivyFile = new File("test/repositories/1/myorg/mymodule/ivys/ivy-1.0.xml");
+        ivyFile.getParentFile().mkdirs();
+        try (FileWriter writer = new FileWriter(ivyFile)) {
+            writer.write("<ivy-module version=\"2.0\"><info organisation=\"myorg\""
+                    + " module=\"mymodule\" revision=\"1.0\"/></ivy-module>");
+        }
+        assertNull(resolver.getDependency(new DefaultDependencyDescriptor(mrid, false), data));
+
+        // unless the resolve is a refresh
+        ResolveData refreshData = new ResolveData(engine, new ResolveOptions().setRefresh(true));
+        assertNotNull(resolver.getDependency(new DefaultDependencyDescriptor(mrid, false),
+            refreshData));
+    }
+
     @Test
     public void testChecksum() throws Exception {
         FileSystemResolver resolver = new FileSystemResolver();
@@ -18,8 +18,11 @@
 package org.apache.ivy.plugins.resolver;
 
 import java.io.File;
+import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 
+import org.apache.ivy.TestHelper;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
@@ -36,6 +39,8 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class Maven2LocalTest {
     private IvySettings settings;
@@ -88,6 +93,87 @@ public class Maven2LocalTest {
         assertEquals(ModuleRevisionId.newInstance("org.apache", "test-metadata", "1.2"), m.getId());
     }
 
+    @Test
+    public void testMetadataKeptInCache() throws Exception {
+        InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        String contextRoot = "/testMetadataKeptInCache";
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+            contextRoot, new File("test/repositories/m2").toPath())) {
+            IBiblioResolver resolver = maven2Resolver();
+            resolver.setRoot("http://localhost:" + serverBindAddr.getPort() + contextRoot + "/");
+            getCacheManager().setDefaultTTL(0);
+            File metadata = new File(cache,
+                    "maven-metadata/maven2/org/apache/test-metadata/maven-metadata.xml");
+
+            for (int i = 0; i < 2; i++) {
+                ResolvedModuleRevision m = resolver.getDependency(new DefaultDependencyDescriptor(
+                        ModuleRevisionId.newInstance("org.apache", "test-metadata",
+                            "latest.integration"), false), data);
+
+                assertNotNull(m);
+                assertEquals(ModuleRevisionId.newInstance("org.apache", "test-metadata", "1.1"),
+                    m.getId());
+                assertTrue(metadata.isFile());
+                assertTrue(new File(metadata.getPath() + ".validators").isFile());
+                // revalidated, and not downloaded again, the second time
+                metadata.setLastModified(1000);
+            }
+            assertEquals(1000, metadata.lastModified());
+        }
+    }
+
+    @Test
+    public void testMetadataNotRequestedWithinTTL() throws Exception {
+        InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        String contextRoot = "/testMetadataNotRequestedWithinTTL";
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+            contextRoot, new File("test/repositories/m2").toPath())) {
+            IBiblioResolver resolver = maven2Resolver();
+            resolver.setRoot("http://localhost:" + serverBindAddr.getPort() + contextRoot + "/");
+            getCacheManager().setDefaultTTL(60000);
+            DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                    ModuleRevisionId.newInstance("org.apache", "test-metadata",
+                        "latest.integration"), false);
+            File validators = new File(cache,
+                    "maven-metadata/maven2/org/apache/test-metadata/maven-metadata.xml.validators");
+
+            assertNotNull(resolver.getDependency(dd, data));
+            assertTrue(validators.isFile());
+            validators.setLastModified(1000);
+
+            // downloaded recently enough to be used without any request
+            forgetResolvedRevisions();
+            ResolvedModuleRevision m = resolver.getDependency(dd, data);
+            assertNotNull(m);
+            assertEquals(ModuleRevisionId.newInstance("org.apache", "test-metadata", "1.1"),
+                m.getId());
+            assertEquals(1000, validators.lastModified());
+
+            // once the TTL has expired, the metadata is revalidated
+            getCacheManager().setDefaultTTL(0);
+            forgetResolvedRevisions();
+            assertNotNull(resolver.getDependency(dd, data));
+            assertTrue(validators.lastModified() > 1000);
+        }
+    }
+
+    private void forgetResolvedRevisions() {
+        File[] files = new File(cache, "org.apache/test-metadata").listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith("ivydata-")) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private DefaultRepositoryCacheManager getCacheManager() {
+        return (DefaultRepositoryCacheManager) settings.getDefaultRepositoryCacheManager();
+    }
+
     private IBiblioResolver maven2Resolver() throws MalformedURLException {
         IBiblioResolver resolver = new IBiblioResolver();
         resolver.setSettings(settings);
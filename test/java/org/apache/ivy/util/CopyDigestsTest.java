@@ -0,0 +1,79 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CopyDigestsTest {
+
+    private final File file = new File("test/repositories/checksums/allright/allright-1.0.jar");
+
+    @After
+    public void tearDown() {
+        FileUtil.setCopyDigests(null);
+    }
+
+    @Test
+    public void testDigestsComputedWhileCopying() throws Exception {
+        CopyDigests digests = new CopyDigests("md5", "sha1", "SHA-256");
+        FileUtil.setCopyDigests(digests);
+        File copy = File.createTempFile("ivytest", ".jar");
+        try {
+            FileUtil.copy(file, copy, null, true);
+            assertTrue(digests.isDigestOf(copy));
+            for (String algorithm : new String[] {"md5", "sha1", "SHA-256"}) {
+                assertEquals(ChecksumHelper.computeAsString(file, algorithm),
+                    digests.getChecksum(algorithm));
+            }
+        } finally {
+            copy.delete();
+        }
+    }
+
+    @Test
+    public void testEachCopyStartsOver() throws Exception {
+        CopyDigests digests = new CopyDigests("sha1");
+        FileUtil.setCopyDigests(digests);
+        FileUtil.copy(new ByteArrayInputStream(new byte[] {1, 2, 3}),
+            new ByteArrayOutputStream(), null);
+        String first = digests.getChecksum("sha1");
+        FileUtil.copy(new ByteArrayInputStream(new byte[] {4, 5}), new ByteArrayOutputStream(),
+            null);
+        assertFalse(first.equals(digests.getChecksum("sha1")));
+        assertFalse(digests.isDigestOf(file));
+    }
+
+    @Test
+    public void testNoDigestWithoutCopy() {
+        assertFalse(new CopyDigests("sha1").isDigestOf(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAlgorithm() {
+        new CopyDigests("sha1").getChecksum("md5");
+    }
+}
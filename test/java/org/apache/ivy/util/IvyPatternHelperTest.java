@@ -18,12 +18,14 @@
 package org.apache.ivy.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.IvyPatternTemplate;
 import org.junit.Test;
 
 public class IvyPatternHelperTest {
@@ -170,5 +172,36 @@ public class IvyPatternHelperTest {
         IvyPatternHelper.substitute(pattern, "org", "module", "revision/", "artifact", "type", "./ext", "conf");
     }
 
+    @Test
+    public void testTemplate() {
+        String pattern = "lib/[organisation]/[module](/[branch])/[artifact](-[classifier])"
+                + "(-[revision]).[ext]";
+        IvyPatternTemplate template = IvyPatternTemplate.compile(pattern);
+        assertSame(template, IvyPatternTemplate.compile(pattern));
+
+        Map<String, String> extra = Collections.singletonMap("m:classifier", "sources");
+        assertEquals("lib/apache/ivy/ivy-sources-2.5.jar", template.substitute("apache", "ivy",
+            null, "2.5", null, null, null, null, null, null, extra));
+        assertEquals("lib/apache/ivy/trunk/ivy.xml", template.substitute("apache", "ivy",
+            "trunk", null, null, "ivy", "xml", null, null, null, null));
 
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("organisation", "org.apache");
+        tokens.put("revision", "");
+        assertEquals("lib/org/apache/[module]/[artifact].[ext]",
+            IvyPatternTemplate.compile("lib/[orgPath]/[module](-[revision])/[artifact].[ext]")
+                    .substituteTokens(tokens));
+        assertEquals("(a)-org.apache", IvyPatternTemplate.compile("(a)-[organization]")
+                .substituteTokens(tokens));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTemplateUnclosedOptionalPart() {
+        IvyPatternTemplate.compile("[organisation]/([module]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTemplateNestedToken() {
+        IvyPatternTemplate.compile("[organisation]/[mod[module]]");
+    }
 }
@@ -18,16 +18,27 @@
 package org.apache.ivy.util.url;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 
+import org.apache.ivy.TestHelper;
+import org.apache.ivy.util.CopyProgressEvent;
+import org.apache.ivy.util.CopyProgressListener;
 import org.apache.ivy.util.FileUtil;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Test BasicURLHandler
@@ -84,6 +95,99 @@ public class BasicURLHandlerTest {
             new File(testDir, "nh80-deflate.pdf"));
     }
 
+    @Test
+    public void testDownloadIfModified() throws Exception {
+        InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        String contextRoot = "/testDownloadIfModified";
+        Path repoRoot = new File("test/repositories").toPath();
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+            contextRoot, repoRoot)) {
+            File target = new File(testDir, "downloaded.xml");
+            URL src = new URL("http://localhost:" + serverBindAddr.getPort() + contextRoot
+                    + "/ivysettings.xml");
+            assertTrue(handler.downloadIfModified(src, target, null, null, 0));
+            assertEquals(new File("test/repositories/ivysettings.xml").length(), target.length());
+
+            // the server tells the previous download is up to date
+            target.setLastModified(1000);
+            assertFalse(handler.downloadIfModified(src, target, null, null, 0));
+            assertEquals(1000, target.lastModified());
+        }
+    }
+
+    @Test
+    public void testResumeDownload() throws Exception {
+        File repoRoot = new File(testDir, "repo");
+        File resource = new File(repoRoot, "resource.bin");
+        byte[] content = new byte[300 * 1024];
+        new Random(42).nextBytes(content);
+        repoRoot.mkdirs();
+        Files.write(resource.toPath(), content);
+        InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        String contextRoot = "/testResumeDownload";
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+            contextRoot, repoRoot.toPath())) {
+            File target = new File(testDir, "downloaded.bin");
+            URL src = new URL("http://localhost:" + serverBindAddr.getPort() + contextRoot
+                    + "/resource.bin");
+            interruptDownload(src, target);
+            long partial = target.length();
+            assertTrue(partial > 0 && partial < content.length);
+
+            // only the missing bytes are transferred
+            CountingListener listener = new CountingListener();
+            handler.resumeDownload(src, target, listener, null);
+            assertEquals(content.length - partial, listener.total);
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+            assertFalse(new File(testDir, "downloaded.bin.resume").exists());
+
+            // the whole resource is transferred once it has changed
+            interruptDownload(src, target);
+            new Random(7).nextBytes(content);
+            Files.write(resource.toPath(), content);
+            assertTrue(resource.setLastModified(resource.lastModified() - 10000));
+            listener = new CountingListener();
+            handler.resumeDownload(src, target, listener, null);
+            assertEquals(content.length, listener.total);
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        }
+    }
+
+    private void interruptDownload(URL src, File target) {
+        try {
+            handler.resumeDownload(src, target, new CopyProgressListener() {
+                public void start(CopyProgressEvent evt) {
+                }
+
+                public void progress(CopyProgressEvent evt) {
+                    throw new IllegalStateException("interrupted");
+                }
+
+                public void end(CopyProgressEvent evt) {
+                }
+            }, null);
+            fail("the download should have been interrupted");
+        } catch (IllegalStateException | IOException e) {
+            // expected
+        }
+    }
+
+    private static class CountingListener implements CopyProgressListener {
+        private long total;
+
+        public void start(CopyProgressEvent evt) {
+        }
+
+        public void progress(CopyProgressEvent evt) {
+        }
+
+        public void end(CopyProgressEvent evt) {
+            total = evt.getTotalReadBytes();
+        }
+    }
+
     private void assertDownloadOK(URL url, File file) throws Exception {
         handler.download(url, file, null);
         assertTrue(file.exists());
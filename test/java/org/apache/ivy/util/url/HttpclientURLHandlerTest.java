@@ -20,6 +20,8 @@ package org.apache.ivy.util.url;
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.settings.NamedTimeoutConstraint;
 import org.apache.ivy.core.settings.TimeoutConstraint;
+import org.apache.ivy.util.CopyProgressEvent;
+import org.apache.ivy.util.CopyProgressListener;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.url.URLHandler.URLInfo;
 import org.junit.After;
@@ -39,9 +41,11 @@ import java.util.Random;
 
 import static org.apache.ivy.plugins.resolver.IBiblioResolver.DEFAULT_M2_ROOT;
 import static org.hamcrest.Matchers.endsWith;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Test {@link HttpClientHandler}
@@ -179,6 +183,155 @@ public class HttpclientURLHandlerTest {
         }
     }
 
+    /**
+     * Tests that a resource which hasn't changed since its previous download isn't transferred
+     * again.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testDownloadIfModified() throws Exception {
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost", TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testDownloadIfModified";
+        final Path repoRoot = new File("test/repositories").toPath();
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+                contextRoot, repoRoot)) {
+            final File target = new File(testDir, "downloaded.xml");
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + contextRoot
+                    + "/ivysettings.xml");
+            assertTrue(handler.downloadIfModified(src, target, null, defaultTimeoutConstraint, 0));
+            assertEquals(new File("test/repositories/ivysettings.xml").length(), target.length());
+
+            // the server tells the previous download is up to date
+            target.setLastModified(1000);
+            assertFalse(handler.downloadIfModified(src, target, null, defaultTimeoutConstraint, 0));
+            assertEquals(1000, target.lastModified());
+
+            // without its validators, the previous download can't be revalidated
+            assertTrue(new File(testDir, "downloaded.xml.validators").delete());
+            assertTrue(handler.downloadIfModified(src, target, null, defaultTimeoutConstraint, 0));
+            assertEquals(new File("test/repositories/ivysettings.xml").length(), target.length());
+        }
+    }
+
+    /**
+     * Tests that setting the current values of the configuration, as done when the same settings
+     * are loaded again, doesn't make the handler build a new client.
+     */
+    @Test
+    public void testConfigUnchanged() {
+        final int modCount = HttpClientConfig.INSTANCE.getModCount();
+        HttpClientConfig.INSTANCE.setMaxConnections(HttpClientConfig.DEFAULT_MAX_CONNECTIONS);
+        HttpClientConfig.INSTANCE.setIdleTimeout(HttpClientConfig.INSTANCE.getIdleTimeout());
+        HttpClientConfig.INSTANCE.reset();
+        assertEquals(modCount, HttpClientConfig.INSTANCE.getModCount());
+    }
+
+    /**
+     * Tests that the handler keeps working once the configuration of its connections changes.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testConfigChange() throws Exception {
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost", TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testConfigChange";
+        final Path repoRoot = new File("test/repositories").toPath();
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+                contextRoot, repoRoot)) {
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + contextRoot
+                    + "/ivysettings.xml");
+            assertDownloadOK(src, new File(testDir, "before.xml"));
+
+            HttpClientConfig.INSTANCE.setMaxConnectionsPerRoute(8);
+            HttpClientConfig.INSTANCE.setIdleTimeout(1000);
+            HttpClientConfig.INSTANCE.setConnectionTTL(60000);
+            HttpClientConfig.INSTANCE.setReceiveBufferSize(32768);
+            assertDownloadOK(src, new File(testDir, "after.xml"));
+            assertTrue(handler.isReachable(src));
+        } finally {
+            HttpClientConfig.INSTANCE.reset();
+        }
+    }
+
+    /**
+     * Tests that an interrupted download is resumed with a range request, unless the resource has
+     * changed since.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testResumeDownload() throws Exception {
+        final File repoRoot = new File(testDir, "repo");
+        final File resource = new File(repoRoot, "resource.bin");
+        final byte[] content = new byte[300 * 1024];
+        new Random(42).nextBytes(content);
+        repoRoot.mkdirs();
+        Files.write(resource.toPath(), content);
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testResumeDownload";
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+            contextRoot, repoRoot.toPath())) {
+            final File target = new File(testDir, "downloaded.bin");
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + contextRoot
+                    + "/resource.bin");
+            interruptDownload(src, target);
+            final long partial = target.length();
+            assertTrue(partial > 0 && partial < content.length);
+
+            // only the missing bytes are transferred
+            CountingListener listener = new CountingListener();
+            handler.resumeDownload(src, target, listener, defaultTimeoutConstraint);
+            assertEquals(content.length - partial, listener.total);
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+            assertFalse(new File(testDir, "downloaded.bin.resume").exists());
+
+            // the whole resource is transferred once it has changed
+            interruptDownload(src, target);
+            new Random(7).nextBytes(content);
+            Files.write(resource.toPath(), content);
+            assertTrue(resource.setLastModified(resource.lastModified() - 10000));
+            listener = new CountingListener();
+            handler.resumeDownload(src, target, listener, defaultTimeoutConstraint);
+            assertEquals(content.length, listener.total);
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        }
+    }
+
+    private void interruptDownload(final URL src, final File target) {
+        try {
+            handler.resumeDownload(src, target, new CopyProgressListener() {
+                public void start(final CopyProgressEvent evt) {
+                }
+
+                public void progress(final CopyProgressEvent evt) {
+                    throw new IllegalStateException("interrupted");
+                }
+
+                public void end(final CopyProgressEvent evt) {
+                }
+            }, defaultTimeoutConstraint);
+            fail("the download should have been interrupted");
+        } catch (final IllegalStateException | IOException e) {
+            // expected
+        }
+    }
+
+    private static class CountingListener implements CopyProgressListener {
+        private long total;
+
+        public void start(final CopyProgressEvent evt) {
+        }
+
+        public void progress(final CopyProgressEvent evt) {
+        }
+
+        public void end(final CopyProgressEvent evt) {
+            total = evt.getTotalReadBytes();
+        }
+    }
+
     private void assertDownloadOK(final URL url, final File file) throws Exception {
         handler.download(url, file, null, defaultTimeoutConstraint);
         assertTrue("Content from " + url + " wasn't downloaded to " + file, file.exists());